@@ -0,0 +1,170 @@
+package rocks.metaldetector.butler.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import rocks.metaldetector.butler.config.ButlerCircuitBreakerProperties;
+import rocks.metaldetector.support.exceptions.ExternalServiceException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Stops sending requests to the butler after a number of consecutive failures. While the breaker is open,
+ * calls fail immediately with a {@link ButlerUnavailableException}. After the open duration a single probe
+ * call is let through, its result decides whether the breaker closes again or stays open for another period.
+ * Only errors of the butler or the connection count as failures, not e.g. a missing access token.
+ */
+@Slf4j
+@Component
+public class ButlerCircuitBreaker {
+
+  static final String STATE_METRIC = "butler.circuit.breaker.state";
+  static final String CALLS_METRIC = "butler.circuit.breaker.calls";
+
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private final ButlerCircuitBreakerProperties properties;
+  private final LongSupplier nanoClock;
+  private final Counter successCounter;
+  private final Counter failureCounter;
+  private final Counter rejectedCounter;
+  private State state = State.CLOSED;
+  private int consecutiveFailures;
+  private long openedAt;
+  private boolean probeRunning;
+
+  @Autowired
+  public ButlerCircuitBreaker(ButlerCircuitBreakerProperties properties, MeterRegistry meterRegistry) {
+    this(properties, meterRegistry, System::nanoTime);
+  }
+
+  ButlerCircuitBreaker(ButlerCircuitBreakerProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+    this.properties = properties;
+    this.nanoClock = nanoClock;
+    Gauge.builder(STATE_METRIC, this, circuitBreaker -> circuitBreaker.getState().ordinal())
+        .description("State of the butler circuit breaker (0 closed, 1 open, 2 half open)")
+        .register(meterRegistry);
+    this.successCounter = createCallCounter(meterRegistry, "success");
+    this.failureCounter = createCallCounter(meterRegistry, "failure");
+    this.rejectedCounter = createCallCounter(meterRegistry, "rejected");
+  }
+
+  public <T> T execute(Supplier<T> call) {
+    acquirePermission();
+    try {
+      T result = call.get();
+      onSuccess();
+      return result;
+    }
+    catch (RuntimeException | Error e) {
+      onError(e);
+      throw e;
+    }
+  }
+
+  public void run(Runnable call) {
+    execute(() -> {
+      call.run();
+      return null;
+    });
+  }
+
+  public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+    CompletableFuture<T> response;
+    try {
+      acquirePermission();
+      response = call.get();
+    }
+    catch (ButlerUnavailableException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    catch (RuntimeException e) {
+      onError(e);
+      return CompletableFuture.failedFuture(e);
+    }
+    return response.whenComplete((result, exception) -> {
+      if (exception == null) {
+        onSuccess();
+      }
+      else {
+        onError(exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception);
+      }
+    });
+  }
+
+  public synchronized State getState() {
+    if (state == State.OPEN && isOpenDurationOver()) {
+      return State.HALF_OPEN;
+    }
+    return state;
+  }
+
+  public synchronized int getConsecutiveFailures() {
+    return consecutiveFailures;
+  }
+
+  private synchronized void acquirePermission() {
+    if (state == State.OPEN && isOpenDurationOver()) {
+      state = State.HALF_OPEN;
+      probeRunning = false;
+      log.info("Butler circuit breaker is half open, sending a probe request");
+    }
+    if (state == State.OPEN || (state == State.HALF_OPEN && probeRunning)) {
+      rejectedCounter.increment();
+      throw new ButlerUnavailableException("Circuit breaker is " + state + " after " + consecutiveFailures + " consecutive failures");
+    }
+    if (state == State.HALF_OPEN) {
+      probeRunning = true;
+    }
+  }
+
+  private synchronized void onSuccess() {
+    successCounter.increment();
+    if (state != State.CLOSED) {
+      log.info("Butler circuit breaker closed");
+    }
+    state = State.CLOSED;
+    consecutiveFailures = 0;
+    probeRunning = false;
+  }
+
+  private synchronized void onError(Throwable exception) {
+    probeRunning = false;
+    if (!isFailure(exception)) {
+      return;
+    }
+
+    failureCounter.increment();
+    consecutiveFailures++;
+    if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= properties.getFailureThreshold())) {
+      state = State.OPEN;
+      openedAt = nanoClock.getAsLong();
+      log.warn("Butler circuit breaker opened for {} after {} consecutive failures", properties.getOpenDuration(), consecutiveFailures);
+    }
+  }
+
+  private boolean isOpenDurationOver() {
+    return nanoClock.getAsLong() - openedAt >= properties.getOpenDuration().toNanos();
+  }
+
+  private boolean isFailure(Throwable exception) {
+    return exception instanceof ExternalServiceException || exception instanceof RestClientException || exception instanceof IOException;
+  }
+
+  private Counter createCallCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder(CALLS_METRIC)
+        .description("Calls through the butler circuit breaker")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,28 @@
+package rocks.metaldetector.butler.client;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shows the state of the butler circuit breaker in the health endpoint. An open breaker is reported as
+ * UNKNOWN instead of DOWN: the releases are still answered from the stale cache and the rest of the
+ * application works, so a butler outage must not take the whole application out of service.
+ */
+@Component
+@AllArgsConstructor
+public class ButlerCircuitBreakerHealthIndicator implements HealthIndicator {
+
+  private final ButlerCircuitBreaker circuitBreaker;
+
+  @Override
+  public Health health() {
+    ButlerCircuitBreaker.State state = circuitBreaker.getState();
+    Health.Builder builder = state == ButlerCircuitBreaker.State.OPEN ? Health.unknown() : Health.up();
+    return builder
+        .withDetail("circuitBreaker", state)
+        .withDetail("consecutiveFailures", circuitBreaker.getConsecutiveFailures())
+        .build();
+  }
+}
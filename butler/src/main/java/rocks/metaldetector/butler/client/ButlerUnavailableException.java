@@ -0,0 +1,12 @@
+package rocks.metaldetector.butler.client;
+
+import rocks.metaldetector.support.exceptions.ExternalServiceException;
+
+public class ButlerUnavailableException extends ExternalServiceException {
+
+  private static final long serialVersionUID = 1L;
+
+  public ButlerUnavailableException(String detailMessage) {
+    super(detailMessage);
+  }
+}
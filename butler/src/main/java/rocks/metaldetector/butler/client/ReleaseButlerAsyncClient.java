@@ -0,0 +1,14 @@
+package rocks.metaldetector.butler.client;
+
+import rocks.metaldetector.butler.api.ButlerReleasesRequest;
+import rocks.metaldetector.butler.api.ButlerReleasesResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface ReleaseButlerAsyncClient {
+
+  CompletableFuture<ButlerReleasesResponse> queryAllReleases(ButlerReleasesRequest request);
+
+  CompletableFuture<ButlerReleasesResponse> queryReleases(ButlerReleasesRequest request, String sort);
+
+}
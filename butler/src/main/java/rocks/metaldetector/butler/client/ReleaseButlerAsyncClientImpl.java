@@ -0,0 +1,102 @@
+package rocks.metaldetector.butler.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import rocks.metaldetector.butler.api.ButlerReleasesRequest;
+import rocks.metaldetector.butler.api.ButlerReleasesResponse;
+import rocks.metaldetector.butler.config.ButlerConfig;
+import rocks.metaldetector.butler.config.ButlerOAuth2ClientInterceptor;
+import rocks.metaldetector.support.exceptions.ExternalServiceException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Sends the release queries with a non-blocking http client, so that no thread waits for the butler. The
+ * access token is requested in the calling thread, because it depends on its security context.
+ */
+@Slf4j
+@Service
+@Profile({"default", "preview", "prod"})
+public class ReleaseButlerAsyncClientImpl implements ReleaseButlerAsyncClient {
+
+  private final HttpClient releaseButlerHttpClient;
+  private final ObjectMapper objectMapper;
+  private final ButlerConfig butlerConfig;
+  private final ButlerOAuth2ClientInterceptor butlerOAuth2ClientInterceptor;
+  private final ButlerCircuitBreaker circuitBreaker;
+
+  public ReleaseButlerAsyncClientImpl(@Qualifier("releaseButlerHttpClient") HttpClient releaseButlerHttpClient, ObjectMapper objectMapper,
+                                      ButlerConfig butlerConfig, ButlerOAuth2ClientInterceptor butlerOAuth2ClientInterceptor,
+                                      ButlerCircuitBreaker circuitBreaker) {
+    this.releaseButlerHttpClient = releaseButlerHttpClient;
+    this.objectMapper = objectMapper;
+    this.butlerConfig = butlerConfig;
+    this.butlerOAuth2ClientInterceptor = butlerOAuth2ClientInterceptor;
+    this.circuitBreaker = circuitBreaker;
+  }
+
+  @Override
+  public CompletableFuture<ButlerReleasesResponse> queryAllReleases(ButlerReleasesRequest request) {
+    return post(butlerConfig.getUnpaginatedReleasesUrl(), request);
+  }
+
+  @Override
+  public CompletableFuture<ButlerReleasesResponse> queryReleases(ButlerReleasesRequest request, String sort) {
+    String url = sort != null && !sort.isBlank() ? butlerConfig.getReleasesUrl() + "?" + sort : butlerConfig.getReleasesUrl();
+    return post(url, request);
+  }
+
+  private CompletableFuture<ButlerReleasesResponse> post(String url, ButlerReleasesRequest request) {
+    HttpRequest httpRequest;
+    try {
+      httpRequest = HttpRequest.newBuilder(URI.create(url))
+          .timeout(butlerConfig.getRequestTimeout())
+          .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+          .header(ACCEPT, APPLICATION_JSON_VALUE)
+          .header(AUTHORIZATION, "Bearer " + butlerOAuth2ClientInterceptor.getAccessToken())
+          .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(request)))
+          .build();
+    }
+    catch (IOException | RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    log.debug("POST {}", url);
+    return circuitBreaker.executeAsync(() -> releaseButlerHttpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(this::failOnServerError))
+        .thenApply(response -> handleResponse(request, response));
+  }
+
+  private HttpResponse<byte[]> failOnServerError(HttpResponse<byte[]> response) {
+    if (response.statusCode() >= 500) {
+      throw new ExternalServiceException("Butler is not available (Response code: " + response.statusCode() + ")");
+    }
+    return response;
+  }
+
+  private ButlerReleasesResponse handleResponse(ButlerReleasesRequest request, HttpResponse<byte[]> response) {
+    if (response.statusCode() < 200 || response.statusCode() > 299 || response.body() == null || response.body().length == 0) {
+      throw new ExternalServiceException("Could not get releases for request: '" + request + "' (Response code: " + response.statusCode() + ")");
+    }
+
+    try {
+      return objectMapper.readValue(response.body(), ButlerReleasesResponse.class);
+    }
+    catch (IOException e) {
+      throw new ExternalServiceException("Could not read releases for request: '" + request + "' (" + e.getMessage() + ")");
+    }
+  }
+}
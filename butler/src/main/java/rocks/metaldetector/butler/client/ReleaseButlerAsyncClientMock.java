@@ -0,0 +1,27 @@
+package rocks.metaldetector.butler.client;
+
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import rocks.metaldetector.butler.api.ButlerReleasesRequest;
+import rocks.metaldetector.butler.api.ButlerReleasesResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@Profile("mockmode")
+@AllArgsConstructor
+public class ReleaseButlerAsyncClientMock implements ReleaseButlerAsyncClient {
+
+  private final ReleaseButlerRestClient releaseButlerRestClient;
+
+  @Override
+  public CompletableFuture<ButlerReleasesResponse> queryAllReleases(ButlerReleasesRequest request) {
+    return CompletableFuture.completedFuture(releaseButlerRestClient.queryAllReleases(request));
+  }
+
+  @Override
+  public CompletableFuture<ButlerReleasesResponse> queryReleases(ButlerReleasesRequest request, String sort) {
+    return CompletableFuture.completedFuture(releaseButlerRestClient.queryReleases(request, sort));
+  }
+}
@@ -4,12 +4,20 @@ import rocks.metaldetector.butler.api.ButlerImportJob;
 import rocks.metaldetector.butler.api.ButlerReleasesRequest;
 import rocks.metaldetector.butler.api.ButlerReleasesResponse;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Function;
 
 public interface ReleaseButlerRestClient {
 
   ButlerReleasesResponse queryAllReleases(ButlerReleasesRequest request);
 
+  /**
+   * Queries all releases and hands the unread response body to the given reader, whose result is returned. The
+   * body is closed as soon as the reader returns.
+   */
+  <T> T streamAllReleases(ButlerReleasesRequest request, Function<InputStream, T> bodyReader);
+
   ButlerReleasesResponse queryReleases(ButlerReleasesRequest request, String sort);
 
   void createImportJob();
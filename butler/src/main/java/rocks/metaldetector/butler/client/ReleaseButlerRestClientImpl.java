@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -15,9 +16,12 @@ import rocks.metaldetector.butler.api.ButlerUpdateReleaseStateRequest;
 import rocks.metaldetector.butler.config.ButlerConfig;
 import rocks.metaldetector.support.exceptions.ExternalServiceException;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
+import static org.springframework.http.HttpMethod.POST;
 import static org.springframework.http.HttpMethod.PUT;
 
 @Service
@@ -29,34 +33,58 @@ public class ReleaseButlerRestClientImpl implements ReleaseButlerRestClient {
 
   private final RestTemplate releaseButlerRestTemplate;
   private final ButlerConfig butlerConfig;
+  private final ButlerCircuitBreaker circuitBreaker;
 
   public ReleaseButlerRestClientImpl(@Qualifier("releaseButlerRestTemplate") RestTemplate releaseButlerRestTemplate,
-                                     ButlerConfig butlerConfig) {
+                                     ButlerConfig butlerConfig, ButlerCircuitBreaker circuitBreaker) {
     this.releaseButlerRestTemplate = releaseButlerRestTemplate;
     this.butlerConfig = butlerConfig;
+    this.circuitBreaker = circuitBreaker;
   }
 
   @Override
   public ButlerReleasesResponse queryAllReleases(ButlerReleasesRequest request) {
     HttpEntity<ButlerReleasesRequest> requestEntity = new HttpEntity<>(request);
 
-    ResponseEntity<ButlerReleasesResponse> responseEntity = releaseButlerRestTemplate.postForEntity(
+    ResponseEntity<ButlerReleasesResponse> responseEntity = circuitBreaker.execute(() -> failOnServerError(releaseButlerRestTemplate.postForEntity(
         butlerConfig.getUnpaginatedReleasesUrl(),
         requestEntity,
         ButlerReleasesResponse.class
-    );
+    )));
 
     return handleReleaseResponseEntity(request, responseEntity);
   }
 
+  @Override
+  public <T> T streamAllReleases(ButlerReleasesRequest request, Function<InputStream, T> bodyReader) {
+    StreamedResponse<T> streamedResponse = circuitBreaker.execute(() -> releaseButlerRestTemplate.execute(
+        butlerConfig.getUnpaginatedReleasesUrl(),
+        POST,
+        releaseButlerRestTemplate.httpEntityCallback(new HttpEntity<>(request)),
+        response -> {
+          HttpStatusCode statusCode = response.getStatusCode();
+          if (statusCode.is5xxServerError()) {
+            throw new ExternalServiceException("Butler is not available (Response code: " + statusCode + ")");
+          }
+          return new StreamedResponse<>(statusCode, statusCode.is2xxSuccessful() ? bodyReader.apply(response.getBody()) : null);
+        }
+    ));
+
+    if (!streamedResponse.statusCode().is2xxSuccessful()) {
+      throw new ExternalServiceException("Could not get releases for request: '" + request + "' (Response code: " + streamedResponse.statusCode() + ")");
+    }
+
+    return streamedResponse.body();
+  }
+
   @Override
   public ButlerReleasesResponse queryReleases(ButlerReleasesRequest request, String sort) {
     HttpEntity<ButlerReleasesRequest> requestEntity = new HttpEntity<>(request);
-    ResponseEntity<ButlerReleasesResponse> responseEntity = releaseButlerRestTemplate.postForEntity(
+    ResponseEntity<ButlerReleasesResponse> responseEntity = circuitBreaker.execute(() -> failOnServerError(releaseButlerRestTemplate.postForEntity(
         createReleaseUrlWithParameter(sort),
         requestEntity,
         ButlerReleasesResponse.class
-    );
+    )));
 
     return handleReleaseResponseEntity(request, responseEntity);
   }
@@ -65,6 +93,13 @@ public class ReleaseButlerRestClientImpl implements ReleaseButlerRestClient {
     return sortParam != null && !sortParam.isBlank() ? butlerConfig.getReleasesUrl() + "?" + sortParam : butlerConfig.getReleasesUrl();
   }
 
+  private <T> ResponseEntity<T> failOnServerError(ResponseEntity<T> responseEntity) {
+    if (responseEntity.getStatusCode().is5xxServerError()) {
+      throw new ExternalServiceException("Butler is not available (Response code: " + responseEntity.getStatusCode() + ")");
+    }
+    return responseEntity;
+  }
+
   private ButlerReleasesResponse handleReleaseResponseEntity(ButlerReleasesRequest request, ResponseEntity<ButlerReleasesResponse> responseEntity) {
     ButlerReleasesResponse response = responseEntity.getBody();
 
@@ -78,7 +113,7 @@ public class ReleaseButlerRestClientImpl implements ReleaseButlerRestClient {
 
   @Override
   public void createImportJob() {
-    ResponseEntity<Void> responseEntity = releaseButlerRestTemplate.postForEntity(butlerConfig.getImportUrl(), null, Void.class);
+    ResponseEntity<Void> responseEntity = circuitBreaker.execute(() -> failOnServerError(releaseButlerRestTemplate.postForEntity(butlerConfig.getImportUrl(), null, Void.class)));
     if (!responseEntity.getStatusCode().is2xxSuccessful()) {
       throw new ExternalServiceException("Could not create import job (Response code: " + responseEntity.getStatusCode() + ")");
     }
@@ -86,7 +121,7 @@ public class ReleaseButlerRestClientImpl implements ReleaseButlerRestClient {
 
   @Override
   public void createRetryCoverDownloadJob() {
-    ResponseEntity<Void> responseEntity = releaseButlerRestTemplate.postForEntity(butlerConfig.getRetryCoverDownloadUrl(), null, Void.class);
+    ResponseEntity<Void> responseEntity = circuitBreaker.execute(() -> failOnServerError(releaseButlerRestTemplate.postForEntity(butlerConfig.getRetryCoverDownloadUrl(), null, Void.class)));
     if (!responseEntity.getStatusCode().is2xxSuccessful()) {
       throw new ExternalServiceException("Could not retry cover download (Response code: " + responseEntity.getStatusCode() + ")");
     }
@@ -94,10 +129,10 @@ public class ReleaseButlerRestClientImpl implements ReleaseButlerRestClient {
 
   @Override
   public List<ButlerImportJob> queryImportJobResults() {
-    ResponseEntity<ButlerImportResponse> responseEntity = releaseButlerRestTemplate.getForEntity(
+    ResponseEntity<ButlerImportResponse> responseEntity = circuitBreaker.execute(() -> failOnServerError(releaseButlerRestTemplate.getForEntity(
         butlerConfig.getImportUrl(),
         ButlerImportResponse.class
-    );
+    )));
 
     ButlerImportResponse response = responseEntity.getBody();
     var shouldNotHappen = response == null || !responseEntity.getStatusCode().is2xxSuccessful();
@@ -112,14 +147,17 @@ public class ReleaseButlerRestClientImpl implements ReleaseButlerRestClient {
   public void updateReleaseState(long releaseId, String state) {
     ButlerUpdateReleaseStateRequest request = ButlerUpdateReleaseStateRequest.builder().state(state.toUpperCase()).build();
     HttpEntity<ButlerUpdateReleaseStateRequest> httpEntity = new HttpEntity<>(request);
-    ResponseEntity<Void> responseEntity = releaseButlerRestTemplate.exchange(butlerConfig.getReleasesUrl() + UPDATE_ENDPOINT_PATH_PARAM,
-                                                                             PUT,
-                                                                             httpEntity,
-                                                                             Void.class,
-                                                                             Map.of("releaseId", releaseId));
+    ResponseEntity<Void> responseEntity = circuitBreaker.execute(() -> failOnServerError(releaseButlerRestTemplate.exchange(butlerConfig.getReleasesUrl() + UPDATE_ENDPOINT_PATH_PARAM,
+                                                                                                          PUT,
+                                                                                                          httpEntity,
+                                                                                                          Void.class,
+                                                                                                          Map.of("releaseId", releaseId))));
     var shouldNotHappen = !responseEntity.getStatusCode().is2xxSuccessful();
     if (shouldNotHappen) {
       throw new ExternalServiceException("Could not update release state (Response code: " + responseEntity.getStatusCode() + ")");
     }
   }
+
+  private record StreamedResponse<T>(HttpStatusCode statusCode, T body) {
+  }
 }
@@ -12,11 +12,13 @@ import rocks.metaldetector.butler.api.ButlerReleasesRequest;
 import rocks.metaldetector.butler.api.ButlerReleasesResponse;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -34,6 +36,17 @@ public class ReleaseButlerRestClientMock implements ReleaseButlerRestClient {
     return loadReleasesFromFile();
   }
 
+  @Override
+  public <T> T streamAllReleases(ButlerReleasesRequest request, Function<InputStream, T> bodyReader) {
+    Resource mockResource = resourceLoader.getResource("classpath:mock-releases.json");
+    try (InputStream body = mockResource.getInputStream()) {
+      return bodyReader.apply(body);
+    }
+    catch (IOException ioe) {
+      throw new UncheckedIOException(ioe);
+    }
+  }
+
   @Override
   public ButlerReleasesResponse queryReleases(ButlerReleasesRequest request, String sort) {
     return loadReleasesFromFile();
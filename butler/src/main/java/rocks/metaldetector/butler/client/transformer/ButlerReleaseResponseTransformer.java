@@ -51,7 +51,7 @@ public class ButlerReleaseResponseTransformer {
         .build();
   }
 
-  private String transformCoverUrl(String coverUrl) {
+  String transformCoverUrl(String coverUrl) {
     if (coverUrl != null && coverUrl.startsWith("/rest/v")) {
       return butlerConfig.getHost().concat(coverUrl);
     }
@@ -0,0 +1,146 @@
+package rocks.metaldetector.butler.client.transformer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto.ReleaseDtoBuilder;
+import rocks.metaldetector.support.EnumPrettyPrinter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Decodes the releases of a butler response directly from the JSON token stream into {@link ReleaseDto}s, one
+ * release at a time. Unlike {@link ButlerReleaseResponseTransformer} no intermediate response object is built,
+ * so a response with the whole catalog never exists twice on the heap. The pagination of the response is skipped.
+ */
+@Service
+@AllArgsConstructor
+public class ButlerReleaseStreamTransformer {
+
+  private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+  private final ObjectMapper objectMapper;
+  private final EnumPrettyPrinter enumPrettyPrinter;
+  private final ButlerReleaseResponseTransformer releaseResponseTransformer;
+
+  /**
+   * Returns a lazy stream of the releases in the response body. The stream must be consumed while the body is
+   * open and should be closed afterwards, which also closes the body.
+   */
+  public Stream<ReleaseDto> transformToStream(InputStream body) {
+    try {
+      JsonParser parser = objectMapper.createParser(body);
+      Iterator<ReleaseDto> releases = moveToReleases(parser) ? new ReleaseIterator(parser) : Collections.emptyIterator();
+      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(releases, Spliterator.ORDERED | Spliterator.NONNULL), false)
+          .onClose(() -> close(parser));
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private boolean moveToReleases(JsonParser parser) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      return false;
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if ("releases".equals(fieldName)) {
+        return value == JsonToken.START_ARRAY;
+      }
+      parser.skipChildren();
+    }
+    return false;
+  }
+
+  private ReleaseDto readRelease(JsonParser parser) throws IOException {
+    ReleaseDtoBuilder release = ReleaseDto.builder();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.currentName();
+      parser.nextToken();
+      switch (fieldName) {
+        case "id" -> release.id(parser.getValueAsLong());
+        case "artist" -> release.artist(parser.getValueAsString());
+        case "additionalArtists" -> release.additionalArtists(parser.readValueAs(STRING_LIST));
+        case "albumTitle" -> release.albumTitle(parser.getValueAsString());
+        case "releaseDate" -> release.releaseDate(parser.readValueAs(LocalDate.class));
+        case "announcementDate" -> release.announcementDate(parser.readValueAs(LocalDate.class));
+        case "estimatedReleaseDate" -> release.estimatedReleaseDate(parser.getValueAsString());
+        case "genre" -> release.genre(parser.getValueAsString());
+        case "type" -> release.type(enumPrettyPrinter.prettyPrintEnumValue(parser.getValueAsString()));
+        case "artistDetailsUrl" -> release.artistDetailsUrl(parser.getValueAsString());
+        case "releaseDetailsUrl" -> release.releaseDetailsUrl(parser.getValueAsString());
+        case "source" -> release.source(enumPrettyPrinter.prettyPrintEnumValue(parser.getValueAsString()));
+        case "state" -> release.state(enumPrettyPrinter.prettyPrintEnumValue(parser.getValueAsString()));
+        case "coverUrl" -> release.coverUrl(releaseResponseTransformer.transformCoverUrl(parser.getValueAsString()));
+        case "reissue" -> release.reissue(parser.getValueAsBoolean());
+        default -> parser.skipChildren();
+      }
+    }
+    return release.build();
+  }
+
+  private void close(JsonParser parser) {
+    try {
+      parser.close();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private class ReleaseIterator implements Iterator<ReleaseDto> {
+
+    private final JsonParser parser;
+    private ReleaseDto next;
+    private boolean finished;
+
+    private ReleaseIterator(JsonParser parser) {
+      this.parser = parser;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next == null && !finished) {
+        try {
+          if (parser.nextToken() == JsonToken.START_OBJECT) {
+            next = readRelease(parser);
+          }
+          else {
+            finished = true;
+          }
+        }
+        catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public ReleaseDto next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      ReleaseDto release = next;
+      next = null;
+      return release;
+    }
+  }
+}
@@ -19,7 +19,14 @@ public class ButlerSortTransformer {
     if (sort == null) {
       return null;
     }
-    String sortParam = String.format("sort=%s,%s", FIELD_MAPPING.getOrDefault(sort.getField(), sort.getField()), sort.getDirection());
+    String sortParam = String.format("sort=%s,%s", transformField(sort.getField()), sort.getDirection());
     return sortParam.concat(DEFAULT_SORTING);
   }
+
+  /**
+   * Returns the field of the butler, by which the releases are sorted for the given field of a {@link DetectorSort}.
+   */
+  public static String transformField(String field) {
+    return FIELD_MAPPING.getOrDefault(field, field);
+  }
 }
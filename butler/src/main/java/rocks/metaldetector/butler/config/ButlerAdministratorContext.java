@@ -0,0 +1,50 @@
+package rocks.metaldetector.butler.config;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.function.Supplier;
+
+import static org.springframework.security.core.authority.AuthorityUtils.createAuthorityList;
+import static rocks.metaldetector.butler.config.ButlerOAuth2ClientInterceptor.ADMINISTRATOR_AUTHORITY;
+
+/**
+ * Runs scheduled calls to the butler as administrator. Scheduler threads have no authentication, so that the
+ * {@link ButlerOAuth2ClientInterceptor} could not choose an access token, and some endpoints like the import
+ * jobs require the administrator token anyway.
+ */
+public final class ButlerAdministratorContext {
+
+  static final UsernamePasswordAuthenticationToken PRINCIPAL = UsernamePasswordAuthenticationToken.authenticated(
+      "butler-scheduler", null, createAuthorityList(ADMINISTRATOR_AUTHORITY));
+
+  private ButlerAdministratorContext() {
+  }
+
+  /**
+   * Runs the task with the administrator principal and restores the previous security context afterwards.
+   */
+  public static void runAsAdministrator(Runnable task) {
+    callAsAdministrator(() -> {
+      task.run();
+      return null;
+    });
+  }
+
+  /**
+   * Calls the task with the administrator principal and restores the previous security context afterwards.
+   */
+  public static <T> T callAsAdministrator(Supplier<T> task) {
+    SecurityContext previousContext = SecurityContextHolder.getContext();
+    SecurityContext administratorContext = SecurityContextHolder.createEmptyContext();
+    administratorContext.setAuthentication(PRINCIPAL);
+    SecurityContextHolder.setContext(administratorContext);
+    try {
+      return task.get();
+    }
+    finally {
+      SecurityContextHolder.setContext(previousContext);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package rocks.metaldetector.butler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@PropertySource(value = "classpath:application.yml")
+@ConfigurationProperties(prefix = "metal-release-butler.circuit-breaker")
+@Data
+public class ButlerCircuitBreakerProperties {
+
+  private int failureThreshold = 5;
+  private Duration openDuration = Duration.ofSeconds(30);
+
+}
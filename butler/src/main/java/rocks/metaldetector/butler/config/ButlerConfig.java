@@ -5,6 +5,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @PropertySource(value = "classpath:application.yml")
 @ConfigurationProperties(prefix = "metal-release-butler")
@@ -16,5 +18,8 @@ public class ButlerConfig {
   private String unpaginatedReleasesUrl;
   private String importUrl;
   private String retryCoverDownloadUrl;
+  private Duration connectTimeout = Duration.ofSeconds(5);
+  private Duration requestTimeout = Duration.ofSeconds(30);
+  private int asyncThreads = 4;
 
 }
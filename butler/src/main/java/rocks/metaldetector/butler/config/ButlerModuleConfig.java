@@ -7,13 +7,16 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.client.RestTemplate;
 import rocks.metaldetector.support.DefaultRequestLoggingInterceptor;
 import rocks.metaldetector.support.PostHeaderInterceptor;
 import rocks.metaldetector.support.infrastructure.CustomClientErrorHandler;
 import rocks.metaldetector.support.oauth.OAuth2AccessTokenClient;
 
+import java.net.http.HttpClient;
 import java.util.List;
+import java.util.concurrent.Executors;
 
 import static org.springframework.security.oauth2.core.AuthorizationGrantType.CLIENT_CREDENTIALS;
 
@@ -26,18 +29,34 @@ public class ButlerModuleConfig {
   private final HttpComponentsClientHttpRequestFactory clientHttpRequestFactory;
 
   @Bean
-  public RestTemplate releaseButlerRestTemplate(RestTemplateBuilder restTemplateBuilder,
-                                                OAuth2AccessTokenClient userAccessTokenClient,
-                                                OAuth2AccessTokenClient adminAccessTokenClient) {
+  public ButlerOAuth2ClientInterceptor butlerOAuth2ClientInterceptor(OAuth2AccessTokenClient userAccessTokenClient,
+                                                                     OAuth2AccessTokenClient adminAccessTokenClient) {
     userAccessTokenClient.setRegistrationId("metal-release-butler-user");
     userAccessTokenClient.setAuthorizationGrantType(CLIENT_CREDENTIALS);
     adminAccessTokenClient.setRegistrationId("metal-release-butler-admin");
     adminAccessTokenClient.setAuthorizationGrantType(CLIENT_CREDENTIALS);
+    return new ButlerOAuth2ClientInterceptor(userAccessTokenClient, adminAccessTokenClient);
+  }
+
+  @Bean
+  public RestTemplate releaseButlerRestTemplate(RestTemplateBuilder restTemplateBuilder, ButlerOAuth2ClientInterceptor butlerOAuth2ClientInterceptor) {
     return restTemplateBuilder
         .requestFactory(() -> clientHttpRequestFactory)
         .errorHandler(new CustomClientErrorHandler())
-        .interceptors(new ButlerOAuth2ClientInterceptor(userAccessTokenClient, adminAccessTokenClient), new DefaultRequestLoggingInterceptor(), new PostHeaderInterceptor())
+        .interceptors(butlerOAuth2ClientInterceptor, new DefaultRequestLoggingInterceptor(), new PostHeaderInterceptor())
         .messageConverters(List.of(jackson2HttpMessageConverter, stringHttpMessageConverter))
         .build();
   }
+
+  /**
+   * Non-blocking client for the asynchronous release queries with its own connection pool and a small pool of
+   * threads that complete the responses.
+   */
+  @Bean
+  public HttpClient releaseButlerHttpClient(ButlerConfig butlerConfig) {
+    return HttpClient.newBuilder()
+        .connectTimeout(butlerConfig.getConnectTimeout())
+        .executor(Executors.newFixedThreadPool(butlerConfig.getAsyncThreads(), new CustomizableThreadFactory("butler-http-")))
+        .build();
+  }
 }
@@ -30,20 +30,25 @@ public class ButlerOAuth2ClientInterceptor implements ClientHttpRequestIntercept
 
   @Override
   public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+    request.getHeaders().setBearerAuth(getAccessToken());
+    return execution.execute(request, body);
+  }
+
+  /**
+   * Returns the access token for the authorities of the current authentication.
+   */
+  public String getAccessToken() {
     Authentication currentAuthentication = SecurityContextHolder.getContext().getAuthentication();
     Set<String> grantedAuthorities = currentAuthentication.getAuthorities().stream()
         .map(GrantedAuthority::getAuthority)
         .collect(Collectors.toSet());
-    String accessTokenValue;
     if (grantedAuthorities.contains(ADMINISTRATOR_AUTHORITY)) {
-      accessTokenValue = adminTokenClient.getAccessToken();
+      return adminTokenClient.getAccessToken();
     }
     else if (grantedAuthorities.contains(USER_AUTHORITY) || grantedAuthorities.contains(ANONYMOUS_AUTHORITY)) {
-      accessTokenValue = userTokenClient.getAccessToken();
+      return userTokenClient.getAccessToken();
     } else {
       throw new AccessDeniedException("No authorities present for principal '" + currentAuthentication.getName() + "'");
     }
-    request.getHeaders().setBearerAuth(accessTokenValue);
-    return execution.execute(request, body);
   }
 }
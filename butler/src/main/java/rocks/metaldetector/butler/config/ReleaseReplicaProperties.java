@@ -0,0 +1,21 @@
+package rocks.metaldetector.butler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@PropertySource(value = "classpath:application.yml")
+@ConfigurationProperties(prefix = "metal-release-butler.replica")
+@Data
+public class ReleaseReplicaProperties {
+
+  private boolean enabled = false;
+  private Duration maxAge = Duration.ofMinutes(15);
+  private Duration fullSyncInterval = Duration.ofDays(1);
+  private Duration incrementalLookback = Duration.ofDays(30);
+
+}
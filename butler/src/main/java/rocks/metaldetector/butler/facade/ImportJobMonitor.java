@@ -0,0 +1,58 @@
+package rocks.metaldetector.butler.facade;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import rocks.metaldetector.butler.api.ButlerImportJob;
+import rocks.metaldetector.butler.client.ReleaseButlerRestClient;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import static java.util.Comparator.naturalOrder;
+import static rocks.metaldetector.butler.config.ButlerAdministratorContext.callAsAdministrator;
+
+/**
+ * Polls the import jobs of the butler and publishes a {@link ReleasesImportedEvent} whenever a job finished
+ * after the last poll. The first poll only remembers the latest end time. The import jobs are queried as
+ * administrator, the scheduler thread has no authentication of its own.
+ */
+@Slf4j
+@Component
+public class ImportJobMonitor {
+
+  private final ReleaseButlerRestClient butlerClient;
+  private final ApplicationEventPublisher applicationEventPublisher;
+  private LocalDateTime lastImportEndTime; // only accessed by the scheduler thread
+  private boolean initialized; // only accessed by the scheduler thread
+
+  public ImportJobMonitor(ReleaseButlerRestClient butlerClient, ApplicationEventPublisher applicationEventPublisher) {
+    this.butlerClient = butlerClient;
+    this.applicationEventPublisher = applicationEventPublisher;
+  }
+
+  @Scheduled(fixedDelayString = "${metal-release-butler.import-poll-interval:PT5M}", initialDelayString = "${metal-release-butler.import-poll-interval:PT5M}")
+  public void pollImportJobs() {
+    LocalDateTime latestImportEndTime;
+    try {
+      latestImportEndTime = callAsAdministrator(butlerClient::queryImportJobResults).stream()
+          .map(ButlerImportJob::getEndTime)
+          .filter(Objects::nonNull)
+          .max(naturalOrder())
+          .orElse(null);
+    }
+    catch (Exception e) {
+      log.warn("Could not query the import jobs of the butler: {}", e.getMessage());
+      return;
+    }
+
+    if (initialized && latestImportEndTime != null && (lastImportEndTime == null || latestImportEndTime.isAfter(lastImportEndTime))) {
+      applicationEventPublisher.publishEvent(new ReleasesImportedEvent(this, latestImportEndTime));
+    }
+    if (latestImportEndTime != null) {
+      lastImportEndTime = latestImportEndTime;
+    }
+    initialized = true;
+  }
+}
@@ -0,0 +1,157 @@
+package rocks.metaldetector.butler.facade;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import rocks.metaldetector.butler.api.ButlerReleasesRequest;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.support.Page;
+import rocks.metaldetector.support.exceptions.ExternalServiceException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Caches the release pages that had to be queried from the butler. The key is the SHA-256 hash of the
+ * sorted artists, the time range, the query, the page and the sort, so that the order of the followed artists
+ * does not matter. Size, time to live and statistics of the caches are configured in the ehcache.xml. The
+ * cache is cleared whenever a release state is changed or the butler finished an import.
+ * <p>
+ * Unpaged queries for all releases are not cached, since a single result can hold every release of hundreds
+ * of artists and the entry count of the cache would not bound its memory.
+ * <p>
+ * Every result is also kept in a stale cache with a much longer time to live, which is not cleared. If the
+ * butler cannot be reached, the last known result is returned from there instead of an error. Stale pages are
+ * marked with {@link Page#isStale()}.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class ReleaseQueryCache implements ApplicationListener<ReleasesImportedEvent> {
+
+  public static final String RELEASE_PAGES_CACHE = "releasePages";
+  public static final String STALE_RELEASE_PAGES_CACHE = "staleReleasePages";
+
+  private final CacheManager cacheManager;
+
+  public Page<ReleaseDto> getPage(ButlerReleasesRequest request, String sort, Supplier<Page<ReleaseDto>> loader) {
+    return get(RELEASE_PAGES_CACHE, STALE_RELEASE_PAGES_CACHE, createKey(request, sort), loader, Page::asStale);
+  }
+
+  public CompletableFuture<Page<ReleaseDto>> getPageAsync(ButlerReleasesRequest request, String sort, Supplier<CompletableFuture<Page<ReleaseDto>>> loader) {
+    return getAsync(RELEASE_PAGES_CACHE, STALE_RELEASE_PAGES_CACHE, createKey(request, sort), loader, Page::asStale);
+  }
+
+  public void evictAll() {
+    Cache cache = cacheManager.getCache(RELEASE_PAGES_CACHE);
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+
+  @Override
+  public void onApplicationEvent(ReleasesImportedEvent event) {
+    log.info("Releases imported at {}, clearing the release query cache", event.getImportEndTime());
+    evictAll();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T get(String cacheName, String staleCacheName, String key, Supplier<T> loader, UnaryOperator<T> markStale) {
+    Cache cache = cacheManager.getCache(cacheName);
+    if (cache != null) {
+      Cache.ValueWrapper valueWrapper = cache.get(key);
+      if (valueWrapper != null) {
+        return (T) valueWrapper.get();
+      }
+    }
+
+    T value;
+    try {
+      value = loader.get();
+    }
+    catch (ExternalServiceException e) {
+      return getStale(staleCacheName, key, markStale).orElseThrow(() -> e);
+    }
+    put(cache, staleCacheName, key, value);
+    return value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> CompletableFuture<T> getAsync(String cacheName, String staleCacheName, String key, Supplier<CompletableFuture<T>> loader,
+                                            UnaryOperator<T> markStale) {
+    Cache cache = cacheManager.getCache(cacheName);
+    if (cache != null) {
+      Cache.ValueWrapper valueWrapper = cache.get(key);
+      if (valueWrapper != null) {
+        return CompletableFuture.completedFuture((T) valueWrapper.get());
+      }
+    }
+
+    return loader.get().handle((value, exception) -> {
+      if (exception == null) {
+        put(cache, staleCacheName, key, value);
+        return value;
+      }
+      Throwable cause = exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception;
+      if (cause instanceof ExternalServiceException externalServiceException) {
+        return getStale(staleCacheName, key, markStale).orElseThrow(() -> externalServiceException);
+      }
+      throw exception instanceof CompletionException completionException ? completionException : new CompletionException(exception);
+    });
+  }
+
+  private <T> void put(Cache cache, String staleCacheName, String key, T value) {
+    if (value == null) {
+      return;
+    }
+    if (cache != null) {
+      cache.put(key, value);
+    }
+    Cache staleCache = cacheManager.getCache(staleCacheName);
+    if (staleCache != null) {
+      staleCache.put(key, value);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Optional<T> getStale(String staleCacheName, String key, UnaryOperator<T> markStale) {
+    Cache staleCache = cacheManager.getCache(staleCacheName);
+    Cache.ValueWrapper valueWrapper = staleCache == null ? null : staleCache.get(key);
+    if (valueWrapper == null || valueWrapper.get() == null) {
+      return Optional.empty();
+    }
+    log.warn("Butler is not available, answering with a stale result from the '{}' cache", staleCacheName);
+    return Optional.of(markStale.apply((T) valueWrapper.get()));
+  }
+
+  static String createKey(ButlerReleasesRequest request, String sort) {
+    String artists = request.getArtists() == null ? "" : StreamSupport.stream(request.getArtists().spliterator(), false)
+        .filter(Objects::nonNull)
+        .distinct()
+        .sorted()
+        .collect(Collectors.joining("\u001f"));
+    String canonicalRequest = String.join("\u001e", artists, String.valueOf(request.getDateFrom()), String.valueOf(request.getDateTo()),
+                                          String.valueOf(request.getQuery()), String.valueOf(request.getPage()),
+                                          String.valueOf(request.getSize()), String.valueOf(sort));
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
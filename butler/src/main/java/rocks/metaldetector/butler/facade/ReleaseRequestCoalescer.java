@@ -0,0 +1,106 @@
+package rocks.metaldetector.butler.facade;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical requests to the butler share one upstream call. The first caller of a key sends the
+ * request, all callers that arrive with the same key while it is in flight wait for its response or exception.
+ * Nothing is kept after the call completed, caching is left to the {@link ReleaseQueryCache}.
+ */
+@Component
+public class ReleaseRequestCoalescer {
+
+  static final String REQUESTS_METRIC = "butler.release.requests";
+
+  private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final Counter upstreamCounter;
+  private final Counter coalescedCounter;
+
+  public ReleaseRequestCoalescer(MeterRegistry meterRegistry) {
+    this.upstreamCounter = Counter.builder(REQUESTS_METRIC)
+        .description("Release requests to the butler")
+        .tag("result", "upstream")
+        .register(meterRegistry);
+    this.coalescedCounter = Counter.builder(REQUESTS_METRIC)
+        .description("Release requests to the butler")
+        .tag("result", "coalesced")
+        .register(meterRegistry);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T execute(Object key, Supplier<T> request) {
+    CompletableFuture<Object> call = new CompletableFuture<>();
+    CompletableFuture<Object> runningCall = inFlight.putIfAbsent(key, call);
+    if (runningCall != null) {
+      coalescedCounter.increment();
+      return (T) join(runningCall);
+    }
+
+    upstreamCounter.increment();
+    try {
+      T response = request.get();
+      call.complete(response);
+      return response;
+    }
+    catch (RuntimeException | Error e) {
+      call.completeExceptionally(e);
+      throw e;
+    }
+    finally {
+      inFlight.remove(key, call);
+    }
+  }
+
+  /**
+   * Same as {@link #execute(Object, Supplier)} for asynchronous requests, callers of a running request get a
+   * dependent future of the running call.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<T> executeAsync(Object key, Supplier<CompletableFuture<T>> request) {
+    CompletableFuture<Object> call = new CompletableFuture<>();
+    CompletableFuture<Object> runningCall = inFlight.putIfAbsent(key, call);
+    if (runningCall != null) {
+      coalescedCounter.increment();
+      return runningCall.thenApply(response -> (T) response);
+    }
+
+    upstreamCounter.increment();
+    CompletableFuture<T> response;
+    try {
+      response = request.get();
+    }
+    catch (RuntimeException e) {
+      response = CompletableFuture.failedFuture(e);
+    }
+    response.whenComplete((result, exception) -> {
+      inFlight.remove(key, call);
+      if (exception != null) {
+        call.completeExceptionally(exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception);
+      }
+      else {
+        call.complete(result);
+      }
+    });
+    return call.thenApply(result -> (T) result);
+  }
+
+  private Object join(CompletableFuture<Object> call) {
+    try {
+      return call.join();
+    }
+    catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -1,17 +1,40 @@
 package rocks.metaldetector.butler.facade;
 
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.support.DetectorSort;
 import rocks.metaldetector.support.Page;
 import rocks.metaldetector.support.PageRequest;
 import rocks.metaldetector.support.TimeRange;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public interface ReleaseService {
 
   Page<ReleaseDto> findReleases(Iterable<String> artists, TimeRange timeRange, String query, PageRequest pageRequest);
 
+  /**
+   * Same as {@link #findReleases(Iterable, TimeRange, String, PageRequest)} without blocking the calling thread
+   * while the butler is queried.
+   */
+  CompletableFuture<Page<ReleaseDto>> findReleasesAsync(Iterable<String> artists, TimeRange timeRange, String query, PageRequest pageRequest);
+
   List<ReleaseDto> findAllReleases(Iterable<String> artists, TimeRange timeRange);
 
+  /**
+   * Hands all releases as a lazy stream to the given reader and returns its result. The releases are decoded
+   * while the reader consumes the stream, so the stream must not be used after the reader returned.
+   */
+  <T> T streamAllReleases(Iterable<String> artists, TimeRange timeRange, Function<Stream<ReleaseDto>, T> releaseReader);
+
+  /**
+   * Returns at most 'limit' releases in the given order with a single request sized to the limit.
+   */
+  List<ReleaseDto> findTopReleases(Iterable<String> artists, TimeRange timeRange, DetectorSort sort, int limit);
+
+  CompletableFuture<List<ReleaseDto>> findTopReleasesAsync(Iterable<String> artists, TimeRange timeRange, DetectorSort sort, int limit);
+
   void updateReleaseState(long releaseId, String state);
 }
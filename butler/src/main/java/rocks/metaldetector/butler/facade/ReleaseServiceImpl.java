@@ -4,43 +4,126 @@ import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import rocks.metaldetector.butler.api.ButlerReleasesRequest;
 import rocks.metaldetector.butler.api.ButlerReleasesResponse;
+import rocks.metaldetector.butler.client.ReleaseButlerAsyncClient;
 import rocks.metaldetector.butler.client.ReleaseButlerRestClient;
 import rocks.metaldetector.butler.client.transformer.ButlerReleaseRequestTransformer;
 import rocks.metaldetector.butler.client.transformer.ButlerReleaseResponseTransformer;
+import rocks.metaldetector.butler.client.transformer.ButlerReleaseStreamTransformer;
 import rocks.metaldetector.butler.client.transformer.ButlerSortTransformer;
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.butler.replica.ReleaseReplica;
+import rocks.metaldetector.support.DetectorSort;
 import rocks.metaldetector.support.Page;
 import rocks.metaldetector.support.PageRequest;
 import rocks.metaldetector.support.TimeRange;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class ReleaseServiceImpl implements ReleaseService {
 
   private final ReleaseButlerRestClient butlerClient;
+  private final ReleaseButlerAsyncClient asyncButlerClient;
   private final ButlerReleaseRequestTransformer queryRequestTransformer;
   private final ButlerSortTransformer sortTransformer;
   private final ButlerReleaseResponseTransformer queryResponseTransformer;
+  private final ButlerReleaseStreamTransformer streamTransformer;
+  private final ReleaseReplica releaseReplica;
+  private final ReleaseQueryCache releaseQueryCache;
+  private final ReleaseRequestCoalescer requestCoalescer;
 
   @Override
   public List<ReleaseDto> findAllReleases(Iterable<String> artists, TimeRange timeRange) {
     ButlerReleasesRequest request = queryRequestTransformer.transform(artists, timeRange, null, null);
-    ButlerReleasesResponse response = butlerClient.queryAllReleases(request);
-    return queryResponseTransformer.transformToList(response);
+    Optional<ButlerReleasesResponse> replicaResponse = releaseReplica.queryAllReleases(request);
+    if (replicaResponse.isPresent()) {
+      return queryResponseTransformer.transformToList(replicaResponse.get());
+    }
+    return requestCoalescer.execute(new ButlerRequestKey(request, null, true), () -> readAllReleases(request, releases -> releases.collect(Collectors.toList())));
+  }
+
+  @Override
+  public <T> T streamAllReleases(Iterable<String> artists, TimeRange timeRange, Function<Stream<ReleaseDto>, T> releaseReader) {
+    ButlerReleasesRequest request = queryRequestTransformer.transform(artists, timeRange, null, null);
+    Optional<ButlerReleasesResponse> replicaResponse = releaseReplica.queryAllReleases(request);
+    if (replicaResponse.isPresent()) {
+      return releaseReader.apply(queryResponseTransformer.transformToList(replicaResponse.get()).stream());
+    }
+    return readAllReleases(request, releaseReader);
   }
 
   @Override
   public Page<ReleaseDto> findReleases(Iterable<String> artists, TimeRange timeRange, String query, PageRequest pageRequest) {
     ButlerReleasesRequest request = queryRequestTransformer.transform(artists, timeRange, query, pageRequest);
-    String sortString = sortTransformer.transform(pageRequest.getSort());
-    ButlerReleasesResponse response = butlerClient.queryReleases(request, sortString);
-    return queryResponseTransformer.transformToPage(response);
+    Optional<ButlerReleasesResponse> replicaResponse = releaseReplica.queryReleases(request, pageRequest.getSort());
+    if (replicaResponse.isPresent()) {
+      return queryResponseTransformer.transformToPage(replicaResponse.get());
+    }
+    String sort = sortTransformer.transform(pageRequest.getSort());
+    return releaseQueryCache.getPage(request, sort, () -> {
+      ButlerReleasesResponse response = requestCoalescer.execute(new ButlerRequestKey(request, sort, false), () -> butlerClient.queryReleases(request, sort));
+      return queryResponseTransformer.transformToPage(response);
+    });
+  }
+
+  @Override
+  public CompletableFuture<Page<ReleaseDto>> findReleasesAsync(Iterable<String> artists, TimeRange timeRange, String query, PageRequest pageRequest) {
+    ButlerReleasesRequest request = queryRequestTransformer.transform(artists, timeRange, query, pageRequest);
+    Optional<ButlerReleasesResponse> replicaResponse = releaseReplica.queryReleases(request, pageRequest.getSort());
+    if (replicaResponse.isPresent()) {
+      return CompletableFuture.completedFuture(queryResponseTransformer.transformToPage(replicaResponse.get()));
+    }
+    String sort = sortTransformer.transform(pageRequest.getSort());
+    return releaseQueryCache.getPageAsync(request, sort, () -> requestCoalescer
+        .executeAsync(new ButlerRequestKey(request, sort, false), () -> asyncButlerClient.queryReleases(request, sort))
+        .thenApply(queryResponseTransformer::transformToPage));
+  }
+
+  @Override
+  public List<ReleaseDto> findTopReleases(Iterable<String> artists, TimeRange timeRange, DetectorSort sort, int limit) {
+    if (limit < 1) {
+      return Collections.emptyList();
+    }
+
+    return limit(findReleases(artists, timeRange, null, new PageRequest(1, limit, sort)).getItems(), limit);
+  }
+
+  @Override
+  public CompletableFuture<List<ReleaseDto>> findTopReleasesAsync(Iterable<String> artists, TimeRange timeRange, DetectorSort sort, int limit) {
+    if (limit < 1) {
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+
+    return findReleasesAsync(artists, timeRange, null, new PageRequest(1, limit, sort))
+        .thenApply(releasePage -> limit(releasePage.getItems(), limit));
   }
 
   @Override
   public void updateReleaseState(long releaseId, String state) {
     butlerClient.updateReleaseState(releaseId, state);
+    releaseReplica.updateReleaseState(releaseId, state);
+    releaseQueryCache.evictAll();
+  }
+
+  private <T> T readAllReleases(ButlerReleasesRequest request, Function<Stream<ReleaseDto>, T> releaseReader) {
+    return butlerClient.streamAllReleases(request, body -> {
+      try (Stream<ReleaseDto> releases = streamTransformer.transformToStream(body)) {
+        return releaseReader.apply(releases);
+      }
+    });
+  }
+
+  private List<ReleaseDto> limit(List<ReleaseDto> releases, int limit) {
+    return releases.size() > limit ? releases.subList(0, limit) : releases;
+  }
+
+  private record ButlerRequestKey(ButlerReleasesRequest request, String sort, boolean unpaginated) {
   }
 }
@@ -0,0 +1,17 @@
+package rocks.metaldetector.butler.facade;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class ReleasesImportedEvent extends ApplicationEvent {
+
+  private final LocalDateTime importEndTime;
+
+  public ReleasesImportedEvent(Object source, LocalDateTime importEndTime) {
+    super(source);
+    this.importEndTime = importEndTime;
+  }
+}
@@ -0,0 +1,183 @@
+package rocks.metaldetector.butler.replica;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import rocks.metaldetector.butler.api.ButlerImportJob;
+import rocks.metaldetector.butler.api.ButlerPagination;
+import rocks.metaldetector.butler.api.ButlerRelease;
+import rocks.metaldetector.butler.api.ButlerReleasesRequest;
+import rocks.metaldetector.butler.api.ButlerReleasesResponse;
+import rocks.metaldetector.butler.client.ReleaseButlerRestClient;
+import rocks.metaldetector.butler.config.ReleaseReplicaProperties;
+import rocks.metaldetector.support.DetectorSort;
+import rocks.metaldetector.support.TimeRange;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsLast;
+import static rocks.metaldetector.butler.client.transformer.ButlerSortTransformer.transformField;
+import static rocks.metaldetector.butler.config.ButlerAdministratorContext.runAsAdministrator;
+
+/**
+ * Optional local replica of the release catalog of the butler. The catalog is synchronized completely at the
+ * start and once per full sync interval. In between, the releases from the incremental lookback on are
+ * synchronized again whenever the butler finished a new import job. Queries are only answered from the replica
+ * if it was verified against the butler within the max age and if the replica can answer them exactly (no
+ * full text query, known sort field), otherwise they have to be sent to the butler. The sort fields are resolved
+ * like the butler resolves them, the announcement date is sorted by the butler on the creation time of a release,
+ * which the replica does not know. The synchronization runs as administrator, because the import jobs are only
+ * available with the administrator token.
+ */
+@Slf4j
+@Component
+public class ReleaseReplica {
+
+  static final Comparator<String> TEXT_ORDER = nullsLast(String.CASE_INSENSITIVE_ORDER);
+  static final Comparator<ButlerRelease> DEFAULT_ORDER = Comparator.comparing(ButlerRelease::getArtist, TEXT_ORDER)
+      .thenComparing(ButlerRelease::getAlbumTitle, TEXT_ORDER);
+  static final Comparator<ButlerRelease> RELEASE_DATE_ORDER = Comparator.comparing(ButlerRelease::getReleaseDate, nullsLast(naturalOrder()));
+  static final Map<String, Comparator<ButlerRelease>> SORT_FIELDS = Map.of(
+      "releaseDate", RELEASE_DATE_ORDER,
+      "artist", Comparator.comparing(ButlerRelease::getArtist, TEXT_ORDER),
+      "albumTitle", Comparator.comparing(ButlerRelease::getAlbumTitle, TEXT_ORDER)
+  );
+
+  private final ReleaseButlerRestClient butlerClient;
+  private final ReleaseReplicaProperties properties;
+  private volatile ReleaseReplicaIndex index;
+  private volatile LocalDateTime verifiedAt;
+  private LocalDateTime fullSyncAt; // only accessed by the refreshing thread
+  private LocalDateTime lastImportEndTime; // only accessed by the refreshing thread
+
+  public ReleaseReplica(ReleaseButlerRestClient butlerClient, ReleaseReplicaProperties properties) {
+    this.butlerClient = butlerClient;
+    this.properties = properties;
+  }
+
+  @Scheduled(fixedDelayString = "${metal-release-butler.replica.refresh-interval:PT5M}", initialDelayString = "${metal-release-butler.replica.initial-delay:PT10S}")
+  public synchronized void refresh() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+
+    runAsAdministrator(this::synchronize);
+  }
+
+  private void synchronize() {
+    var now = LocalDateTime.now();
+    try {
+      LocalDateTime latestImportEndTime = findLatestImportEndTime();
+      if (index == null || fullSyncAt.plus(properties.getFullSyncInterval()).isBefore(now)) {
+        fullSync(now);
+      }
+      else if (latestImportEndTime != null && (lastImportEndTime == null || latestImportEndTime.isAfter(lastImportEndTime))) {
+        incrementalSync(now.minus(properties.getIncrementalLookback()).toLocalDate());
+      }
+      lastImportEndTime = latestImportEndTime;
+      verifiedAt = now;
+    }
+    catch (Exception e) {
+      log.warn("Could not refresh the release replica: {}", e.getMessage());
+    }
+  }
+
+  public boolean isFresh() {
+    LocalDateTime verified = verifiedAt;
+    return properties.isEnabled() && index != null && verified != null && verified.plus(properties.getMaxAge()).isAfter(LocalDateTime.now());
+  }
+
+  public Optional<ButlerReleasesResponse> queryAllReleases(ButlerReleasesRequest request) {
+    if (!isFresh() || request.getQuery() != null) {
+      return Optional.empty();
+    }
+
+    List<ButlerRelease> releases = find(request);
+    releases.sort(RELEASE_DATE_ORDER.thenComparing(DEFAULT_ORDER));
+    return Optional.of(ButlerReleasesResponse.builder()
+                           .releases(releases)
+                           .pagination(new ButlerPagination(1, releases.size(), 1, releases.size()))
+                           .build());
+  }
+
+  public Optional<ButlerReleasesResponse> queryReleases(ButlerReleasesRequest request, DetectorSort sort) {
+    if (!isFresh() || request.getQuery() != null || request.getPage() < 1 || request.getSize() < 1
+        || (sort != null && !SORT_FIELDS.containsKey(transformField(sort.getField())))) {
+      return Optional.empty();
+    }
+
+    List<ButlerRelease> releases = find(request);
+    releases.sort(createComparator(sort));
+    int fromIndex = Math.min((request.getPage() - 1) * request.getSize(), releases.size());
+    int toIndex = Math.min(fromIndex + request.getSize(), releases.size());
+    int totalPages = (int) Math.ceil((double) releases.size() / request.getSize());
+    return Optional.of(ButlerReleasesResponse.builder()
+                           .releases(List.copyOf(releases.subList(fromIndex, toIndex)))
+                           .pagination(new ButlerPagination(request.getPage(), request.getSize(), totalPages, releases.size()))
+                           .build());
+  }
+
+  /**
+   * Applies a state change that was sent to the butler, so that the replica does not return the old state until
+   * the next synchronization.
+   */
+  public void updateReleaseState(long releaseId, String state) {
+    ReleaseReplicaIndex currentIndex = index;
+    ButlerRelease release = currentIndex != null ? currentIndex.get(releaseId) : null;
+    if (release != null) {
+      release.setState(state.toUpperCase());
+    }
+  }
+
+  private List<ButlerRelease> find(ButlerReleasesRequest request) {
+    TimeRange timeRange = new TimeRange(request.getDateFrom(), request.getDateTo());
+    return index.find(request.getArtists(), timeRange);
+  }
+
+  private Comparator<ButlerRelease> createComparator(DetectorSort sort) {
+    if (sort == null) {
+      return RELEASE_DATE_ORDER.thenComparing(DEFAULT_ORDER);
+    }
+
+    Comparator<ButlerRelease> comparator = SORT_FIELDS.get(transformField(sort.getField()));
+    return (sort.getDirection() == DetectorSort.Direction.DESC ? comparator.reversed() : comparator).thenComparing(DEFAULT_ORDER);
+  }
+
+  private void fullSync(LocalDateTime now) {
+    List<ButlerRelease> releases = queryReleasesFrom(null);
+    index = new ReleaseReplicaIndex(releases);
+    fullSyncAt = now;
+    log.info("Release replica synchronized with {} releases", releases.size());
+  }
+
+  private void incrementalSync(LocalDate from) {
+    List<ButlerRelease> releases = queryReleasesFrom(from);
+    index = index.merge(releases, from);
+    log.info("Release replica updated with {} releases from {} on", releases.size(), from);
+  }
+
+  private List<ButlerRelease> queryReleasesFrom(LocalDate from) {
+    ButlerReleasesRequest request = ButlerReleasesRequest.builder()
+        .artists(Collections.emptyList())
+        .dateFrom(from)
+        .build();
+    ButlerReleasesResponse response = butlerClient.queryAllReleases(request);
+    return response.getReleases() != null ? response.getReleases() : Collections.emptyList();
+  }
+
+  private LocalDateTime findLatestImportEndTime() {
+    return butlerClient.queryImportJobResults().stream()
+        .map(ButlerImportJob::getEndTime)
+        .filter(Objects::nonNull)
+        .max(naturalOrder())
+        .orElse(null);
+  }
+}
@@ -0,0 +1,113 @@
+package rocks.metaldetector.butler.replica;
+
+import rocks.metaldetector.butler.api.ButlerRelease;
+import rocks.metaldetector.support.TimeRange;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of the replicated releases, indexed by release date and by normalized artist name and
+ * release date. Releases without release date are indexed with {@link LocalDate#MIN}, so that they are only
+ * found by queries without start date.
+ */
+class ReleaseReplicaIndex {
+
+  static final ReleaseReplicaIndex EMPTY = new ReleaseReplicaIndex(Collections.emptyList());
+
+  private final Map<Long, ButlerRelease> releasesById = new HashMap<>();
+  private final NavigableMap<LocalDate, List<ButlerRelease>> releasesByDate = new TreeMap<>();
+  private final Map<String, NavigableMap<LocalDate, List<ButlerRelease>>> releasesByArtist = new HashMap<>();
+
+  ReleaseReplicaIndex(Collection<ButlerRelease> releases) {
+    releases.forEach(this::add);
+  }
+
+  /**
+   * Returns a new index that contains the given releases instead of all releases from the given date on.
+   */
+  ReleaseReplicaIndex merge(Collection<ButlerRelease> releases, LocalDate from) {
+    List<ButlerRelease> mergedReleases = new ArrayList<>(releases.size());
+    releasesByDate.headMap(from, false).values().forEach(mergedReleases::addAll);
+    mergedReleases.addAll(releases);
+    return new ReleaseReplicaIndex(mergedReleases);
+  }
+
+  /**
+   * Finds the releases of the given artists in the time range. No artists means releases of all artists.
+   */
+  List<ButlerRelease> find(Iterable<String> artists, TimeRange timeRange) {
+    LocalDate from = timeRange != null && timeRange.getDateFrom() != null ? timeRange.getDateFrom() : LocalDate.MIN;
+    LocalDate to = timeRange != null && timeRange.getDateTo() != null ? timeRange.getDateTo() : LocalDate.MAX;
+    Set<String> artistNames = normalize(artists);
+
+    List<ButlerRelease> releases = new ArrayList<>();
+    if (artistNames.isEmpty()) {
+      releasesByDate.subMap(from, true, to, true).values().forEach(releases::addAll);
+    }
+    else {
+      for (String artistName : artistNames) {
+        NavigableMap<LocalDate, List<ButlerRelease>> releasesOfArtist = releasesByArtist.get(artistName);
+        if (releasesOfArtist != null) {
+          releasesOfArtist.subMap(from, true, to, true).values().forEach(releases::addAll);
+        }
+      }
+    }
+    return releases;
+  }
+
+  ButlerRelease get(long releaseId) {
+    return releasesById.get(releaseId);
+  }
+
+  int size() {
+    return releasesById.size();
+  }
+
+  static String normalize(String artistName) {
+    return artistName.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private void add(ButlerRelease release) {
+    ButlerRelease replacedRelease = releasesById.put(release.getId(), release);
+    if (replacedRelease != null) {
+      remove(replacedRelease);
+    }
+
+    LocalDate releaseDate = release.getReleaseDate() != null ? release.getReleaseDate() : LocalDate.MIN;
+    releasesByDate.computeIfAbsent(releaseDate, date -> new ArrayList<>()).add(release);
+    if (release.getArtist() != null) {
+      releasesByArtist.computeIfAbsent(normalize(release.getArtist()), artist -> new TreeMap<>())
+          .computeIfAbsent(releaseDate, date -> new ArrayList<>())
+          .add(release);
+    }
+  }
+
+  private void remove(ButlerRelease release) {
+    LocalDate releaseDate = release.getReleaseDate() != null ? release.getReleaseDate() : LocalDate.MIN;
+    releasesByDate.getOrDefault(releaseDate, new ArrayList<>()).remove(release);
+    if (release.getArtist() != null) {
+      releasesByArtist.getOrDefault(normalize(release.getArtist()), new TreeMap<>())
+          .getOrDefault(releaseDate, new ArrayList<>())
+          .remove(release);
+    }
+  }
+
+  private Set<String> normalize(Iterable<String> artists) {
+    Set<String> artistNames = new LinkedHashSet<>();
+    if (artists != null) {
+      artists.forEach(artist -> artistNames.add(normalize(artist)));
+    }
+    return artistNames;
+  }
+}
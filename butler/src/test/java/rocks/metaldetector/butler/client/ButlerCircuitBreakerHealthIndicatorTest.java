@@ -0,0 +1,74 @@
+package rocks.metaldetector.butler.client;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+import static rocks.metaldetector.butler.client.ButlerCircuitBreaker.State.CLOSED;
+import static rocks.metaldetector.butler.client.ButlerCircuitBreaker.State.HALF_OPEN;
+import static rocks.metaldetector.butler.client.ButlerCircuitBreaker.State.OPEN;
+
+@ExtendWith(MockitoExtension.class)
+class ButlerCircuitBreakerHealthIndicatorTest implements WithAssertions {
+
+  @Mock
+  private ButlerCircuitBreaker circuitBreaker;
+
+  @InjectMocks
+  private ButlerCircuitBreakerHealthIndicator underTest;
+
+  @AfterEach
+  void tearDown() {
+    reset(circuitBreaker);
+  }
+
+  @Test
+  @DisplayName("Should be up while the circuit breaker is closed")
+  void should_be_up_if_closed() {
+    // given
+    doReturn(CLOSED).when(circuitBreaker).getState();
+
+    // when
+    var health = underTest.health();
+
+    // then
+    assertThat(health.getStatus()).isEqualTo(Status.UP);
+    assertThat(health.getDetails()).containsEntry("circuitBreaker", CLOSED);
+  }
+
+  @Test
+  @DisplayName("Should be up while the circuit breaker is half open")
+  void should_be_up_if_half_open() {
+    // given
+    doReturn(HALF_OPEN).when(circuitBreaker).getState();
+
+    // when
+    var health = underTest.health();
+
+    // then
+    assertThat(health.getStatus()).isEqualTo(Status.UP);
+  }
+
+  @Test
+  @DisplayName("Should be unknown and not down while the circuit breaker is open")
+  void should_be_unknown_if_open() {
+    // given
+    doReturn(OPEN).when(circuitBreaker).getState();
+    doReturn(5).when(circuitBreaker).getConsecutiveFailures();
+
+    // when
+    var health = underTest.health();
+
+    // then
+    assertThat(health.getStatus()).isEqualTo(Status.UNKNOWN);
+    assertThat(health.getDetails()).containsEntry("circuitBreaker", OPEN).containsEntry("consecutiveFailures", 5);
+  }
+}
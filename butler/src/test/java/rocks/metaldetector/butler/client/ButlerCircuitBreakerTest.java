@@ -0,0 +1,228 @@
+package rocks.metaldetector.butler.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import rocks.metaldetector.butler.config.ButlerCircuitBreakerProperties;
+import rocks.metaldetector.support.exceptions.ExternalServiceException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static rocks.metaldetector.butler.client.ButlerCircuitBreaker.CALLS_METRIC;
+import static rocks.metaldetector.butler.client.ButlerCircuitBreaker.STATE_METRIC;
+import static rocks.metaldetector.butler.client.ButlerCircuitBreaker.State.CLOSED;
+import static rocks.metaldetector.butler.client.ButlerCircuitBreaker.State.HALF_OPEN;
+import static rocks.metaldetector.butler.client.ButlerCircuitBreaker.State.OPEN;
+
+class ButlerCircuitBreakerTest implements WithAssertions {
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final AtomicInteger calls = new AtomicInteger();
+  private SimpleMeterRegistry meterRegistry;
+  private ButlerCircuitBreaker underTest;
+
+  @BeforeEach
+  void setup() {
+    nanoTime.set(0);
+    calls.set(0);
+    ButlerCircuitBreakerProperties properties = new ButlerCircuitBreakerProperties();
+    properties.setFailureThreshold(2);
+    properties.setOpenDuration(Duration.ofSeconds(30));
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new ButlerCircuitBreaker(properties, meterRegistry, nanoTime::get);
+  }
+
+  @Nested
+  @DisplayName("Tests for the synchronous calls")
+  class ExecuteTest {
+
+    @Test
+    @DisplayName("Should return the result of the call")
+    void should_return_result() {
+      // when
+      var result = underTest.execute(() -> "result");
+
+      // then
+      assertThat(result).isEqualTo("result");
+      assertThat(underTest.getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should open after the configured number of consecutive failures")
+    void should_open_after_failures() {
+      // when
+      failCall();
+      failCall();
+
+      // then
+      assertThat(underTest.getState()).isEqualTo(OPEN);
+      assertThat(underTest.getConsecutiveFailures()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reset the failures after a successful call")
+    void should_reset_failures() {
+      // given
+      failCall();
+
+      // when
+      underTest.execute(() -> "result");
+      failCall();
+
+      // then
+      assertThat(underTest.getState()).isEqualTo(CLOSED);
+      assertThat(underTest.getConsecutiveFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not count exceptions that are not caused by the butler")
+    void should_ignore_other_exceptions() {
+      // when
+      for (int i = 0; i < 3; i++) {
+        catchThrowable(() -> underTest.execute(() -> {
+          throw new IllegalArgumentException();
+        }));
+      }
+
+      // then
+      assertThat(underTest.getState()).isEqualTo(CLOSED);
+      assertThat(underTest.getConsecutiveFailures()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject calls without executing them while open")
+    void should_reject_while_open() {
+      // given
+      failCall();
+      failCall();
+
+      // when
+      Throwable throwable = catchThrowable(() -> underTest.execute(this::count));
+
+      // then
+      assertThat(throwable).isInstanceOf(ButlerUnavailableException.class);
+      assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should let a probe through after the open duration and close if it succeeds")
+    void should_close_after_successful_probe() {
+      // given
+      failCall();
+      failCall();
+      nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+
+      // when
+      var state = underTest.getState();
+      underTest.execute(this::count);
+
+      // then
+      assertThat(state).isEqualTo(HALF_OPEN);
+      assertThat(calls).hasValue(1);
+      assertThat(underTest.getState()).isEqualTo(CLOSED);
+      assertThat(underTest.getConsecutiveFailures()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should open again for the whole duration if the probe fails")
+    void should_open_after_failed_probe() {
+      // given
+      failCall();
+      failCall();
+      nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+
+      // when
+      failCall();
+      nanoTime.addAndGet(Duration.ofSeconds(29).toNanos());
+
+      // then
+      assertThat(underTest.getState()).isEqualTo(OPEN);
+      assertThat(catchThrowable(() -> underTest.execute(this::count))).isInstanceOf(ButlerUnavailableException.class);
+    }
+
+    @Test
+    @DisplayName("Should count the calls and publish the state")
+    void should_publish_metrics() {
+      // given
+      underTest.execute(this::count);
+      failCall();
+      failCall();
+
+      // when
+      catchThrowable(() -> underTest.execute(this::count));
+
+      // then
+      assertThat(meterRegistry.get(CALLS_METRIC).tag("result", "success").counter().count()).isEqualTo(1);
+      assertThat(meterRegistry.get(CALLS_METRIC).tag("result", "failure").counter().count()).isEqualTo(2);
+      assertThat(meterRegistry.get(CALLS_METRIC).tag("result", "rejected").counter().count()).isEqualTo(1);
+      assertThat(meterRegistry.get(STATE_METRIC).gauge().value()).isEqualTo(OPEN.ordinal());
+    }
+
+    private Integer count() {
+      return calls.incrementAndGet();
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for the asynchronous calls")
+  class ExecuteAsyncTest {
+
+    @Test
+    @DisplayName("Should count a failed future as failure")
+    void should_count_failed_future() {
+      // when
+      var result = underTest.executeAsync(() -> CompletableFuture.supplyAsync(() -> {
+        throw new ExternalServiceException("error");
+      }));
+
+      // then
+      assertThat(catchThrowable(result::join)).hasCauseInstanceOf(ExternalServiceException.class);
+      assertThat(underTest.getConsecutiveFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should return a failed future without calling while open")
+    void should_reject_while_open() {
+      // given
+      failCall();
+      failCall();
+
+      // when
+      var result = underTest.executeAsync(() -> CompletableFuture.completedFuture(calls.incrementAndGet()));
+
+      // then
+      assertThat(result).isCompletedExceptionally();
+      assertThat(catchThrowable(result::join)).hasCauseInstanceOf(ButlerUnavailableException.class);
+      assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should close after a successful asynchronous probe")
+    void should_close_after_successful_probe() {
+      // given
+      failCall();
+      failCall();
+      nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+
+      // when
+      var result = underTest.executeAsync(() -> CompletableFuture.completedFuture("result"));
+
+      // then
+      assertThat(result).isCompletedWithValue("result");
+      assertThat(underTest.getState()).isEqualTo(CLOSED);
+    }
+  }
+
+  private void failCall() {
+    catchThrowable(() -> underTest.execute(() -> {
+      throw new ResourceAccessException("connection refused");
+    }));
+  }
+}
@@ -0,0 +1,171 @@
+package rocks.metaldetector.butler.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import rocks.metaldetector.butler.ButlerDtoFactory.ButlerReleaseRequestFactory;
+import rocks.metaldetector.butler.ButlerDtoFactory.ButlerReleasesResponseFactory;
+import rocks.metaldetector.butler.api.ButlerReleasesResponse;
+import rocks.metaldetector.butler.config.ButlerCircuitBreakerProperties;
+import rocks.metaldetector.butler.config.ButlerConfig;
+import rocks.metaldetector.butler.config.ButlerOAuth2ClientInterceptor;
+import rocks.metaldetector.support.exceptions.ExternalServiceException;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+@ExtendWith(MockitoExtension.class)
+class ReleaseButlerAsyncClientImplTest implements WithAssertions {
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  @Mock
+  private HttpClient httpClient;
+
+  @Mock
+  private ButlerConfig butlerConfig;
+
+  @Mock
+  private ButlerOAuth2ClientInterceptor butlerOAuth2ClientInterceptor;
+
+  private ButlerCircuitBreakerProperties circuitBreakerProperties;
+  private ReleaseButlerAsyncClientImpl underTest;
+
+  @BeforeEach
+  void setup() {
+    circuitBreakerProperties = new ButlerCircuitBreakerProperties();
+    underTest = new ReleaseButlerAsyncClientImpl(httpClient, objectMapper, butlerConfig, butlerOAuth2ClientInterceptor,
+                                                 new ButlerCircuitBreaker(circuitBreakerProperties, new SimpleMeterRegistry()));
+    lenient().doReturn("http://butler/releases").when(butlerConfig).getReleasesUrl();
+    lenient().doReturn("http://butler/releases/unpaginated").when(butlerConfig).getUnpaginatedReleasesUrl();
+    lenient().doReturn(Duration.ofSeconds(30)).when(butlerConfig).getRequestTimeout();
+    lenient().doReturn("token").when(butlerOAuth2ClientInterceptor).getAccessToken();
+  }
+
+  @AfterEach
+  void tearDown() {
+    reset(httpClient, butlerConfig, butlerOAuth2ClientInterceptor);
+  }
+
+  @Test
+  @DisplayName("A POST call with the access token is sent to the releases url with the sorting")
+  void test_post_on_releases_url() throws Exception {
+    // given
+    ArgumentCaptor<HttpRequest> argumentCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+    mockResponse(200, objectMapper.writeValueAsBytes(ButlerReleasesResponseFactory.createDefault()));
+
+    // when
+    underTest.queryReleases(ButlerReleaseRequestFactory.createDefault(), "sort=release_date,asc").join();
+
+    // then
+    verify(httpClient).sendAsync(argumentCaptor.capture(), any());
+    HttpRequest request = argumentCaptor.getValue();
+    assertThat(request.method()).isEqualTo("POST");
+    assertThat(request.uri()).hasToString("http://butler/releases?sort=release_date,asc");
+    assertThat(request.headers().firstValue(AUTHORIZATION)).hasValue("Bearer token");
+  }
+
+  @Test
+  @DisplayName("A POST call is sent to the unpaginated releases url")
+  void test_post_on_unpaginated_releases_url() throws Exception {
+    // given
+    ArgumentCaptor<HttpRequest> argumentCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+    mockResponse(200, objectMapper.writeValueAsBytes(ButlerReleasesResponseFactory.createDefault()));
+
+    // when
+    underTest.queryAllReleases(ButlerReleaseRequestFactory.createDefault()).join();
+
+    // then
+    verify(httpClient).sendAsync(argumentCaptor.capture(), any());
+    assertThat(argumentCaptor.getValue().uri()).hasToString("http://butler/releases/unpaginated");
+  }
+
+  @Test
+  @DisplayName("The response body is read into the butler response")
+  void test_response_is_returned() throws Exception {
+    // given
+    ButlerReleasesResponse expectedResponse = ButlerReleasesResponseFactory.createDefault();
+    mockResponse(200, objectMapper.writeValueAsBytes(expectedResponse));
+
+    // when
+    var result = underTest.queryReleases(ButlerReleaseRequestFactory.createDefault(), null).join();
+
+    // then
+    assertThat(result).isEqualTo(expectedResponse);
+  }
+
+  @Test
+  @DisplayName("The future completes with an ExternalServiceException if the status is not successful")
+  void test_exception_on_error_status() {
+    // given
+    mockResponse(503, new byte[0]);
+
+    // when
+    var result = underTest.queryReleases(ButlerReleaseRequestFactory.createDefault(), null);
+
+    // then
+    assertThat(catchThrowable(result::join)).hasCauseInstanceOf(ExternalServiceException.class);
+  }
+
+  @Test
+  @DisplayName("The future completes exceptionally without a request if no access token is available")
+  void test_exception_without_token() {
+    // given
+    doThrow(new AccessDeniedException("no authorities")).when(butlerOAuth2ClientInterceptor).getAccessToken();
+
+    // when
+    var result = underTest.queryReleases(ButlerReleaseRequestFactory.createDefault(), null);
+
+    // then
+    assertThat(result).isCompletedExceptionally();
+    verifyNoInteractions(httpClient);
+  }
+
+  @Test
+  @DisplayName("No request is sent after the circuit breaker opened because of server errors")
+  void test_no_request_if_circuit_breaker_open() {
+    // given
+    circuitBreakerProperties.setFailureThreshold(2);
+    mockResponse(503, new byte[0]);
+    underTest.queryReleases(ButlerReleaseRequestFactory.createDefault(), null);
+    underTest.queryReleases(ButlerReleaseRequestFactory.createDefault(), null);
+
+    // when
+    var result = underTest.queryReleases(ButlerReleaseRequestFactory.createDefault(), null);
+
+    // then
+    assertThat(catchThrowable(result::join)).hasCauseInstanceOf(ButlerUnavailableException.class);
+    verify(httpClient, times(2)).sendAsync(any(), any());
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mockResponse(int status, byte[] body) {
+    HttpResponse<byte[]> response = mock(HttpResponse.class);
+    lenient().doReturn(status).when(response).statusCode();
+    lenient().doReturn(body).when(response).body();
+    doReturn(CompletableFuture.completedFuture(response)).when(httpClient).sendAsync(any(), any());
+  }
+}
@@ -1,5 +1,6 @@
 package rocks.metaldetector.butler.client;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.WithAssertions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +19,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import rocks.metaldetector.butler.ButlerDtoFactory.ButlerReleasesResponseFactory;
 import rocks.metaldetector.butler.api.ButlerImportJob;
@@ -25,20 +28,30 @@ import rocks.metaldetector.butler.api.ButlerImportResponse;
 import rocks.metaldetector.butler.api.ButlerReleasesRequest;
 import rocks.metaldetector.butler.api.ButlerReleasesResponse;
 import rocks.metaldetector.butler.api.ButlerUpdateReleaseStateRequest;
+import rocks.metaldetector.butler.config.ButlerCircuitBreakerProperties;
 import rocks.metaldetector.butler.config.ButlerConfig;
 import rocks.metaldetector.support.exceptions.ExternalServiceException;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.http.HttpMethod.POST;
 import static org.springframework.http.HttpMethod.PUT;
 import static rocks.metaldetector.butler.ButlerDtoFactory.ButlerImportResponseFactory;
 import static rocks.metaldetector.butler.client.ReleaseButlerRestClientImpl.UPDATE_ENDPOINT_PATH_PARAM;
@@ -52,6 +65,8 @@ class ReleaseButlerRestClientImplTest implements WithAssertions {
   @Mock
   private ButlerConfig butlerConfig;
 
+  private ButlerCircuitBreakerProperties circuitBreakerProperties;
+  private ButlerCircuitBreaker circuitBreaker;
   private ReleaseButlerRestClientImpl underTest;
 
   @Captor
@@ -62,7 +77,9 @@ class ReleaseButlerRestClientImplTest implements WithAssertions {
 
   @BeforeEach
   void setup() {
-    underTest = new ReleaseButlerRestClientImpl(restTemplate, butlerConfig);
+    circuitBreakerProperties = new ButlerCircuitBreakerProperties();
+    circuitBreaker = new ButlerCircuitBreaker(circuitBreakerProperties, new SimpleMeterRegistry());
+    underTest = new ReleaseButlerRestClientImpl(restTemplate, butlerConfig, circuitBreaker);
   }
 
   @AfterEach
@@ -77,7 +94,7 @@ class ReleaseButlerRestClientImplTest implements WithAssertions {
 
     @Test
     @DisplayName("A POST call is made on the injected releases URL")
-    void test_post_on_releases_url() {
+    void test_post_on_releases_url() throws IOException {
       // given
       var butlerUrl = "releases-url";
       doReturn(butlerUrl).when(butlerConfig).getUnpaginatedReleasesUrl();
@@ -164,6 +181,83 @@ class ReleaseButlerRestClientImplTest implements WithAssertions {
     }
   }
 
+  @DisplayName("Test of stream all releases")
+  @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+  @Nested
+  class StreamAllReleasesTest {
+
+    @Test
+    @DisplayName("A POST call is made on the injected releases URL")
+    void test_post_on_releases_url() throws IOException {
+      // given
+      doReturn("releases-url").when(butlerConfig).getUnpaginatedReleasesUrl();
+      mockResponse(HttpStatus.OK, new ByteArrayInputStream(new byte[0]));
+
+      // when
+      underTest.streamAllReleases(new ButlerReleasesRequest(), body -> body);
+
+      // then
+      verify(restTemplate).execute(eq("releases-url"), eq(POST), any(), any());
+    }
+
+    @Test
+    @DisplayName("The response body is handed to the body reader")
+    void test_body_reader_called() throws IOException {
+      // given
+      doReturn("releases-url").when(butlerConfig).getUnpaginatedReleasesUrl();
+      InputStream body = new ByteArrayInputStream(new byte[0]);
+      mockResponse(HttpStatus.OK, body);
+
+      // when
+      InputStream result = underTest.streamAllReleases(new ButlerReleasesRequest(), stream -> stream);
+
+      // then
+      assertThat(result).isSameAs(body);
+    }
+
+    @ParameterizedTest(name = "If the status is {0}, an ExternalServiceException is thrown")
+    @MethodSource("httpStatusCodeProvider")
+    @DisplayName("An ExternalServiceException is thrown if the response is not successful")
+    void test_exception_on_error_status(HttpStatus httpStatus) throws IOException {
+      // given
+      doReturn("releases-url").when(butlerConfig).getUnpaginatedReleasesUrl();
+      mockResponse(httpStatus, null);
+
+      // when
+      Throwable throwable = catchThrowable(() -> underTest.streamAllReleases(new ButlerReleasesRequest(), body -> body));
+
+      // then
+      assertThat(throwable).isInstanceOf(ExternalServiceException.class);
+    }
+
+    @Test
+    @DisplayName("The body reader is not called if the response is not successful")
+    void test_body_reader_not_called_on_error_status() throws IOException {
+      // given
+      doReturn("releases-url").when(butlerConfig).getUnpaginatedReleasesUrl();
+      mockResponse(HttpStatus.NOT_FOUND, null);
+      Function<InputStream, InputStream> bodyReader = mock();
+
+      // when
+      catchThrowable(() -> underTest.streamAllReleases(new ButlerReleasesRequest(), bodyReader));
+
+      // then
+      verifyNoInteractions(bodyReader);
+    }
+
+    private void mockResponse(HttpStatus httpStatus, InputStream body) throws IOException {
+      ClientHttpResponse response = mock(ClientHttpResponse.class);
+      doReturn(httpStatus).when(response).getStatusCode();
+      lenient().doReturn(body).when(response).getBody();
+      doAnswer(invocation -> invocation.<ResponseExtractor<?>>getArgument(3).extractData(response))
+          .when(restTemplate).execute(anyString(), any(), any(), any(ResponseExtractor.class));
+    }
+
+    private Stream<Arguments> httpStatusCodeProvider() {
+      return Stream.of(HttpStatus.values()).filter(status -> !status.is2xxSuccessful()).map(Arguments::of);
+    }
+  }
+
   @DisplayName("Test of query releases (with pagination)")
   @TestInstance(TestInstance.Lifecycle.PER_CLASS)
   @Nested
@@ -171,7 +265,7 @@ class ReleaseButlerRestClientImplTest implements WithAssertions {
 
     @Test
     @DisplayName("A POST call is made on the injected releases URL")
-    void test_post_on_releases_url() {
+    void test_post_on_releases_url() throws IOException {
       // given
       var butlerUrl = "releases-url";
       doReturn(butlerUrl).when(butlerConfig).getReleasesUrl();
@@ -557,4 +651,94 @@ class ReleaseButlerRestClientImplTest implements WithAssertions {
       return Stream.of(HttpStatus.values()).filter(status -> !status.is2xxSuccessful()).map(Arguments::of);
     }
   }
+
+  @Nested
+  @DisplayName("Tests for the circuit breaker")
+  class CircuitBreakerTest {
+
+    @Test
+    @DisplayName("A server error counts as a failure of the butler")
+    void test_server_error_is_failure() {
+      // given
+      doReturn("releases-url").when(butlerConfig).getReleasesUrl();
+      doReturn(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()).when(restTemplate).postForEntity(anyString(), any(), any());
+
+      // when
+      Throwable throwable = catchThrowable(() -> underTest.queryReleases(new ButlerReleasesRequest(), null));
+
+      // then
+      assertThat(throwable).isInstanceOf(ExternalServiceException.class);
+      assertThat(circuitBreaker.getConsecutiveFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A client error does not count as a failure of the butler")
+    void test_client_error_is_no_failure() {
+      // given
+      doReturn("releases-url").when(butlerConfig).getReleasesUrl();
+      doReturn(ResponseEntity.status(HttpStatus.BAD_REQUEST).build()).when(restTemplate).postForEntity(anyString(), any(), any());
+
+      // when
+      Throwable throwable = catchThrowable(() -> underTest.queryReleases(new ButlerReleasesRequest(), null));
+
+      // then
+      assertThat(throwable).isInstanceOf(ExternalServiceException.class);
+      assertThat(circuitBreaker.getConsecutiveFailures()).isZero();
+    }
+
+    @Test
+    @DisplayName("A server error of the release stream counts as a failure of the butler")
+    void test_stream_server_error_is_failure() throws IOException {
+      // given
+      doReturn("releases-url").when(butlerConfig).getUnpaginatedReleasesUrl();
+      mockStreamResponse(HttpStatus.SERVICE_UNAVAILABLE);
+
+      // when
+      Throwable throwable = catchThrowable(() -> underTest.streamAllReleases(new ButlerReleasesRequest(), body -> body));
+
+      // then
+      assertThat(throwable).isInstanceOf(ExternalServiceException.class);
+      assertThat(circuitBreaker.getConsecutiveFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A client error of the release stream does not count as a failure of the butler")
+    void test_stream_client_error_is_no_failure() throws IOException {
+      // given
+      doReturn("releases-url").when(butlerConfig).getUnpaginatedReleasesUrl();
+      mockStreamResponse(HttpStatus.BAD_REQUEST);
+
+      // when
+      Throwable throwable = catchThrowable(() -> underTest.streamAllReleases(new ButlerReleasesRequest(), body -> body));
+
+      // then
+      assertThat(throwable).isInstanceOf(ExternalServiceException.class);
+      assertThat(circuitBreaker.getConsecutiveFailures()).isZero();
+    }
+
+    @Test
+    @DisplayName("No request is sent while the circuit breaker is open")
+    void test_no_request_if_open() {
+      // given
+      circuitBreakerProperties.setFailureThreshold(1);
+      doReturn(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()).when(restTemplate).postForEntity(anyString(), any(), any());
+      doReturn("import-url").when(butlerConfig).getImportUrl();
+      catchThrowable(() -> underTest.createImportJob());
+      reset(restTemplate);
+
+      // when
+      Throwable throwable = catchThrowable(() -> underTest.createImportJob());
+
+      // then
+      assertThat(throwable).isInstanceOf(ButlerUnavailableException.class);
+      verifyNoInteractions(restTemplate);
+    }
+
+    private void mockStreamResponse(HttpStatus httpStatus) throws IOException {
+      ClientHttpResponse response = mock(ClientHttpResponse.class);
+      doReturn(httpStatus).when(response).getStatusCode();
+      doAnswer(invocation -> invocation.<ResponseExtractor<?>>getArgument(3).extractData(response))
+          .when(restTemplate).execute(anyString(), any(), any(), any(ResponseExtractor.class));
+    }
+  }
 }
@@ -17,11 +17,15 @@ import rocks.metaldetector.butler.ButlerDtoFactory.ButlerReleasesResponseFactory
 import rocks.metaldetector.butler.api.ButlerImportJob;
 import rocks.metaldetector.butler.api.ButlerReleasesResponse;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -82,6 +86,29 @@ class ReleaseButlerRestClientMockTest implements WithAssertions {
     );
   }
 
+  @Test
+  @DisplayName("Should hand the mock releases file to the body reader")
+  void should_stream_mock_releases() {
+    // given
+    when(resourceLoader.getResource(anyString())).thenReturn(new ClassPathResource("mock-releases.json"));
+
+    // when
+    String body = underTest.streamAllReleases(null, inputStream -> new String(readAllBytes(inputStream), UTF_8));
+
+    // then
+    verify(resourceLoader).getResource("classpath:mock-releases.json");
+    assertThat(body).contains("\"releases\"");
+  }
+
+  private byte[] readAllBytes(InputStream inputStream) {
+    try {
+      return inputStream.readAllBytes();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   @Test
   @DisplayName("Should do nothing on create import job")
   void should_do_nothing_on_create_import_job() {
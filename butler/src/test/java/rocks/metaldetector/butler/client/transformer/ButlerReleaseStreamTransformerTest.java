@@ -0,0 +1,138 @@
+package rocks.metaldetector.butler.client.transformer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import rocks.metaldetector.butler.ButlerDtoFactory.ButlerReleaseFactory;
+import rocks.metaldetector.butler.api.ButlerPagination;
+import rocks.metaldetector.butler.api.ButlerRelease;
+import rocks.metaldetector.butler.api.ButlerReleasesResponse;
+import rocks.metaldetector.butler.config.ButlerConfig;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.support.EnumPrettyPrinter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class ButlerReleaseStreamTransformerTest implements WithAssertions {
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  private ButlerReleaseResponseTransformer releaseResponseTransformer;
+  private ButlerReleaseStreamTransformer underTest;
+
+  @BeforeEach
+  void setup() {
+    ButlerConfig butlerConfig = new ButlerConfig();
+    butlerConfig.setHost("http://butler");
+    releaseResponseTransformer = new ButlerReleaseResponseTransformer(new EnumPrettyPrinter(), butlerConfig);
+    underTest = new ButlerReleaseStreamTransformer(objectMapper, new EnumPrettyPrinter(), releaseResponseTransformer);
+  }
+
+  @Test
+  @DisplayName("Should decode the same releases as the response transformer")
+  void should_decode_like_response_transformer() throws IOException {
+    // given
+    ButlerRelease coverRelease = ButlerReleaseFactory.createDefault();
+    coverRelease.setId(2L);
+    coverRelease.setCoverUrl("/rest/v1/images/2.jpg");
+    coverRelease.setAdditionalArtists(List.of("B", "C"));
+    coverRelease.setReissue(true);
+    ButlerRelease nullRelease = new ButlerRelease();
+    ButlerReleasesResponse response = new ButlerReleasesResponse(new ButlerPagination(1, 10, 1, 3),
+                                                                 List.of(ButlerReleaseFactory.createDefault(), coverRelease, nullRelease));
+    List<ReleaseDto> expectedReleases = releaseResponseTransformer.transformToList(response);
+
+    // when
+    List<ReleaseDto> releases;
+    try (Stream<ReleaseDto> stream = underTest.transformToStream(new ByteArrayInputStream(objectMapper.writeValueAsBytes(response)))) {
+      releases = stream.toList();
+    }
+
+    // then
+    assertThat(releases).isEqualTo(expectedReleases);
+    assertThat(releases.get(1).getCoverUrl()).isEqualTo("http://butler/rest/v1/images/2.jpg");
+  }
+
+  @Test
+  @DisplayName("Should skip unknown fields and releases placed after other fields")
+  void should_skip_unknown_fields() {
+    // given
+    String json = "{\"unknown\":{\"nested\":[1,2]},\"releases\":[{\"artist\":\"A\",\"metalArchivesArtistUrl\":\"url\",\"type\":\"FULL_LENGTH\"}],"
+                  + "\"pagination\":{\"currentPage\":1}}";
+
+    // when
+    List<ReleaseDto> releases = underTest.transformToStream(toInputStream(json)).toList();
+
+    // then
+    assertThat(releases).containsExactly(ReleaseDto.builder().artist("A").type("Full Length").build());
+  }
+
+  @Test
+  @DisplayName("Should return an empty stream if the response has no releases")
+  void should_return_empty_stream() {
+    // when
+    var result = underTest.transformToStream(toInputStream("{\"pagination\":{},\"releases\":null}"));
+
+    // then
+    assertThat(result).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should decode the releases lazily while the stream is consumed")
+  void should_decode_lazily() {
+    // given
+    String json = "{\"releases\":[{\"artist\":\"A\"},{\"artist\":\"B\"},{\"artist\":";
+
+    // when
+    Stream<ReleaseDto> releases = underTest.transformToStream(toInputStream(json));
+
+    // then
+    assertThat(releases.limit(2).map(ReleaseDto::getArtist)).containsExactly("A", "B");
+  }
+
+  @Test
+  @DisplayName("Should throw an UncheckedIOException if the body is broken")
+  void should_throw_on_broken_body() {
+    // given
+    Stream<ReleaseDto> releases = underTest.transformToStream(toInputStream("{\"releases\":[{\"artist\":"));
+
+    // when
+    var throwable = catchThrowable(releases::toList);
+
+    // then
+    assertThat(throwable).isInstanceOf(UncheckedIOException.class);
+  }
+
+  @Test
+  @DisplayName("Closing the stream closes the body")
+  void should_close_body() {
+    // given
+    AtomicBoolean closed = new AtomicBoolean();
+    InputStream body = new ByteArrayInputStream("{\"releases\":[]}".getBytes(UTF_8)) {
+      @Override
+      public void close() {
+        closed.set(true);
+      }
+    };
+
+    // when
+    underTest.transformToStream(body).close();
+
+    // then
+    assertThat(closed).isTrue();
+  }
+
+  private InputStream toInputStream(String json) {
+    return new ByteArrayInputStream(json.getBytes(UTF_8));
+  }
+}
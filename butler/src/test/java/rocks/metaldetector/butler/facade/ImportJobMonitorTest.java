@@ -0,0 +1,174 @@
+package rocks.metaldetector.butler.facade;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.context.SecurityContextHolder;
+import rocks.metaldetector.butler.ButlerDtoFactory.ButlerImportJobFactory;
+import rocks.metaldetector.butler.api.ButlerImportJob;
+import rocks.metaldetector.butler.client.ReleaseButlerRestClient;
+import rocks.metaldetector.butler.config.ButlerOAuth2ClientInterceptor;
+import rocks.metaldetector.support.oauth.OAuth2AccessTokenClient;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static rocks.metaldetector.butler.facade.ReleaseQueryCache.RELEASE_PAGES_CACHE;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobMonitorTest implements WithAssertions {
+
+  @Mock
+  private ReleaseButlerRestClient butlerClient;
+
+  @Mock
+  private ApplicationEventPublisher applicationEventPublisher;
+
+  private ImportJobMonitor underTest;
+
+  @BeforeEach
+  void setup() {
+    underTest = new ImportJobMonitor(butlerClient, applicationEventPublisher);
+  }
+
+  @AfterEach
+  void tearDown() {
+    reset(butlerClient, applicationEventPublisher);
+  }
+
+  @Test
+  @DisplayName("Should only remember the latest import on the first poll")
+  void should_not_publish_on_first_poll() {
+    // given
+    when(butlerClient.queryImportJobResults()).thenReturn(List.of(ButlerImportJobFactory.createDefault()));
+
+    // when
+    underTest.pollImportJobs();
+
+    // then
+    verifyNoInteractions(applicationEventPublisher);
+  }
+
+  @Test
+  @DisplayName("Should publish an event if an import finished since the last poll")
+  void should_publish_new_import() {
+    // given
+    ButlerImportJob firstImport = ButlerImportJobFactory.createDefault();
+    ButlerImportJob secondImport = ButlerImportJobFactory.createDefault();
+    secondImport.setEndTime(firstImport.getEndTime().plusDays(1));
+    when(butlerClient.queryImportJobResults()).thenReturn(List.of(firstImport), List.of(firstImport, secondImport));
+    ArgumentCaptor<ReleasesImportedEvent> eventCaptor = ArgumentCaptor.forClass(ReleasesImportedEvent.class);
+
+    // when
+    underTest.pollImportJobs();
+    underTest.pollImportJobs();
+
+    // then
+    verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().getImportEndTime()).isEqualTo(secondImport.getEndTime());
+  }
+
+  @Test
+  @DisplayName("Should publish an event for the first import after an empty poll")
+  void should_publish_first_import() {
+    // given
+    when(butlerClient.queryImportJobResults()).thenReturn(List.of(), List.of(ButlerImportJobFactory.createDefault()));
+
+    // when
+    underTest.pollImportJobs();
+    underTest.pollImportJobs();
+
+    // then
+    verify(applicationEventPublisher).publishEvent(any(ReleasesImportedEvent.class));
+  }
+
+  @Test
+  @DisplayName("Should not publish an event if no import finished since the last poll")
+  void should_not_publish_known_import() {
+    // given
+    ButlerImportJob runningImport = ButlerImportJobFactory.createDefault();
+    runningImport.setEndTime(null);
+    when(butlerClient.queryImportJobResults()).thenReturn(List.of(ButlerImportJobFactory.createDefault()),
+                                                          List.of(ButlerImportJobFactory.createDefault(), runningImport));
+
+    // when
+    underTest.pollImportJobs();
+    underTest.pollImportJobs();
+
+    // then
+    verifyNoInteractions(applicationEventPublisher);
+  }
+
+  @Test
+  @DisplayName("Should not publish an event if the butler is not available")
+  void should_ignore_butler_errors() {
+    // given
+    when(butlerClient.queryImportJobResults()).thenReturn(List.of(ButlerImportJobFactory.createDefault()))
+        .thenThrow(new IllegalStateException("unavailable"));
+
+    // when
+    underTest.pollImportJobs();
+    underTest.pollImportJobs();
+
+    // then
+    verifyNoInteractions(applicationEventPublisher);
+  }
+
+  @Test
+  @DisplayName("Should clear the release query cache after an import although the scheduler thread has no authentication")
+  void should_clear_release_query_cache() {
+    // given
+    SecurityContextHolder.clearContext();
+    OAuth2AccessTokenClient userTokenClient = mock(OAuth2AccessTokenClient.class);
+    OAuth2AccessTokenClient adminTokenClient = mock(OAuth2AccessTokenClient.class);
+    var interceptor = new ButlerOAuth2ClientInterceptor(userTokenClient, adminTokenClient);
+    ButlerImportJob firstImport = ButlerImportJobFactory.createDefault();
+    ButlerImportJob secondImport = ButlerImportJobFactory.createDefault();
+    secondImport.setEndTime(firstImport.getEndTime().plusDays(1));
+    when(butlerClient.queryImportJobResults())
+        .thenAnswer(invocation -> queryWithAccessToken(interceptor, List.of(firstImport)))
+        .thenAnswer(invocation -> queryWithAccessToken(interceptor, List.of(firstImport, secondImport)));
+    var contextRunner = new ApplicationContextRunner()
+        .withBean(CacheManager.class, () -> new ConcurrentMapCacheManager(RELEASE_PAGES_CACHE))
+        .withBean(ReleaseButlerRestClient.class, () -> butlerClient)
+        .withBean(ReleaseQueryCache.class)
+        .withBean(ImportJobMonitor.class);
+
+    contextRunner.run(context -> {
+      Cache releasePages = context.getBean(CacheManager.class).getCache(RELEASE_PAGES_CACHE);
+      releasePages.put("key", "page");
+      ImportJobMonitor importJobMonitor = context.getBean(ImportJobMonitor.class);
+
+      // when
+      importJobMonitor.pollImportJobs();
+      importJobMonitor.pollImportJobs();
+
+      // then
+      assertThat(releasePages.get("key")).isNull();
+    });
+    verify(adminTokenClient, times(2)).getAccessToken();
+    verifyNoInteractions(userTokenClient);
+  }
+
+  private List<ButlerImportJob> queryWithAccessToken(ButlerOAuth2ClientInterceptor interceptor, List<ButlerImportJob> importJobs) {
+    interceptor.getAccessToken();
+    return importJobs;
+  }
+}
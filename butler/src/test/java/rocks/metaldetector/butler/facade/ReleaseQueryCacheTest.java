@@ -0,0 +1,317 @@
+package rocks.metaldetector.butler.facade;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import rocks.metaldetector.butler.ButlerDtoFactory.ButlerReleaseRequestFactory;
+import rocks.metaldetector.butler.ButlerDtoFactory.ReleaseDtoFactory;
+import rocks.metaldetector.butler.api.ButlerReleasesRequest;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.support.Page;
+import rocks.metaldetector.support.Pagination;
+import rocks.metaldetector.support.exceptions.ExternalServiceException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static rocks.metaldetector.butler.facade.ReleaseQueryCache.RELEASE_PAGES_CACHE;
+import static rocks.metaldetector.butler.facade.ReleaseQueryCache.STALE_RELEASE_PAGES_CACHE;
+
+class ReleaseQueryCacheTest implements WithAssertions {
+
+  private final AtomicInteger loads = new AtomicInteger();
+  private CacheManager cacheManager;
+  private ReleaseQueryCache underTest;
+
+  @BeforeEach
+  void setup() {
+    loads.set(0);
+    cacheManager = new ConcurrentMapCacheManager(RELEASE_PAGES_CACHE, STALE_RELEASE_PAGES_CACHE);
+    underTest = new ReleaseQueryCache(cacheManager);
+  }
+
+  @Nested
+  @DisplayName("Tests for the cached queries")
+  class CachedQueryTest {
+
+    @Test
+    @DisplayName("Should load a page only once")
+    void should_load_page_once() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+
+      // when
+      underTest.getPage(request, "sort", this::loadPage);
+      underTest.getPage(request, "sort", this::loadPage);
+
+      // then
+      assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should load pages with a different sort separately")
+    void should_load_different_sort() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+
+      // when
+      underTest.getPage(request, "release_date,asc", this::loadPage);
+      underTest.getPage(request, "release_date,desc", this::loadPage);
+
+      // then
+      assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should cache the result of an asynchronous page query once it completed")
+    void should_load_async_page_once() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      Page<ReleaseDto> page = loadPage();
+
+      // when
+      var first = underTest.getPageAsync(request, "sort", () -> CompletableFuture.completedFuture(page));
+      var second = underTest.getPageAsync(request, "sort", () -> CompletableFuture.completedFuture(loadPage()));
+
+      // then
+      assertThat(first).isCompletedWithValue(page);
+      assertThat(second).isCompletedWithValue(page);
+      assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache a failed asynchronous page query")
+    void should_not_cache_failed_async_page() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+
+      // when
+      var first = underTest.getPageAsync(request, "sort", () -> CompletableFuture.failedFuture(new IllegalStateException()));
+      var second = underTest.getPageAsync(request, "sort", () -> CompletableFuture.completedFuture(loadPage()));
+
+      // then
+      assertThat(first).isCompletedExceptionally();
+      assertThat(second).isCompleted();
+      assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should load the query if the cache does not exist")
+    void should_load_without_cache() {
+      // given
+      underTest = new ReleaseQueryCache(new ConcurrentMapCacheManager("otherCache"));
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+
+      // when
+      underTest.getPage(request, null, this::loadPage);
+      underTest.getPage(request, null, this::loadPage);
+
+      // then
+      assertThat(loads).hasValue(2);
+    }
+
+    private Page<ReleaseDto> loadPage() {
+      loads.incrementAndGet();
+      return new Page<>(List.of(ReleaseDtoFactory.createDefault()), new Pagination());
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for the invalidation")
+  class InvalidationTest {
+
+    @Test
+    @DisplayName("Should clear the cache")
+    void should_clear_cache() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      underTest.getPage(request, null, Page::empty);
+
+      // when
+      underTest.evictAll();
+
+      // then
+      assertThat(cacheManager.getCache(RELEASE_PAGES_CACHE).get(ReleaseQueryCache.createKey(request, null))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep the stale cache")
+    void should_keep_stale_cache() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      underTest.getPage(request, null, Page::empty);
+
+      // when
+      underTest.evictAll();
+
+      // then
+      assertThat(cacheManager.getCache(STALE_RELEASE_PAGES_CACHE).get(ReleaseQueryCache.createKey(request, null))).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should clear the cache after an import")
+    void should_clear_cache_after_import() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      underTest.getPage(request, null, Page::empty);
+
+      // when
+      underTest.onApplicationEvent(new ReleasesImportedEvent(this, LocalDateTime.now()));
+
+      // then
+      assertThat(cacheManager.getCache(RELEASE_PAGES_CACHE).get(ReleaseQueryCache.createKey(request, null))).isNull();
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for the stale fallback")
+  class StaleFallbackTest {
+
+    @Test
+    @DisplayName("Should return the last known page marked as stale if the butler is not available")
+    void should_return_stale_page() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      Page<ReleaseDto> page = new Page<>(List.of(ReleaseDtoFactory.createDefault()), new Pagination());
+      underTest.getPage(request, "sort", () -> page);
+      underTest.evictAll();
+
+      // when
+      Page<ReleaseDto> result = underTest.getPage(request, "sort", () -> {
+        throw new ExternalServiceException("butler down");
+      });
+
+      // then
+      assertThat(result.isStale()).isTrue();
+      assertThat(result.getItems()).isEqualTo(page.getItems());
+      assertThat(page.isStale()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should rethrow the exception if there is no stale result")
+    void should_rethrow_without_stale_result() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      ExternalServiceException exception = new ExternalServiceException("butler down");
+
+      // when
+      Throwable throwable = catchThrowable(() -> underTest.getPage(request, "sort", () -> {
+        throw exception;
+      }));
+
+      // then
+      assertThat(throwable).isSameAs(exception);
+    }
+
+    @Test
+    @DisplayName("Should not fall back on errors that are not caused by the butler")
+    void should_not_fall_back_on_other_errors() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      underTest.getPage(request, "sort", Page::empty);
+      underTest.evictAll();
+
+      // when
+      Throwable throwable = catchThrowable(() -> underTest.getPage(request, "sort", () -> {
+        throw new IllegalStateException();
+      }));
+
+      // then
+      assertThat(throwable).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should complete with the last known page if the asynchronous query failed")
+    void should_return_stale_page_async() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      Page<ReleaseDto> page = new Page<>(List.of(ReleaseDtoFactory.createDefault()), new Pagination());
+      underTest.getPageAsync(request, "sort", () -> CompletableFuture.completedFuture(page));
+      underTest.evictAll();
+
+      // when
+      var result = underTest.getPageAsync(request, "sort", () -> CompletableFuture.supplyAsync(() -> {
+        throw new ExternalServiceException("butler down");
+      }));
+
+      // then
+      assertThat(result.join().isStale()).isTrue();
+      assertThat(result.join().getItems()).isEqualTo(page.getItems());
+    }
+
+    @Test
+    @DisplayName("Should complete exceptionally if the asynchronous query failed and there is no stale result")
+    void should_fail_async_without_stale_result() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+
+      // when
+      var result = underTest.getPageAsync(request, "sort", () -> CompletableFuture.failedFuture(new ExternalServiceException("butler down")));
+
+      // then
+      assertThat(catchThrowable(result::join)).hasCauseInstanceOf(ExternalServiceException.class);
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for the cache key")
+  class CacheKeyTest {
+
+    @Test
+    @DisplayName("Should not depend on the order or duplicates of the artists")
+    void should_ignore_artist_order() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      ButlerReleasesRequest reordered = ButlerReleaseRequestFactory.createDefault();
+      reordered.setArtists(List.of("C", "A", "B", "A"));
+
+      // when
+      String key = ReleaseQueryCache.createKey(request, null);
+      String reorderedKey = ReleaseQueryCache.createKey(reordered, null);
+
+      // then
+      assertThat(key).isEqualTo(reorderedKey).hasSize(64);
+    }
+
+    @Test
+    @DisplayName("Should depend on time range, query and page")
+    void should_depend_on_request() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      ButlerReleasesRequest otherTimeRange = ButlerReleaseRequestFactory.createDefault();
+      otherTimeRange.setDateTo(otherTimeRange.getDateTo().plusDays(1));
+      ButlerReleasesRequest otherQuery = ButlerReleaseRequestFactory.createDefault();
+      otherQuery.setQuery("query");
+      ButlerReleasesRequest otherPage = ButlerReleaseRequestFactory.createDefault();
+      otherPage.setPage(2);
+
+      // when
+      String key = ReleaseQueryCache.createKey(request, null);
+
+      // then
+      assertThat(key).isNotEqualTo(ReleaseQueryCache.createKey(otherTimeRange, null));
+      assertThat(key).isNotEqualTo(ReleaseQueryCache.createKey(otherQuery, null));
+      assertThat(key).isNotEqualTo(ReleaseQueryCache.createKey(otherPage, null));
+    }
+
+    @Test
+    @DisplayName("Should not mix up artists and the other request fields")
+    void should_separate_fields() {
+      // given
+      ButlerReleasesRequest request = ButlerReleasesRequest.builder().artists(List.of("A", "B")).build();
+      ButlerReleasesRequest joinedArtists = ButlerReleasesRequest.builder().artists(List.of("AB")).build();
+
+      // when
+      String key = ReleaseQueryCache.createKey(request, null);
+
+      // then
+      assertThat(key).isNotEqualTo(ReleaseQueryCache.createKey(joinedArtists, null));
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package rocks.metaldetector.butler.facade;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static rocks.metaldetector.butler.facade.ReleaseRequestCoalescer.REQUESTS_METRIC;
+
+class ReleaseRequestCoalescerTest implements WithAssertions {
+
+  private MeterRegistry meterRegistry;
+  private ExecutorService executor;
+  private ReleaseRequestCoalescer underTest;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    executor = Executors.newSingleThreadExecutor();
+    underTest = new ReleaseRequestCoalescer(meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Should return the response of the request")
+  void should_return_response() {
+    // when
+    var result = underTest.execute("key", () -> "response");
+
+    // then
+    assertThat(result).isEqualTo("response");
+    assertThat(getCount("upstream")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should share the upstream call of a running identical request")
+  void should_share_running_request() throws Exception {
+    // given
+    var upstreamCalls = new AtomicInteger();
+    var requestStarted = new CountDownLatch(1);
+    var releaseRequest = new CountDownLatch(1);
+    Future<String> first = executor.submit(() -> underTest.execute("key", () -> {
+      upstreamCalls.incrementAndGet();
+      requestStarted.countDown();
+      await(releaseRequest);
+      return "response";
+    }));
+    assertThat(requestStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // when
+    Thread second = new Thread(() -> underTest.execute("key", () -> {
+      upstreamCalls.incrementAndGet();
+      return "other response";
+    }));
+    second.start();
+    while (getCount("coalesced") == 0) {
+      Thread.onSpinWait();
+    }
+    releaseRequest.countDown();
+    second.join(5000);
+
+    // then
+    assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("response");
+    assertThat(upstreamCalls).hasValue(1);
+    assertThat(getCount("coalesced")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should not share calls of different requests")
+  void should_not_share_different_requests() {
+    // when
+    var first = underTest.execute("first", () -> "first response");
+    var second = underTest.execute("second", () -> "second response");
+
+    // then
+    assertThat(first).isEqualTo("first response");
+    assertThat(second).isEqualTo("second response");
+    assertThat(getCount("upstream")).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should send the request again after the previous call completed")
+  void should_not_keep_completed_calls() {
+    // given
+    var upstreamCalls = new AtomicInteger();
+
+    // when
+    underTest.execute("key", upstreamCalls::incrementAndGet);
+    underTest.execute("key", upstreamCalls::incrementAndGet);
+
+    // then
+    assertThat(upstreamCalls).hasValue(2);
+    assertThat(getCount("coalesced")).isZero();
+  }
+
+  @Test
+  @DisplayName("Should throw the exception of the request and forget the call")
+  void should_throw_exception() {
+    // given
+    var exception = new IllegalStateException("butler unavailable");
+
+    // when
+    var throwable = catchThrowable(() -> underTest.execute("key", () -> {
+      throw exception;
+    }));
+
+    // then
+    assertThat(throwable).isSameAs(exception);
+    assertThat(underTest.execute("key", () -> "response")).isEqualTo("response");
+  }
+
+  @Test
+  @DisplayName("Should share a running asynchronous request")
+  void should_share_running_async_request() {
+    // given
+    var upstreamCalls = new AtomicInteger();
+    var response = new CompletableFuture<String>();
+    var first = underTest.executeAsync("key", () -> {
+      upstreamCalls.incrementAndGet();
+      return response;
+    });
+
+    // when
+    var second = underTest.executeAsync("key", () -> {
+      upstreamCalls.incrementAndGet();
+      return CompletableFuture.completedFuture("other response");
+    });
+    response.complete("response");
+
+    // then
+    assertThat(first).isCompletedWithValue("response");
+    assertThat(second).isCompletedWithValue("response");
+    assertThat(upstreamCalls).hasValue(1);
+    assertThat(getCount("coalesced")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should complete all callers exceptionally and forget a failed asynchronous request")
+  void should_fail_async_request() {
+    // given
+    var exception = new IllegalStateException("butler unavailable");
+    var response = new CompletableFuture<String>();
+    var first = underTest.executeAsync("key", () -> response);
+    var second = underTest.executeAsync("key", () -> CompletableFuture.completedFuture("other response"));
+
+    // when
+    response.completeExceptionally(exception);
+
+    // then
+    assertThat(catchThrowable(first::join)).hasCause(exception);
+    assertThat(catchThrowable(second::join)).hasCause(exception);
+    assertThat(underTest.executeAsync("key", () -> CompletableFuture.completedFuture("response"))).isCompletedWithValue("response");
+  }
+
+  private double getCount(String result) {
+    return meterRegistry.get(REQUESTS_METRIC).tag("result", result).counter().count();
+  }
+
+  private void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
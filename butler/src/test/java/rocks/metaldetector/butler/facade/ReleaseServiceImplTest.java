@@ -15,24 +15,39 @@ import rocks.metaldetector.butler.ButlerDtoFactory.ButlerReleasesResponseFactory
 import rocks.metaldetector.butler.ButlerDtoFactory.ReleaseDtoFactory;
 import rocks.metaldetector.butler.api.ButlerReleasesRequest;
 import rocks.metaldetector.butler.api.ButlerReleasesResponse;
+import rocks.metaldetector.butler.client.ReleaseButlerAsyncClient;
 import rocks.metaldetector.butler.client.ReleaseButlerRestClient;
 import rocks.metaldetector.butler.client.transformer.ButlerReleaseRequestTransformer;
 import rocks.metaldetector.butler.client.transformer.ButlerReleaseResponseTransformer;
+import rocks.metaldetector.butler.client.transformer.ButlerReleaseStreamTransformer;
 import rocks.metaldetector.butler.client.transformer.ButlerSortTransformer;
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.butler.replica.ReleaseReplica;
 import rocks.metaldetector.support.DetectorSort;
 import rocks.metaldetector.support.Page;
 import rocks.metaldetector.support.PageRequest;
 import rocks.metaldetector.support.Pagination;
 import rocks.metaldetector.support.TimeRange;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static rocks.metaldetector.support.DetectorSort.Direction.ASC;
 
@@ -42,6 +57,9 @@ class ReleaseServiceImplTest implements WithAssertions {
   @Mock
   private ReleaseButlerRestClient butlerClient;
 
+  @Mock
+  private ReleaseButlerAsyncClient asyncButlerClient;
+
   @Mock
   private ButlerReleaseRequestTransformer releaseRequestTransformer;
 
@@ -51,16 +69,33 @@ class ReleaseServiceImplTest implements WithAssertions {
   @Mock
   private ButlerReleaseResponseTransformer releaseResponseTransformer;
 
+  @Mock
+  private ButlerReleaseStreamTransformer releaseStreamTransformer;
+
+  @Mock
+  private ReleaseReplica releaseReplica;
+
+  @Mock
+  private ReleaseQueryCache releaseQueryCache;
+
+  @Mock
+  private ReleaseRequestCoalescer requestCoalescer;
+
   private ReleaseServiceImpl underTest;
 
   @BeforeEach
   void setup() {
-    underTest = new ReleaseServiceImpl(butlerClient, releaseRequestTransformer, sortTransformer, releaseResponseTransformer);
+    underTest = new ReleaseServiceImpl(butlerClient, asyncButlerClient, releaseRequestTransformer, sortTransformer, releaseResponseTransformer, releaseStreamTransformer, releaseReplica,
+                                       releaseQueryCache, requestCoalescer);
+    lenient().when(releaseQueryCache.getPage(any(), any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+    lenient().when(requestCoalescer.execute(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    lenient().when(releaseQueryCache.getPageAsync(any(), any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+    lenient().when(requestCoalescer.executeAsync(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
   }
 
   @AfterEach
   void tearDown() {
-    reset(butlerClient, releaseRequestTransformer, sortTransformer, releaseResponseTransformer);
+    reset(butlerClient, asyncButlerClient, releaseRequestTransformer, sortTransformer, releaseResponseTransformer, releaseStreamTransformer, releaseReplica, releaseQueryCache, requestCoalescer);
   }
 
   @DisplayName("Test of findAllReleases()")
@@ -93,24 +128,111 @@ class ReleaseServiceImplTest implements WithAssertions {
       underTest.findAllReleases(null, null);
 
       // then
-      verify(butlerClient).queryAllReleases(eq(request));
+      verify(butlerClient).streamAllReleases(eq(request), any());
     }
 
     @Test
-    @DisplayName("Should transform and return response from butler client")
+    @DisplayName("Should decode and return the streamed response from butler client")
     void should_return_transformed_response() {
       // given
-      ButlerReleasesResponse response = ButlerReleasesResponseFactory.createDefault();
+      InputStream body = new ByteArrayInputStream(new byte[0]);
       List<ReleaseDto> expectedResult = List.of(ReleaseDtoFactory.createDefault());
-      when(butlerClient.queryAllReleases(any())).thenReturn(response);
-      when(releaseResponseTransformer.transformToList(response)).thenReturn(expectedResult);
+      mockStreamedResponse(body);
+      doReturn(expectedResult.stream()).when(releaseStreamTransformer).transformToStream(body);
 
       // when
       List<ReleaseDto> releases = underTest.findAllReleases(null, null);
 
+      // then
+      verify(releaseStreamTransformer).transformToStream(body);
+      assertThat(releases).isEqualTo(expectedResult);
+    }
+
+    @Test
+    @DisplayName("Should answer from the release replica if possible")
+    void should_answer_from_replica() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      ButlerReleasesResponse response = ButlerReleasesResponseFactory.createDefault();
+      when(releaseRequestTransformer.transform(any(), any(), any(), any())).thenReturn(request);
+      doReturn(Optional.of(response)).when(releaseReplica).queryAllReleases(request);
+
+      // when
+      underTest.findAllReleases(null, null);
+
       // then
       verify(releaseResponseTransformer).transformToList(response);
+      verifyNoInteractions(butlerClient, releaseQueryCache);
+    }
+
+    @Test
+    @DisplayName("Should not cache the list of all releases")
+    void should_not_cache_all_releases() {
+      // given
+      InputStream body = new ByteArrayInputStream(new byte[0]);
+      mockStreamedResponse(body);
+      doReturn(Stream.of(ReleaseDtoFactory.createDefault())).when(releaseStreamTransformer).transformToStream(body);
+
+      // when
+      underTest.findAllReleases(null, null);
+
+      // then
+      verify(requestCoalescer).execute(any(), any());
+      verifyNoInteractions(releaseQueryCache);
+    }
+  }
+
+  @DisplayName("Test of streamAllReleases()")
+  @Nested
+  class StreamAllReleasesTest {
+
+    @Test
+    @DisplayName("Should hand the decoded releases to the reader and close the stream afterwards")
+    void should_stream_releases() {
+      // given
+      InputStream body = new ByteArrayInputStream(new byte[0]);
+      AtomicBoolean closed = new AtomicBoolean();
+      List<ReleaseDto> expectedResult = List.of(ReleaseDtoFactory.createDefault(), ReleaseDtoFactory.createDefault());
+      mockStreamedResponse(body);
+      doReturn(expectedResult.stream().onClose(() -> closed.set(true))).when(releaseStreamTransformer).transformToStream(body);
+
+      // when
+      long count = underTest.streamAllReleases(null, null, Stream::count);
+
+      // then
+      assertThat(count).isEqualTo(2);
+      assertThat(closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should neither cache nor coalesce the streamed releases")
+    void should_not_cache_stream() {
+      // given
+      mockStreamedResponse(new ByteArrayInputStream(new byte[0]));
+      doReturn(Stream.empty()).when(releaseStreamTransformer).transformToStream(any());
+
+      // when
+      underTest.streamAllReleases(null, null, Stream::count);
+
+      // then
+      verifyNoInteractions(releaseQueryCache, requestCoalescer);
+    }
+
+    @Test
+    @DisplayName("Should stream the releases of the release replica if possible")
+    void should_stream_from_replica() {
+      // given
+      ButlerReleasesResponse response = ButlerReleasesResponseFactory.createDefault();
+      List<ReleaseDto> expectedResult = List.of(ReleaseDtoFactory.createDefault());
+      doReturn(Optional.of(response)).when(releaseReplica).queryAllReleases(any());
+      doReturn(expectedResult).when(releaseResponseTransformer).transformToList(response);
+
+      // when
+      List<ReleaseDto> releases = underTest.streamAllReleases(null, null, Stream::toList);
+
+      // then
       assertThat(releases).isEqualTo(expectedResult);
+      verifyNoInteractions(butlerClient, releaseStreamTransformer);
     }
   }
 
@@ -193,6 +315,215 @@ class ReleaseServiceImplTest implements WithAssertions {
       verify(releaseResponseTransformer).transformToPage(response);
       assertThat(releases).isEqualTo(expectedResult);
     }
+
+    @Test
+    @DisplayName("Should answer from the release replica if possible")
+    void should_answer_from_replica() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      ButlerReleasesResponse response = ButlerReleasesResponseFactory.createDefault();
+      PageRequest pageRequest = new PageRequest(1, 10, new DetectorSort("release_date", ASC));
+      when(releaseRequestTransformer.transform(any(), any(), any(), any())).thenReturn(request);
+      doReturn(Optional.of(response)).when(releaseReplica).queryReleases(request, pageRequest.getSort());
+
+      // when
+      underTest.findReleases(null, null, null, pageRequest);
+
+      // then
+      verify(releaseResponseTransformer).transformToPage(response);
+      verifyNoInteractions(butlerClient, sortTransformer, releaseQueryCache);
+    }
+
+    @Test
+    @DisplayName("Should query the butler through the release query cache")
+    void should_use_release_query_cache() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      Page<ReleaseDto> cachedPage = new Page<>(List.of(ReleaseDtoFactory.createDefault()), new Pagination());
+      when(releaseRequestTransformer.transform(any(), any(), any(), any())).thenReturn(request);
+      when(sortTransformer.transform(any())).thenReturn("sort");
+      doReturn(cachedPage).when(releaseQueryCache).getPage(eq(request), eq("sort"), any());
+
+      // when
+      Page<ReleaseDto> releases = underTest.findReleases(null, null, null, new PageRequest());
+
+      // then
+      assertThat(releases).isSameAs(cachedPage);
+      verifyNoInteractions(butlerClient);
+    }
+  }
+
+  @Test
+  @DisplayName("Requests to the butler should be coalesced")
+  void butler_requests_should_be_coalesced() {
+    // given
+    PageRequest pageRequest = new PageRequest(1, 10, null);
+
+    // when
+    underTest.findReleases(null, null, null, pageRequest);
+    underTest.findAllReleases(null, null);
+
+    // then
+    verify(requestCoalescer, times(2)).execute(any(), any());
+  }
+
+  @DisplayName("Test of findTopReleases()")
+  @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+  @Nested
+  class FindTopReleasesTest {
+
+    @Test
+    @DisplayName("Should request only the first page sized to the limit")
+    void should_request_first_page_with_limit() {
+      // given
+      Iterable<String> artists = List.of("A", "B", "C");
+      TimeRange timeRange = new TimeRange(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31));
+      DetectorSort sort = new DetectorSort("release_date", ASC);
+      doReturn(Page.empty()).when(releaseResponseTransformer).transformToPage(any());
+
+      // when
+      underTest.findTopReleases(artists, timeRange, sort, 10);
+
+      // then
+      verify(releaseRequestTransformer).transform(artists, timeRange, null, new PageRequest(1, 10, sort));
+      verify(butlerClient).queryReleases(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return the releases of the first page")
+    void should_return_releases() {
+      // given
+      List<ReleaseDto> expectedReleases = List.of(ReleaseDtoFactory.createDefault(), ReleaseDtoFactory.createDefault());
+      doReturn(new Page<>(expectedReleases, new Pagination())).when(releaseResponseTransformer).transformToPage(any());
+
+      // when
+      List<ReleaseDto> releases = underTest.findTopReleases(null, null, null, 10);
+
+      // then
+      assertThat(releases).isEqualTo(expectedReleases);
+    }
+
+    @Test
+    @DisplayName("Should not return more releases than the limit")
+    void should_limit_releases() {
+      // given
+      List<ReleaseDto> releases = List.of(ReleaseDtoFactory.createDefault(), ReleaseDtoFactory.createDefault(), ReleaseDtoFactory.createDefault());
+      doReturn(new Page<>(releases, new Pagination())).when(releaseResponseTransformer).transformToPage(any());
+
+      // when
+      List<ReleaseDto> result = underTest.findTopReleases(null, null, null, 2);
+
+      // then
+      assertThat(result).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should not query the butler for a limit below one")
+    void should_not_query_without_limit() {
+      // when
+      List<ReleaseDto> result = underTest.findTopReleases(null, null, null, 0);
+
+      // then
+      assertThat(result).isEmpty();
+      verifyNoInteractions(butlerClient, releaseRequestTransformer);
+    }
+  }
+
+  @DisplayName("Test of findReleasesAsync() and findTopReleasesAsync()")
+  @Nested
+  class FindReleasesAsyncTest {
+
+    @Test
+    @DisplayName("Should query the async butler client with the transformed request and sorting")
+    void should_call_async_butler_client() {
+      // given
+      ButlerReleasesRequest request = ButlerReleaseRequestFactory.createDefault();
+      DetectorSort sort = new DetectorSort("release_date", ASC);
+      when(releaseRequestTransformer.transform(any(), any(), any(), any())).thenReturn(request);
+      when(sortTransformer.transform(any())).thenReturn("sort");
+      doReturn(CompletableFuture.completedFuture(ButlerReleasesResponseFactory.createDefault())).when(asyncButlerClient).queryReleases(any(), any());
+
+      // when
+      underTest.findReleasesAsync(null, null, null, new PageRequest(1, 10, sort)).join();
+
+      // then
+      verify(asyncButlerClient).queryReleases(request, "sort");
+      verifyNoInteractions(butlerClient);
+    }
+
+    @Test
+    @DisplayName("Should complete with the transformed response")
+    void should_complete_with_transformed_response() {
+      // given
+      ButlerReleasesResponse response = ButlerReleasesResponseFactory.createDefault();
+      Page<ReleaseDto> expectedPage = new Page<>(List.of(ReleaseDtoFactory.createDefault()), new Pagination());
+      doReturn(CompletableFuture.completedFuture(response)).when(asyncButlerClient).queryReleases(any(), any());
+      doReturn(expectedPage).when(releaseResponseTransformer).transformToPage(response);
+
+      // when
+      var result = underTest.findReleasesAsync(null, null, null, new PageRequest());
+
+      // then
+      assertThat(result).isCompletedWithValue(expectedPage);
+    }
+
+    @Test
+    @DisplayName("Should complete with the replica's response without querying the butler")
+    void should_use_replica() {
+      // given
+      ButlerReleasesResponse response = ButlerReleasesResponseFactory.createDefault();
+      Page<ReleaseDto> expectedPage = new Page<>(List.of(ReleaseDtoFactory.createDefault()), new Pagination());
+      doReturn(Optional.of(response)).when(releaseReplica).queryReleases(any(), any());
+      doReturn(expectedPage).when(releaseResponseTransformer).transformToPage(response);
+
+      // when
+      var result = underTest.findReleasesAsync(null, null, null, new PageRequest());
+
+      // then
+      assertThat(result).isCompletedWithValue(expectedPage);
+      verifyNoInteractions(asyncButlerClient, releaseQueryCache, requestCoalescer);
+    }
+
+    @Test
+    @DisplayName("Should complete exceptionally if the butler request fails")
+    void should_complete_exceptionally() {
+      // given
+      var exception = new IllegalStateException("butler not available");
+      doReturn(CompletableFuture.failedFuture(exception)).when(asyncButlerClient).queryReleases(any(), any());
+
+      // when
+      var result = underTest.findReleasesAsync(null, null, null, new PageRequest());
+
+      // then
+      assertThat(result).isCompletedExceptionally();
+      assertThatThrownBy(result::join).hasCause(exception);
+    }
+
+    @Test
+    @DisplayName("Should not return more top releases than the limit")
+    void should_limit_top_releases() {
+      // given
+      List<ReleaseDto> releases = List.of(ReleaseDtoFactory.createDefault(), ReleaseDtoFactory.createDefault(), ReleaseDtoFactory.createDefault());
+      doReturn(CompletableFuture.completedFuture(ButlerReleasesResponseFactory.createDefault())).when(asyncButlerClient).queryReleases(any(), any());
+      doReturn(new Page<>(releases, new Pagination())).when(releaseResponseTransformer).transformToPage(any());
+
+      // when
+      var result = underTest.findTopReleasesAsync(null, null, null, 2).join();
+
+      // then
+      assertThat(result).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should not query the butler for a limit below one")
+    void should_not_query_without_limit() {
+      // when
+      var result = underTest.findTopReleasesAsync(null, null, null, 0);
+
+      // then
+      assertThat(result).isCompletedWithValue(List.of());
+      verifyNoInteractions(asyncButlerClient, releaseRequestTransformer);
+    }
   }
 
   @Test
@@ -207,5 +538,20 @@ class ReleaseServiceImplTest implements WithAssertions {
 
     // then
     verify(butlerClient).updateReleaseState(releaseId, state);
+    verify(releaseReplica).updateReleaseState(releaseId, state);
+  }
+
+  @Test
+  @DisplayName("Updating a release should clear the release query cache")
+  void update_release_should_clear_cache() {
+    // when
+    underTest.updateReleaseState(1L, "state");
+
+    // then
+    verify(releaseQueryCache).evictAll();
+  }
+
+  private void mockStreamedResponse(InputStream body) {
+    when(butlerClient.streamAllReleases(any(), any())).thenAnswer(invocation -> invocation.<Function<InputStream, ?>>getArgument(1).apply(body));
   }
 }
@@ -0,0 +1,390 @@
+package rocks.metaldetector.butler.replica;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import rocks.metaldetector.butler.api.ButlerImportJob;
+import rocks.metaldetector.butler.api.ButlerRelease;
+import rocks.metaldetector.butler.api.ButlerReleasesRequest;
+import rocks.metaldetector.butler.api.ButlerReleasesResponse;
+import rocks.metaldetector.butler.client.ReleaseButlerRestClient;
+import rocks.metaldetector.butler.config.ButlerOAuth2ClientInterceptor;
+import rocks.metaldetector.butler.config.ReleaseReplicaProperties;
+import rocks.metaldetector.support.DetectorSort;
+import rocks.metaldetector.support.oauth.OAuth2AccessTokenClient;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static rocks.metaldetector.support.DetectorSort.Direction.ASC;
+import static rocks.metaldetector.support.DetectorSort.Direction.DESC;
+
+@ExtendWith(MockitoExtension.class)
+class ReleaseReplicaTest implements WithAssertions {
+
+  private static final LocalDate TODAY = LocalDate.now();
+
+  @Mock
+  private ReleaseButlerRestClient butlerClient;
+
+  private ReleaseReplicaProperties properties;
+
+  private ReleaseReplica underTest;
+
+  private final ButlerRelease release1 = createRelease(1L, "Metallica", "B", TODAY.minusDays(60));
+  private final ButlerRelease release2 = createRelease(2L, "Slayer", "A", TODAY.minusDays(1));
+  private final ButlerRelease release3 = createRelease(3L, "metallica", "A", TODAY.plusDays(5));
+  private final ButlerRelease release4 = createRelease(4L, "Opeth", "C", TODAY.plusDays(5));
+
+  @BeforeEach
+  void setup() {
+    properties = new ReleaseReplicaProperties();
+    properties.setEnabled(true);
+    underTest = new ReleaseReplica(butlerClient, properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    reset(butlerClient);
+  }
+
+  @Nested
+  @DisplayName("Tests for the synchronization")
+  class SynchronizationTests {
+
+    @Test
+    @DisplayName("nothing is synchronized if the replica is disabled")
+    void test_disabled() {
+      // given
+      properties.setEnabled(false);
+
+      // when
+      underTest.refresh();
+
+      // then
+      verifyNoInteractions(butlerClient);
+      assertThat(underTest.isFresh()).isFalse();
+    }
+
+    @Test
+    @DisplayName("all releases are synchronized on the first refresh")
+    void test_full_sync() {
+      // given
+      ArgumentCaptor<ButlerReleasesRequest> argumentCaptor = ArgumentCaptor.forClass(ButlerReleasesRequest.class);
+      mockReleases(release1, release2);
+
+      // when
+      underTest.refresh();
+
+      // then
+      verify(butlerClient).queryAllReleases(argumentCaptor.capture());
+      assertThat(argumentCaptor.getValue().getArtists()).isEmpty();
+      assertThat(argumentCaptor.getValue().getDateFrom()).isNull();
+      assertThat(argumentCaptor.getValue().getDateTo()).isNull();
+      assertThat(underTest.isFresh()).isTrue();
+    }
+
+    @Test
+    @DisplayName("releases are not synchronized again without a new import job")
+    void test_no_sync_without_import() {
+      // given
+      mockReleases(release1);
+      mockImportJobEndTimes(LocalDateTime.now().minusHours(1));
+
+      // when
+      underTest.refresh();
+      underTest.refresh();
+
+      // then
+      verify(butlerClient).queryAllReleases(any());
+    }
+
+    @Test
+    @DisplayName("releases from the incremental lookback on are synchronized again after a new import job")
+    void test_incremental_sync() {
+      // given
+      properties.setIncrementalLookback(Duration.ofDays(30));
+      ArgumentCaptor<ButlerReleasesRequest> argumentCaptor = ArgumentCaptor.forClass(ButlerReleasesRequest.class);
+      var updatedRelease2 = createRelease(2L, "Slayer", "A2", TODAY.minusDays(1));
+      mockReleases(release1, release2);
+      mockImportJobEndTimes(LocalDateTime.now().minusHours(2));
+      underTest.refresh();
+      mockReleases(updatedRelease2, release3);
+      mockImportJobEndTimes(LocalDateTime.now().minusHours(2), LocalDateTime.now().minusMinutes(1));
+
+      // when
+      underTest.refresh();
+
+      // then
+      verify(butlerClient, times(2)).queryAllReleases(argumentCaptor.capture());
+      assertThat(argumentCaptor.getAllValues().get(1).getDateFrom()).isEqualTo(TODAY.minusDays(30));
+      var result = underTest.queryAllReleases(createRequest(Collections.emptyList(), null, null));
+      assertThat(result).isPresent();
+      assertThat(result.get().getReleases()).containsExactly(release1, updatedRelease2, release3);
+    }
+
+    @Test
+    @DisplayName("replica is stale if it could not be verified within the max age")
+    void test_stale() {
+      // given
+      mockReleases(release1);
+      underTest.refresh();
+      properties.setMaxAge(Duration.ZERO);
+
+      // when
+      var result = underTest.queryAllReleases(createRequest(Collections.emptyList(), null, null));
+
+      // then
+      assertThat(underTest.isFresh()).isFalse();
+      assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("butler is called with the administrator token although the scheduler thread has no authentication")
+    void test_refresh_as_administrator() {
+      // given
+      SecurityContextHolder.clearContext();
+      OAuth2AccessTokenClient userTokenClient = mock(OAuth2AccessTokenClient.class);
+      OAuth2AccessTokenClient adminTokenClient = mock(OAuth2AccessTokenClient.class);
+      doReturn("admin-token").when(adminTokenClient).getAccessToken();
+      var interceptor = new ButlerOAuth2ClientInterceptor(userTokenClient, adminTokenClient);
+      var butlerRequest = new MockClientHttpRequest();
+      doAnswer(invocation -> {
+        interceptor.intercept(butlerRequest, new byte[0], (request, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+        return Collections.emptyList();
+      }).when(butlerClient).queryImportJobResults();
+      mockReleases(release1);
+
+      // when
+      underTest.refresh();
+
+      // then
+      assertThat(underTest.isFresh()).isTrue();
+      assertThat(butlerRequest.getHeaders().getFirst(AUTHORIZATION)).isEqualTo("Bearer admin-token");
+      verifyNoInteractions(userTokenClient);
+      assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    @DisplayName("failed refresh keeps the replica stale")
+    void test_failed_refresh() {
+      // given
+      doThrow(new RuntimeException("butler down")).when(butlerClient).queryImportJobResults();
+
+      // when
+      underTest.refresh();
+
+      // then
+      assertThat(underTest.isFresh()).isFalse();
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for queries")
+  class QueryTests {
+
+    @BeforeEach
+    void setup() {
+      mockReleases(release1, release2, release3, release4);
+      underTest.refresh();
+    }
+
+    @Test
+    @DisplayName("releases of the given artists are found independent of upper and lower case")
+    void test_find_by_artists() {
+      // when
+      var result = underTest.queryAllReleases(createRequest(List.of("METALLICA "), null, null));
+
+      // then
+      assertThat(result).isPresent();
+      assertThat(result.get().getReleases()).containsExactly(release1, release3);
+    }
+
+    @Test
+    @DisplayName("releases are filtered by the time range")
+    void test_find_by_time_range() {
+      // when
+      var result = underTest.queryAllReleases(createRequest(List.of("Metallica", "Slayer", "Opeth"), TODAY.minusDays(1), TODAY.plusDays(5)));
+
+      // then
+      assertThat(result).isPresent();
+      assertThat(result.get().getReleases()).containsExactly(release2, release3, release4);
+    }
+
+    @Test
+    @DisplayName("releases of all artists are found without artists")
+    void test_find_all_artists() {
+      // when
+      var result = underTest.queryAllReleases(createRequest(Collections.emptyList(), TODAY, null));
+
+      // then
+      assertThat(result).isPresent();
+      assertThat(result.get().getReleases()).containsExactly(release3, release4);
+    }
+
+    @Test
+    @DisplayName("requested page is returned with the pagination")
+    void test_pagination() {
+      // given
+      var request = createRequest(Collections.emptyList(), null, null);
+      request.setPage(2);
+      request.setSize(3);
+
+      // when
+      var result = underTest.queryReleases(request, null);
+
+      // then
+      assertThat(result).isPresent();
+      assertThat(result.get().getReleases()).containsExactly(release4);
+      assertThat(result.get().getPagination().getCurrentPage()).isEqualTo(2);
+      assertThat(result.get().getPagination().getSize()).isEqualTo(3);
+      assertThat(result.get().getPagination().getTotalPages()).isEqualTo(2);
+      assertThat(result.get().getPagination().getTotalReleases()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("releases are sorted by the requested field and then by artist and album title")
+    void test_sort() {
+      // given
+      var request = createRequest(Collections.emptyList(), null, null);
+      request.setPage(1);
+      request.setSize(10);
+
+      // when
+      var result = underTest.queryReleases(request, new DetectorSort("release_date", DESC));
+
+      // then
+      assertThat(result).isPresent();
+      assertThat(result.get().getReleases()).containsExactly(release3, release4, release2, release1);
+    }
+
+    @Test
+    @DisplayName("releases are sorted by the sort fields the webapp sends")
+    void test_sort_by_webapp_fields() {
+      // given
+      var request = createRequest(Collections.emptyList(), null, null);
+      request.setPage(1);
+      request.setSize(10);
+
+      // when
+      var byReleaseDate = underTest.queryReleases(request, new DetectorSort("releaseDate", DESC));
+      var byArtist = underTest.queryReleases(request, new DetectorSort("artist", ASC));
+      var byAlbumTitle = underTest.queryReleases(request, new DetectorSort("albumTitle", DESC));
+
+      // then
+      assertThat(byReleaseDate).hasValueSatisfying(response -> assertThat(response.getReleases()).containsExactly(release3, release4, release2, release1));
+      assertThat(byArtist).hasValueSatisfying(response -> assertThat(response.getReleases()).containsExactly(release3, release1, release4, release2));
+      assertThat(byAlbumTitle).hasValueSatisfying(response -> assertThat(response.getReleases()).containsExactly(release4, release1, release3, release2));
+    }
+
+    @Test
+    @DisplayName("queries sorted by announcement date are not answered, because the butler sorts them by creation time")
+    void test_announcement_date_sort_not_answered() {
+      // given
+      var request = createRequest(Collections.emptyList(), null, null);
+      request.setPage(1);
+      request.setSize(10);
+
+      // when
+      var result = underTest.queryReleases(request, new DetectorSort("announcement_date", DESC));
+
+      // then
+      assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("queries with full text search are not answered")
+    void test_query_not_answered() {
+      // given
+      var request = createRequest(Collections.emptyList(), null, null);
+      request.setQuery("metallica");
+
+      // when
+      var result = underTest.queryAllReleases(request);
+
+      // then
+      assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("queries with unknown sort field are not answered")
+    void test_unknown_sort_not_answered() {
+      // given
+      var request = createRequest(Collections.emptyList(), null, null);
+      request.setPage(1);
+      request.setSize(10);
+
+      // when
+      var result = underTest.queryReleases(request, new DetectorSort("genre", DESC));
+
+      // then
+      assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("updated release state is returned before the next synchronization")
+    void test_update_release_state() {
+      // when
+      underTest.updateReleaseState(3L, "faulty");
+
+      // then
+      var result = underTest.queryAllReleases(createRequest(List.of("Metallica"), TODAY, null));
+      assertThat(result).isPresent();
+      assertThat(result.get().getReleases()).extracting(ButlerRelease::getState).containsExactly("FAULTY");
+    }
+  }
+
+  private void mockReleases(ButlerRelease... releases) {
+    doReturn(ButlerReleasesResponse.builder().releases(List.of(releases)).build()).when(butlerClient).queryAllReleases(any());
+  }
+
+  private void mockImportJobEndTimes(LocalDateTime... endTimes) {
+    List<ButlerImportJob> importJobs = Arrays.stream(endTimes)
+        .map(endTime -> ButlerImportJob.builder().endTime(endTime).build())
+        .toList();
+    doReturn(importJobs).when(butlerClient).queryImportJobResults();
+  }
+
+  private ButlerReleasesRequest createRequest(List<String> artists, LocalDate dateFrom, LocalDate dateTo) {
+    return ButlerReleasesRequest.builder()
+        .artists(artists)
+        .dateFrom(dateFrom)
+        .dateTo(dateTo)
+        .build();
+  }
+
+  private static ButlerRelease createRelease(long id, String artist, String albumTitle, LocalDate releaseDate) {
+    return ButlerRelease.builder()
+        .id(id)
+        .artist(artist)
+        .albumTitle(albumTitle)
+        .releaseDate(releaseDate)
+        .state("OK")
+        .build();
+  }
+}
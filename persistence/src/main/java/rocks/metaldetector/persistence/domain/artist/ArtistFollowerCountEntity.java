@@ -0,0 +1,34 @@
+package rocks.metaldetector.persistence.domain.artist;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.ToString;
+import rocks.metaldetector.persistence.domain.BaseEntity;
+
+@Getter
+@Entity(name = "artistFollowerCounts")
+@NoArgsConstructor(access = AccessLevel.PROTECTED) // for hibernate and model mapper
+@AllArgsConstructor(access = AccessLevel.PRIVATE) // for lombok builder
+@Builder
+@ToString
+@EqualsAndHashCode(callSuper = true)
+public class ArtistFollowerCountEntity extends BaseEntity {
+
+  @OneToOne(targetEntity = ArtistEntity.class)
+  @JoinColumn(nullable = false, name = "artist_id", unique = true)
+  @NonNull
+  private ArtistEntity artist;
+
+  @Column(name = "follower", nullable = false)
+  private int follower;
+
+}
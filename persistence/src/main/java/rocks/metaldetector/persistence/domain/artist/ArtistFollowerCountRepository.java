@@ -0,0 +1,44 @@
+package rocks.metaldetector.persistence.domain.artist;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArtistFollowerCountRepository extends JpaRepository<ArtistFollowerCountEntity, Long> {
+
+  List<ArtistFollowerCountEntity> findAllByArtistIn(Collection<ArtistEntity> artists);
+
+  @Query("update artistFollowerCounts c set c.follower = c.follower + :follower where c.artist in :artists")
+  @Modifying(flushAutomatically = true)
+  int addFollower(@Param("artists") Collection<ArtistEntity> artists, @Param("follower") int follower);
+
+  // must be called before the follow actions of the user are deleted
+  @Query(value = "update artist_follower_counts " +
+                 "set follower = follower - (select count(fa.id) from follow_actions fa " +
+                 "where fa.artist_id = artist_follower_counts.artist_id and fa.user_id = :userId) " +
+                 "where artist_id in (select fa.artist_id from follow_actions fa where fa.user_id = :userId)",
+         nativeQuery = true)
+  @Modifying(flushAutomatically = true)
+  int removeFollowerOfUser(@Param("userId") Long userId);
+
+  @Query(value = "update artist_follower_counts " +
+                 "set follower = (select count(fa.id) from follow_actions fa where fa.artist_id = artist_follower_counts.artist_id) " +
+                 "where follower <> (select count(fa.id) from follow_actions fa where fa.artist_id = artist_follower_counts.artist_id)",
+         nativeQuery = true)
+  @Modifying(flushAutomatically = true)
+  int correctFollower();
+
+  @Query(value = "insert into artist_follower_counts (artist_id, follower) " +
+                 "select fa.artist_id, count(fa.id) from follow_actions fa " +
+                 "where not exists (select c.id from artist_follower_counts c where c.artist_id = fa.artist_id) " +
+                 "group by fa.artist_id",
+         nativeQuery = true)
+  @Modifying(flushAutomatically = true)
+  int insertMissingFollower();
+}
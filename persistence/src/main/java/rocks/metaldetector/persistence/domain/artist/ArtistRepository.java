@@ -1,6 +1,8 @@
 package rocks.metaldetector.persistence.domain.artist;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -18,19 +20,30 @@ public interface ArtistRepository extends JpaRepository<ArtistEntity, Long> {
 
   boolean existsByExternalIdAndSource(String externalId, ArtistSource source);
 
+  // the rows are locked in the order of their ids, so that concurrent callers cannot deadlock
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select a from artists a where a in :artists order by a.id")
+  List<ArtistEntity> lockAll(@Param("artists") Collection<ArtistEntity> artists);
+
   @Query(value = "select a.artist_name as artistName, a.external_id as externalId, a.source as source," +
                  "a.image_xs as imageXs, a.image_s as imageS, a.image_m as imageM, a.image_l as imageL, " +
-                 "count(a.external_id) as follower " +
-                 "from follow_actions as fa left join artists as a on a.id = fa.artist_id " +
-                 "group by a.artist_name, a.external_id, a.source, a.image_xs, a.image_s, a.image_m, a.image_l " +
-                 "having count(a.id) >= :minFollower " +
-                 "order by count(a.id) desc",
+                 "c.follower as follower " +
+                 "from artist_follower_counts as c join artists as a on a.id = c.artist_id " +
+                 "where c.follower >= :minFollower and c.follower > 0 " +
+                 "order by c.follower desc",
          nativeQuery = true)
   List<TopArtist> findTopArtists(@Param("minFollower") int minFollower);
 
-  @Query(value = "select count(a.external_id) " +
-                 "from follow_actions fa left join artists a on a.id = fa.artist_id " +
+  @Query(value = "select coalesce(sum(c.follower), 0) " +
+                 "from artists a join artist_follower_counts c on c.artist_id = a.id " +
                  "where a.external_id = :externalId",
          nativeQuery = true)
   int countArtistFollower(@Param("externalId") String externalId);
+
+  @Query(value = "select a.external_id as externalId, cast(sum(c.follower) as integer) as follower " +
+                 "from artists a join artist_follower_counts c on c.artist_id = a.id " +
+                 "where a.external_id in (:externalIds) " +
+                 "group by a.external_id",
+         nativeQuery = true)
+  List<ArtistFollower> countArtistFollowerIn(@Param("externalIds") Collection<String> externalIds);
 }
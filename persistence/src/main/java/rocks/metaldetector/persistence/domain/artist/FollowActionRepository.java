@@ -1,20 +1,34 @@
 package rocks.metaldetector.persistence.domain.artist;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface FollowActionRepository extends JpaRepository<FollowActionEntity, Long> {
 
   List<FollowActionEntity> findAllByUser(AbstractUserEntity user);
 
-  void deleteByUserAndArtist(AbstractUserEntity user, ArtistEntity artistEntity);
+  long deleteByUserAndArtist(AbstractUserEntity user, ArtistEntity artistEntity);
 
   void deleteAllByUser(AbstractUserEntity user);
 
   boolean existsByUserAndArtist(AbstractUserEntity user, ArtistEntity artistEntity);
 
+  @Query("select a.externalId from followActions fa join fa.artist a " +
+         "where fa.user = :user and a.source = :source and a.externalId in :externalIds")
+  Set<String> findFollowedExternalIds(@Param("user") AbstractUserEntity user,
+                                      @Param("source") ArtistSource source,
+                                      @Param("externalIds") Collection<String> externalIds);
+
+  @Query("select fa.user.id as userId, a.artistName as artistName from followActions fa join fa.artist a " +
+         "where fa.user in :users")
+  List<FollowedArtistName> findFollowedArtistNames(@Param("users") Collection<AbstractUserEntity> users);
+
 }
@@ -0,0 +1,53 @@
+package rocks.metaldetector.persistence.domain.email;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import rocks.metaldetector.persistence.domain.BaseEntity;
+
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED) // for hibernate and model mapper
+@AllArgsConstructor(access = AccessLevel.PRIVATE) // for lombok builder
+@EqualsAndHashCode(callSuper = true)
+@Builder
+@Entity(name = "emailOutbox")
+public class EmailOutboxEntity extends BaseEntity {
+
+  @Column(name = "recipient", nullable = false)
+  private String recipient;
+
+  @Column(name = "subject", nullable = false)
+  private String subject;
+
+  @Column(name = "html", nullable = false, columnDefinition = "text")
+  private String html;
+
+  @Column(name = "status", nullable = false)
+  @Enumerated(EnumType.STRING)
+  @Setter
+  @Builder.Default
+  private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+  @Column(name = "attempts", nullable = false)
+  @Setter
+  private int attempts;
+
+  @Column(name = "next_attempt_at", nullable = false)
+  @Setter
+  private LocalDateTime nextAttemptAt;
+
+  @Column(name = "last_error", length = 1000)
+  @Setter
+  private String lastError;
+
+}
@@ -0,0 +1,32 @@
+package rocks.metaldetector.persistence.domain.email;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxEntity, Long> {
+
+  // lock timeout -2 skips rows that are locked by another node (SKIP LOCKED)
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query("select e from emailOutbox e where e.status = :status and e.nextAttemptAt <= :now order by e.id")
+  List<EmailOutboxEntity> findDueForUpdate(@Param("status") EmailOutboxStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+  @Query("delete from emailOutbox e where e.status = :status and e.lastModifiedDateTime < :before")
+  @Modifying
+  @Transactional
+  int deleteByStatusModifiedBefore(@Param("status") EmailOutboxStatus status, @Param("before") Date before);
+}
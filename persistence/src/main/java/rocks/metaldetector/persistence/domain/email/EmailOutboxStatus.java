@@ -0,0 +1,9 @@
+package rocks.metaldetector.persistence.domain.email;
+
+public enum EmailOutboxStatus {
+
+  PENDING,
+  SENT,
+  FAILED
+
+}
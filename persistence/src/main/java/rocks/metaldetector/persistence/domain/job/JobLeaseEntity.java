@@ -0,0 +1,35 @@
+package rocks.metaldetector.persistence.domain.job;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import rocks.metaldetector.persistence.domain.BaseEntity;
+
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED) // for hibernate and model mapper
+@AllArgsConstructor(access = AccessLevel.PRIVATE) // for lombok builder
+@EqualsAndHashCode(callSuper = true)
+@Builder
+@Entity(name = "jobLeases")
+public class JobLeaseEntity extends BaseEntity {
+
+  @Column(name = "lease_name", nullable = false, unique = true)
+  private String leaseName;
+
+  @Column(name = "owner", nullable = false)
+  private String owner;
+
+  @Column(name = "leased_until", nullable = false)
+  private LocalDateTime leasedUntil;
+
+  @Column(name = "completed", nullable = false)
+  private boolean completed;
+
+}
@@ -0,0 +1,37 @@
+package rocks.metaldetector.persistence.domain.job;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLeaseEntity, Long> {
+
+  Optional<JobLeaseEntity> findByLeaseName(String leaseName);
+
+  @Query("update jobLeases l set l.owner = :owner, l.leasedUntil = :leasedUntil " +
+         "where l.leaseName = :leaseName and l.completed = false and l.leasedUntil < :now")
+  @Modifying(clearAutomatically = true)
+  int takeOverExpiredLease(@Param("leaseName") String leaseName, @Param("owner") String owner,
+                           @Param("leasedUntil") LocalDateTime leasedUntil, @Param("now") LocalDateTime now);
+
+  @Query("update jobLeases l set l.completed = true where l.leaseName = :leaseName and l.owner = :owner")
+  @Modifying(clearAutomatically = true)
+  int completeLease(@Param("leaseName") String leaseName, @Param("owner") String owner);
+
+  @Query("update jobLeases l set l.leasedUntil = :leasedUntil " +
+         "where l.leaseName = :leaseName and l.owner = :owner and l.completed = false")
+  @Modifying(clearAutomatically = true)
+  int renewLease(@Param("leaseName") String leaseName, @Param("owner") String owner, @Param("leasedUntil") LocalDateTime leasedUntil);
+
+  @Query("delete from jobLeases l where l.leasedUntil < :before")
+  @Modifying
+  @Transactional
+  int deleteAllLeasedUntilBefore(@Param("before") LocalDateTime before);
+}
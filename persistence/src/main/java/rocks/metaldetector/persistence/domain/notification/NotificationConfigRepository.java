@@ -1,19 +1,61 @@
 package rocks.metaldetector.persistence.domain.notification;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface NotificationConfigRepository extends JpaRepository<NotificationConfigEntity, Long> {
 
+  String FROM_ACTIVE_RECIPIENTS = "from notificationConfigs n join n.user u left join telegramConfigs t on t.notificationConfig = n " +
+                                  "where u.enabled = true and n.id > :lastId and mod(u.id, :shardCount) = :shard " +
+                                  "and (n.channel = rocks.metaldetector.persistence.domain.notification.NotificationChannel.EMAIL or t.chatId is not null) ";
+  String SELECT_ACTIVE_RECIPIENTS = "select new rocks.metaldetector.persistence.domain.notification.NotificationRecipient(n, u, t.chatId) " + FROM_ACTIVE_RECIPIENTS;
+  String COUNT_ACTIVE_RECIPIENTS = "select count(n) " + FROM_ACTIVE_RECIPIENTS;
+  String DUE_FREQUENCY = "and n.frequencyInWeeks > 0 " +
+                         "and (n.lastNotificationDate is null or n.lastNotificationDate + (n.frequencyInWeeks * 7) day <= :today) ";
+  String AT_RELEASE_DATE = "and n.notificationAtReleaseDate = true ";
+  String AT_ANNOUNCEMENT_DATE = "and n.notificationAtAnnouncementDate = true ";
+
   @Query("select n from notificationConfigs n where n.user.enabled = true")
   List<NotificationConfigEntity> findAllActive();
 
+  @Query(SELECT_ACTIVE_RECIPIENTS + DUE_FREQUENCY + "order by n.id")
+  List<NotificationRecipient> findDueFrequencyRecipients(@Param("lastId") long lastId, @Param("shard") int shard, @Param("shardCount") int shardCount,
+                                                         @Param("today") LocalDate today, Pageable pageable);
+
+  @Query(COUNT_ACTIVE_RECIPIENTS + DUE_FREQUENCY)
+  long countDueFrequencyRecipients(@Param("lastId") long lastId, @Param("shard") int shard, @Param("shardCount") int shardCount,
+                                   @Param("today") LocalDate today);
+
+  @Query(SELECT_ACTIVE_RECIPIENTS + AT_RELEASE_DATE + "order by n.id")
+  List<NotificationRecipient> findReleaseDateRecipients(@Param("lastId") long lastId, @Param("shard") int shard, @Param("shardCount") int shardCount,
+                                                        Pageable pageable);
+
+  @Query(COUNT_ACTIVE_RECIPIENTS + AT_RELEASE_DATE)
+  long countReleaseDateRecipients(@Param("lastId") long lastId, @Param("shard") int shard, @Param("shardCount") int shardCount);
+
+  @Query(SELECT_ACTIVE_RECIPIENTS + AT_ANNOUNCEMENT_DATE + "order by n.id")
+  List<NotificationRecipient> findAnnouncementDateRecipients(@Param("lastId") long lastId, @Param("shard") int shard, @Param("shardCount") int shardCount,
+                                                             Pageable pageable);
+
+  @Query(COUNT_ACTIVE_RECIPIENTS + AT_ANNOUNCEMENT_DATE)
+  long countAnnouncementDateRecipients(@Param("lastId") long lastId, @Param("shard") int shard, @Param("shardCount") int shardCount);
+
+  @Query("update notificationConfigs n set n.lastNotificationDate = :lastNotificationDate where n.id = :id")
+  @Modifying(clearAutomatically = true)
+  @Transactional
+  void updateLastNotificationDate(@Param("id") Long id, @Param("lastNotificationDate") LocalDate lastNotificationDate);
+
   List<NotificationConfigEntity> findAllByUser(AbstractUserEntity user);
 
   Optional<NotificationConfigEntity> findByUserAndChannel(AbstractUserEntity user, NotificationChannel channel);
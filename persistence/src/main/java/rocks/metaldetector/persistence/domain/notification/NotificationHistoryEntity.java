@@ -0,0 +1,30 @@
+package rocks.metaldetector.persistence.domain.notification;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import rocks.metaldetector.persistence.domain.BaseEntity;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED) // for hibernate and model mapper
+@AllArgsConstructor(access = AccessLevel.PRIVATE) // for lombok builder
+@EqualsAndHashCode(callSuper = true)
+@Builder
+@Entity(name = "notificationHistory")
+public class NotificationHistoryEntity extends BaseEntity {
+
+  @Column(name = "digest_hash", nullable = false, unique = true, length = 64)
+  private String digestHash;
+
+  @Column(name = "channel", nullable = false)
+  @Enumerated(EnumType.STRING)
+  private NotificationChannel channel;
+
+}
@@ -0,0 +1,24 @@
+package rocks.metaldetector.persistence.domain.notification;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+@Repository
+public interface NotificationHistoryRepository extends JpaRepository<NotificationHistoryEntity, Long> {
+
+  @Query("delete from notificationHistory h where h.digestHash = :digestHash")
+  @Modifying
+  @Transactional
+  void deleteByDigestHash(@Param("digestHash") String digestHash);
+
+  @Query("delete from notificationHistory h where h.createdDateTime < :before")
+  @Modifying
+  @Transactional
+  int deleteAllCreatedBefore(@Param("before") Date before);
+}
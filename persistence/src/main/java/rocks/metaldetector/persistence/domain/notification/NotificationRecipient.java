@@ -0,0 +1,22 @@
+package rocks.metaldetector.persistence.domain.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
+
+/**
+ * A notification config together with its user and, for the Telegram channel, the chat id, read in one query.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class NotificationRecipient {
+
+  private final NotificationConfigEntity notificationConfig;
+  private final AbstractUserEntity user;
+  private final Integer telegramChatId;
+
+}
@@ -0,0 +1,44 @@
+package rocks.metaldetector.persistence.domain.notification;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import rocks.metaldetector.persistence.domain.BaseEntity;
+
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED) // for hibernate and model mapper
+@AllArgsConstructor(access = AccessLevel.PRIVATE) // for lombok builder
+@EqualsAndHashCode(callSuper = true)
+@Builder
+@Entity(name = "notificationRuns")
+public class NotificationRunEntity extends BaseEntity {
+
+  @Column(name = "run_name", nullable = false, unique = true)
+  private String runName;
+
+  @Column(name = "total_recipients", nullable = false)
+  private long totalRecipients;
+
+  @Column(name = "processed_recipients", nullable = false)
+  private long processedRecipients;
+
+  @Column(name = "last_config_id", nullable = false)
+  private long lastConfigId;
+
+  @Column(name = "started_at", nullable = false)
+  private LocalDateTime startedAt;
+
+  @Column(name = "last_checkpoint_at")
+  private LocalDateTime lastCheckpointAt;
+
+  @Column(name = "completed_at")
+  private LocalDateTime completedAt;
+
+}
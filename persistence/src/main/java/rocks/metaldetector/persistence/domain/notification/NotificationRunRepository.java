@@ -0,0 +1,30 @@
+package rocks.metaldetector.persistence.domain.notification;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationRunRepository extends JpaRepository<NotificationRunEntity, Long> {
+
+  Optional<NotificationRunEntity> findByRunName(String runName);
+
+  @Query("select r from notificationRuns r where r.startedAt >= :from and r.startedAt < :to order by r.startedAt, r.runName")
+  List<NotificationRunEntity> findAllStartedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  @Query("update notificationRuns r set r.lastConfigId = :lastConfigId, r.processedRecipients = r.processedRecipients + :processedRecipients, " +
+         "r.lastCheckpointAt = :now where r.runName = :runName")
+  @Modifying(clearAutomatically = true)
+  int checkpoint(@Param("runName") String runName, @Param("lastConfigId") long lastConfigId,
+                 @Param("processedRecipients") long processedRecipients, @Param("now") LocalDateTime now);
+
+  @Query("update notificationRuns r set r.completedAt = :now where r.runName = :runName")
+  @Modifying(clearAutomatically = true)
+  int complete(@Param("runName") String runName, @Param("now") LocalDateTime now);
+}
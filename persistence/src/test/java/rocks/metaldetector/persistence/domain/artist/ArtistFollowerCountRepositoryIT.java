@@ -0,0 +1,150 @@
+package rocks.metaldetector.persistence.domain.artist;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import rocks.metaldetector.persistence.BaseDataJpaTest;
+import rocks.metaldetector.persistence.domain.user.UserEntity;
+import rocks.metaldetector.persistence.domain.user.UserFactory;
+import rocks.metaldetector.persistence.domain.user.UserRepository;
+
+import java.util.List;
+
+import static rocks.metaldetector.persistence.domain.artist.ArtistSource.DISCOGS;
+import static rocks.metaldetector.persistence.domain.artist.ArtistSource.SPOTIFY;
+
+class ArtistFollowerCountRepositoryIT extends BaseDataJpaTest implements WithAssertions {
+
+  @Autowired
+  private ArtistFollowerCountRepository underTest;
+
+  @Autowired
+  private ArtistRepository artistRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private FollowActionRepository followActionRepository;
+
+  private final ArtistEntity artist1 = ArtistEntityFactory.createArtistEntity("1", "1", SPOTIFY);
+  private final ArtistEntity artist2 = ArtistEntityFactory.createArtistEntity("2", "2", SPOTIFY);
+  private final ArtistEntity artist3 = ArtistEntityFactory.createArtistEntity("3", "3", DISCOGS);
+
+  private final UserEntity userA = UserFactory.createUser("A", "a@test.com");
+  private final UserEntity userB = UserFactory.createUser("B", "b@test.com");
+
+  @BeforeEach
+  void setUp() {
+    artistRepository.saveAll(List.of(artist1, artist2, artist3));
+    userRepository.saveAll(List.of(userA, userB));
+  }
+
+  @AfterEach
+  void tearDown() {
+    underTest.deleteAll();
+    followActionRepository.deleteAll();
+    artistRepository.deleteAll();
+    userRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("findAllByArtistIn() finds the counts of the given artists")
+  void test_find_all_by_artist_in() {
+    // given
+    underTest.saveAll(List.of(count(artist1, 1), count(artist2, 2)));
+
+    // when
+    var result = underTest.findAllByArtistIn(List.of(artist2, artist3));
+
+    // then
+    assertThat(result).extracting(ArtistFollowerCountEntity::getArtist).containsExactly(artist2);
+  }
+
+  @Test
+  @DisplayName("addFollower() adds the follower to the counts of the given artists")
+  void test_add_follower() {
+    // given
+    underTest.saveAll(List.of(count(artist1, 1), count(artist2, 2), count(artist3, 3)));
+
+    // when
+    var result = underTest.addFollower(List.of(artist1, artist2), -1);
+
+    // then
+    assertThat(result).isEqualTo(2);
+    assertThat(followerOf(artist1)).isZero();
+    assertThat(followerOf(artist2)).isEqualTo(1);
+    assertThat(followerOf(artist3)).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("removeFollowerOfUser() removes the follow actions of the user from the counts")
+  void test_remove_follower_of_user() {
+    // given
+    follow(userA, artist1);
+    follow(userA, artist2);
+    follow(userB, artist2);
+    underTest.saveAll(List.of(count(artist1, 1), count(artist2, 2), count(artist3, 0)));
+
+    // when
+    underTest.removeFollowerOfUser(userA.getId());
+
+    // then
+    assertThat(followerOf(artist1)).isZero();
+    assertThat(followerOf(artist2)).isEqualTo(1);
+    assertThat(followerOf(artist3)).isZero();
+  }
+
+  @Test
+  @DisplayName("correctFollower() sets the counts that differ to the number of follow actions")
+  void test_correct_follower() {
+    // given
+    follow(userA, artist1);
+    follow(userB, artist1);
+    follow(userA, artist2);
+    underTest.saveAll(List.of(count(artist1, 5), count(artist2, 1), count(artist3, 1)));
+
+    // when
+    var result = underTest.correctFollower();
+
+    // then
+    assertThat(result).isEqualTo(2);
+    assertThat(followerOf(artist1)).isEqualTo(2);
+    assertThat(followerOf(artist2)).isEqualTo(1);
+    assertThat(followerOf(artist3)).isZero();
+  }
+
+  @Test
+  @DisplayName("insertMissingFollower() creates the counts of followed artists without count")
+  void test_insert_missing_follower() {
+    // given
+    follow(userA, artist1);
+    follow(userA, artist2);
+    follow(userB, artist2);
+    underTest.save(count(artist1, 1));
+
+    // when
+    var result = underTest.insertMissingFollower();
+
+    // then
+    assertThat(result).isEqualTo(1);
+    assertThat(followerOf(artist1)).isEqualTo(1);
+    assertThat(followerOf(artist2)).isEqualTo(2);
+    assertThat(underTest.findAllByArtistIn(List.of(artist3))).isEmpty();
+  }
+
+  private ArtistFollowerCountEntity count(ArtistEntity artist, int follower) {
+    return ArtistFollowerCountEntity.builder().artist(artist).follower(follower).build();
+  }
+
+  private void follow(UserEntity user, ArtistEntity artist) {
+    followActionRepository.save(FollowActionEntity.builder().user(user).artist(artist).build());
+  }
+
+  private int followerOf(ArtistEntity artist) {
+    return artistRepository.countArtistFollower(artist.getExternalId());
+  }
+}
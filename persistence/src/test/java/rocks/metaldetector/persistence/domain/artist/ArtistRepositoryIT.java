@@ -34,6 +34,9 @@ class ArtistRepositoryIT extends BaseDataJpaTest implements WithAssertions {
   @Autowired
   private FollowActionRepository followActionRepository;
 
+  @Autowired
+  private ArtistFollowerCountRepository artistFollowerCountRepository;
+
   private final ArtistEntity artist1 = ArtistEntityFactory.createArtistEntity("1", "1", SPOTIFY);
   private final ArtistEntity artist2 = ArtistEntityFactory.createArtistEntity("2", "2", SPOTIFY);
   private final ArtistEntity artist3 = ArtistEntityFactory.createArtistEntity("3", "3", DISCOGS);
@@ -59,6 +62,7 @@ class ArtistRepositoryIT extends BaseDataJpaTest implements WithAssertions {
 
   @AfterEach
   void tearDown() {
+    artistFollowerCountRepository.deleteAll();
     followActionRepository.deleteAll();
     underTest.deleteAll();
     userRepository.deleteAll();
@@ -153,6 +157,7 @@ class ArtistRepositoryIT extends BaseDataJpaTest implements WithAssertions {
     follow(userB, artist2);
     follow(userB, artist3);
     follow(userC, artist3);
+    artistFollowerCountRepository.insertMissingFollower();
 
     // when
     var result = underTest.findTopArtists(minFollower);
@@ -185,6 +190,7 @@ class ArtistRepositoryIT extends BaseDataJpaTest implements WithAssertions {
     follow(userA, artist3);
     follow(userB, artist3);
     follow(userC, artist3);
+    artistFollowerCountRepository.insertMissingFollower();
 
     // when
     var result = underTest.countArtistFollower(artist3.getExternalId());
@@ -193,6 +199,56 @@ class ArtistRepositoryIT extends BaseDataJpaTest implements WithAssertions {
     assertThat(result).isEqualTo(3);
   }
 
+  @Test
+  @DisplayName("findTopArtists() does not find artists whose follower count dropped to zero")
+  void test_find_top_artists_without_follower() {
+    // given
+    artistFollowerCountRepository.save(ArtistFollowerCountEntity.builder().artist(artist1).follower(0).build());
+
+    // when
+    var result = underTest.findTopArtists(0);
+
+    // then
+    assertThat(result).isEmpty();
+  }
+
+  @Test
+  @DisplayName("countArtistFollower() returns zero for an artist without follower count")
+  void test_count_artist_follower_without_count() {
+    // when
+    var result = underTest.countArtistFollower(artist1.getExternalId());
+
+    // then
+    assertThat(result).isZero();
+  }
+
+  @Test
+  @DisplayName("countArtistFollowerIn() counts the followers of all given artists at once")
+  void test_count_artist_follower_in() {
+    // given
+    follow(userA, artist1);
+    follow(userB, artist1);
+    follow(userA, artist3);
+    artistFollowerCountRepository.insertMissingFollower();
+
+    // when
+    var result = underTest.countArtistFollowerIn(List.of(artist1.getExternalId(), artist2.getExternalId(), artist3.getExternalId()));
+
+    // then
+    assertThat(result).extracting(ArtistFollower::getExternalId, ArtistFollower::getFollower)
+        .containsExactlyInAnyOrder(tuple(artist1.getExternalId(), 2), tuple(artist3.getExternalId(), 1));
+  }
+
+  @Test
+  @DisplayName("lockAll() returns the given artists ordered by id")
+  void test_lock_all() {
+    // when
+    var result = underTest.lockAll(List.of(artist3, artist1));
+
+    // then
+    assertThat(result).containsExactly(artist1, artist3);
+  }
+
   private static Stream<Arguments> artistDetailsProvider() {
     return Stream.of(
             Arguments.of("1", SPOTIFY),
@@ -104,4 +104,51 @@ class FollowActionRepositoryIT extends BaseDataJpaTest implements WithAssertions
     // then
     assertThat(result).isFalse();
   }
+
+  @Test
+  @DisplayName("Should return the external ids of the given artists that the user follows")
+  void should_return_followed_external_ids() {
+    // when
+    var result = underTest.findFollowedExternalIds(userB, SPOTIFY, List.of("1", "3", "4"));
+
+    // then
+    assertThat(result).containsExactly("1");
+  }
+
+  @Test
+  @DisplayName("Should return only the external ids of artists from the given source")
+  void should_return_followed_external_ids_of_source() {
+    // when
+    var result = underTest.findFollowedExternalIds(userA, DISCOGS, List.of("1", "2", "3"));
+
+    // then
+    assertThat(result).containsExactly("3");
+  }
+
+  @Test
+  @DisplayName("Should return the followed artist names of all given users")
+  void should_return_followed_artist_names_of_users() {
+    // when
+    var result = underTest.findFollowedArtistNames(List.of(userA, userB));
+
+    // then
+    assertThat(result).extracting(FollowedArtistName::getUserId, FollowedArtistName::getArtistName)
+        .containsExactlyInAnyOrder(
+            tuple(userA.getId(), "1"),
+            tuple(userA.getId(), "2"),
+            tuple(userA.getId(), "3"),
+            tuple(userB.getId(), "1"),
+            tuple(userB.getId(), "2")
+        );
+  }
+
+  @Test
+  @DisplayName("Should return only the followed artist names of the given users")
+  void should_return_only_followed_artist_names_of_given_users() {
+    // when
+    var result = underTest.findFollowedArtistNames(List.of(userB));
+
+    // then
+    assertThat(result).extracting(FollowedArtistName::getArtistName).containsExactlyInAnyOrder("1", "2");
+  }
 }
@@ -0,0 +1,86 @@
+package rocks.metaldetector.persistence.domain.email;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import rocks.metaldetector.persistence.BaseDataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static rocks.metaldetector.persistence.domain.email.EmailOutboxStatus.FAILED;
+import static rocks.metaldetector.persistence.domain.email.EmailOutboxStatus.PENDING;
+import static rocks.metaldetector.persistence.domain.email.EmailOutboxStatus.SENT;
+
+class EmailOutboxRepositoryIT extends BaseDataJpaTest implements WithAssertions {
+
+  @Autowired
+  private EmailOutboxRepository underTest;
+
+  @AfterEach
+  void tearDown() {
+    underTest.deleteAll();
+  }
+
+  @Test
+  @DisplayName("findDueForUpdate only finds due emails with the given status ordered by id")
+  void test_find_due_for_update() {
+    // given
+    var now = LocalDateTime.now().truncatedTo(MILLIS); // the database would round finer fractions
+    var dueEmail1 = underTest.save(createEmail(PENDING, now.minusMinutes(1)));
+    var dueEmail2 = underTest.save(createEmail(PENDING, now));
+    underTest.save(createEmail(PENDING, now.plusMinutes(1)));
+    underTest.save(createEmail(SENT, now.minusMinutes(1)));
+    underTest.save(createEmail(FAILED, now.minusMinutes(1)));
+
+    // when
+    var result = underTest.findDueForUpdate(PENDING, now, Pageable.ofSize(10));
+
+    // then
+    assertThat(result).containsExactly(dueEmail1, dueEmail2);
+  }
+
+  @Test
+  @DisplayName("findDueForUpdate is limited to the page size")
+  void test_find_due_for_update_limited() {
+    // given
+    var now = LocalDateTime.now().truncatedTo(MILLIS);
+    var dueEmail = underTest.save(createEmail(PENDING, now));
+    underTest.save(createEmail(PENDING, now));
+
+    // when
+    var result = underTest.findDueForUpdate(PENDING, now, Pageable.ofSize(1));
+
+    // then
+    assertThat(result).containsExactly(dueEmail);
+  }
+
+  @Test
+  @DisplayName("deleteByStatusModifiedBefore only deletes emails with the given status")
+  void test_delete_by_status_modified_before() {
+    // given
+    underTest.save(createEmail(SENT, LocalDateTime.now()));
+    var pendingEmail = underTest.save(createEmail(PENDING, LocalDateTime.now()));
+
+    // when
+    var result = underTest.deleteByStatusModifiedBefore(SENT, new Date(System.currentTimeMillis() + 60000));
+
+    // then
+    assertThat(result).isEqualTo(1);
+    assertThat(underTest.findAll()).containsExactly(pendingEmail);
+  }
+
+  private EmailOutboxEntity createEmail(EmailOutboxStatus status, LocalDateTime nextAttemptAt) {
+    return EmailOutboxEntity.builder()
+        .recipient("john.doe@example.com")
+        .subject("subject")
+        .html("<h1>Test</h1>")
+        .status(status)
+        .nextAttemptAt(nextAttemptAt)
+        .build();
+  }
+}
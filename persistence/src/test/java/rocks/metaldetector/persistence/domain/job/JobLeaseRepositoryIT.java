@@ -0,0 +1,140 @@
+package rocks.metaldetector.persistence.domain.job;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import rocks.metaldetector.persistence.BaseDataJpaTest;
+
+import java.time.LocalDateTime;
+
+class JobLeaseRepositoryIT extends BaseDataJpaTest implements WithAssertions {
+
+  private static final String LEASE_NAME = "job:2024-01-01:0";
+
+  @Autowired
+  private JobLeaseRepository underTest;
+
+  @AfterEach
+  void tearDown() {
+    underTest.deleteAll();
+  }
+
+  @Test
+  @DisplayName("expired lease is taken over by new owner")
+  void test_expired_lease_taken_over() {
+    // given
+    var now = LocalDateTime.now();
+    underTest.save(createLease("node-1", now.minusMinutes(1), false));
+
+    // when
+    var result = underTest.takeOverExpiredLease(LEASE_NAME, "node-2", now.plusMinutes(30), now);
+
+    // then
+    assertThat(result).isEqualTo(1);
+    assertThat(underTest.findByLeaseName(LEASE_NAME).orElseThrow().getOwner()).isEqualTo("node-2");
+  }
+
+  @Test
+  @DisplayName("active lease is not taken over")
+  void test_active_lease_not_taken_over() {
+    // given
+    var now = LocalDateTime.now();
+    underTest.save(createLease("node-1", now.plusMinutes(1), false));
+
+    // when
+    var result = underTest.takeOverExpiredLease(LEASE_NAME, "node-2", now.plusMinutes(30), now);
+
+    // then
+    assertThat(result).isZero();
+    assertThat(underTest.findByLeaseName(LEASE_NAME).orElseThrow().getOwner()).isEqualTo("node-1");
+  }
+
+  @Test
+  @DisplayName("completed lease is not taken over")
+  void test_completed_lease_not_taken_over() {
+    // given
+    var now = LocalDateTime.now();
+    underTest.save(createLease("node-1", now.minusMinutes(1), true));
+
+    // when
+    var result = underTest.takeOverExpiredLease(LEASE_NAME, "node-2", now.plusMinutes(30), now);
+
+    // then
+    assertThat(result).isZero();
+  }
+
+  @Test
+  @DisplayName("lease is only completed by its owner")
+  void test_complete_lease() {
+    // given
+    underTest.save(createLease("node-1", LocalDateTime.now().plusMinutes(1), false));
+
+    // when
+    var resultOtherOwner = underTest.completeLease(LEASE_NAME, "node-2");
+    var resultOwner = underTest.completeLease(LEASE_NAME, "node-1");
+
+    // then
+    assertThat(resultOtherOwner).isZero();
+    assertThat(resultOwner).isEqualTo(1);
+    assertThat(underTest.findByLeaseName(LEASE_NAME).orElseThrow().isCompleted()).isTrue();
+  }
+
+  @Test
+  @DisplayName("lease is only renewed by its owner")
+  void test_renew_lease() {
+    // given
+    var now = LocalDateTime.now();
+    underTest.save(createLease("node-1", now.plusMinutes(1), false));
+
+    // when
+    var resultOtherOwner = underTest.renewLease(LEASE_NAME, "node-2", now.plusMinutes(30));
+    var resultOwner = underTest.renewLease(LEASE_NAME, "node-1", now.plusMinutes(30));
+
+    // then
+    assertThat(resultOtherOwner).isZero();
+    assertThat(resultOwner).isEqualTo(1);
+    assertThat(underTest.findByLeaseName(LEASE_NAME).orElseThrow().getLeasedUntil()).isAfter(now.plusMinutes(1));
+  }
+
+  @Test
+  @DisplayName("completed lease is not renewed")
+  void test_completed_lease_not_renewed() {
+    // given
+    var now = LocalDateTime.now();
+    underTest.save(createLease("node-1", now.plusMinutes(1), true));
+
+    // when
+    var result = underTest.renewLease(LEASE_NAME, "node-1", now.plusMinutes(30));
+
+    // then
+    assertThat(result).isZero();
+  }
+
+  @Test
+  @DisplayName("only leases that expired before the given time are deleted")
+  void test_delete_expired_leases() {
+    // given
+    var now = LocalDateTime.now();
+    underTest.save(createLease("node-1", now.minusDays(8), true));
+    underTest.save(JobLeaseEntity.builder().leaseName("job:2024-01-08:0").owner("node-1").leasedUntil(now.minusDays(1)).build());
+
+    // when
+    var result = underTest.deleteAllLeasedUntilBefore(now.minusDays(7));
+
+    // then
+    assertThat(result).isEqualTo(1);
+    assertThat(underTest.findByLeaseName(LEASE_NAME)).isEmpty();
+    assertThat(underTest.findByLeaseName("job:2024-01-08:0")).isPresent();
+  }
+
+  private JobLeaseEntity createLease(String owner, LocalDateTime leasedUntil, boolean completed) {
+    return JobLeaseEntity.builder()
+        .leaseName(LEASE_NAME)
+        .owner(owner)
+        .leasedUntil(leasedUntil)
+        .completed(completed)
+        .build();
+  }
+}
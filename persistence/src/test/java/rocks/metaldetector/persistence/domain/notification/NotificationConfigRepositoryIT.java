@@ -6,11 +6,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import rocks.metaldetector.persistence.BaseDataJpaTest;
 import rocks.metaldetector.persistence.domain.user.UserEntity;
 import rocks.metaldetector.persistence.domain.user.UserFactory;
 import rocks.metaldetector.persistence.domain.user.UserRepository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static rocks.metaldetector.persistence.domain.notification.NotificationChannel.EMAIL;
@@ -24,6 +26,9 @@ class NotificationConfigRepositoryIT extends BaseDataJpaTest implements WithAsse
   @Autowired
   private UserRepository userRepository;
 
+  @Autowired
+  private TelegramConfigRepository telegramConfigRepository;
+
   private UserEntity user1;
   private UserEntity user2;
   private NotificationConfigEntity notificationConfig1;
@@ -67,6 +72,7 @@ class NotificationConfigRepositoryIT extends BaseDataJpaTest implements WithAsse
 
   @AfterEach
   void tearDown() {
+    telegramConfigRepository.deleteAll();
     underTest.deleteAll();
     userRepository.deleteAll();
   }
@@ -157,4 +163,126 @@ class NotificationConfigRepositoryIT extends BaseDataJpaTest implements WithAsse
     assertThat(result.get(1)).isEqualTo(notificationConfig2);
     assertThat(result.get(2)).isEqualTo(notificationConfig3);
   }
+
+  @Test
+  @DisplayName("updateLastNotificationDate only updates the given config")
+  void test_update_last_notification_date() {
+    // given
+    var lastNotificationDate = LocalDate.of(2024, 1, 1);
+
+    // when
+    underTest.updateLastNotificationDate(notificationConfig1.getId(), lastNotificationDate);
+
+    // then
+    assertThat(underTest.findById(notificationConfig1.getId()).orElseThrow().getLastNotificationDate()).isEqualTo(lastNotificationDate);
+    assertThat(underTest.findById(notificationConfig2.getId()).orElseThrow().getLastNotificationDate()).isNull();
+  }
+
+  @Test
+  @DisplayName("findReleaseDateRecipients finds recipients with user and telegram chat id")
+  void test_find_release_date_recipients() {
+    // given
+    telegramConfigRepository.save(TelegramConfigEntity.builder().notificationConfig(notificationConfig2).chatId(666).build());
+
+    // when
+    var result = underTest.findReleaseDateRecipients(0, 0, 1, Pageable.ofSize(10));
+
+    // then
+    assertThat(result).containsExactly(
+        new NotificationRecipient(notificationConfig1, user1, null),
+        new NotificationRecipient(notificationConfig2, user1, 666),
+        new NotificationRecipient(notificationConfig3, user2, null)
+    );
+  }
+
+  @Test
+  @DisplayName("recipient queries skip telegram configs without chat id")
+  void test_recipients_without_chat_id_skipped() {
+    // given
+    telegramConfigRepository.save(TelegramConfigEntity.builder().notificationConfig(notificationConfig2).registrationId(666).build());
+
+    // when
+    var result = underTest.findAnnouncementDateRecipients(0, 0, 1, Pageable.ofSize(10));
+
+    // then
+    assertThat(result).extracting(NotificationRecipient::getNotificationConfig).containsExactly(notificationConfig1, notificationConfig3);
+  }
+
+  @Test
+  @DisplayName("recipient queries skip disabled users and deactivated notifications")
+  void test_recipients_of_disabled_users_skipped() {
+    // given
+    var deactivatedUser = UserFactory.createUser("deactivated", "deactivated@mail.mail");
+    deactivatedUser.setEnabled(false);
+    userRepository.save(deactivatedUser);
+    underTest.save(NotificationConfigEntity.builder().user(deactivatedUser).channel(EMAIL).build());
+    var user3 = UserFactory.createUser("user3", "user3@example.com");
+    userRepository.save(user3);
+    underTest.save(NotificationConfigEntity.builder().user(user3).channel(EMAIL).notificationAtReleaseDate(false).build());
+
+    // when
+    var result = underTest.findReleaseDateRecipients(0, 0, 1, Pageable.ofSize(10));
+
+    // then
+    assertThat(result).extracting(NotificationRecipient::getNotificationConfig).containsExactly(notificationConfig1, notificationConfig3);
+  }
+
+  @Test
+  @DisplayName("recipient queries continue after the last id and are limited to the page size")
+  void test_recipients_keyset() {
+    // when
+    var result = underTest.findReleaseDateRecipients(notificationConfig1.getId(), 0, 1, Pageable.ofSize(1));
+
+    // then
+    assertThat(result).extracting(NotificationRecipient::getNotificationConfig).containsExactly(notificationConfig3);
+  }
+
+  @Test
+  @DisplayName("recipient queries only find the users of the given shard")
+  void test_recipients_sharded() {
+    // when
+    var shard1 = underTest.findReleaseDateRecipients(0, (int) (user1.getId() % 2), 2, Pageable.ofSize(10));
+    var shard2 = underTest.findReleaseDateRecipients(0, (int) (user2.getId() % 2), 2, Pageable.ofSize(10));
+
+    // then
+    assertThat(shard1).extracting(NotificationRecipient::getUser).containsOnly(user1);
+    assertThat(shard2).extracting(NotificationRecipient::getUser).containsOnly(user2);
+  }
+
+  @Test
+  @DisplayName("findDueFrequencyRecipients only finds configs whose frequency has passed")
+  void test_find_due_frequency_recipients() {
+    // given
+    var today = LocalDate.of(2024, 2, 1);
+    underTest.updateLastNotificationDate(notificationConfig1.getId(), today.minusWeeks(4));
+    underTest.updateLastNotificationDate(notificationConfig3.getId(), today.minusWeeks(3));
+    var user3 = UserFactory.createUser("user3", "user3@example.com");
+    userRepository.save(user3);
+    underTest.save(NotificationConfigEntity.builder().user(user3).channel(EMAIL).frequencyInWeeks(0).build());
+
+    // when
+    var result = underTest.findDueFrequencyRecipients(0, 0, 1, today, Pageable.ofSize(10));
+
+    // then
+    assertThat(result).extracting(recipient -> recipient.getNotificationConfig().getId()).containsExactly(notificationConfig1.getId());
+  }
+
+  @Test
+  @DisplayName("count queries count the recipients of the corresponding find queries")
+  void test_count_recipients() {
+    // given
+    var today = LocalDate.of(2024, 2, 1);
+    telegramConfigRepository.save(TelegramConfigEntity.builder().notificationConfig(notificationConfig2).chatId(666).build());
+    underTest.updateLastNotificationDate(notificationConfig3.getId(), today.minusWeeks(3));
+
+    // when
+    var dueFrequencyRecipients = underTest.countDueFrequencyRecipients(0, 0, 1, today);
+    var releaseDateRecipients = underTest.countReleaseDateRecipients(0, 0, 1);
+    var announcementDateRecipients = underTest.countAnnouncementDateRecipients(notificationConfig1.getId(), 0, 1);
+
+    // then
+    assertThat(dueFrequencyRecipients).isEqualTo(2);
+    assertThat(releaseDateRecipients).isEqualTo(3);
+    assertThat(announcementDateRecipients).isEqualTo(2);
+  }
 }
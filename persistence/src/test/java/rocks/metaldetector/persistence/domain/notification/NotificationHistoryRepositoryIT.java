@@ -0,0 +1,91 @@
+package rocks.metaldetector.persistence.domain.notification;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
+import rocks.metaldetector.persistence.BaseDataJpaTest;
+
+import java.util.Date;
+
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+import static rocks.metaldetector.persistence.domain.notification.NotificationChannel.EMAIL;
+import static rocks.metaldetector.persistence.domain.notification.NotificationChannel.TELEGRAM;
+
+class NotificationHistoryRepositoryIT extends BaseDataJpaTest implements WithAssertions {
+
+  @Autowired
+  private NotificationHistoryRepository underTest;
+
+  @AfterEach
+  void tearDown() {
+    underTest.deleteAll();
+  }
+
+  @Test
+  @Transactional(propagation = NOT_SUPPORTED) // the failed insert would otherwise break the session of the test transaction
+  @DisplayName("saving an existing digest fails")
+  void test_existing_digest() {
+    // given
+    underTest.saveAndFlush(createHistory("digest", EMAIL));
+
+    // when
+    var throwable = catchThrowable(() -> underTest.saveAndFlush(createHistory("digest", TELEGRAM)));
+
+    // then
+    assertThat(throwable).isInstanceOf(DataIntegrityViolationException.class);
+  }
+
+  @Test
+  @DisplayName("deleteByDigestHash only deletes the given digest")
+  void test_delete_by_digest_hash() {
+    // given
+    underTest.save(createHistory("digest1", EMAIL));
+    var otherHistory = underTest.save(createHistory("digest2", EMAIL));
+
+    // when
+    underTest.deleteByDigestHash("digest1");
+
+    // then
+    assertThat(underTest.findAll()).containsExactly(otherHistory);
+  }
+
+  @Test
+  @DisplayName("deleteAllCreatedBefore deletes all digests created before the given date")
+  void test_delete_all_created_before() {
+    // given
+    underTest.save(createHistory("digest1", EMAIL));
+    underTest.save(createHistory("digest2", TELEGRAM));
+
+    // when
+    var result = underTest.deleteAllCreatedBefore(new Date(System.currentTimeMillis() + 60000));
+
+    // then
+    assertThat(result).isEqualTo(2);
+    assertThat(underTest.count()).isZero();
+  }
+
+  @Test
+  @DisplayName("deleteAllCreatedBefore does not delete newer digests")
+  void test_delete_all_created_before_keeps_newer() {
+    // given
+    underTest.save(createHistory("digest", EMAIL));
+
+    // when
+    var result = underTest.deleteAllCreatedBefore(new Date(System.currentTimeMillis() - 60000));
+
+    // then
+    assertThat(result).isZero();
+    assertThat(underTest.count()).isEqualTo(1);
+  }
+
+  private NotificationHistoryEntity createHistory(String digestHash, NotificationChannel channel) {
+    return NotificationHistoryEntity.builder()
+        .digestHash(digestHash)
+        .channel(channel)
+        .build();
+  }
+}
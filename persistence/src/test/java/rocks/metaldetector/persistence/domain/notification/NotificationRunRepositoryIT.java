@@ -0,0 +1,83 @@
+package rocks.metaldetector.persistence.domain.notification;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import rocks.metaldetector.persistence.BaseDataJpaTest;
+
+import java.time.LocalDateTime;
+
+class NotificationRunRepositoryIT extends BaseDataJpaTest implements WithAssertions {
+
+  @Autowired
+  private NotificationRunRepository underTest;
+
+  @AfterEach
+  void tearDown() {
+    underTest.deleteAll();
+  }
+
+  @Test
+  @DisplayName("checkpoint sets the last config id and adds the processed recipients")
+  void test_checkpoint() {
+    // given
+    var now = LocalDateTime.of(2026, 10, 17, 7, 5);
+    underTest.save(createRun("run", LocalDateTime.of(2026, 10, 17, 7, 0)));
+    underTest.checkpoint("run", 10L, 50, now.minusMinutes(1));
+
+    // when
+    var result = underTest.checkpoint("run", 20L, 30, now);
+
+    // then
+    assertThat(result).isEqualTo(1);
+    var run = underTest.findByRunName("run").orElseThrow();
+    assertThat(run.getLastConfigId()).isEqualTo(20L);
+    assertThat(run.getProcessedRecipients()).isEqualTo(80L);
+    assertThat(run.getLastCheckpointAt()).isEqualTo(now);
+    assertThat(run.getCompletedAt()).isNull();
+  }
+
+  @Test
+  @DisplayName("complete only sets the given run completed")
+  void test_complete() {
+    // given
+    var now = LocalDateTime.of(2026, 10, 17, 7, 5);
+    underTest.save(createRun("run1", now.minusMinutes(5)));
+    underTest.save(createRun("run2", now.minusMinutes(5)));
+
+    // when
+    underTest.complete("run1", now);
+
+    // then
+    assertThat(underTest.findByRunName("run1").orElseThrow().getCompletedAt()).isEqualTo(now);
+    assertThat(underTest.findByRunName("run2").orElseThrow().getCompletedAt()).isNull();
+  }
+
+  @Test
+  @DisplayName("findAllStartedBetween finds the runs started in the given period ordered by start")
+  void test_find_all_started_between() {
+    // given
+    var from = LocalDateTime.of(2026, 10, 17, 0, 0);
+    var to = from.plusDays(1);
+    var run1 = underTest.save(createRun("run1", from.plusHours(8)));
+    var run2 = underTest.save(createRun("run2", from));
+    underTest.save(createRun("run3", from.minusSeconds(1)));
+    underTest.save(createRun("run4", to));
+
+    // when
+    var result = underTest.findAllStartedBetween(from, to);
+
+    // then
+    assertThat(result).containsExactly(run2, run1);
+  }
+
+  private NotificationRunEntity createRun(String runName, LocalDateTime startedAt) {
+    return NotificationRunEntity.builder()
+        .runName(runName)
+        .totalRecipients(100)
+        .startedAt(startedAt)
+        .build();
+  }
+}
@@ -16,6 +16,7 @@ import rocks.metaldetector.spotify.client.transformer.SpotifyArtistTransformer;
 import rocks.metaldetector.spotify.facade.dto.SpotifyAlbumDto;
 import rocks.metaldetector.spotify.facade.dto.SpotifyArtistDto;
 import rocks.metaldetector.spotify.facade.dto.SpotifyArtistSearchResultDto;
+import rocks.metaldetector.support.ConcurrentPageFetcher;
 import rocks.metaldetector.support.SlicingService;
 
 import java.util.ArrayList;
@@ -36,6 +37,7 @@ public class SpotifyServiceImpl implements SpotifyService {
   private final SpotifyArtistTransformer artistTransformer;
   private final SpotifyAlbumTransformer albumTransformer;
   private final SlicingService slicingService;
+  private final ConcurrentPageFetcher pageFetcher;
 
   @Override
   public SpotifyArtistSearchResultDto searchArtistByName(String artistQueryString, int pageNumber, int pageSize) {
@@ -65,17 +67,12 @@ public class SpotifyServiceImpl implements SpotifyService {
 
   @Override
   public List<SpotifyAlbumDto> fetchLikedAlbums() {
-    int offset = 0;
-    List<SpotifySavedAlbumsPageItem> resultItems = new ArrayList<>();
-    SpotifySavedAlbumsPage importResult;
-    do {
-      importResult = importClient.fetchLikedAlbums(offset);
-      resultItems.addAll(importResult.getItems());
-      offset += importResult.getLimit();
-    }
-    while (offset < importResult.getTotal());
+    SpotifySavedAlbumsPage firstPage = importClient.fetchLikedAlbums(0);
+    int limit = firstPage.getLimit();
+    int totalPages = limit > 0 ? (int) Math.ceil((double) firstPage.getTotal() / limit) : 1;
 
-    return resultItems.stream()
+    return pageFetcher.fetchRemainingPages(firstPage, totalPages, page -> importClient.fetchLikedAlbums((page - 1) * limit)).stream()
+        .flatMap(page -> page.getItems().stream())
         .map(SpotifySavedAlbumsPageItem::getAlbum)
         .map(albumTransformer::transform)
         .collect(Collectors.toList());
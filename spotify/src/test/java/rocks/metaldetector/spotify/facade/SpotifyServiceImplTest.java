@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import rocks.metaldetector.spotify.api.imports.SpotifyFollowedArtistsPage;
 import rocks.metaldetector.spotify.api.imports.SpotifySavedAlbumsPage;
@@ -23,6 +24,7 @@ import rocks.metaldetector.spotify.client.transformer.SpotifyArtistTransformer;
 import rocks.metaldetector.spotify.facade.dto.SpotifyAlbumDto;
 import rocks.metaldetector.spotify.facade.dto.SpotifyArtistDto;
 import rocks.metaldetector.spotify.facade.dto.SpotifyArtistSearchResultDto;
+import rocks.metaldetector.support.ConcurrentPageFetcher;
 import rocks.metaldetector.support.SlicingService;
 
 import java.util.Collections;
@@ -64,6 +66,9 @@ class SpotifyServiceImplTest implements WithAssertions {
   @Mock
   private SlicingService slicingService;
 
+  @Spy
+  private ConcurrentPageFetcher pageFetcher = new ConcurrentPageFetcher(1, 1);
+
   @InjectMocks
   private SpotifyServiceImpl underTest;
 
@@ -0,0 +1,56 @@
+package rocks.metaldetector.support;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Runs a task on a worker thread with the security context, the request attributes and the name of the calling
+ * thread, so that e.g. the OAuth2 clients choose the same authorized client manager as for the caller. The name
+ * of the worker thread itself is left untouched.
+ */
+public final class CallerContext {
+
+  private static final ThreadLocal<String> CALLER_NAME = new ThreadLocal<>();
+
+  private CallerContext() {
+  }
+
+  /**
+   * Returns the name of the thread that started the current task, which is the current thread itself outside
+   * of a task that was wrapped with {@link #wrap(Runnable)}.
+   */
+  public static String getCallerName() {
+    String callerName = CALLER_NAME.get();
+    return callerName != null ? callerName : Thread.currentThread().getName();
+  }
+
+  /**
+   * Captures the context of the current thread, the returned task can be run on any other thread. If it is run
+   * by the calling thread itself, e.g. by a rejection policy, the context is left untouched.
+   */
+  public static Runnable wrap(Runnable task) {
+    SecurityContext securityContext = SecurityContextHolder.getContext();
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    String callerName = getCallerName();
+    Thread caller = Thread.currentThread();
+    return () -> {
+      if (Thread.currentThread() == caller) {
+        task.run();
+        return;
+      }
+      SecurityContextHolder.setContext(securityContext);
+      RequestContextHolder.setRequestAttributes(requestAttributes);
+      CALLER_NAME.set(callerName);
+      try {
+        task.run();
+      }
+      finally {
+        CALLER_NAME.remove();
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+      }
+    };
+  }
+}
@@ -0,0 +1,109 @@
+package rocks.metaldetector.support;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Fetches the remaining pages of a paginated resource concurrently once the first page and thereby the number
+ * of pages is known. At most 'concurrency' pages of a resource are fetched at the same time, the calling thread
+ * is one of the workers. The workers run in the {@link CallerContext} of the caller.
+ */
+@Service
+public class ConcurrentPageFetcher implements DisposableBean {
+
+  private final int concurrency;
+  private final ExecutorService executor;
+
+  public ConcurrentPageFetcher(@Value("${page-fetcher.concurrency:4}") int concurrency,
+                               @Value("${page-fetcher.pool-size:16}") int poolSize) {
+    this.concurrency = Math.max(concurrency, 1);
+    this.executor = Executors.newFixedThreadPool(Math.max(poolSize, 1), new CustomizableThreadFactory("page-fetcher-"));
+  }
+
+  /**
+   * Returns the first page followed by the pages 2 to totalPages in their order.
+   *
+   * @param pageFetcher fetches the page with the given 1-based page number
+   */
+  public <P> List<P> fetchRemainingPages(P firstPage, int totalPages, IntFunction<P> pageFetcher) {
+    AtomicReferenceArray<P> pages = new AtomicReferenceArray<>(Math.max(totalPages, 1));
+    fetchPages(firstPage, totalPages, pageFetcher, (content, page) -> pages.set(page - 1, content));
+
+    List<P> result = new ArrayList<>(pages.length());
+    for (int i = 0; i < pages.length(); i++) {
+      result.add(pages.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Hands the first page and the pages 2 to totalPages to the consumer as soon as they are fetched, so that no
+   * page has to be kept until all pages are fetched. The consumer gets the page and its 1-based page number and
+   * is called by one worker at a time, but not necessarily in the order of the pages.
+   *
+   * @param pageFetcher fetches the page with the given 1-based page number
+   */
+  public <P> void forEachPage(P firstPage, int totalPages, IntFunction<P> pageFetcher, ObjIntConsumer<P> pageConsumer) {
+    Object lock = new Object();
+    fetchPages(firstPage, totalPages, pageFetcher, (content, page) -> {
+      synchronized (lock) {
+        pageConsumer.accept(content, page);
+      }
+    });
+  }
+
+  private <P> void fetchPages(P firstPage, int totalPages, IntFunction<P> pageFetcher, ObjIntConsumer<P> pageConsumer) {
+    pageConsumer.accept(firstPage, 1);
+    if (totalPages <= 1) {
+      return;
+    }
+
+    AtomicInteger nextPage = new AtomicInteger(2);
+    Runnable worker = () -> {
+      int page;
+      while ((page = nextPage.getAndIncrement()) <= totalPages) {
+        try {
+          pageConsumer.accept(pageFetcher.apply(page), page);
+        }
+        catch (RuntimeException e) {
+          nextPage.set(totalPages + 1);
+          throw e;
+        }
+      }
+    };
+
+    int additionalWorkers = Math.min(concurrency, totalPages - 1) - 1;
+    List<CompletableFuture<Void>> futures = new ArrayList<>(additionalWorkers);
+    for (int i = 0; i < additionalWorkers; i++) {
+      futures.add(CompletableFuture.runAsync(CallerContext.wrap(worker), executor));
+    }
+    worker.run();
+    try {
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+    catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+}
@@ -44,6 +44,7 @@ public class Endpoints {
     public static final String SPOTIFY_ARTIST_SYNCHRONIZATION = "/rest/v1/spotify/synchronize";
     public static final String SPOTIFY_SAVED_ARTISTS          = "/rest/v1/spotify/saved-artists";
     public static final String ALL_RELEASES                   = "/rest/v1/releases/all";
+    public static final String ALL_RELEASES_EXPORT            = "/rest/v1/releases/export";
     public static final String RELEASES                       = "/rest/v1/releases";
     public static final String TOP_UPCOMING_RELEASES          = "/rest/v1/releases/top";
     public static final String IMPORT_JOB                     = "/rest/v1/releases/import";
@@ -67,6 +68,7 @@ public class Endpoints {
     public static final String NOTIFICATION_ON_RELEASE_DATE = "/rest/v1/notify/release-date";
     public static final String NOTIFICATION_ON_ANNOUNCEMENT_DATE = "/rest/v1/notify/announcement-date";
     public static final String NOTIFICATION_TELEGRAM = "/rest/v1/notify/telegram";
+    public static final String NOTIFICATION_RUNS = "/rest/v1/notify/runs";
 
     public static final String TEST = "/rest/v1/only-for-testing";
   }
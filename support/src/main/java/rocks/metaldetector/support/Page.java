@@ -15,6 +15,19 @@ public class Page<T> {
   private final List<T> items;
   private final Pagination pagination;
 
+  /**
+   * Set if the items could not be loaded and an older result is returned instead.
+   */
+  private final boolean stale;
+
+  public Page(List<T> items, Pagination pagination) {
+    this(items, pagination, false);
+  }
+
+  public Page<T> asStale() {
+    return new Page<>(items, pagination, true);
+  }
+
   public static <T> Page<T> empty() {
     return new Page<>(
             Collections.emptyList(),
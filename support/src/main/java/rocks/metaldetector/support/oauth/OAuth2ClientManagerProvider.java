@@ -4,8 +4,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.task.TaskSchedulingProperties;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
 import org.springframework.stereotype.Component;
-
-import static java.lang.Thread.currentThread;
+import rocks.metaldetector.support.CallerContext;
 
 @Component
 public class OAuth2ClientManagerProvider {
@@ -23,7 +22,8 @@ public class OAuth2ClientManagerProvider {
   }
 
   public OAuth2AuthorizedClientManager provide() {
-    if (currentThread().getName().startsWith(taskSchedulingProperties.getThreadNamePrefix())) {
+    // workers that fetch for a scheduled job decide by the scheduling thread that started them
+    if (CallerContext.getCallerName().startsWith(taskSchedulingProperties.getThreadNamePrefix())) {
       return schedulingAuthorizedClientManager;
     }
     return authorizedClientManager;
@@ -0,0 +1,223 @@
+package rocks.metaldetector.support;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ConcurrentPageFetcherTest implements WithAssertions {
+
+  private ConcurrentPageFetcher underTest;
+
+  @BeforeEach
+  void setup() {
+    underTest = new ConcurrentPageFetcher(3, 3);
+  }
+
+  @AfterEach
+  void tearDown() {
+    underTest.destroy();
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("Should only return the first page if there is only one page")
+  void should_return_first_page() {
+    // given
+    List<Integer> fetchedPages = new ArrayList<>();
+
+    // when
+    var result = underTest.fetchRemainingPages("page 1", 1, page -> {
+      fetchedPages.add(page);
+      return "page " + page;
+    });
+
+    // then
+    assertThat(result).containsExactly("page 1");
+    assertThat(fetchedPages).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should return all pages in their order")
+  void should_return_pages_in_order() {
+    // when
+    var result = underTest.fetchRemainingPages("page 1", 10, page -> {
+      sleep(10 - page);
+      return "page " + page;
+    });
+
+    // then
+    assertThat(result).hasSize(10).startsWith("page 1", "page 2").endsWith("page 10");
+    assertThat(result).isSortedAccordingTo((first, second) -> Integer.compare(Integer.parseInt(first.substring(5)), Integer.parseInt(second.substring(5))));
+  }
+
+  @Test
+  @DisplayName("Should fetch each remaining page once")
+  void should_fetch_each_page_once() {
+    // given
+    List<Integer> fetchedPages = Collections.synchronizedList(new ArrayList<>());
+
+    // when
+    underTest.fetchRemainingPages(1, 20, page -> {
+      fetchedPages.add(page);
+      return page;
+    });
+
+    // then
+    assertThat(fetchedPages).hasSize(19).doesNotHaveDuplicates().doesNotContain(1);
+  }
+
+  @Test
+  @DisplayName("Should fetch pages concurrently")
+  void should_fetch_concurrently() {
+    // given
+    CountDownLatch allWorkersStarted = new CountDownLatch(3);
+
+    // when
+    var result = underTest.fetchRemainingPages(1, 4, page -> {
+      allWorkersStarted.countDown();
+      await(allWorkersStarted);
+      return page;
+    });
+
+    // then
+    assertThat(result).containsExactly(1, 2, 3, 4);
+  }
+
+  @Test
+  @DisplayName("Should not fetch more pages at the same time than configured")
+  void should_bound_concurrency() {
+    // given
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    // when
+    underTest.fetchRemainingPages(1, 30, page -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      sleep(2);
+      running.decrementAndGet();
+      return page;
+    });
+
+    // then
+    assertThat(maxRunning.get()).isBetween(1, 3);
+  }
+
+  @Test
+  @DisplayName("Should throw the exception of a failed page")
+  void should_throw_exception() {
+    // given
+    var exception = new IllegalStateException("page 5 failed");
+
+    // when
+    var throwable = catchThrowable(() -> underTest.fetchRemainingPages(1, 10, page -> {
+      if (page == 5) {
+        throw exception;
+      }
+      return page;
+    }));
+
+    // then
+    assertThat(throwable).isSameAs(exception);
+  }
+
+  @Test
+  @DisplayName("Should fetch the pages with the security context of the caller")
+  void should_use_security_context_of_caller() {
+    // given
+    Authentication authentication = new TestingAuthenticationToken("user", "password");
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+    List<Authentication> authentications = Collections.synchronizedList(new ArrayList<>());
+
+    // when
+    underTest.fetchRemainingPages(1, 10, page -> {
+      authentications.add(SecurityContextHolder.getContext().getAuthentication());
+      return page;
+    });
+
+    // then
+    assertThat(authentications).hasSize(9).containsOnly(authentication);
+  }
+
+  @Test
+  @DisplayName("Should pass the name of the caller to the workers without renaming them")
+  void should_pass_caller_name() {
+    // given
+    String callerName = Thread.currentThread().getName();
+    List<String> callerNames = Collections.synchronizedList(new ArrayList<>());
+    List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+
+    // when
+    underTest.fetchRemainingPages(1, 10, page -> {
+      callerNames.add(CallerContext.getCallerName());
+      threadNames.add(Thread.currentThread().getName());
+      return page;
+    });
+
+    // then
+    assertThat(callerNames).hasSize(9).containsOnly(callerName);
+    assertThat(threadNames).noneMatch(threadName -> threadName.startsWith(callerName + "-"));
+  }
+
+  @Test
+  @DisplayName("Should hand each page with its page number to the consumer")
+  void should_hand_pages_to_consumer() {
+    // given
+    Map<Integer, String> consumedPages = new ConcurrentHashMap<>();
+
+    // when
+    underTest.forEachPage("page 1", 10, page -> "page " + page, (content, page) -> consumedPages.put(page, content));
+
+    // then
+    assertThat(consumedPages).hasSize(10).allSatisfy((page, content) -> assertThat(content).isEqualTo("page " + page));
+  }
+
+  @Test
+  @DisplayName("Should call the consumer by one worker at a time")
+  void should_call_consumer_sequentially() {
+    // given
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    // when
+    underTest.forEachPage(1, 30, page -> page, (content, page) -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      sleep(2);
+      running.decrementAndGet();
+    });
+
+    // then
+    assertThat(maxRunning.get()).isEqualTo(1);
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void await(CountDownLatch latch) {
+    try {
+      assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
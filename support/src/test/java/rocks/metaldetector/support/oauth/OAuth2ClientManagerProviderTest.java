@@ -11,6 +11,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.autoconfigure.task.TaskSchedulingProperties;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import rocks.metaldetector.support.CallerContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.reset;
@@ -66,4 +71,26 @@ class OAuth2ClientManagerProviderTest implements WithAssertions {
       assertThat(result).isEqualTo(authorizedClientManager);
     });
   }
+
+  @Test
+  @DisplayName("For a worker started by a scheduled thread the schedulingAuthorizedClientManager is returned")
+  void test_scheduling_manager_returned_for_worker() throws InterruptedException {
+    // given
+    var result = new AtomicReference<OAuth2AuthorizedClientManager>();
+    var workerName = new AtomicReference<String>();
+    var worker = Executors.newSingleThreadExecutor();
+    var scheduledThread = new Thread(() -> CompletableFuture.runAsync(CallerContext.wrap(() -> {
+      workerName.set(Thread.currentThread().getName());
+      result.set(underTest.provide());
+    }), worker).join(), taskSchedulingProperties.getThreadNamePrefix() + "1");
+
+    // when
+    scheduledThread.start();
+    scheduledThread.join();
+    worker.shutdown();
+
+    // then
+    assertThat(result.get()).isEqualTo(schedulingAuthorizedClientManager);
+    assertThat(workerName.get()).doesNotStartWith(taskSchedulingProperties.getThreadNamePrefix());
+  }
 }
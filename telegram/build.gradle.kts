@@ -1,5 +1,6 @@
 dependencies {
   implementation("org.springframework.boot:spring-boot-starter-web")
+  implementation("io.micrometer:micrometer-core")
   implementation("org.projectlombok:lombok:${libs.versions.lombok.get()}")
 
   annotationProcessor("org.projectlombok:lombok:${libs.versions.lombok.get()}")
@@ -0,0 +1,15 @@
+package rocks.metaldetector.telegram.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelegramResponseParameters {
+
+  @JsonProperty("retry_after")
+  private Integer retryAfter;
+}
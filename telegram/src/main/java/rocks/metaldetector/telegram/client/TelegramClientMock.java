@@ -12,6 +12,6 @@ public class TelegramClientMock implements TelegramClient {
 
   @Override
   public TelegramMessage sendMessage(TelegramSendMessageRequest request) {
-    return new TelegramMessage(request.getText(), new TelegramChat(request.getChatId()), "Some mock description");
+    return new TelegramMessage(request.getText(), new TelegramChat(request.getChatId()), "Some mock description", null);
   }
 }
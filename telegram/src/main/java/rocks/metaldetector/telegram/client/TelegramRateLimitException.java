@@ -0,0 +1,19 @@
+package rocks.metaldetector.telegram.client;
+
+import lombok.Getter;
+import rocks.metaldetector.support.exceptions.ExternalServiceException;
+
+import java.time.Duration;
+
+@Getter
+public class TelegramRateLimitException extends ExternalServiceException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Duration retryAfter;
+
+  public TelegramRateLimitException(int chatId, Duration retryAfter) {
+    super("Too many requests for chat '" + chatId + "', retry after " + retryAfter.toSeconds() + "s");
+    this.retryAfter = retryAfter;
+  }
+}
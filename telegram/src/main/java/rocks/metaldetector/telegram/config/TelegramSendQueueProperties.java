@@ -0,0 +1,23 @@
+package rocks.metaldetector.telegram.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@PropertySource(value = "classpath:application.yml")
+@ConfigurationProperties(prefix = "telegram.send-queue")
+@Data
+public class TelegramSendQueueProperties {
+
+  private int capacity = 10000;
+  private int messagesPerSecond = 30;
+  private Duration chatInterval = Duration.ofSeconds(1);
+  private int concurrency = 4;
+  private int maxAttempts = 5;
+  private Duration retryBackoff = Duration.ofSeconds(1);
+  private Duration maxRetryBackoff = Duration.ofMinutes(1);
+}
@@ -1,6 +1,12 @@
 package rocks.metaldetector.telegram.facade;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface TelegramMessagingService {
 
-  void sendMessage(int telegramChatId, String message);
+  /**
+   * Queues the message for sending. The returned future completes when the message was delivered and fails
+   * if it was dropped.
+   */
+  CompletableFuture<Void> sendMessage(int telegramChatId, String message);
 }
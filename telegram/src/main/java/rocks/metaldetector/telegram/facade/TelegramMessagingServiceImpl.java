@@ -2,18 +2,18 @@ package rocks.metaldetector.telegram.facade;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
-import rocks.metaldetector.telegram.api.TelegramSendMessageRequest;
-import rocks.metaldetector.telegram.client.TelegramClient;
+import rocks.metaldetector.telegram.queue.TelegramSendQueue;
+
+import java.util.concurrent.CompletableFuture;
 
 @Component
 @AllArgsConstructor
 public class TelegramMessagingServiceImpl implements TelegramMessagingService {
 
-  private final TelegramClient telegramClient;
+  private final TelegramSendQueue telegramSendQueue;
 
   @Override
-  public void sendMessage(int chatId, String message) {
-    TelegramSendMessageRequest request = new TelegramSendMessageRequest(chatId, message);
-    telegramClient.sendMessage(request);
+  public CompletableFuture<Void> sendMessage(int chatId, String message) {
+    return telegramSendQueue.enqueue(chatId, message);
   }
 }
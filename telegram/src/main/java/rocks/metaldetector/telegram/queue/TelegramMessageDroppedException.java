@@ -0,0 +1,12 @@
+package rocks.metaldetector.telegram.queue;
+
+import rocks.metaldetector.support.exceptions.ExternalServiceException;
+
+public class TelegramMessageDroppedException extends ExternalServiceException {
+
+  private static final long serialVersionUID = 1L;
+
+  public TelegramMessageDroppedException(int chatId, String reason) {
+    super("Message to chat '" + chatId + "' was dropped: " + reason);
+  }
+}
@@ -0,0 +1,203 @@
+package rocks.metaldetector.telegram.queue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import rocks.metaldetector.telegram.api.TelegramSendMessageRequest;
+import rocks.metaldetector.telegram.client.TelegramClient;
+import rocks.metaldetector.telegram.client.TelegramRateLimitException;
+import rocks.metaldetector.telegram.config.TelegramSendQueueProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outbound queue for Telegram messages. A single drainer takes the messages in order of their due time and
+ * paces them with a global token bucket and a minimal interval per chat, the actual requests are sent by a
+ * small pool of sender threads. A 429 applies to the whole bot, so it pauses the token bucket for all messages
+ * until the returned retry_after and the rejected message is retried afterwards. Any other failure is retried
+ * with an exponential backoff, both with some jitter so that retries do not arrive as a wave.
+ * Every message has a delivery future that completes once Telegram accepted it and fails if the message is dropped.
+ */
+@Slf4j
+@Component
+public class TelegramSendQueue implements DisposableBean {
+
+  static final String SIZE_METRIC = "telegram.send.queue.size";
+  static final String SENT_METRIC = "telegram.send.queue.sent";
+  static final String THROTTLED_METRIC = "telegram.send.queue.throttled";
+  static final String DROPPED_METRIC = "telegram.send.queue.dropped";
+
+  private final TelegramClient telegramClient;
+  private final TelegramSendQueueProperties properties;
+  private final DelayQueue<TelegramSendTask> queue = new DelayQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final Map<Integer, Long> nextSendPerChat = new HashMap<>(); // only accessed by the drainer
+  private final TokenBucket tokenBucket;
+  private final Semaphore sendPermits;
+  private final ExecutorService drainer;
+  private final ExecutorService senders;
+  private final Counter sentCounter;
+  private final Counter throttledCounter;
+  private final Counter queueFullCounter;
+  private final Counter attemptsExhaustedCounter;
+
+  public TelegramSendQueue(TelegramClient telegramClient, TelegramSendQueueProperties properties, MeterRegistry meterRegistry) {
+    this.telegramClient = telegramClient;
+    this.properties = properties;
+    this.tokenBucket = new TokenBucket(properties.getMessagesPerSecond(), System.nanoTime());
+    this.sendPermits = new Semaphore(properties.getConcurrency());
+    this.drainer = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("telegram-queue-"));
+    this.senders = Executors.newFixedThreadPool(properties.getConcurrency(), new CustomizableThreadFactory("telegram-sender-"));
+
+    Gauge.builder(SIZE_METRIC, size, AtomicInteger::get)
+        .description("Telegram messages waiting to be sent or retried")
+        .register(meterRegistry);
+    this.sentCounter = Counter.builder(SENT_METRIC)
+        .description("Telegram messages sent successfully")
+        .register(meterRegistry);
+    this.throttledCounter = Counter.builder(THROTTLED_METRIC)
+        .description("Telegram messages rejected with 429")
+        .register(meterRegistry);
+    this.queueFullCounter = Counter.builder(DROPPED_METRIC)
+        .description("Telegram messages that were not sent")
+        .tag("reason", "queue-full")
+        .register(meterRegistry);
+    this.attemptsExhaustedCounter = Counter.builder(DROPPED_METRIC)
+        .description("Telegram messages that were not sent")
+        .tag("reason", "attempts-exhausted")
+        .register(meterRegistry);
+
+    drainer.execute(this::drain);
+  }
+
+  /**
+   * Adds the message to the queue and returns immediately. If the queue is full, the message is dropped.
+   * The returned future fails with a {@link TelegramMessageDroppedException} if the message is not sent.
+   */
+  public CompletableFuture<Void> enqueue(int chatId, String text) {
+    var task = new TelegramSendTask(chatId, text, System.nanoTime());
+    if (size.incrementAndGet() > properties.getCapacity()) {
+      size.decrementAndGet();
+      queueFullCounter.increment();
+      log.warn("Telegram send queue is full, dropping message to chat '{}'", chatId);
+      drop(task, "queue is full");
+      return task.getDelivery();
+    }
+    queue.put(task);
+    return task.getDelivery();
+  }
+
+  @Override
+  public void destroy() throws InterruptedException {
+    drainer.shutdownNow();
+    drainer.awaitTermination(1, TimeUnit.MINUTES);
+    senders.shutdown();
+    senders.awaitTermination(1, TimeUnit.MINUTES);
+    if (size.get() > 0) {
+      log.warn("Telegram send queue stopped with {} unsent messages", size.get());
+    }
+    queue.forEach(task -> drop(task, "queue stopped"));
+    queue.clear();
+  }
+
+  private void drain() {
+    TelegramSendTask task = null;
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        task = queue.take();
+        long now = System.nanoTime();
+        Long nextSend = nextSendPerChat.get(task.getChatId());
+        if (nextSend != null && nextSend - now > 0) {
+          task.delayUntil(nextSend);
+          queue.put(task);
+          continue;
+        }
+
+        // the permit is taken first, so that a pause caused by a running request applies to this message
+        sendPermits.acquire();
+        long waitNanos;
+        try {
+          while ((waitNanos = tokenBucket.tryAcquire(System.nanoTime())) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+          }
+        }
+        catch (InterruptedException e) {
+          sendPermits.release();
+          throw e;
+        }
+        nextSendPerChat.put(task.getChatId(), System.nanoTime() + properties.getChatInterval().toNanos());
+        removeExpiredChatPacing(now);
+        var sendTask = task;
+        senders.execute(() -> send(sendTask));
+        task = null;
+      }
+    }
+    catch (InterruptedException e) {
+      if (task != null) {
+        queue.put(task); // dropped by destroy
+      }
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void send(TelegramSendTask task) {
+    try {
+      telegramClient.sendMessage(new TelegramSendMessageRequest(task.getChatId(), task.getText()));
+      size.decrementAndGet();
+      sentCounter.increment();
+      task.getDelivery().complete(null);
+    }
+    catch (TelegramRateLimitException e) {
+      throttledCounter.increment();
+      tokenBucket.pauseUntil(System.nanoTime() + e.getRetryAfter().toNanos());
+      retry(task, e.getRetryAfter().toNanos(), e);
+    }
+    catch (Exception e) {
+      retry(task, getBackoff(task.getAttempts()), e);
+    }
+    finally {
+      sendPermits.release();
+    }
+  }
+
+  private void retry(TelegramSendTask task, long delayNanos, Exception cause) {
+    if (task.incrementAttempts() >= properties.getMaxAttempts()) {
+      size.decrementAndGet();
+      attemptsExhaustedCounter.increment();
+      log.error("Could not send message to chat '{}' after {} attempts", task.getChatId(), task.getAttempts(), cause);
+      drop(task, "sending failed " + task.getAttempts() + " times");
+      return;
+    }
+    long jitterNanos = ThreadLocalRandom.current().nextLong(delayNanos / 2 + 1);
+    task.delayUntil(System.nanoTime() + delayNanos + jitterNanos);
+    queue.put(task);
+  }
+
+  private void drop(TelegramSendTask task, String reason) {
+    task.getDelivery().completeExceptionally(new TelegramMessageDroppedException(task.getChatId(), reason));
+  }
+
+  private long getBackoff(int attempts) {
+    long backoff = properties.getRetryBackoff().toNanos() << Math.min(attempts, 20);
+    return Math.min(backoff, properties.getMaxRetryBackoff().toNanos());
+  }
+
+  private void removeExpiredChatPacing(long now) {
+    if (nextSendPerChat.size() > properties.getCapacity()) {
+      nextSendPerChat.values().removeIf(nextSend -> nextSend - now <= 0);
+    }
+  }
+}
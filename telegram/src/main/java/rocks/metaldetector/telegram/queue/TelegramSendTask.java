@@ -0,0 +1,41 @@
+package rocks.metaldetector.telegram.queue;
+
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+@Getter
+class TelegramSendTask implements Delayed {
+
+  private final int chatId;
+  private final String text;
+  private final CompletableFuture<Void> delivery = new CompletableFuture<>();
+  private int attempts;
+  private long notBefore;
+
+  TelegramSendTask(int chatId, String text, long notBefore) {
+    this.chatId = chatId;
+    this.text = text;
+    this.notBefore = notBefore;
+  }
+
+  void delayUntil(long notBefore) {
+    this.notBefore = notBefore;
+  }
+
+  int incrementAttempts() {
+    return ++attempts;
+  }
+
+  @Override
+  public long getDelay(TimeUnit unit) {
+    return unit.convert(notBefore - System.nanoTime(), TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public int compareTo(Delayed other) {
+    return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+  }
+}
@@ -0,0 +1,50 @@
+package rocks.metaldetector.telegram.queue;
+
+/**
+ * Token bucket that allows bursts up to the configured rate and refills continuously. The bucket can be
+ * paused, e.g. when Telegram asked to retry later, after which it refills from empty.
+ */
+class TokenBucket {
+
+  private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+  private final double capacity;
+  private final double tokensPerNano;
+  private double tokens;
+  private long lastRefill;
+
+  TokenBucket(int tokensPerSecond, long now) {
+    this.capacity = tokensPerSecond;
+    this.tokensPerNano = tokensPerSecond / NANOS_PER_SECOND;
+    this.tokens = capacity;
+    this.lastRefill = now;
+  }
+
+  /**
+   * Takes a token if one is available.
+   *
+   * @return 0 if a token was taken, otherwise the nanos until the next token is available
+   */
+  synchronized long tryAcquire(long now) {
+    if (lastRefill - now > 0) {
+      return lastRefill - now;
+    }
+    tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+    lastRefill = now;
+    if (tokens >= 1) {
+      tokens--;
+      return 0;
+    }
+    return (long) Math.ceil((1 - tokens) / tokensPerNano);
+  }
+
+  /**
+   * Hands out no tokens until the given time. A shorter pause than the current one is ignored.
+   */
+  synchronized void pauseUntil(long until) {
+    if (until - lastRefill > 0) {
+      tokens = 0;
+      lastRefill = until;
+    }
+  }
+}
@@ -16,9 +16,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestOperations;
 import rocks.metaldetector.support.exceptions.ExternalServiceException;
 import rocks.metaldetector.telegram.api.TelegramMessage;
+import rocks.metaldetector.telegram.api.TelegramResponseParameters;
 import rocks.metaldetector.telegram.api.TelegramSendMessageRequest;
 import rocks.metaldetector.telegram.config.TelegramProperties;
 
+import java.time.Duration;
 import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -27,6 +29,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
+import static rocks.metaldetector.telegram.client.TelegramClientImpl.DEFAULT_RETRY_AFTER;
 import static rocks.metaldetector.telegram.client.TelegramClientImpl.METHOD_ENDPOINT_NAME;
 
 @ExtendWith(MockitoExtension.class)
@@ -144,6 +147,40 @@ class TelegramClientImplTest implements WithAssertions {
     assertThat(throwable).isInstanceOf(ExternalServiceException.class);
   }
 
+  @Test
+  @DisplayName("if the status is 429, a TelegramRateLimitException with the returned retry_after is thrown")
+  void test_rate_limit_exception() {
+    // given
+    var responseMessage = new TelegramMessage();
+    responseMessage.setParameters(new TelegramResponseParameters(5));
+    doReturn("botId").when(properties).getBotId();
+    doReturn(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(responseMessage)).when(restOperations)
+        .postForEntity(anyString(), any(), any(), anyString());
+
+    // when
+    Throwable throwable = catchThrowable(() -> underTest.sendMessage(new TelegramSendMessageRequest()));
+
+    // then
+    assertThat(throwable).isInstanceOf(TelegramRateLimitException.class);
+    assertThat(((TelegramRateLimitException) throwable).getRetryAfter()).isEqualTo(Duration.ofSeconds(5));
+  }
+
+  @Test
+  @DisplayName("if the status is 429 without retry_after, the default retry after is used")
+  void test_rate_limit_exception_default_retry_after() {
+    // given
+    doReturn("botId").when(properties).getBotId();
+    doReturn(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build()).when(restOperations)
+        .postForEntity(anyString(), any(), any(), anyString());
+
+    // when
+    Throwable throwable = catchThrowable(() -> underTest.sendMessage(new TelegramSendMessageRequest()));
+
+    // then
+    assertThat(throwable).isInstanceOf(TelegramRateLimitException.class);
+    assertThat(((TelegramRateLimitException) throwable).getRetryAfter()).isEqualTo(DEFAULT_RETRY_AFTER);
+  }
+
   private static Stream<Arguments> httpStatusCodeProvider() {
     return Stream.of(HttpStatus.values()).filter(status -> !status.is2xxSuccessful()).map(Arguments::of);
   }
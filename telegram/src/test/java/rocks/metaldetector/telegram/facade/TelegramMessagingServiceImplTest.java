@@ -8,9 +8,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import rocks.metaldetector.telegram.api.TelegramSendMessageRequest;
-import rocks.metaldetector.telegram.client.TelegramClient;
+import rocks.metaldetector.telegram.queue.TelegramSendQueue;
 
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 
@@ -18,28 +22,41 @@ import static org.mockito.Mockito.verify;
 class TelegramMessagingServiceImplTest implements WithAssertions {
 
   @Mock
-  private TelegramClient telegramClient;
+  private TelegramSendQueue telegramSendQueue;
 
   @InjectMocks
   private TelegramMessagingServiceImpl underTest;
 
   @AfterEach
   void tearDown() {
-    reset(telegramClient);
+    reset(telegramSendQueue);
   }
 
   @Test
-  @DisplayName("telegramClient is called with expected request")
-  void test_client_called() {
+  @DisplayName("message is added to the send queue")
+  void test_message_enqueued() {
     // given
     var chatId = 12345;
     var message = "message";
-    var request = new TelegramSendMessageRequest(chatId, message);
 
     // when
     underTest.sendMessage(chatId, message);
 
     // then
-    verify(telegramClient).sendMessage(request);
+    verify(telegramSendQueue).enqueue(chatId, message);
+  }
+
+  @Test
+  @DisplayName("delivery of the send queue is returned")
+  void test_delivery_returned() {
+    // given
+    var delivery = new CompletableFuture<Void>();
+    doReturn(delivery).when(telegramSendQueue).enqueue(anyInt(), anyString());
+
+    // when
+    var result = underTest.sendMessage(12345, "message");
+
+    // then
+    assertThat(result).isSameAs(delivery);
   }
 }
@@ -0,0 +1,207 @@
+package rocks.metaldetector.telegram.queue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rocks.metaldetector.support.exceptions.ExternalServiceException;
+import rocks.metaldetector.telegram.api.TelegramMessage;
+import rocks.metaldetector.telegram.api.TelegramSendMessageRequest;
+import rocks.metaldetector.telegram.client.TelegramClient;
+import rocks.metaldetector.telegram.client.TelegramRateLimitException;
+import rocks.metaldetector.telegram.config.TelegramSendQueueProperties;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static rocks.metaldetector.telegram.queue.TelegramSendQueue.DROPPED_METRIC;
+import static rocks.metaldetector.telegram.queue.TelegramSendQueue.SENT_METRIC;
+import static rocks.metaldetector.telegram.queue.TelegramSendQueue.SIZE_METRIC;
+import static rocks.metaldetector.telegram.queue.TelegramSendQueue.THROTTLED_METRIC;
+
+@ExtendWith(MockitoExtension.class)
+class TelegramSendQueueTest implements WithAssertions {
+
+  private static final TelegramSendMessageRequest REQUEST = new TelegramSendMessageRequest(1, "message");
+
+  @Mock
+  private TelegramClient telegramClient;
+
+  private SimpleMeterRegistry meterRegistry;
+  private TelegramSendQueueProperties properties;
+  private TelegramSendQueue underTest;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    properties = new TelegramSendQueueProperties();
+    properties.setRetryBackoff(Duration.ofMillis(10));
+    properties.setChatInterval(Duration.ofMillis(10));
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    underTest.destroy();
+  }
+
+  @Test
+  @DisplayName("enqueued message is sent with the client")
+  void test_message_sent() {
+    // given
+    underTest = new TelegramSendQueue(telegramClient, properties, meterRegistry);
+
+    // when
+    var delivery = underTest.enqueue(REQUEST.getChatId(), REQUEST.getText());
+
+    // then
+    verify(telegramClient, timeout(1000)).sendMessage(REQUEST);
+    assertThat(delivery).succeedsWithin(Duration.ofSeconds(1));
+    assertThat(meterRegistry.get(SENT_METRIC).counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("message is retried after a rate limit response")
+  void test_rate_limit_retried() {
+    // given
+    doThrow(new TelegramRateLimitException(REQUEST.getChatId(), Duration.ofMillis(10)))
+        .doReturn(new TelegramMessage())
+        .when(telegramClient).sendMessage(any());
+    underTest = new TelegramSendQueue(telegramClient, properties, meterRegistry);
+
+    // when
+    underTest.enqueue(REQUEST.getChatId(), REQUEST.getText());
+
+    // then
+    verify(telegramClient, timeout(1000).times(2)).sendMessage(REQUEST);
+    assertThat(meterRegistry.get(THROTTLED_METRIC).counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("messages to other chats wait until the retry_after of a rate limit response")
+  void test_rate_limit_pauses_all_chats() {
+    // given
+    properties.setConcurrency(1);
+    var throttledAt = new AtomicLong();
+    var otherChatSentAt = new AtomicLong();
+    doAnswer(invocation -> {
+      TelegramSendMessageRequest request = invocation.getArgument(0);
+      if (request.getChatId() == REQUEST.getChatId() && throttledAt.compareAndSet(0, System.nanoTime())) {
+        throw new TelegramRateLimitException(request.getChatId(), Duration.ofMillis(300));
+      }
+      if (request.getChatId() != REQUEST.getChatId()) {
+        otherChatSentAt.set(System.nanoTime());
+      }
+      return new TelegramMessage();
+    }).when(telegramClient).sendMessage(any());
+    underTest = new TelegramSendQueue(telegramClient, properties, meterRegistry);
+
+    // when
+    underTest.enqueue(REQUEST.getChatId(), REQUEST.getText());
+    var delivery = underTest.enqueue(REQUEST.getChatId() + 1, REQUEST.getText());
+
+    // then
+    assertThat(delivery).succeedsWithin(Duration.ofSeconds(2));
+    assertThat(Duration.ofNanos(otherChatSentAt.get() - throttledAt.get())).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+  }
+
+  @Test
+  @DisplayName("message is dropped after the maximal number of attempts")
+  void test_message_dropped_after_max_attempts() {
+    // given
+    properties.setMaxAttempts(2);
+    doThrow(new ExternalServiceException()).when(telegramClient).sendMessage(any());
+    underTest = new TelegramSendQueue(telegramClient, properties, meterRegistry);
+
+    // when
+    var delivery = underTest.enqueue(REQUEST.getChatId(), REQUEST.getText());
+
+    // then
+    verify(telegramClient, timeout(1000).times(2)).sendMessage(REQUEST);
+    assertThat(delivery).failsWithin(Duration.ofSeconds(1)).withThrowableThat().withCauseInstanceOf(TelegramMessageDroppedException.class);
+    await(() -> meterRegistry.get(DROPPED_METRIC).tag("reason", "attempts-exhausted").counter().count() == 1);
+    assertThat(meterRegistry.get(SIZE_METRIC).gauge().value()).isZero();
+  }
+
+  @Test
+  @DisplayName("message is dropped if the queue is full")
+  void test_message_dropped_if_queue_full() throws InterruptedException {
+    // given
+    var blocked = new CountDownLatch(1);
+    properties.setCapacity(1);
+    doAnswer(invocation -> {
+      blocked.await();
+      return new TelegramMessage();
+    }).when(telegramClient).sendMessage(any());
+    underTest = new TelegramSendQueue(telegramClient, properties, meterRegistry);
+
+    // when
+    underTest.enqueue(1, "first");
+    var delivery = underTest.enqueue(2, "second");
+    blocked.countDown();
+
+    // then
+    assertThat(delivery).isCompletedExceptionally();
+    assertThat(meterRegistry.get(DROPPED_METRIC).tag("reason", "queue-full").counter().count()).isEqualTo(1);
+    verify(telegramClient, timeout(1000)).sendMessage(new TelegramSendMessageRequest(1, "first"));
+    TimeUnit.MILLISECONDS.sleep(50);
+    verify(telegramClient, times(1)).sendMessage(any());
+  }
+
+  @Test
+  @DisplayName("messages to the same chat are paced by the chat interval")
+  void test_chat_pacing() {
+    // given
+    properties.setChatInterval(Duration.ofMillis(200));
+    doReturn(new TelegramMessage()).when(telegramClient).sendMessage(any());
+    underTest = new TelegramSendQueue(telegramClient, properties, meterRegistry);
+    long start = System.nanoTime();
+
+    // when
+    underTest.enqueue(REQUEST.getChatId(), "first");
+    underTest.enqueue(REQUEST.getChatId(), "second");
+
+    // then
+    verify(telegramClient, timeout(2000).times(2)).sendMessage(any());
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+  }
+
+  @Test
+  @DisplayName("unsent messages are dropped when the queue is stopped")
+  void test_unsent_messages_dropped_on_destroy() throws InterruptedException {
+    // given
+    properties.setRetryBackoff(Duration.ofMinutes(1));
+    doThrow(new ExternalServiceException()).when(telegramClient).sendMessage(any());
+    underTest = new TelegramSendQueue(telegramClient, properties, meterRegistry);
+    var delivery = underTest.enqueue(REQUEST.getChatId(), REQUEST.getText());
+    verify(telegramClient, timeout(1000)).sendMessage(REQUEST);
+
+    // when
+    underTest.destroy();
+
+    // then
+    assertThat(delivery).isCompletedExceptionally();
+  }
+
+  private void await(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+      Thread.onSpinWait();
+    }
+    assertThat(condition.getAsBoolean()).isTrue();
+  }
+}
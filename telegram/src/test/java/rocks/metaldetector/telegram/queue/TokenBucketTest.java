@@ -0,0 +1,84 @@
+package rocks.metaldetector.telegram.queue;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest implements WithAssertions {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  @Test
+  @DisplayName("tokens up to the rate are available immediately")
+  void test_burst_available() {
+    // given
+    var underTest = new TokenBucket(3, 0);
+
+    // expect
+    assertThat(underTest.tryAcquire(0)).isZero();
+    assertThat(underTest.tryAcquire(0)).isZero();
+    assertThat(underTest.tryAcquire(0)).isZero();
+    assertThat(underTest.tryAcquire(0)).isPositive();
+  }
+
+  @Test
+  @DisplayName("the wait time until the next token is returned if the bucket is empty")
+  void test_wait_time_returned() {
+    // given
+    var underTest = new TokenBucket(2, 0);
+    underTest.tryAcquire(0);
+    underTest.tryAcquire(0);
+
+    // when
+    var result = underTest.tryAcquire(0);
+
+    // then
+    assertThat(result).isEqualTo(SECOND / 2);
+  }
+
+  @Test
+  @DisplayName("tokens are refilled over time but not beyond the rate")
+  void test_tokens_refilled() {
+    // given
+    var underTest = new TokenBucket(2, 0);
+    underTest.tryAcquire(0);
+    underTest.tryAcquire(0);
+
+    // when
+    var now = 10 * SECOND;
+
+    // then
+    assertThat(underTest.tryAcquire(now)).isZero();
+    assertThat(underTest.tryAcquire(now)).isZero();
+    assertThat(underTest.tryAcquire(now)).isPositive();
+  }
+
+  @Test
+  @DisplayName("no tokens are handed out until the end of a pause")
+  void test_paused() {
+    // given
+    var underTest = new TokenBucket(2, 0);
+
+    // when
+    underTest.pauseUntil(5 * SECOND);
+
+    // then
+    assertThat(underTest.tryAcquire(SECOND)).isEqualTo(4 * SECOND);
+    assertThat(underTest.tryAcquire(5 * SECOND)).isEqualTo(SECOND / 2);
+    assertThat(underTest.tryAcquire(6 * SECOND)).isZero();
+  }
+
+  @Test
+  @DisplayName("a shorter pause does not end the current pause")
+  void test_shorter_pause_ignored() {
+    // given
+    var underTest = new TokenBucket(2, 0);
+    underTest.pauseUntil(5 * SECOND);
+
+    // when
+    underTest.pauseUntil(2 * SECOND);
+
+    // then
+    assertThat(underTest.tryAcquire(3 * SECOND)).isEqualTo(2 * SECOND);
+  }
+}
@@ -5,6 +5,7 @@ plugins {
   id("org.springframework.boot")
   id("org.siouan.frontend-jdk17")
   id("de.europace.docker-publish")
+  id("me.champeau.jmh")
 }
 
 dockerPublish {
@@ -19,6 +20,19 @@ springBoot {
   }
 }
 
+jmh {
+  fork.set(1)
+  warmupIterations.set(2)
+  iterations.set(3)
+  includeTests.set(false)
+  zip64.set(true)
+}
+
+// jmh-generator-asm requests asm 9.0, which conflicts with the newer asm of the test classpath
+configurations.matching { it.name.startsWith("jmh") }.configureEach {
+  resolutionStrategy.force("org.ow2.asm:asm:${libs.versions.asm.get()}")
+}
+
 tasks {
   bootJar {
     dependsOn(assembleFrontend)
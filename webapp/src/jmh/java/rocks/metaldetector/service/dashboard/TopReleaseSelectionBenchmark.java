@@ -0,0 +1,82 @@
+package rocks.metaldetector.service.dashboard;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.service.artist.ArtistDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Selection of the most expected releases out of 'candidates' releases of 'artists' community top artists.
+ * 'before' sorts all releases by the followers of their artist like before the top release selector, 'after'
+ * uses the bounded heap of the top release selector.
+ *
+ * Run with: ./gradlew :webapp:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TopReleaseSelectionBenchmark {
+
+  private static final int MAX_RELEASES = DashboardServiceImpl.RESULT_LIMIT;
+
+  @Param({"10000", "100000", "500000"})
+  private int candidates;
+
+  @Param({"1000"})
+  private int artists;
+
+  private List<ArtistDto> topArtists;
+  private List<ReleaseDto> releases;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    topArtists = new ArrayList<>();
+    for (int artist = 0; artist < artists; artist++) {
+      topArtists.add(ArtistDto.builder().artistName("Artist " + artist).follower(random.nextInt(1000)).build());
+    }
+    releases = new ArrayList<>();
+    for (int release = 0; release < candidates; release++) {
+      releases.add(ReleaseDto.builder()
+                       .id(release)
+                       .artist("Artist " + random.nextInt(artists))
+                       .albumTitle("Album " + release)
+                       .releaseDate(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(180)))
+                       .build());
+    }
+  }
+
+  @Benchmark
+  public List<ReleaseDto> before() {
+    Map<String, Integer> followersPerArtist = topArtists.stream()
+        .collect(Collectors.groupingBy(artistDto -> artistDto.getArtistName().toLowerCase(),
+                                       Collectors.summingInt(ArtistDto::getFollower)));
+    return releases.stream()
+        .sorted(Comparator.comparingInt((ReleaseDto release) -> followersPerArtist.get(release.getArtist().toLowerCase())).reversed())
+        .limit(MAX_RELEASES)
+        .sorted(Comparator.comparing(ReleaseDto::getReleaseDate))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<ReleaseDto> after() {
+    TopReleaseSelector selector = new TopReleaseSelector(topArtists, MAX_RELEASES);
+    selector.offerAll(releases);
+    return selector.getSelectedReleases();
+  }
+}
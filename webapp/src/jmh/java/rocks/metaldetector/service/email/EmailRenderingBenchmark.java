@@ -0,0 +1,77 @@
+package rocks.metaldetector.service.email;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Emails rendered per second during a notification run, where 'distinctReleaseLists' users out of many share
+ * the same releases. 'before' renders like before the email renderer: templates are parsed on every call
+ * (spring.thymeleaf.cache=false) and release lists are not reused. 'after' uses the cached email template
+ * engine and the release list fragment cache.
+ *
+ * Run with: ./gradlew :webapp:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmailRenderingBenchmark {
+
+  private static final String BASE_URL = "https://metal-detector.rocks";
+
+  @Param({"10", "500"})
+  private int distinctReleaseLists;
+
+  private EmailRenderer before;
+  private EmailRenderer after;
+  private List<List<ReleaseDto>> releaseLists;
+  private int next;
+
+  @Setup
+  public void setup() {
+    before = new EmailRenderer(EmailRenderer.createTemplateEngine(false), 0);
+    after = new EmailRenderer();
+    releaseLists = new ArrayList<>();
+    for (int list = 0; list < distinctReleaseLists; list++) {
+      int offset = list;
+      releaseLists.add(IntStream.range(0, 10).mapToObj(release -> createRelease(offset, release)).toList());
+    }
+  }
+
+  @Benchmark
+  public String before() {
+    return before.render(nextEmail(), BASE_URL);
+  }
+
+  @Benchmark
+  public String after() {
+    return after.render(nextEmail(), BASE_URL);
+  }
+
+  private AbstractEmail nextEmail() {
+    List<ReleaseDto> releases = releaseLists.get(next++ % releaseLists.size());
+    return new ReleasesEmail("john.doe@example.com", "JohnDoe", releases, releases);
+  }
+
+  private ReleaseDto createRelease(int list, int release) {
+    return ReleaseDto.builder()
+        .artist("Artist " + list)
+        .albumTitle("Album " + release)
+        .releaseDate(LocalDate.of(2024, 1, 1).plusDays(release))
+        .coverUrl("https://metal-detector.rocks/images/" + list + "-" + release + ".jpg")
+        .state("Ok")
+        .build();
+  }
+}
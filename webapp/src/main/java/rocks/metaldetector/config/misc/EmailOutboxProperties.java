@@ -0,0 +1,21 @@
+package rocks.metaldetector.config.misc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@PropertySource(value = "classpath:application.yml")
+@ConfigurationProperties(prefix = "email-outbox")
+@Data
+public class EmailOutboxProperties {
+
+  private int batchSize = 50;
+  private int maxAttempts = 5;
+  private Duration retryBackoff = Duration.ofMinutes(1);
+  private Duration claimTimeout = Duration.ofMinutes(10);
+  private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,19 @@
+package rocks.metaldetector.config.misc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@PropertySource(value = "classpath:application.yml")
+@ConfigurationProperties(prefix = "job-lease")
+@Data
+public class JobLeaseProperties {
+
+  private Duration duration = Duration.ofMinutes(30);
+  private int notificationShards = 1;
+  private Duration retention = Duration.ofDays(7);
+}
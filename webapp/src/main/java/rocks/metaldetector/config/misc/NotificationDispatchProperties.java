@@ -0,0 +1,26 @@
+package rocks.metaldetector.config.misc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+import rocks.metaldetector.persistence.domain.notification.NotificationChannel;
+
+@Component
+@PropertySource(value = "classpath:application.yml")
+@ConfigurationProperties(prefix = "notification.dispatch")
+@Data
+public class NotificationDispatchProperties {
+
+  private int chunkSize = 500;
+  private int queueCapacity = 500;
+  private int emailConcurrency = 4;
+  private int telegramConcurrency = 2;
+
+  public int getConcurrency(NotificationChannel channel) {
+    return switch (channel) {
+      case EMAIL -> emailConcurrency;
+      case TELEGRAM -> telegramConcurrency;
+    };
+  }
+}
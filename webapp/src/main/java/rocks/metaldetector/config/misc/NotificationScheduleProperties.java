@@ -0,0 +1,29 @@
+package rocks.metaldetector.config.misc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Component
+@PropertySource(value = "classpath:application.yml")
+@ConfigurationProperties(prefix = "notification.schedule")
+@Data
+public class NotificationScheduleProperties {
+
+  private boolean staggered = false;
+  private Duration windowStart = Duration.ofHours(7); // offset from midnight
+  private Duration window = Duration.ofHours(4);
+  private int buckets = 48;
+
+  /**
+   * Returns the time from which the bucket is due. The buckets are spread evenly across the delivery window.
+   */
+  public LocalDateTime getBucketStart(LocalDate date, int bucket) {
+    return date.atStartOfDay().plus(windowStart).plus(window.multipliedBy(bucket).dividedBy(buckets));
+  }
+}
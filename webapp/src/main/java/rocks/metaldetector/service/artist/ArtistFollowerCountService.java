@@ -0,0 +1,18 @@
+package rocks.metaldetector.service.artist;
+
+import rocks.metaldetector.persistence.domain.artist.ArtistEntity;
+import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
+
+import java.util.List;
+
+public interface ArtistFollowerCountService {
+
+  void addFollower(List<ArtistEntity> artists);
+
+  void removeFollower(ArtistEntity artist, long follower);
+
+  void removeFollowerOfUser(AbstractUserEntity user);
+
+  void reconcileFollowerCounts();
+
+}
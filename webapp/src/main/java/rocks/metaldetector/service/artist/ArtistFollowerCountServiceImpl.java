@@ -0,0 +1,99 @@
+package rocks.metaldetector.service.artist;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rocks.metaldetector.persistence.domain.artist.ArtistEntity;
+import rocks.metaldetector.persistence.domain.artist.ArtistFollowerCountEntity;
+import rocks.metaldetector.persistence.domain.artist.ArtistFollowerCountRepository;
+import rocks.metaldetector.persistence.domain.artist.ArtistRepository;
+import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
+import rocks.metaldetector.service.lease.JobLeaseService;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the follower count of every artist in the same transaction as the follow actions, so that the top artists
+ * and the follower of an artist can be read without counting the follow actions. A nightly job corrects counts
+ * that differ from the follow actions.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class ArtistFollowerCountServiceImpl implements ArtistFollowerCountService {
+
+  static final String RECONCILIATION_JOB = "artist-follower-count-reconciliation";
+
+  private final ArtistFollowerCountRepository artistFollowerCountRepository;
+  private final ArtistRepository artistRepository;
+  private final JobLeaseService jobLeaseService;
+
+  @Override
+  @Transactional
+  public void addFollower(List<ArtistEntity> artists) {
+    if (artists.isEmpty()) {
+      return;
+    }
+
+    Set<ArtistEntity> countedArtists = findCountedArtists(artists);
+    List<ArtistEntity> uncountedArtists = artists.stream().filter(artist -> !countedArtists.contains(artist)).distinct().toList();
+    if (!uncountedArtists.isEmpty()) {
+      // a concurrent first follow of the same artist waits for the lock and finds the count created here afterwards
+      artistRepository.lockAll(uncountedArtists);
+      countedArtists.addAll(findCountedArtists(uncountedArtists));
+    }
+
+    if (!countedArtists.isEmpty()) {
+      artistFollowerCountRepository.addFollower(countedArtists, 1);
+    }
+
+    List<ArtistFollowerCountEntity> newCounts = uncountedArtists.stream()
+        .filter(artist -> !countedArtists.contains(artist))
+        .map(artist -> ArtistFollowerCountEntity.builder().artist(artist).follower(1).build())
+        .toList();
+    artistFollowerCountRepository.saveAll(newCounts);
+  }
+
+  private Set<ArtistEntity> findCountedArtists(List<ArtistEntity> artists) {
+    return artistFollowerCountRepository.findAllByArtistIn(artists).stream()
+        .map(ArtistFollowerCountEntity::getArtist)
+        .collect(Collectors.toCollection(HashSet::new));
+  }
+
+  @Override
+  @Transactional
+  public void removeFollower(ArtistEntity artist, long follower) {
+    if (follower > 0) {
+      artistFollowerCountRepository.addFollower(List.of(artist), (int) -follower);
+    }
+  }
+
+  @Override
+  @Transactional
+  public void removeFollowerOfUser(AbstractUserEntity user) {
+    artistFollowerCountRepository.removeFollowerOfUser(user.getId());
+  }
+
+  @Override
+  @Transactional
+  @Scheduled(cron = "0 30 3 * * *")
+  public void reconcileFollowerCounts() {
+    String leaseName = RECONCILIATION_JOB + ":" + LocalDate.now();
+    if (!jobLeaseService.acquire(leaseName)) {
+      return;
+    }
+
+    int correctedCounts = artistFollowerCountRepository.correctFollower();
+    int missingCounts = artistFollowerCountRepository.insertMissingFollower();
+    if (correctedCounts > 0 || missingCounts > 0) {
+      log.warn("Reconciled artist follower counts: {} corrected, {} missing", correctedCounts, missingCounts);
+    }
+    jobLeaseService.complete(leaseName);
+  }
+}
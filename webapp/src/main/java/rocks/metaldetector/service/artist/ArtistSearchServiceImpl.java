@@ -10,8 +10,13 @@ import rocks.metaldetector.persistence.domain.artist.ArtistSource;
 import rocks.metaldetector.spotify.facade.SpotifyService;
 import rocks.metaldetector.spotify.facade.dto.SpotifyArtistSearchResultDto;
 import rocks.metaldetector.web.api.response.ArtistSearchResponse;
+import rocks.metaldetector.web.api.response.ArtistSearchResponseEntryDto;
 import rocks.metaldetector.web.transformer.ArtistSearchResponseTransformer;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Service
 @AllArgsConstructor
 public class ArtistSearchServiceImpl implements ArtistSearchService {
@@ -26,9 +31,7 @@ public class ArtistSearchServiceImpl implements ArtistSearchService {
     public ArtistSearchResponse searchDiscogsByName(String artistQueryString, Pageable pageable) {
         DiscogsArtistSearchResultDto result = discogsService.searchArtistByName(artistQueryString, pageable.getPageNumber(), pageable.getPageSize());
         ArtistSearchResponse searchResponse = responseTransformer.transformDiscogs(artistQueryString, result);
-        searchResponse.getSearchResults().forEach(artist -> artist.setFollowed(
-                followArtistService.isCurrentUserFollowing(artist.getId(), ArtistSource.DISCOGS))
-        );
+        setFollowed(searchResponse, ArtistSource.DISCOGS);
         return searchResponse;
     }
 
@@ -37,9 +40,15 @@ public class ArtistSearchServiceImpl implements ArtistSearchService {
     public ArtistSearchResponse searchSpotifyByName(String artistQueryString, Pageable pageable) {
         SpotifyArtistSearchResultDto result = spotifyService.searchArtistByName(artistQueryString, pageable.getPageNumber(), pageable.getPageSize());
         ArtistSearchResponse searchResponse = responseTransformer.transformSpotify(artistQueryString, result);
-        searchResponse.getSearchResults().forEach(artist -> artist.setFollowed(
-                followArtistService.isCurrentUserFollowing(artist.getId(), ArtistSource.SPOTIFY))
-        );
+        setFollowed(searchResponse, ArtistSource.SPOTIFY);
         return searchResponse;
     }
+
+    private void setFollowed(ArtistSearchResponse searchResponse, ArtistSource source) {
+        List<String> externalIds = searchResponse.getSearchResults().stream()
+                .map(ArtistSearchResponseEntryDto::getId)
+                .collect(Collectors.toList());
+        Set<String> followedIds = followArtistService.getFollowedExternalIdsOfCurrentUser(externalIds, source);
+        searchResponse.getSearchResults().forEach(artist -> artist.setFollowed(followedIds.contains(artist.getId())));
+    }
 }
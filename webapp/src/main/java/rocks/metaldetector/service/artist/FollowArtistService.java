@@ -3,7 +3,10 @@ package rocks.metaldetector.service.artist;
 import rocks.metaldetector.persistence.domain.artist.ArtistSource;
 import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface FollowArtistService {
 
@@ -15,8 +18,12 @@ public interface FollowArtistService {
 
   boolean isCurrentUserFollowing(String externalArtistId, ArtistSource source);
 
+  Set<String> getFollowedExternalIdsOfCurrentUser(Collection<String> externalArtistIds, ArtistSource source);
+
   List<ArtistDto> getFollowedArtistsOfCurrentUser();
 
   List<ArtistDto> getFollowedArtistsOfUser(AbstractUserEntity user);
 
+  Map<AbstractUserEntity, List<String>> getFollowedArtistNamesOfUsers(Collection<AbstractUserEntity> users);
+
 }
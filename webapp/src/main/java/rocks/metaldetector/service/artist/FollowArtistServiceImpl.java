@@ -1,6 +1,7 @@
 package rocks.metaldetector.service.artist;
 
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import rocks.metaldetector.discogs.facade.DiscogsService;
@@ -10,24 +11,35 @@ import rocks.metaldetector.persistence.domain.artist.ArtistRepository;
 import rocks.metaldetector.persistence.domain.artist.ArtistSource;
 import rocks.metaldetector.persistence.domain.artist.FollowActionEntity;
 import rocks.metaldetector.persistence.domain.artist.FollowActionRepository;
+import rocks.metaldetector.persistence.domain.artist.FollowedArtistName;
 import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
 import rocks.metaldetector.security.AuthenticationFacade;
+import rocks.metaldetector.service.artist.events.FollowActionEvent;
 import rocks.metaldetector.service.artist.transformer.ArtistDtoTransformer;
 import rocks.metaldetector.service.artist.transformer.ArtistEntityTransformer;
 import rocks.metaldetector.spotify.facade.SpotifyService;
 import rocks.metaldetector.spotify.facade.dto.SpotifyArtistDto;
 import rocks.metaldetector.support.exceptions.ResourceNotFoundException;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static rocks.metaldetector.service.artist.events.FollowActionEvent.Action.FOLLOW;
+import static rocks.metaldetector.service.artist.events.FollowActionEvent.Action.UNFOLLOW;
+
 @AllArgsConstructor
 @Service
 public class FollowArtistServiceImpl implements FollowArtistService {
 
   private final ArtistDtoTransformer artistDtoTransformer;
+  private final ArtistFollowerCountService artistFollowerCountService;
   private final ArtistEntityTransformer artistEntityTransformer;
   private final ArtistRepository artistRepository;
   private final ArtistService artistService;
@@ -35,17 +47,21 @@ public class FollowArtistServiceImpl implements FollowArtistService {
   private final DiscogsService discogsService;
   private final FollowActionRepository followActionRepository;
   private final SpotifyService spotifyService;
+  private final ApplicationEventPublisher applicationEventPublisher;
 
   @Override
   @Transactional
   public void follow(String externalArtistId, ArtistSource source) {
     ArtistEntity artist = saveAndFetchArtist(externalArtistId, source);
+    AbstractUserEntity currentUser = authenticationFacade.getCurrentUser();
     FollowActionEntity followAction = FollowActionEntity.builder()
-        .user(authenticationFacade.getCurrentUser())
+        .user(currentUser)
         .artist(artist)
         .build();
 
     followActionRepository.save(followAction);
+    artistFollowerCountService.addFollower(List.of(artist));
+    applicationEventPublisher.publishEvent(new FollowActionEvent(this, currentUser, List.of(artist), FOLLOW));
   }
 
   @Override
@@ -61,14 +77,20 @@ public class FollowArtistServiceImpl implements FollowArtistService {
             .build())
         .collect(Collectors.toList());
 
-    return followActionRepository.saveAll(followActionEntities).size();
+    int followedArtists = followActionRepository.saveAll(followActionEntities).size();
+    artistFollowerCountService.addFollower(artistEntitiesToFollow);
+    applicationEventPublisher.publishEvent(new FollowActionEvent(this, currentUser, artistEntitiesToFollow, FOLLOW));
+    return followedArtists;
   }
 
   @Override
   @Transactional
   public void unfollow(String externalArtistId, ArtistSource source) {
     ArtistEntity artistEntity = fetchArtistEntity(externalArtistId, source);
-    followActionRepository.deleteByUserAndArtist(authenticationFacade.getCurrentUser(), artistEntity);
+    AbstractUserEntity currentUser = authenticationFacade.getCurrentUser();
+    long removedFollowActions = followActionRepository.deleteByUserAndArtist(currentUser, artistEntity);
+    artistFollowerCountService.removeFollower(artistEntity, removedFollowActions);
+    applicationEventPublisher.publishEvent(new FollowActionEvent(this, currentUser, List.of(artistEntity), UNFOLLOW));
   }
 
   @Override
@@ -83,6 +105,16 @@ public class FollowArtistServiceImpl implements FollowArtistService {
     return followActionRepository.existsByUserAndArtist(currentUser, artistOptional.get());
   }
 
+  @Override
+  public Set<String> getFollowedExternalIdsOfCurrentUser(Collection<String> externalArtistIds, ArtistSource source) {
+    if (externalArtistIds.isEmpty()) {
+      return Collections.emptySet();
+    }
+
+    AbstractUserEntity currentUser = authenticationFacade.getCurrentUser();
+    return followActionRepository.findFollowedExternalIds(currentUser, source, externalArtistIds);
+  }
+
   @Override
   @Transactional
   public List<ArtistDto> getFollowedArtistsOfCurrentUser() {
@@ -95,6 +127,19 @@ public class FollowArtistServiceImpl implements FollowArtistService {
     return getFollowedArtists(user);
   }
 
+  @Override
+  public Map<AbstractUserEntity, List<String>> getFollowedArtistNamesOfUsers(Collection<AbstractUserEntity> users) {
+    if (users.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    Map<Long, List<String>> artistNamesPerUserId = followActionRepository.findFollowedArtistNames(users).stream()
+        .collect(Collectors.groupingBy(FollowedArtistName::getUserId, Collectors.mapping(FollowedArtistName::getArtistName, Collectors.toList())));
+    Map<AbstractUserEntity, List<String>> artistNamesPerUser = new HashMap<>();
+    users.forEach(user -> artistNamesPerUser.put(user, artistNamesPerUserId.getOrDefault(user.getId(), Collections.emptyList())));
+    return artistNamesPerUser;
+  }
+
   private List<ArtistDto> getFollowedArtists(AbstractUserEntity user) {
     return followActionRepository.findAllByUser(user).stream()
         .map(artistDtoTransformer::transformFollowActionEntity)
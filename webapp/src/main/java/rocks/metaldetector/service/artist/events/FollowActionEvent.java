@@ -0,0 +1,27 @@
+package rocks.metaldetector.service.artist.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+import rocks.metaldetector.persistence.domain.artist.ArtistEntity;
+import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
+
+import java.util.List;
+
+@Getter
+public class FollowActionEvent extends ApplicationEvent {
+
+  public enum Action {
+    FOLLOW, UNFOLLOW
+  }
+
+  private final AbstractUserEntity user;
+  private final List<ArtistEntity> artists;
+  private final Action action;
+
+  public FollowActionEvent(Object source, AbstractUserEntity user, List<ArtistEntity> artists, Action action) {
+    super(source);
+    this.user = user;
+    this.artists = artists;
+    this.action = action;
+  }
+}
@@ -7,24 +7,35 @@ import org.springframework.transaction.annotation.Transactional;
 import rocks.metaldetector.persistence.domain.notification.NotificationConfigRepository;
 import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
 import rocks.metaldetector.persistence.domain.user.UserRepository;
+import rocks.metaldetector.service.lease.JobLeaseService;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Service
 @AllArgsConstructor
 public class RegistrationCleanupServiceImpl implements RegistrationCleanupService {
 
+  static final String REGISTRATION_CLEANUP_JOB = "registration-cleanup";
+
   private final UserRepository userRepository;
   private final NotificationConfigRepository notificationConfigRepository;
+  private final JobLeaseService jobLeaseService;
 
   @Override
   @Transactional
   @Scheduled(cron = "0 0 0 * * *")
   public void cleanupUsersWithExpiredToken() {
+    String leaseName = REGISTRATION_CLEANUP_JOB + ":" + LocalDate.now();
+    if (!jobLeaseService.acquire(leaseName)) {
+      return;
+    }
+
     List<AbstractUserEntity> usersWithExpiredTokens = userRepository.findAllExpiredUsers();
     if (!usersWithExpiredTokens.isEmpty()) {
       notificationConfigRepository.deleteAllByUserIn(usersWithExpiredTokens);
       userRepository.deleteAll(usersWithExpiredTokens);
     }
+    jobLeaseService.complete(leaseName);
   }
 }
@@ -0,0 +1,46 @@
+package rocks.metaldetector.service.dashboard;
+
+import lombok.Getter;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.service.artist.ArtistDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The sections that are the same for every user. A snapshot is never changed after it has been built, a refresh
+ * replaces it as a whole. The version is a hash of the content and stays the same as long as the content does.
+ */
+@Getter
+public class CommunitySnapshot {
+
+  private final List<ArtistDto> topArtists;
+  private final List<ReleaseDto> mostExpectedReleases;
+  private final LocalDateTime createdAt;
+  private final String version;
+
+  public CommunitySnapshot(List<ArtistDto> topArtists, List<ReleaseDto> mostExpectedReleases, LocalDateTime createdAt, String version) {
+    this.topArtists = List.copyOf(topArtists);
+    this.mostExpectedReleases = List.copyOf(mostExpectedReleases);
+    this.createdAt = createdAt;
+    this.version = version;
+  }
+
+  public List<ArtistDto> getTopArtists(int minFollower, int limit) {
+    return topArtists.stream()
+        .filter(artist -> artist.getFollower() >= minFollower)
+        .limit(limit)
+        .toList();
+  }
+
+  /**
+   * Returns an entity tag for a response that contains the part of the snapshot selected by the parameters.
+   */
+  public String getETag(Object... parameters) {
+    StringBuilder eTag = new StringBuilder(version);
+    for (Object parameter : parameters) {
+      eTag.append('-').append(parameter);
+    }
+    return eTag.toString();
+  }
+}
@@ -0,0 +1,142 @@
+package rocks.metaldetector.service.dashboard;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import rocks.metaldetector.butler.facade.ReleasesImportedEvent;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.config.misc.DashboardProperties;
+import rocks.metaldetector.service.artist.ArtistDto;
+import rocks.metaldetector.support.TimeRange;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.springframework.security.core.authority.AuthorityUtils.createAuthorityList;
+import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.MIN_FOLLOWER;
+import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.RESULT_LIMIT;
+import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.TIME_RANGE_MONTHS;
+
+/**
+ * Holds one snapshot of the community sections for all users. The snapshot is refreshed periodically and built
+ * on demand, if there is none yet or the releases have been imported since it was built. If a refresh fails, the
+ * previous snapshot is kept. The snapshot is always built as anonymous user, so that it does not depend on the
+ * user whose request triggered the refresh.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommunitySnapshotService {
+
+  static final AnonymousAuthenticationToken PRINCIPAL = new AnonymousAuthenticationToken("key", "anonymous", createAuthorityList("ROLE_ANONYMOUS"));
+
+  private final ArtistCollector artistCollector;
+  private final ReleaseCollector releaseCollector;
+  private final DashboardProperties dashboardProperties;
+  private final ObjectMapper objectMapper;
+
+  private final AtomicReference<CommunitySnapshot> snapshot = new AtomicReference<>();
+  private volatile boolean outdated;
+
+  public CommunitySnapshot getSnapshot() {
+    CommunitySnapshot current = snapshot.get();
+    return current != null && !outdated ? current : refreshIfOutdated();
+  }
+
+  /**
+   * The time a client may keep a snapshot, it is the same as the interval of the periodic refresh.
+   */
+  public Duration getMaxAge() {
+    return dashboardProperties.getCommunityRefreshInterval();
+  }
+
+  @Scheduled(fixedDelayString = "${dashboard.community-refresh-interval:PT10M}", initialDelayString = "${dashboard.community-refresh-interval:PT10M}")
+  public void refreshPeriodically() {
+    try {
+      refresh();
+    }
+    catch (RuntimeException e) {
+      log.warn("Could not refresh the community snapshot, keeping the previous one", e);
+    }
+  }
+
+  public synchronized CommunitySnapshot refresh() {
+    CommunitySnapshot newSnapshot = runAnonymously(this::build);
+    snapshot.set(newSnapshot);
+    outdated = false;
+    log.info("Community snapshot refreshed with {} artists and {} releases", newSnapshot.getTopArtists().size(), newSnapshot.getMostExpectedReleases().size());
+    return newSnapshot;
+  }
+
+  // the snapshot is not built right away, the import evicts the cached butler queries at the same time
+  @EventListener
+  public void onReleasesImported(ReleasesImportedEvent event) {
+    outdated = true;
+  }
+
+  private synchronized CommunitySnapshot refreshIfOutdated() {
+    CommunitySnapshot current = snapshot.get();
+    if (current != null && !outdated) {
+      return current;
+    }
+
+    try {
+      return refresh();
+    }
+    catch (RuntimeException e) {
+      if (current == null) {
+        throw e;
+      }
+      log.warn("Could not refresh the outdated community snapshot from {}, keeping it", current.getCreatedAt(), e);
+      return current;
+    }
+  }
+
+  private CommunitySnapshot build() {
+    LocalDate now = LocalDate.now();
+    List<ArtistDto> topArtists = artistCollector.collectTopFollowedArtists(MIN_FOLLOWER);
+    List<ReleaseDto> mostExpectedReleases = releaseCollector.collectTopReleases(new TimeRange(now, now.plusMonths(TIME_RANGE_MONTHS)), topArtists, RESULT_LIMIT);
+    LocalDateTime createdAt = LocalDateTime.now();
+    return new CommunitySnapshot(topArtists, mostExpectedReleases, createdAt, createVersion(topArtists, mostExpectedReleases, createdAt));
+  }
+
+  private String createVersion(List<ArtistDto> topArtists, List<ReleaseDto> mostExpectedReleases, LocalDateTime createdAt) {
+    Map<String, Object> content = new LinkedHashMap<>();
+    content.put("topArtists", topArtists);
+    content.put("mostExpectedReleases", mostExpectedReleases);
+    try {
+      return DigestUtils.md5Hex(objectMapper.writeValueAsBytes(content));
+    }
+    catch (JsonProcessingException e) {
+      log.warn("Could not hash the community snapshot, using its creation time as version", e);
+      return DigestUtils.md5Hex(createdAt.toString());
+    }
+  }
+
+  private <T> T runAnonymously(Supplier<T> task) {
+    SecurityContext previousContext = SecurityContextHolder.getContext();
+    SecurityContext anonymousContext = SecurityContextHolder.createEmptyContext();
+    anonymousContext.setAuthentication(PRINCIPAL);
+    SecurityContextHolder.setContext(anonymousContext);
+    try {
+      return task.get();
+    }
+    finally {
+      SecurityContextHolder.setContext(previousContext);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package rocks.metaldetector.service.dashboard;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import rocks.metaldetector.config.misc.DashboardProperties;
+import rocks.metaldetector.support.CallerContext;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Computes the sections of the dashboard concurrently. Every section has its own timeout, a section that fails
+ * or does not finish in time is replaced by a fallback and reported as degraded, the other sections are not
+ * affected. The duration of each section is recorded as timer, tagged with the outcome.
+ */
+@Slf4j
+@Component
+public class DashboardSectionExecutor implements DisposableBean {
+
+  static final String SECTION_METRIC = "dashboard.section";
+
+  private final DashboardProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final ThreadPoolExecutor executor;
+
+  public DashboardSectionExecutor(DashboardProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    this.executor = new ThreadPoolExecutor(properties.getConcurrency(), properties.getConcurrency(), 0L, TimeUnit.MILLISECONDS,
+                                           new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+                                           new CustomizableThreadFactory("dashboard-"),
+                                           new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /**
+   * Runs the blocking task on a worker thread in the context of the caller.
+   */
+  public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+    Executor callerContextExecutor = command -> executor.execute(CallerContext.wrap(command));
+    return CompletableFuture.supplyAsync(task, callerContextExecutor);
+  }
+
+  /**
+   * Starts the section and limits it to the section timeout. The returned future is a copy, so that the timeout
+   * does not complete a future that is shared with other requests.
+   */
+  public <T> CompletableFuture<T> startSection(String section, Supplier<CompletableFuture<T>> task) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    CompletableFuture<T> result;
+    try {
+      result = task.get().copy();
+    }
+    catch (RuntimeException e) {
+      result = CompletableFuture.failedFuture(e);
+    }
+    return result.orTimeout(properties.getSectionTimeout().toMillis(), TimeUnit.MILLISECONDS)
+        .whenComplete((value, exception) -> sample.stop(Timer.builder(SECTION_METRIC)
+                                                             .description("Duration of a dashboard section")
+                                                             .tag("section", section)
+                                                             .tag("outcome", outcome(exception))
+                                                             .register(meterRegistry)));
+  }
+
+  /**
+   * Waits for the section. If it failed or timed out, the section is added to the degraded sections and the
+   * fallback is returned.
+   */
+  public <T> T getOrDegrade(String section, CompletableFuture<T> future, T fallback, Collection<String> degradedSections) {
+    try {
+      return future.join();
+    }
+    catch (CompletionException e) {
+      Throwable cause = e.getCause() != null ? e.getCause() : e;
+      if (cause instanceof TimeoutException) {
+        log.warn("Dashboard section '{}' did not finish within {}", section, properties.getSectionTimeout());
+      }
+      else {
+        log.warn("Dashboard section '{}' failed", section, cause);
+      }
+      degradedSections.add(section);
+      return fallback;
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  private String outcome(Throwable exception) {
+    if (exception == null) {
+      return "success";
+    }
+    Throwable cause = exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception;
+    return cause instanceof TimeoutException ? "timeout" : "failure";
+  }
+}
@@ -4,14 +4,16 @@ import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
+import rocks.metaldetector.security.AuthenticationFacade;
 import rocks.metaldetector.service.artist.ArtistDto;
 import rocks.metaldetector.service.artist.FollowArtistService;
-import rocks.metaldetector.support.TimeRange;
 import rocks.metaldetector.web.api.response.DashboardResponse;
 
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Profile({"default", "preview", "prod"})
@@ -22,29 +24,50 @@ public class DashboardServiceImpl implements DashboardService {
   public static final int RESULT_LIMIT = 10;
   public static final int TIME_RANGE_MONTHS = 6;
 
+  static final String UPCOMING_RELEASES = "upcomingReleases";
+  static final String RECENT_RELEASES = "recentReleases";
+  static final String MOST_EXPECTED_RELEASES = "mostExpectedReleases";
+  static final String RECENTLY_FOLLOWED_ARTISTS = "recentlyFollowedArtists";
+  static final String FAVORITE_COMMUNITY_ARTISTS = "favoriteCommunityArtists";
+
   private final ReleaseCollector releaseCollector;
   private final ArtistCollector artistCollector;
+  private final CommunitySnapshotService communitySnapshotService;
   private final FollowArtistService followArtistService;
+  private final AuthenticationFacade authenticationFacade;
+  private final DashboardSnapshotCache dashboardSnapshotCache;
+  private final DashboardSectionExecutor sectionExecutor;
 
   @Override
   public DashboardResponse createDashboardResponse() {
-    List<ArtistDto> currentUsersFollowedArtists = followArtistService.getFollowedArtistsOfCurrentUser();
-    List<ArtistDto> allTopFollowedArtists = artistCollector.collectTopFollowedArtists(MIN_FOLLOWER);
-    List<ArtistDto> homepageTopFollowedArtists = allTopFollowedArtists.stream().limit(RESULT_LIMIT).collect(Collectors.toList());
-    List<ArtistDto> recentlyFollowedArtists = artistCollector.collectRecentlyFollowedArtists(RESULT_LIMIT);
+    AbstractUserEntity currentUser = authenticationFacade.getCurrentUser();
+    return dashboardSnapshotCache.get(currentUser != null ? currentUser.getPublicId() : null, this::buildDashboardResponse);
+  }
 
-    List<ReleaseDto> upcomingReleases = releaseCollector.collectUpcomingReleases(currentUsersFollowedArtists);
-    List<ReleaseDto> recentReleases = releaseCollector.collectRecentReleases(currentUsersFollowedArtists);
+  private DashboardResponse buildDashboardResponse() {
+    List<ArtistDto> currentUsersFollowedArtists = followArtistService.getFollowedArtistsOfCurrentUser();
 
-    var now = LocalDate.now();
-    List<ReleaseDto> mostExpectedReleases = releaseCollector.collectTopReleases(new TimeRange(now, now.plusMonths(TIME_RANGE_MONTHS)), allTopFollowedArtists, RESULT_LIMIT);
+    // all sections run at the same time, the community sections are taken from the shared snapshot
+    CompletableFuture<CommunitySnapshot> communitySnapshot = sectionExecutor.supplyAsync(communitySnapshotService::getSnapshot);
+    CompletableFuture<List<ReleaseDto>> upcomingReleases = sectionExecutor.startSection(
+        UPCOMING_RELEASES, () -> releaseCollector.collectUpcomingReleases(currentUsersFollowedArtists));
+    CompletableFuture<List<ReleaseDto>> recentReleases = sectionExecutor.startSection(
+        RECENT_RELEASES, () -> releaseCollector.collectRecentReleases(currentUsersFollowedArtists));
+    CompletableFuture<List<ArtistDto>> recentlyFollowedArtists = sectionExecutor.startSection(
+        RECENTLY_FOLLOWED_ARTISTS, () -> sectionExecutor.supplyAsync(() -> artistCollector.collectRecentlyFollowedArtists(RESULT_LIMIT)));
+    CompletableFuture<List<ArtistDto>> homepageTopFollowedArtists = sectionExecutor.startSection(
+        FAVORITE_COMMUNITY_ARTISTS, () -> communitySnapshot.thenApply(snapshot -> snapshot.getTopArtists(MIN_FOLLOWER, RESULT_LIMIT)));
+    CompletableFuture<List<ReleaseDto>> mostExpectedReleases = sectionExecutor.startSection(
+        MOST_EXPECTED_RELEASES, () -> communitySnapshot.thenApply(CommunitySnapshot::getMostExpectedReleases));
 
+    List<String> degradedSections = new ArrayList<>();
     return DashboardResponse.builder()
-        .upcomingReleases(upcomingReleases)
-        .recentReleases(recentReleases)
-        .favoriteCommunityArtists(homepageTopFollowedArtists)
-        .mostExpectedReleases(mostExpectedReleases)
-        .recentlyFollowedArtists(recentlyFollowedArtists)
+        .upcomingReleases(sectionExecutor.getOrDegrade(UPCOMING_RELEASES, upcomingReleases, Collections.emptyList(), degradedSections))
+        .recentReleases(sectionExecutor.getOrDegrade(RECENT_RELEASES, recentReleases, Collections.emptyList(), degradedSections))
+        .favoriteCommunityArtists(sectionExecutor.getOrDegrade(FAVORITE_COMMUNITY_ARTISTS, homepageTopFollowedArtists, Collections.emptyList(), degradedSections))
+        .mostExpectedReleases(sectionExecutor.getOrDegrade(MOST_EXPECTED_RELEASES, mostExpectedReleases, Collections.emptyList(), degradedSections))
+        .recentlyFollowedArtists(sectionExecutor.getOrDegrade(RECENTLY_FOLLOWED_ARTISTS, recentlyFollowedArtists, Collections.emptyList(), degradedSections))
+        .degradedSections(degradedSections)
         .build();
   }
 }
@@ -0,0 +1,79 @@
+package rocks.metaldetector.service.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rocks.metaldetector.butler.facade.ReleasesImportedEvent;
+import rocks.metaldetector.service.artist.events.FollowActionEvent;
+import rocks.metaldetector.service.user.events.UserDeletionEvent;
+import rocks.metaldetector.web.api.response.DashboardResponse;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the last built dashboard of each user. A snapshot is removed as soon as its user follows or unfollows an
+ * artist and all snapshots are removed after the butler finished an import, the next request builds it again.
+ * The community sections are not tracked per user, they are refreshed by the time to live in the ehcache.xml.
+ * A degraded dashboard is not kept, so that the missing sections are tried again with the next request.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class DashboardSnapshotCache {
+
+  public static final String DASHBOARD_SNAPSHOTS_CACHE = "dashboardSnapshots";
+
+  private final CacheManager cacheManager;
+
+  public DashboardResponse get(String userId, Supplier<DashboardResponse> builder) {
+    Cache cache = cacheManager.getCache(DASHBOARD_SNAPSHOTS_CACHE);
+    if (cache == null || userId == null) {
+      return builder.get();
+    }
+
+    DashboardResponse snapshot = cache.get(userId, DashboardResponse.class);
+    if (snapshot != null) {
+      return snapshot;
+    }
+    DashboardResponse dashboardResponse = builder.get();
+    if (!dashboardResponse.isDegraded()) {
+      cache.put(userId, dashboardResponse);
+    }
+    return dashboardResponse;
+  }
+
+  public void evict(String userId) {
+    Cache cache = cacheManager.getCache(DASHBOARD_SNAPSHOTS_CACHE);
+    if (cache != null && userId != null) {
+      cache.evict(userId);
+    }
+  }
+
+  public void evictAll() {
+    Cache cache = cacheManager.getCache(DASHBOARD_SNAPSHOTS_CACHE);
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+
+  // runs after the commit, otherwise a concurrent request could rebuild the snapshot from the old follow actions
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onFollowAction(FollowActionEvent event) {
+    evict(event.getUser().getPublicId());
+  }
+
+  @EventListener
+  public void onUserDeletion(UserDeletionEvent event) {
+    evict(event.getUserEntity().getPublicId());
+  }
+
+  @EventListener
+  public void onReleasesImported(ReleasesImportedEvent event) {
+    log.info("Releases imported at {}, clearing the dashboard snapshots", event.getImportEndTime());
+    evictAll();
+  }
+}
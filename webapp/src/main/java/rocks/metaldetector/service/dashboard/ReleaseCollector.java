@@ -5,17 +5,17 @@ import org.springframework.stereotype.Component;
 import rocks.metaldetector.butler.facade.ReleaseService;
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
 import rocks.metaldetector.service.artist.ArtistDto;
+import rocks.metaldetector.support.ConcurrentPageFetcher;
 import rocks.metaldetector.support.DetectorSort;
 import rocks.metaldetector.support.Page;
 import rocks.metaldetector.support.PageRequest;
 import rocks.metaldetector.support.TimeRange;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 
 import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.RESULT_LIMIT;
@@ -30,55 +30,47 @@ public class ReleaseCollector {
   static final int PAGE_SIZE = 50;
 
   private final ReleaseService releaseService;
+  private final ConcurrentPageFetcher pageFetcher;
 
-  public List<ReleaseDto> collectUpcomingReleases(List<ArtistDto> artists) {
+  public CompletableFuture<List<ReleaseDto>> collectUpcomingReleases(List<ArtistDto> artists) {
     LocalDate tomorrow = LocalDate.now().plusDays(1);
     TimeRange timeRange = new TimeRange(tomorrow, tomorrow.plusMonths(TIME_RANGE_MONTHS));
     DetectorSort sort = new DetectorSort("releaseDate", ASC);
-    return collectReleases(artists, timeRange, sort).stream()
-        .limit(RESULT_LIMIT)
-        .collect(Collectors.toList());
+    return findFirstReleases(artists, timeRange, sort);
   }
 
-  public List<ReleaseDto> collectRecentReleases(List<ArtistDto> artists) {
+  public CompletableFuture<List<ReleaseDto>> collectRecentReleases(List<ArtistDto> artists) {
     LocalDate now = LocalDate.now();
     TimeRange timeRange = new TimeRange(now.minusMonths(TIME_RANGE_MONTHS), now);
     DetectorSort sort = new DetectorSort("releaseDate", DESC);
-    return collectReleases(artists, timeRange, sort).stream()
-        .limit(RESULT_LIMIT)
-        .collect(Collectors.toList());
+    return findFirstReleases(artists, timeRange, sort);
   }
 
   public List<ReleaseDto> collectTopReleases(TimeRange timeRange, List<ArtistDto> artists, int maxReleases) {
-    Map<String, Integer> followersPerArtist = artists.stream()
-        .collect(Collectors.groupingBy(artistDto -> artistDto.getArtistName().toLowerCase(),
-                                       Collectors.summingInt(ArtistDto::getFollower)));
-    return collectReleases(artists, timeRange, new DetectorSort("artist", ASC)).stream()
-        .sorted(Comparator.comparingInt(
-                (ReleaseDto release) -> followersPerArtist.get(release.getArtist().toLowerCase()))
-                    .reversed())
-        .limit(maxReleases)
-        .sorted(Comparator.comparing(ReleaseDto::getReleaseDate))
-        .collect(Collectors.toList());
+    TopReleaseSelector selector = new TopReleaseSelector(artists, maxReleases);
+    forEachReleasePage(artists, timeRange, new DetectorSort("artist", ASC),
+                       (releasePage, page) -> selector.offerAll(releasePage.getItems(), (long) (page - 1) * PAGE_SIZE));
+    return selector.getSelectedReleases();
   }
 
-  private List<ReleaseDto> collectReleases(List<ArtistDto> artists, TimeRange timeRange, DetectorSort sort) {
+  private CompletableFuture<List<ReleaseDto>> findFirstReleases(List<ArtistDto> artists, TimeRange timeRange, DetectorSort sort) {
     if (artists.isEmpty()) {
-      return Collections.emptyList();
+      return CompletableFuture.completedFuture(Collections.emptyList());
     }
 
     List<String> artistNames = artists.stream().map(ArtistDto::getArtistName).collect(Collectors.toList());
+    return releaseService.findTopReleasesAsync(artistNames, timeRange, sort, RESULT_LIMIT);
+  }
 
-    List<ReleaseDto> releases = new ArrayList<>();
-    int currentPage = 1;
-    Page<ReleaseDto> releasePage;
-
-    do {
-      PageRequest pageRequest = new PageRequest(currentPage, PAGE_SIZE, sort);
-      releasePage = releaseService.findReleases(artistNames, timeRange, null, pageRequest);
-      releases.addAll(releasePage.getItems());
-    } while (currentPage++ < releasePage.getPagination().getTotalPages());
+  // each page is handed to the consumer as soon as it is fetched, so that the releases are not kept all at once
+  private void forEachReleasePage(List<ArtistDto> artists, TimeRange timeRange, DetectorSort sort, ObjIntConsumer<Page<ReleaseDto>> pageConsumer) {
+    if (artists.isEmpty()) {
+      return;
+    }
 
-    return releases;
+    List<String> artistNames = artists.stream().map(ArtistDto::getArtistName).collect(Collectors.toList());
+    Page<ReleaseDto> firstPage = releaseService.findReleases(artistNames, timeRange, null, new PageRequest(1, PAGE_SIZE, sort));
+    pageFetcher.forEachPage(firstPage, firstPage.getPagination().getTotalPages(),
+                            page -> releaseService.findReleases(artistNames, timeRange, null, new PageRequest(page, PAGE_SIZE, sort)), pageConsumer);
   }
 }
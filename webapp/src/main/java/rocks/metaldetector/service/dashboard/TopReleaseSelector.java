@@ -0,0 +1,89 @@
+package rocks.metaldetector.service.dashboard;
+
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.service.artist.ArtistDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsLast;
+
+/**
+ * Selects the releases of the artists with the most followers in a bounded heap, so that only 'maxReleases'
+ * candidates are kept no matter how many releases are offered. Releases of artists with the same number of
+ * followers keep the order in which they were offered. The selected releases are returned by release date.
+ */
+class TopReleaseSelector {
+
+  private static final Comparator<Candidate> WORST_FIRST = Comparator.comparingInt(Candidate::followers)
+      .thenComparing(Comparator.comparingLong(Candidate::index).reversed());
+  private static final Comparator<Candidate> RESULT_ORDER = Comparator.comparing((Candidate candidate) -> candidate.release().getReleaseDate(), nullsLast(naturalOrder()))
+      .thenComparing(WORST_FIRST.reversed());
+
+  private final Map<String, Integer> followersPerArtist;
+  private final int maxReleases;
+  private final PriorityQueue<Candidate> candidates;
+  private long offered;
+
+  TopReleaseSelector(List<ArtistDto> artists, int maxReleases) {
+    this.followersPerArtist = artists.stream()
+        .collect(Collectors.groupingBy(artist -> normalize(artist.getArtistName()), Collectors.summingInt(ArtistDto::getFollower)));
+    this.maxReleases = maxReleases;
+    this.candidates = new PriorityQueue<>(Math.max(maxReleases, 1), WORST_FIRST);
+  }
+
+  void offerAll(Collection<ReleaseDto> releases) {
+    offerAll(releases, offered);
+  }
+
+  /**
+   * Offers releases that start at the given position of all releases, e.g. a page that was fetched out of order.
+   */
+  void offerAll(Collection<ReleaseDto> releases, long firstIndex) {
+    long index = firstIndex;
+    for (ReleaseDto release : releases) {
+      offer(release, index++);
+    }
+    offered = Math.max(offered, index);
+  }
+
+  void offer(ReleaseDto release) {
+    offer(release, offered++);
+  }
+
+  private void offer(ReleaseDto release, long index) {
+    Candidate candidate = new Candidate(release, followersPerArtist.getOrDefault(normalize(release.getArtist()), 0), index);
+    if (candidates.size() < maxReleases) {
+      candidates.add(candidate);
+    }
+    else if (maxReleases > 0 && WORST_FIRST.compare(candidate, candidates.peek()) > 0) {
+      candidates.poll();
+      candidates.add(candidate);
+    }
+  }
+
+  List<ReleaseDto> getSelectedReleases() {
+    if (candidates.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<Candidate> selected = new ArrayList<>(candidates);
+    selected.sort(RESULT_ORDER);
+    return selected.stream().map(Candidate::release).collect(Collectors.toList());
+  }
+
+  private static String normalize(String artistName) {
+    return artistName == null ? "" : artistName.toLowerCase(Locale.ROOT);
+  }
+
+  private record Candidate(ReleaseDto release, int followers, long index) {
+  }
+}
@@ -3,9 +3,12 @@ package rocks.metaldetector.service.email;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -16,9 +19,14 @@ import static rocks.metaldetector.support.Endpoints.Frontend.PRIVACY_POLICY;
 public abstract class AbstractEmail {
 
   private final List<ViewModelEntry> viewModelEntries;
+  private final Map<String, List<ReleaseDto>> releaseLists;
+  private boolean viewModelBuilt;
+  private String enhancedViewModelBaseUrl;
+  private Map<String, Object> enhancedViewModel;
 
   AbstractEmail() {
     viewModelEntries = new ArrayList<>();
+    releaseLists = new LinkedHashMap<>();
     addDefaultEntries();
   }
 
@@ -52,7 +60,11 @@ public abstract class AbstractEmail {
   abstract void buildViewModel();
 
   public Map<String, Object> getEnhancedViewModel(String baseUrl) {
-    buildViewModel();
+    buildViewModelOnce();
+    if (enhancedViewModel != null && baseUrl.equals(enhancedViewModelBaseUrl)) {
+      return enhancedViewModel;
+    }
+
     Map<String, Object> viewModel = new HashMap<>();
     for (ViewModelEntry entry : viewModelEntries) {
       if (entry.isRelativeUrl()) {
@@ -63,13 +75,38 @@ public abstract class AbstractEmail {
       }
     }
 
-    return viewModel;
+    enhancedViewModelBaseUrl = baseUrl;
+    enhancedViewModel = Collections.unmodifiableMap(viewModel);
+    return enhancedViewModel;
+  }
+
+  /**
+   * Release lists of the view model, which are rendered as a shared fragment by the {@link EmailRenderer}.
+   */
+  Map<String, List<ReleaseDto>> getReleaseLists() {
+    buildViewModelOnce();
+    return Collections.unmodifiableMap(releaseLists);
   }
 
   void addViewModelEntry(ViewModelEntry entry) {
     viewModelEntries.add(entry);
   }
 
+  void addReleaseList(String name, List<ReleaseDto> releases) {
+    addViewModelEntry(ViewModelEntry.builder()
+                          .name(name)
+                          .value(releases)
+                          .build());
+    releaseLists.put(name, releases);
+  }
+
+  private void buildViewModelOnce() {
+    if (!viewModelBuilt) {
+      buildViewModel();
+      viewModelBuilt = true;
+    }
+  }
+
 }
 
 @Getter
@@ -4,8 +4,6 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 import rocks.metaldetector.config.misc.MailProperties;
 
 @Service
@@ -14,15 +12,13 @@ import rocks.metaldetector.config.misc.MailProperties;
 @AllArgsConstructor
 public class ConsoleEmailService implements EmailService {
 
-  private final SpringTemplateEngine templateEngine;
+  private final EmailRenderer emailRenderer;
   private final MailProperties mailProperties;
 
   @Override
   public void sendEmail(AbstractEmail email) {
-    Context context = new Context();
     String baseUrl = mailProperties.getApplicationHostUrl() + ":" + mailProperties.getApplicationPort();
-    context.setVariables(email.getEnhancedViewModel(baseUrl));
-    String messageAsHtml = templateEngine.process(email.getTemplateName(), context);
+    String messageAsHtml = emailRenderer.render(email, baseUrl);
 
     log.debug("From: {}", mailProperties.getFromEmail());
     log.debug("Recipient: {}", email.getRecipient());
@@ -0,0 +1,146 @@
+package rocks.metaldetector.service.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rocks.metaldetector.config.misc.EmailOutboxProperties;
+import rocks.metaldetector.config.misc.MailProperties;
+import rocks.metaldetector.persistence.domain.email.EmailOutboxEntity;
+import rocks.metaldetector.persistence.domain.email.EmailOutboxRepository;
+
+import java.io.UnsupportedEncodingException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static rocks.metaldetector.persistence.domain.email.EmailOutboxStatus.FAILED;
+import static rocks.metaldetector.persistence.domain.email.EmailOutboxStatus.PENDING;
+import static rocks.metaldetector.persistence.domain.email.EmailOutboxStatus.SENT;
+
+/**
+ * Sends the pending emails of the outbox in batches. The SMTP connection is kept open between the emails and
+ * batches and only reopened if the server closed it. Each batch is claimed in a short transaction that locks
+ * the due emails with SKIP LOCKED and moves their next attempt behind the claim timeout, so several nodes can
+ * drain the outbox at the same time without sending an email twice. The emails are sent outside of a
+ * transaction and the outcome of each email is saved in its own transaction afterwards. Emails of a node that
+ * stopped while sending are due again once the claim timed out.
+ */
+@Slf4j
+@Component
+@Profile({"preview", "prod"})
+public class EmailOutboxSender implements DisposableBean {
+
+  static final int MAX_ERROR_LENGTH = 1000;
+
+  private final EmailOutboxRepository emailOutboxRepository;
+  private final JavaMailSenderImpl mailSender;
+  private final MailProperties mailProperties;
+  private final MimeMessageHelperFunction messageHelperFunction;
+  private final EmailOutboxProperties emailOutboxProperties;
+  private final TransactionTemplate transactionTemplate;
+  private Transport transport; // only accessed by one scheduled run at a time
+
+  public EmailOutboxSender(EmailOutboxRepository emailOutboxRepository, JavaMailSenderImpl mailSender, MailProperties mailProperties,
+                           MimeMessageHelperFunction messageHelperFunction, EmailOutboxProperties emailOutboxProperties,
+                           PlatformTransactionManager transactionManager) {
+    this.emailOutboxRepository = emailOutboxRepository;
+    this.mailSender = mailSender;
+    this.mailProperties = mailProperties;
+    this.messageHelperFunction = messageHelperFunction;
+    this.emailOutboxProperties = emailOutboxProperties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Scheduled(fixedDelay = 10000L, initialDelay = 10000L)
+  public void sendPendingEmails() {
+    int batchSize = emailOutboxProperties.getBatchSize();
+    List<EmailOutboxEntity> emails;
+    do {
+      emails = transactionTemplate.execute(status -> claimBatch(batchSize));
+      emails.forEach(this::send);
+    } while (emails.size() == batchSize);
+  }
+
+  @Scheduled(cron = "0 0 3 * * *")
+  public void deleteSentEmails() {
+    LocalDateTime before = LocalDateTime.now().minus(emailOutboxProperties.getRetention());
+    int deletedEmails = emailOutboxRepository.deleteByStatusModifiedBefore(SENT, Date.from(before.atZone(ZoneId.systemDefault()).toInstant()));
+    log.info("Deleted {} sent emails from the outbox", deletedEmails);
+  }
+
+  @Override
+  public void destroy() throws MessagingException {
+    if (transport != null && transport.isConnected()) {
+      transport.close();
+    }
+  }
+
+  private List<EmailOutboxEntity> claimBatch(int batchSize) {
+    LocalDateTime now = LocalDateTime.now();
+    List<EmailOutboxEntity> emails = emailOutboxRepository.findDueForUpdate(PENDING, now, Pageable.ofSize(batchSize));
+    LocalDateTime claimedUntil = now.plus(emailOutboxProperties.getClaimTimeout());
+    emails.forEach(email -> email.setNextAttemptAt(claimedUntil));
+    return emails;
+  }
+
+  private void send(EmailOutboxEntity email) {
+    try {
+      MimeMessage mimeMessage = createMimeMessage(email);
+      getConnectedTransport().sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+      email.setStatus(SENT);
+      email.setLastError(null);
+    }
+    catch (MessagingException | UnsupportedEncodingException | RuntimeException e) {
+      handleFailure(email, e);
+    }
+    transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.save(email));
+  }
+
+  private void handleFailure(EmailOutboxEntity email, Exception cause) {
+    int attempts = email.getAttempts() + 1;
+    email.setAttempts(attempts);
+    String error = String.valueOf(cause.getMessage());
+    email.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+    if (attempts >= emailOutboxProperties.getMaxAttempts()) {
+      email.setStatus(FAILED);
+      log.error("Unable to send email {} after {} attempts", email.getId(), attempts, cause);
+    }
+    else {
+      long backoffFactor = 1L << Math.min(attempts - 1, 20);
+      email.setNextAttemptAt(LocalDateTime.now().plus(emailOutboxProperties.getRetryBackoff().multipliedBy(backoffFactor)));
+      log.warn("Unable to send email {}, attempt {}: {}", email.getId(), attempts, cause.getMessage());
+    }
+  }
+
+  private Transport getConnectedTransport() throws MessagingException {
+    if (transport == null || !transport.isConnected()) {
+      transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+      transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+    }
+    return transport;
+  }
+
+  private MimeMessage createMimeMessage(EmailOutboxEntity email) throws MessagingException, UnsupportedEncodingException {
+    MimeMessage mimeMessage = mailSender.createMimeMessage();
+    MimeMessageHelper helper = messageHelperFunction.apply(mimeMessage);
+    helper.setTo(email.getRecipient());
+    helper.setText(email.getHtml(), true);
+    helper.setSubject(email.getSubject());
+    helper.setFrom(mailProperties.getFromEmail(), mailProperties.getFromName());
+    helper.setReplyTo(mailProperties.getFromEmail());
+    mimeMessage.saveChanges();
+    return mimeMessage;
+  }
+}
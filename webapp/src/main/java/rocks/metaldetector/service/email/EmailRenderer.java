@@ -0,0 +1,106 @@
+package rocks.metaldetector.service.email;
+
+import nz.net.ultraq.thymeleaf.layoutdialect.LayoutDialect;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import rocks.metaldetector.butler.facade.ReleasesImportedEvent;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Renders emails with an own template engine, whose parsed templates are always cached independent of
+ * spring.thymeleaf.cache. Release lists are rendered once per distinct list with the release list fragment
+ * and reused, because many users of a notification run get the same releases. The cache is keyed by the values
+ * the fragment renders, because the release DTOs themselves are mutable, and it is cleared after every import
+ * of the butler.
+ */
+@Component
+public class EmailRenderer {
+
+  static final String RELEASE_LIST_TEMPLATE = "email/fragments/release-list";
+  static final String RELEASE_LIST_VARIABLE = "releases";
+  static final String RENDERED_SUFFIX = "Html";
+  static final int MAX_CACHED_RELEASE_LISTS = 1000;
+
+  private final ITemplateEngine templateEngine;
+  private final Map<List<ReleaseKey>, String> renderedReleaseLists;
+
+  public EmailRenderer() {
+    this(createTemplateEngine(true), MAX_CACHED_RELEASE_LISTS);
+  }
+
+  EmailRenderer(ITemplateEngine templateEngine, int maxCachedReleaseLists) {
+    this.templateEngine = templateEngine;
+    this.renderedReleaseLists = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<List<ReleaseKey>, String> eldest) {
+        return size() > maxCachedReleaseLists;
+      }
+    });
+  }
+
+  /**
+   * Renders the email. Each release list of the email is additionally available as rendered html in the
+   * variable with the suffix 'Html', e.g. 'todaysReleasesHtml'.
+   */
+  public String render(AbstractEmail email, String baseUrl) {
+    Context context = new Context();
+    context.setVariables(email.getEnhancedViewModel(baseUrl));
+    email.getReleaseLists().forEach((name, releases) -> context.setVariable(name + RENDERED_SUFFIX, renderReleaseList(releases)));
+    return templateEngine.process(email.getTemplateName(), context);
+  }
+
+  private String renderReleaseList(List<ReleaseDto> releases) {
+    if (releases == null || releases.isEmpty()) {
+      return "";
+    }
+
+    List<ReleaseKey> key = releases.stream().map(ReleaseKey::of).toList();
+    String renderedReleaseList = renderedReleaseLists.get(key);
+    if (renderedReleaseList == null) {
+      Context context = new Context();
+      context.setVariable(RELEASE_LIST_VARIABLE, releases);
+      renderedReleaseList = templateEngine.process(RELEASE_LIST_TEMPLATE, context);
+      renderedReleaseLists.put(key, renderedReleaseList);
+    }
+    return renderedReleaseList;
+  }
+
+  @EventListener
+  public void onReleasesImported(ReleasesImportedEvent event) {
+    renderedReleaseLists.clear();
+  }
+
+  private record ReleaseKey(String artist, String albumTitle, LocalDate releaseDate, String coverUrl) {
+
+    private static ReleaseKey of(ReleaseDto release) {
+      return new ReleaseKey(release.getArtist(), release.getAlbumTitle(), release.getReleaseDate(), release.getCoverUrl());
+    }
+  }
+
+  static ITemplateEngine createTemplateEngine(boolean cacheable) {
+    ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+    templateResolver.setPrefix("templates/");
+    templateResolver.setSuffix(".html");
+    templateResolver.setTemplateMode(TemplateMode.HTML);
+    templateResolver.setCharacterEncoding(UTF_8.name());
+    templateResolver.setCacheable(cacheable);
+
+    SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+    templateEngine.setTemplateResolver(templateResolver);
+    templateEngine.addDialect(new LayoutDialect());
+    return templateEngine;
+  }
+}
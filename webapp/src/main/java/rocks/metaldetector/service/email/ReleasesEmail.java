@@ -43,14 +43,7 @@ public final class ReleasesEmail extends AbstractEmail {
                           .value(username)
                           .build());
 
-    addViewModelEntry(ViewModelEntry.builder()
-                          .name("upcomingReleases")
-                          .value(upcomingReleases)
-                          .build());
-
-    addViewModelEntry(ViewModelEntry.builder()
-                          .name("recentReleases")
-                          .value(recentReleases)
-                          .build());
+    addReleaseList("upcomingReleases", upcomingReleases);
+    addReleaseList("recentReleases", recentReleases);
   }
 }
@@ -41,9 +41,6 @@ public final class TodaysAnnouncementsEmail extends AbstractEmail {
                           .value(username)
                           .build());
 
-    addViewModelEntry(ViewModelEntry.builder()
-                          .name("todaysAnnouncements")
-                          .value(todaysAnnouncements)
-                          .build());
+    addReleaseList("todaysAnnouncements", todaysAnnouncements);
   }
 }
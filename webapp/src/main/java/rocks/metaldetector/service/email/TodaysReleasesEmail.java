@@ -41,9 +41,6 @@ public final class TodaysReleasesEmail extends AbstractEmail {
                           .value(username)
                           .build());
 
-    addViewModelEntry(ViewModelEntry.builder()
-                          .name("todaysReleases")
-                          .value(todaysReleases)
-                          .build());
+    addReleaseList("todaysReleases", todaysReleases);
   }
 }
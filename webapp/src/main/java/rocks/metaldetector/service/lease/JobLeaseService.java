@@ -0,0 +1,23 @@
+package rocks.metaldetector.service.lease;
+
+public interface JobLeaseService {
+
+  /**
+   * Acquires the lease for a job execution if no other node holds it or the other node's lease has expired.
+   * A completed lease is never acquired again.
+   */
+  boolean acquire(String leaseName);
+
+  /**
+   * Only takes over an existing lease whose owner did not complete the job within the lease duration.
+   */
+  boolean acquireExpired(String leaseName);
+
+  /**
+   * Extends the lease of a running job by the lease duration. Returns false if the lease was taken over by
+   * another node in the meantime, in which case the job should stop.
+   */
+  boolean renew(String leaseName);
+
+  void complete(String leaseName);
+}
@@ -0,0 +1,94 @@
+package rocks.metaldetector.service.lease;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import rocks.metaldetector.config.misc.JobLeaseProperties;
+import rocks.metaldetector.persistence.domain.job.JobLeaseEntity;
+import rocks.metaldetector.persistence.domain.job.JobLeaseRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class JobLeaseServiceImpl implements JobLeaseService {
+
+  private final JobLeaseRepository jobLeaseRepository;
+  private final JobLeaseProperties jobLeaseProperties;
+  private final TransactionTemplate transactionTemplate;
+  private final String owner;
+
+  public JobLeaseServiceImpl(JobLeaseRepository jobLeaseRepository, JobLeaseProperties jobLeaseProperties,
+                             PlatformTransactionManager transactionManager) {
+    this.jobLeaseRepository = jobLeaseRepository;
+    this.jobLeaseProperties = jobLeaseProperties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.owner = System.getenv().getOrDefault("HOSTNAME", "metal-detector") + "-" + UUID.randomUUID();
+  }
+
+  @Override
+  public boolean acquire(String leaseName) {
+    if (acquireExpired(leaseName)) {
+      return true;
+    }
+
+    try {
+      transactionTemplate.executeWithoutResult(status -> jobLeaseRepository.saveAndFlush(JobLeaseEntity.builder()
+          .leaseName(leaseName)
+          .owner(owner)
+          .leasedUntil(LocalDateTime.now().plus(jobLeaseProperties.getDuration()))
+          .build()));
+      log.info("Acquired lease '{}'", leaseName);
+      return true;
+    }
+    catch (DataIntegrityViolationException e) {
+      // the lease is held by another node or the job execution is already completed
+      return false;
+    }
+  }
+
+  @Override
+  public boolean acquireExpired(String leaseName) {
+    var now = LocalDateTime.now();
+    Integer updatedLeases = transactionTemplate.execute(
+        status -> jobLeaseRepository.takeOverExpiredLease(leaseName, owner, now.plus(jobLeaseProperties.getDuration()), now)
+    );
+    boolean acquired = updatedLeases != null && updatedLeases > 0;
+    if (acquired) {
+      log.warn("Took over expired lease '{}'", leaseName);
+    }
+    return acquired;
+  }
+
+  @Override
+  public boolean renew(String leaseName) {
+    var leasedUntil = LocalDateTime.now().plus(jobLeaseProperties.getDuration());
+    Integer updatedLeases = transactionTemplate.execute(status -> jobLeaseRepository.renewLease(leaseName, owner, leasedUntil));
+    boolean renewed = updatedLeases != null && updatedLeases > 0;
+    if (!renewed) {
+      log.warn("Could not renew lease '{}', it is no longer held by this node", leaseName);
+    }
+    return renewed;
+  }
+
+  @Override
+  public void complete(String leaseName) {
+    Integer updatedLeases = transactionTemplate.execute(status -> jobLeaseRepository.completeLease(leaseName, owner));
+    if (updatedLeases == null || updatedLeases == 0) {
+      log.warn("Could not complete lease '{}', it is no longer held by this node", leaseName);
+    }
+  }
+
+  @Scheduled(cron = "0 45 3 * * *")
+  public void deleteExpiredLeases() {
+    var before = LocalDateTime.now().minus(jobLeaseProperties.getRetention());
+    int deletedLeases = jobLeaseRepository.deleteAllLeasedUntilBefore(before);
+    log.info("Deleted {} expired job leases", deletedLeases);
+  }
+}
@@ -3,6 +3,7 @@ package rocks.metaldetector.service.notification.messaging;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.persistence.domain.notification.NotificationRecipient;
 import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
 import rocks.metaldetector.service.email.EmailService;
 import rocks.metaldetector.service.email.ReleasesEmail;
@@ -10,6 +11,9 @@ import rocks.metaldetector.service.email.TodaysAnnouncementsEmail;
 import rocks.metaldetector.service.email.TodaysReleasesEmail;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 @Service
 @AllArgsConstructor
@@ -18,17 +22,23 @@ public class EmailNotificationSender implements NotificationSender {
   private final EmailService emailService;
 
   @Override
-  public void sendFrequencyMessage(AbstractUserEntity user, List<ReleaseDto> upcomingReleases, List<ReleaseDto> recentReleases) {
+  public CompletableFuture<Void> sendFrequencyMessage(NotificationRecipient recipient, List<ReleaseDto> upcomingReleases, List<ReleaseDto> recentReleases) {
+    AbstractUserEntity user = recipient.getUser();
     emailService.sendEmail(new ReleasesEmail(user.getEmail(), user.getUsername(), upcomingReleases, recentReleases));
+    return completedFuture(null);
   }
 
   @Override
-  public void sendReleaseDateMessage(AbstractUserEntity user, List<ReleaseDto> todaysReleases) {
+  public CompletableFuture<Void> sendReleaseDateMessage(NotificationRecipient recipient, List<ReleaseDto> todaysReleases) {
+    AbstractUserEntity user = recipient.getUser();
     emailService.sendEmail(new TodaysReleasesEmail(user.getEmail(), user.getUsername(), todaysReleases));
+    return completedFuture(null);
   }
 
   @Override
-  public void sendAnnouncementDateMessage(AbstractUserEntity user, List<ReleaseDto> todaysAnnouncements) {
+  public CompletableFuture<Void> sendAnnouncementDateMessage(NotificationRecipient recipient, List<ReleaseDto> todaysAnnouncements) {
+    AbstractUserEntity user = recipient.getUser();
     emailService.sendEmail(new TodaysAnnouncementsEmail(user.getEmail(), user.getUsername(), todaysAnnouncements));
+    return completedFuture(null);
   }
 }
@@ -0,0 +1,92 @@
+package rocks.metaldetector.service.notification.messaging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Component;
+import rocks.metaldetector.config.misc.NotificationDispatchProperties;
+import rocks.metaldetector.persistence.domain.notification.NotificationChannel;
+import rocks.metaldetector.persistence.domain.notification.NotificationRecipient;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs the notification of each recipient on a bounded worker pool of its channel. Every channel has its own
+ * pool (bulkhead), so a slow SMTP server cannot starve the Telegram notifications and vice versa. If the
+ * queue of a channel is full, the calling thread runs the notification itself.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher implements DisposableBean {
+
+  static final String QUEUE_SIZE_METRIC = "notification.dispatch.queue.size";
+  static final String IN_FLIGHT_METRIC = "notification.dispatch.in.flight";
+
+  private final Map<NotificationChannel, ThreadPoolExecutor> executors = new EnumMap<>(NotificationChannel.class);
+
+  public NotificationDispatcher(NotificationDispatchProperties properties, MeterRegistry meterRegistry) {
+    for (NotificationChannel channel : NotificationChannel.values()) {
+      ThreadPoolExecutor executor = createExecutor(channel, properties.getConcurrency(channel), properties.getQueueCapacity());
+      executors.put(channel, executor);
+
+      Tags tags = Tags.of("channel", channel.name());
+      Gauge.builder(QUEUE_SIZE_METRIC, executor, pool -> pool.getQueue().size())
+          .description("Notifications waiting for a free worker")
+          .tags(tags)
+          .register(meterRegistry);
+      Gauge.builder(IN_FLIGHT_METRIC, executor, ThreadPoolExecutor::getActiveCount)
+          .description("Notifications currently being collected and sent")
+          .tags(tags)
+          .register(meterRegistry);
+    }
+  }
+
+  /**
+   * Dispatches the notification task for every recipient and blocks until all of them are finished. A failing
+   * notification is logged and does not affect the others.
+   */
+  public void dispatch(Collection<NotificationRecipient> recipients, Consumer<NotificationRecipient> notificationTask) {
+    CompletableFuture<?>[] notifications = recipients.stream()
+        .map(recipient -> CompletableFuture.runAsync(
+            new DelegatingSecurityContextRunnable(() -> runNotification(recipient, notificationTask)),
+            executors.get(recipient.getNotificationConfig().getChannel())
+        ))
+        .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(notifications).join();
+  }
+
+  @Override
+  public void destroy() throws InterruptedException {
+    executors.values().forEach(ThreadPoolExecutor::shutdown);
+    for (ThreadPoolExecutor executor : executors.values()) {
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+  }
+
+  private void runNotification(NotificationRecipient recipient, Consumer<NotificationRecipient> notificationTask) {
+    try {
+      notificationTask.accept(recipient);
+    }
+    catch (Exception e) {
+      log.error("Could not notify user '{}' via {}", recipient.getUser().getPublicId(), recipient.getNotificationConfig().getChannel(), e);
+    }
+  }
+
+  private ThreadPoolExecutor createExecutor(NotificationChannel channel, int concurrency, int queueCapacity) {
+    return new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                                  new LinkedBlockingQueue<>(queueCapacity),
+                                  new CustomizableThreadFactory("notification-" + channel.name().toLowerCase() + "-"),
+                                  new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+}
@@ -0,0 +1,84 @@
+package rocks.metaldetector.service.notification.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.config.misc.NotificationHistoryProperties;
+import rocks.metaldetector.persistence.domain.notification.NotificationHistoryEntity;
+import rocks.metaldetector.persistence.domain.notification.NotificationHistoryRepository;
+import rocks.metaldetector.persistence.domain.notification.NotificationRecipient;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.stream.Collectors;
+
+/**
+ * Remembers the digests of sent notifications, so that a rerun or overlapping jobs do not send the same
+ * releases to the same user and channel twice. A digest is the SHA-256 hash of the user, the channel and the
+ * sorted release ids. It does not depend on the job, so the same releases are not sent again by another
+ * notification job until the digest expired.
+ */
+@Slf4j
+@Component
+public class NotificationHistory {
+
+  private final NotificationHistoryRepository notificationHistoryRepository;
+  private final NotificationHistoryProperties notificationHistoryProperties;
+  private final TransactionTemplate transactionTemplate;
+
+  public NotificationHistory(NotificationHistoryRepository notificationHistoryRepository, NotificationHistoryProperties notificationHistoryProperties,
+                             PlatformTransactionManager transactionManager) {
+    this.notificationHistoryRepository = notificationHistoryRepository;
+    this.notificationHistoryProperties = notificationHistoryProperties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  public String createDigest(NotificationRecipient recipient, Collection<ReleaseDto> releases) {
+    String releaseIds = releases.stream()
+        .mapToLong(ReleaseDto::getId)
+        .sorted()
+        .mapToObj(Long::toString)
+        .collect(Collectors.joining(","));
+    return DigestUtils.sha256Hex(recipient.getUser().getId() + ":" + recipient.getNotificationConfig().getChannel() + ":" + releaseIds);
+  }
+
+  /**
+   * Records the digest before the notification is sent.
+   *
+   * @return false if the digest was already recorded and the notification must not be sent again
+   */
+  public boolean record(String digest, NotificationRecipient recipient) {
+    try {
+      transactionTemplate.executeWithoutResult(status -> notificationHistoryRepository.saveAndFlush(NotificationHistoryEntity.builder()
+          .digestHash(digest)
+          .channel(recipient.getNotificationConfig().getChannel())
+          .build()));
+      return true;
+    }
+    catch (DataIntegrityViolationException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Removes the digest of a notification that could not be sent, so that it is sent by the next run.
+   */
+  public void remove(String digest) {
+    transactionTemplate.executeWithoutResult(status -> notificationHistoryRepository.deleteByDigestHash(digest));
+  }
+
+  @Scheduled(cron = "0 30 3 * * *")
+  public void deleteExpiredDigests() {
+    Date before = Date.from(Instant.now().minus(notificationHistoryProperties.getRetention()));
+    int deletedDigests = notificationHistoryRepository.deleteAllCreatedBefore(before);
+    log.info("Deleted {} expired notification digests", deletedDigests);
+  }
+}
@@ -7,16 +7,21 @@ import org.springframework.stereotype.Component;
 import rocks.metaldetector.butler.facade.ReleaseService;
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
 import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
-import rocks.metaldetector.service.artist.ArtistDto;
 import rocks.metaldetector.service.artist.FollowArtistService;
+import rocks.metaldetector.support.ConcurrentPageFetcher;
 import rocks.metaldetector.support.Page;
 import rocks.metaldetector.support.PageRequest;
 import rocks.metaldetector.support.TimeRange;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -27,68 +32,72 @@ public class NotificationReleaseCollector {
 
   private final ReleaseService releaseService;
   private final FollowArtistService followArtistService;
+  private final ConcurrentPageFetcher pageFetcher;
 
-  public NotificationReleaseCollector.ReleaseContainer fetchReleasesForUserAndFrequency(AbstractUserEntity user, int frequency, boolean notifyReissues) {
-    List<String> followedArtistNames = getFollowedArtistNames(user);
-
-    List<ReleaseDto> upcomingReleases = new ArrayList<>();
-    List<ReleaseDto> recentReleases = new ArrayList<>();
-
-    if (!followedArtistNames.isEmpty()) {
-      var now = LocalDate.now();
-      upcomingReleases = findReleases(followedArtistNames, new TimeRange(now, now.plusWeeks(frequency))).stream()
-          .filter(release -> !release.isReissue() || notifyReissues)
-          .collect(Collectors.toList());
-      recentReleases = findReleases(followedArtistNames, new TimeRange(now.minusWeeks(frequency), now.minusDays(1))).stream()
-          .filter(release -> !release.isReissue() || notifyReissues)
-          .collect(Collectors.toList());
-    }
-    return new ReleaseContainer(upcomingReleases, recentReleases);
+  public NotificationReleaseIndex createFrequencyReleaseIndex(Collection<AbstractUserEntity> users, int maxFrequency) {
+    var now = LocalDate.now();
+    return createReleaseIndex(users, new TimeRange(now.minusWeeks(maxFrequency), now.plusWeeks(maxFrequency)));
   }
 
-  public List<ReleaseDto> fetchTodaysReleaseForUser(AbstractUserEntity user, boolean notifyReissues) {
-    List<String> followedArtistNames = getFollowedArtistNames(user);
+  public NotificationReleaseIndex createReleaseDateReleaseIndex(Collection<AbstractUserEntity> users) {
+    var now = LocalDate.now();
+    return createReleaseIndex(users, new TimeRange(now, now));
+  }
 
-    if (!followedArtistNames.isEmpty()) {
-      var now = LocalDate.now();
-      return findReleases(followedArtistNames, new TimeRange(now, now)).stream()
-          .filter(release -> !release.isReissue() || notifyReissues)
-          .collect(Collectors.toList());
-    }
-    return Collections.emptyList();
+  public NotificationReleaseIndex createAnnouncementDateReleaseIndex(Collection<AbstractUserEntity> users) {
+    var now = LocalDate.now();
+    return createReleaseIndex(users, new TimeRange(now, null));
   }
 
-  public List<ReleaseDto> fetchTodaysAnnouncementsForUser(AbstractUserEntity user, boolean notifyReissues) {
-    List<String> followedArtistNames = getFollowedArtistNames(user);
+  public NotificationReleaseCollector.ReleaseContainer fetchReleasesForUserAndFrequency(NotificationReleaseIndex releaseIndex, AbstractUserEntity user,
+                                                                                        int frequency, boolean notifyReissues) {
+    var now = LocalDate.now();
+    List<ReleaseDto> upcomingReleases = releaseIndex.findReleases(user, new TimeRange(now, now.plusWeeks(frequency))).stream()
+        .filter(release -> !release.isReissue() || notifyReissues)
+        .collect(Collectors.toList());
+    List<ReleaseDto> recentReleases = releaseIndex.findReleases(user, new TimeRange(now.minusWeeks(frequency), now.minusDays(1))).stream()
+        .filter(release -> !release.isReissue() || notifyReissues)
+        .collect(Collectors.toList());
+    return new ReleaseContainer(upcomingReleases, recentReleases);
+  }
 
-    if (!followedArtistNames.isEmpty()) {
-      var now = LocalDate.now();
-      return findReleases(followedArtistNames, new TimeRange(now, null)).stream()
-          .filter(release -> release.getAnnouncementDate().equals(now))
-          .filter(release -> !release.isReissue() || notifyReissues)
-          .collect(Collectors.toList());
-    }
-    return Collections.emptyList();
+  public List<ReleaseDto> fetchTodaysReleaseForUser(NotificationReleaseIndex releaseIndex, AbstractUserEntity user, boolean notifyReissues) {
+    var now = LocalDate.now();
+    return releaseIndex.findReleases(user, new TimeRange(now, now)).stream()
+        .filter(release -> !release.isReissue() || notifyReissues)
+        .collect(Collectors.toList());
   }
 
-  private List<String> getFollowedArtistNames(AbstractUserEntity user) {
-    return followArtistService.getFollowedArtistsOfUser(user).stream()
-        .map(ArtistDto::getArtistName)
+  public List<ReleaseDto> fetchTodaysAnnouncementsForUser(NotificationReleaseIndex releaseIndex, AbstractUserEntity user, boolean notifyReissues) {
+    var now = LocalDate.now();
+    return releaseIndex.findReleases(user, new TimeRange(now, null)).stream()
+        .filter(release -> now.equals(release.getAnnouncementDate()))
+        .filter(release -> !release.isReissue() || notifyReissues)
         .collect(Collectors.toList());
   }
 
-  private List<ReleaseDto> findReleases(List<String> artistNames, TimeRange timeRange) {
-    List<ReleaseDto> releases = new ArrayList<>();
-    int currentPage = 1;
-    Page<ReleaseDto> releasePage;
+  private NotificationReleaseIndex createReleaseIndex(Collection<AbstractUserEntity> users, TimeRange timeRange) {
+    Set<AbstractUserEntity> distinctUsers = new LinkedHashSet<>(users);
+    Map<AbstractUserEntity, List<String>> followedArtistNamesPerUser = followArtistService.getFollowedArtistNamesOfUsers(distinctUsers);
+    Map<AbstractUserEntity, Set<String>> followedArtistsPerUser = new HashMap<>();
+    Set<String> allArtistNames = new LinkedHashSet<>();
+    for (AbstractUserEntity user : distinctUsers) {
+      List<String> followedArtistNames = followedArtistNamesPerUser.getOrDefault(user, Collections.emptyList());
+      followedArtistsPerUser.put(user, followedArtistNames.stream().map(NotificationReleaseIndex::normalize).collect(Collectors.toSet()));
+      allArtistNames.addAll(followedArtistNames);
+    }
 
-    do {
-      PageRequest pageRequest = new PageRequest(currentPage, PAGE_SIZE, null);
-      releasePage = releaseService.findReleases(artistNames, timeRange, null, pageRequest);
-      releases.addAll(releasePage.getItems());
-    } while (currentPage++ < releasePage.getPagination().getTotalPages());
+    List<ReleaseDto> releases = allArtistNames.isEmpty() ? Collections.emptyList() : findReleases(new ArrayList<>(allArtistNames), timeRange);
+    return new NotificationReleaseIndex(followedArtistsPerUser, releases);
+  }
 
-    return releases;
+  private List<ReleaseDto> findReleases(List<String> artistNames, TimeRange timeRange) {
+    Page<ReleaseDto> firstPage = releaseService.findReleases(artistNames, timeRange, null, new PageRequest(1, PAGE_SIZE, null));
+    return pageFetcher.fetchRemainingPages(firstPage, firstPage.getPagination().getTotalPages(),
+                                           page -> releaseService.findReleases(artistNames, timeRange, null, new PageRequest(page, PAGE_SIZE, null)))
+        .stream()
+        .flatMap(releasePage -> releasePage.getItems().stream())
+        .collect(Collectors.toList());
   }
 
   @AllArgsConstructor
@@ -0,0 +1,65 @@
+package rocks.metaldetector.service.notification.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
+import rocks.metaldetector.support.TimeRange;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory artist to releases index for one notification run. The releases for the union of all followed
+ * artists are fetched once and every user's digest is looked up locally. The release instances are shared
+ * between all users and must not be modified.
+ */
+public class NotificationReleaseIndex {
+
+  private final Map<AbstractUserEntity, Set<String>> followedArtistsPerUser;
+  private final Map<String, List<IndexedRelease>> releasesPerArtist;
+
+  NotificationReleaseIndex(Map<AbstractUserEntity, Set<String>> followedArtistsPerUser, List<ReleaseDto> releases) {
+    this.followedArtistsPerUser = Collections.unmodifiableMap(followedArtistsPerUser);
+    this.releasesPerArtist = new HashMap<>();
+    for (int position = 0; position < releases.size(); position++) {
+      ReleaseDto release = releases.get(position);
+      releasesPerArtist.computeIfAbsent(normalize(release.getArtist()), key -> new ArrayList<>())
+          .add(new IndexedRelease(position, release));
+    }
+  }
+
+  public List<ReleaseDto> findReleases(AbstractUserEntity user, TimeRange timeRange) {
+    return followedArtistsPerUser.getOrDefault(user, Collections.emptySet()).stream()
+        .flatMap(artistName -> releasesPerArtist.getOrDefault(artistName, Collections.emptyList()).stream())
+        .filter(indexedRelease -> isInTimeRange(indexedRelease.getRelease().getReleaseDate(), timeRange))
+        .sorted(Comparator.comparingInt(IndexedRelease::getPosition))
+        .map(IndexedRelease::getRelease)
+        .toList();
+  }
+
+  static String normalize(String artistName) {
+    return artistName == null ? "" : artistName.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private boolean isInTimeRange(LocalDate releaseDate, TimeRange timeRange) {
+    return releaseDate != null &&
+           (timeRange.getDateFrom() == null || !releaseDate.isBefore(timeRange.getDateFrom())) &&
+           (timeRange.getDateTo() == null || !releaseDate.isAfter(timeRange.getDateTo()));
+  }
+
+  @AllArgsConstructor
+  @Getter
+  private static class IndexedRelease {
+
+    private final int position;
+    private final ReleaseDto release;
+  }
+}
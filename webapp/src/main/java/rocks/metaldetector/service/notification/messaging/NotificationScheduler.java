@@ -1,114 +1,305 @@
 package rocks.metaldetector.service.notification.messaging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.config.misc.JobLeaseProperties;
+import rocks.metaldetector.config.misc.NotificationDispatchProperties;
+import rocks.metaldetector.config.misc.NotificationScheduleProperties;
 import rocks.metaldetector.persistence.domain.notification.NotificationConfigEntity;
 import rocks.metaldetector.persistence.domain.notification.NotificationConfigRepository;
+import rocks.metaldetector.persistence.domain.notification.NotificationRecipient;
+import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
+import rocks.metaldetector.service.lease.JobLeaseService;
+import rocks.metaldetector.service.notification.run.NotificationRunService;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
-import static java.time.temporal.ChronoUnit.WEEKS;
+import static java.time.DayOfWeek.SUNDAY;
 import static org.springframework.security.core.authority.AuthorityUtils.createAuthorityList;
 
+@Slf4j
 @Component
 @AllArgsConstructor
 public class NotificationScheduler {
 
+  static final String FREQUENCY_JOB = "notification-frequency";
+  static final String RELEASE_DATE_JOB = "notification-release-date";
+  static final String ANNOUNCEMENT_DATE_JOB = "notification-announcement-date";
+  static final String BUCKET_DURATION_METRIC = "notification.bucket.duration";
+  static final String BUCKET_LAG_METRIC = "notification.bucket.lag";
+
   protected static final AnonymousAuthenticationToken PRINCIPAL = new AnonymousAuthenticationToken("key", "anonymous", createAuthorityList("ROLE_ANONYMOUS"));
 
   private final NotificationConfigRepository notificationConfigRepository;
   private final NotificationReleaseCollector notificationReleaseCollector;
   private final NotificationSenderFunction notificationSenderFunction;
+  private final NotificationDispatcher notificationDispatcher;
+  private final JobLeaseService jobLeaseService;
+  private final JobLeaseProperties jobLeaseProperties;
+  private final NotificationDispatchProperties notificationDispatchProperties;
+  private final NotificationHistory notificationHistory;
+  private final NotificationRunService notificationRunService;
+  private final NotificationScheduleProperties notificationScheduleProperties;
+  private final MeterRegistry meterRegistry;
+  private final Set<String> attemptedLeases = ConcurrentHashMap.newKeySet();
 
   @Scheduled(cron = "0 0 7 * * SUN")
-  @Transactional
   public void notifyOnFrequency() {
-    var now = LocalDate.now();
-    setSecurityContext(PRINCIPAL);
-    try {
-      notificationConfigRepository.findAllActive().stream()
-          .filter(config -> notificationIsDue(config, now))
-          .forEach(config -> frequencyNotification(config, now));
-    }
-    finally {
-      setSecurityContext(null);
-    }
+    runShardedJob(FREQUENCY_JOB, jobLeaseService::acquire, this::notifyShardOnFrequency);
   }
 
   @Scheduled(cron = "0 0 7 * * *")
-  @Transactional
   public void notifyOnReleaseDate() {
-    setSecurityContext(PRINCIPAL);
-    try {
-      notificationConfigRepository.findAllActive().stream()
-          .filter(NotificationConfigEntity::getNotificationAtReleaseDate)
-          .forEach(this::releaseDateNotification);
-    }
-    finally {
-      setSecurityContext(null);
-    }
+    runShardedJob(RELEASE_DATE_JOB, jobLeaseService::acquire, this::notifyShardOnReleaseDate);
   }
 
   @Scheduled(cron = "0 0 7 * * *")
-  @Transactional
   public void notifyOnAnnouncementDate() {
+    runShardedJob(ANNOUNCEMENT_DATE_JOB, jobLeaseService::acquire, this::notifyShardOnAnnouncementDate);
+  }
+
+  /**
+   * In staggered mode, the users are split into buckets that are spread across the delivery window, so that
+   * the notifications are sent at a bounded rate instead of all at once. Every bucket is processed as soon as
+   * its start is reached. The cron triggers above then only process the buckets that are already due.
+   */
+  @Scheduled(fixedDelay = 60000L, initialDelay = 60000L)
+  public void notifyDueBuckets() {
+    if (!notificationScheduleProperties.isStaggered()) {
+      return;
+    }
+
+    var today = LocalDate.now();
+    attemptedLeases.removeIf(leaseName -> !leaseName.contains(":" + today + ":"));
+    if (today.getDayOfWeek() == SUNDAY) {
+      runShardedJob(FREQUENCY_JOB, this::acquireOnce, this::notifyShardOnFrequency);
+    }
+    runShardedJob(RELEASE_DATE_JOB, this::acquireOnce, this::notifyShardOnReleaseDate);
+    runShardedJob(ANNOUNCEMENT_DATE_JOB, this::acquireOnce, this::notifyShardOnAnnouncementDate);
+  }
+
+  /**
+   * Picks up today's shards whose node crashed or stopped before completing them within the lease duration.
+   */
+  @Scheduled(fixedDelay = 300000L, initialDelay = 300000L)
+  public void recoverExpiredShards() {
+    runShardedJob(FREQUENCY_JOB, jobLeaseService::acquireExpired, this::notifyShardOnFrequency);
+    runShardedJob(RELEASE_DATE_JOB, jobLeaseService::acquireExpired, this::notifyShardOnReleaseDate);
+    runShardedJob(ANNOUNCEMENT_DATE_JOB, jobLeaseService::acquireExpired, this::notifyShardOnAnnouncementDate);
+  }
+
+  private void runShardedJob(String jobName, Predicate<String> leaseAcquirer, ShardJob job) {
+    var now = LocalDateTime.now();
+    var today = now.toLocalDate();
+    boolean staggered = notificationScheduleProperties.isStaggered();
+    int shardCount = staggered ? notificationScheduleProperties.getBuckets() : jobLeaseProperties.getNotificationShards();
     setSecurityContext(PRINCIPAL);
     try {
-      notificationConfigRepository.findAllActive().stream()
-          .filter(NotificationConfigEntity::getNotificationAtAnnouncementDate)
-          .forEach(this::announcementDateNotification);
+      for (int shard = 0; shard < shardCount; shard++) {
+        LocalDateTime bucketStart = notificationScheduleProperties.getBucketStart(today, shard);
+        if (staggered && bucketStart.isAfter(now)) {
+          break;
+        }
+
+        String leaseName = jobName + ":" + today + ":" + shard;
+        if (leaseAcquirer.test(leaseName)) {
+          if (staggered) {
+            Timer.builder(BUCKET_LAG_METRIC)
+                .description("Delay between the start of a notification bucket and its processing")
+                .tag("job", jobName)
+                .register(meterRegistry)
+                .record(Duration.between(bucketStart, LocalDateTime.now()));
+          }
+          int currentShard = shard;
+          try {
+            Timer.builder(BUCKET_DURATION_METRIC)
+                .description("Processing time of a notification bucket")
+                .tag("job", jobName)
+                .register(meterRegistry)
+                .record(() -> job.run(leaseName, currentShard, shardCount));
+            jobLeaseService.complete(leaseName);
+          }
+          catch (RuntimeException e) {
+            // the lease is not completed, so the shard is taken over by the recovery once the lease expired
+            log.error("Shard {} of lease '{}' failed, continuing with the next shard", shard, leaseName, e);
+          }
+        }
+      }
     }
     finally {
       setSecurityContext(null);
     }
   }
 
-  private void frequencyNotification(NotificationConfigEntity notificationConfig, LocalDate now) {
-    NotificationReleaseCollector.ReleaseContainer releaseContainer = notificationReleaseCollector.fetchReleasesForUserAndFrequency(notificationConfig.getUser(), notificationConfig.getFrequencyInWeeks(), notificationConfig.getNotifyReissues());
+  private void notifyShardOnFrequency(String runName, int shard, int shardCount) {
+    var now = LocalDate.now();
+    forEachChunk(
+        runName,
+        () -> notificationConfigRepository.countDueFrequencyRecipients(0, shard, shardCount, now),
+        (lastId, chunk) -> notificationConfigRepository.findDueFrequencyRecipients(lastId, shard, shardCount, now, chunk),
+        recipients -> {
+          int maxFrequency = recipients.stream().mapToInt(recipient -> recipient.getNotificationConfig().getFrequencyInWeeks()).max().getAsInt();
+          NotificationReleaseIndex releaseIndex = notificationReleaseCollector.createFrequencyReleaseIndex(collectUsers(recipients), maxFrequency);
+          notificationDispatcher.dispatch(recipients, recipient -> frequencyNotification(recipient, releaseIndex, now));
+        }
+    );
+  }
+
+  private void notifyShardOnReleaseDate(String runName, int shard, int shardCount) {
+    forEachChunk(
+        runName,
+        () -> notificationConfigRepository.countReleaseDateRecipients(0, shard, shardCount),
+        (lastId, chunk) -> notificationConfigRepository.findReleaseDateRecipients(lastId, shard, shardCount, chunk),
+        recipients -> {
+          NotificationReleaseIndex releaseIndex = notificationReleaseCollector.createReleaseDateReleaseIndex(collectUsers(recipients));
+          notificationDispatcher.dispatch(recipients, recipient -> releaseDateNotification(recipient, releaseIndex));
+        }
+    );
+  }
+
+  private void notifyShardOnAnnouncementDate(String runName, int shard, int shardCount) {
+    forEachChunk(
+        runName,
+        () -> notificationConfigRepository.countAnnouncementDateRecipients(0, shard, shardCount),
+        (lastId, chunk) -> notificationConfigRepository.findAnnouncementDateRecipients(lastId, shard, shardCount, chunk),
+        recipients -> {
+          NotificationReleaseIndex releaseIndex = notificationReleaseCollector.createAnnouncementDateReleaseIndex(collectUsers(recipients));
+          notificationDispatcher.dispatch(recipients, recipient -> announcementDateNotification(recipient, releaseIndex));
+        }
+    );
+  }
+
+  /*
+   * Reads the recipients in chunks ordered by the config id and continues after the last id of the previous
+   * chunk, so the memory usage does not grow with the number of users. The last id is checkpointed after each
+   * chunk, so a run that is taken over after a crash continues after the last completed chunk. The lease is
+   * renewed with every checkpoint, so long runs are not taken over while they are still making progress.
+   */
+  private void forEachChunk(String runName, LongSupplier totalRecipients, BiFunction<Long, Pageable, List<NotificationRecipient>> chunkQuery,
+                            Consumer<List<NotificationRecipient>> chunkConsumer) {
+    Pageable chunk = Pageable.ofSize(notificationDispatchProperties.getChunkSize());
+    long lastId = notificationRunService.startOrResume(runName, totalRecipients);
+    List<NotificationRecipient> recipients;
+    do {
+      recipients = chunkQuery.apply(lastId, chunk);
+      if (!recipients.isEmpty()) {
+        chunkConsumer.accept(recipients);
+        lastId = recipients.get(recipients.size() - 1).getNotificationConfig().getId();
+        notificationRunService.checkpoint(runName, lastId, recipients.size());
+        if (!jobLeaseService.renew(runName)) {
+          return;
+        }
+      }
+    } while (recipients.size() == chunk.getPageSize());
+    notificationRunService.complete(runName);
+  }
+
+  private void frequencyNotification(NotificationRecipient recipient, NotificationReleaseIndex releaseIndex, LocalDate now) {
+    NotificationConfigEntity notificationConfig = recipient.getNotificationConfig();
+    NotificationReleaseCollector.ReleaseContainer releaseContainer = notificationReleaseCollector.fetchReleasesForUserAndFrequency(
+        releaseIndex, recipient.getUser(), notificationConfig.getFrequencyInWeeks(), notificationConfig.getNotifyReissues());
 
     if (!(releaseContainer.getUpcomingReleases().isEmpty() && releaseContainer.getRecentReleases().isEmpty())) {
-      NotificationSender notificationSender = notificationSenderFunction.apply(notificationConfig.getChannel());
-      notificationSender.sendFrequencyMessage(notificationConfig.getUser(), releaseContainer.getUpcomingReleases(), releaseContainer.getRecentReleases());
+      List<ReleaseDto> releases = new ArrayList<>(releaseContainer.getUpcomingReleases());
+      releases.addAll(releaseContainer.getRecentReleases());
+      sendOnce(recipient, releases, notificationSender -> notificationSender.sendFrequencyMessage(
+          recipient, releaseContainer.getUpcomingReleases(), releaseContainer.getRecentReleases()));
     }
 
-    notificationConfig.setLastNotificationDate(now);
-    notificationConfigRepository.save(notificationConfig);
+    notificationConfigRepository.updateLastNotificationDate(notificationConfig.getId(), now);
   }
 
-  private void releaseDateNotification(NotificationConfigEntity notificationConfig) {
-    List<ReleaseDto> todaysReleases = notificationReleaseCollector.fetchTodaysReleaseForUser(notificationConfig.getUser(), notificationConfig.getNotifyReissues());
+  private void releaseDateNotification(NotificationRecipient recipient, NotificationReleaseIndex releaseIndex) {
+    NotificationConfigEntity notificationConfig = recipient.getNotificationConfig();
+    List<ReleaseDto> todaysReleases = notificationReleaseCollector.fetchTodaysReleaseForUser(releaseIndex, recipient.getUser(), notificationConfig.getNotifyReissues());
 
     if (!todaysReleases.isEmpty()) {
-      NotificationSender notificationSender = notificationSenderFunction.apply(notificationConfig.getChannel());
-      notificationSender.sendReleaseDateMessage(notificationConfig.getUser(), todaysReleases);
+      sendOnce(recipient, todaysReleases, notificationSender -> notificationSender.sendReleaseDateMessage(recipient, todaysReleases));
     }
   }
 
-  private void announcementDateNotification(NotificationConfigEntity notificationConfig) {
-    List<ReleaseDto> todaysAnnouncements = notificationReleaseCollector.fetchTodaysAnnouncementsForUser(notificationConfig.getUser(), notificationConfig.getNotifyReissues());
+  private void announcementDateNotification(NotificationRecipient recipient, NotificationReleaseIndex releaseIndex) {
+    NotificationConfigEntity notificationConfig = recipient.getNotificationConfig();
+    List<ReleaseDto> todaysAnnouncements = notificationReleaseCollector.fetchTodaysAnnouncementsForUser(releaseIndex, recipient.getUser(), notificationConfig.getNotifyReissues());
 
     if (!todaysAnnouncements.isEmpty()) {
-      NotificationSender notificationSender = notificationSenderFunction.apply(notificationConfig.getChannel());
-      notificationSender.sendAnnouncementDateMessage(notificationConfig.getUser(), todaysAnnouncements);
+      sendOnce(recipient, todaysAnnouncements, notificationSender -> notificationSender.sendAnnouncementDateMessage(recipient, todaysAnnouncements));
+    }
+  }
+
+  /*
+   * Sends the notification only if the same releases were not already sent to the recipient on the channel,
+   * no matter by which job, so that e.g. a release that is announced and released on the same day is not
+   * notified twice. The digest is recorded before sending and removed again if sending fails or the message is
+   * dropped later on, e.g. by the Telegram send queue, so that the next run can retry.
+   */
+  private void sendOnce(NotificationRecipient recipient, List<ReleaseDto> releases, Function<NotificationSender, CompletableFuture<Void>> sendAction) {
+    String digest = notificationHistory.createDigest(recipient, releases);
+    if (!notificationHistory.record(digest, recipient)) {
+      return;
+    }
+
+    CompletableFuture<Void> delivery;
+    try {
+      delivery = sendAction.apply(notificationSenderFunction.apply(recipient.getNotificationConfig().getChannel()));
+    }
+    catch (RuntimeException e) {
+      notificationHistory.remove(digest);
+      throw e;
     }
+    delivery.whenComplete((result, error) -> {
+      if (error != null) {
+        notificationHistory.remove(digest);
+      }
+    });
   }
 
-  private boolean notificationIsDue(NotificationConfigEntity notificationConfig, LocalDate now) {
-    return notificationConfig.getFrequencyInWeeks() > 0 &&
-           (notificationConfig.getLastNotificationDate() == null ||
-            WEEKS.between(notificationConfig.getLastNotificationDate(), now) >= notificationConfig.getFrequencyInWeeks());
+  /*
+   * Every due bucket is only tried once per node, so that the periodic trigger does not hit the leases of
+   * completed buckets again and again. Buckets that failed on another node are picked up by the recovery.
+   */
+  private boolean acquireOnce(String leaseName) {
+    return attemptedLeases.add(leaseName) && jobLeaseService.acquire(leaseName);
+  }
+
+  private Set<AbstractUserEntity> collectUsers(List<NotificationRecipient> recipients) {
+    return recipients.stream()
+        .map(NotificationRecipient::getUser)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
   }
 
   private void setSecurityContext(Authentication authentication) {
     SecurityContext securityContext = SecurityContextHolder.getContext();
     securityContext.setAuthentication(authentication);
   }
+
+  @FunctionalInterface
+  private interface ShardJob {
+
+    void run(String runName, int shard, int shardCount);
+  }
 }
@@ -1,13 +1,17 @@
 package rocks.metaldetector.service.notification.messaging;
 
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
-import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
+import rocks.metaldetector.persistence.domain.notification.NotificationRecipient;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * The returned futures complete once the message is handed over for delivery and fail if it will not be delivered.
+ */
 public interface NotificationSender {
 
-  void sendFrequencyMessage(AbstractUserEntity user, List<ReleaseDto> upcomingReleases, List<ReleaseDto> recentReleases);
-  void sendReleaseDateMessage(AbstractUserEntity user, List<ReleaseDto> todaysReleases);
-  void sendAnnouncementDateMessage(AbstractUserEntity user, List<ReleaseDto> todaysAnnouncements);
+  CompletableFuture<Void> sendFrequencyMessage(NotificationRecipient recipient, List<ReleaseDto> upcomingReleases, List<ReleaseDto> recentReleases);
+  CompletableFuture<Void> sendReleaseDateMessage(NotificationRecipient recipient, List<ReleaseDto> todaysReleases);
+  CompletableFuture<Void> sendAnnouncementDateMessage(NotificationRecipient recipient, List<ReleaseDto> todaysAnnouncements);
 }
@@ -0,0 +1,24 @@
+package rocks.metaldetector.service.notification.run;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationRunDto {
+
+  private String runName;
+  private long totalRecipients;
+  private long processedRecipients;
+  private LocalDateTime startedAt;
+  private LocalDateTime lastCheckpointAt;
+  private LocalDateTime completedAt;
+  private double recipientsPerSecond;
+  private LocalDateTime estimatedCompletionAt;
+}
@@ -0,0 +1,24 @@
+package rocks.metaldetector.service.notification.run;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+public interface NotificationRunService {
+
+  /**
+   * Starts the run or resumes it, if a previous execution of the same run did not complete.
+   *
+   * @return the id of the last notification config that was completely processed, 0 for a new run
+   */
+  long startOrResume(String runName, LongSupplier totalRecipients);
+
+  /**
+   * Records that all recipients up to the given notification config id are processed.
+   */
+  void checkpoint(String runName, long lastConfigId, int processedRecipients);
+
+  void complete(String runName);
+
+  List<NotificationRunDto> getRuns(LocalDate date);
+}
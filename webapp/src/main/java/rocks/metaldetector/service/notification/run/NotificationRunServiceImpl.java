@@ -0,0 +1,90 @@
+package rocks.metaldetector.service.notification.run;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import rocks.metaldetector.persistence.domain.notification.NotificationRunEntity;
+import rocks.metaldetector.persistence.domain.notification.NotificationRunRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+@Slf4j
+@Service
+public class NotificationRunServiceImpl implements NotificationRunService {
+
+  private final NotificationRunRepository notificationRunRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  public NotificationRunServiceImpl(NotificationRunRepository notificationRunRepository, PlatformTransactionManager transactionManager) {
+    this.notificationRunRepository = notificationRunRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  @Override
+  public long startOrResume(String runName, LongSupplier totalRecipients) {
+    Long lastConfigId = transactionTemplate.execute(status -> notificationRunRepository.findByRunName(runName)
+        .map(run -> {
+          log.warn("Resuming notification run '{}' after {} of {} recipients", runName, run.getProcessedRecipients(), run.getTotalRecipients());
+          return run.getLastConfigId();
+        })
+        .orElseGet(() -> {
+          notificationRunRepository.save(NotificationRunEntity.builder()
+              .runName(runName)
+              .totalRecipients(totalRecipients.getAsLong())
+              .startedAt(LocalDateTime.now())
+              .build());
+          return 0L;
+        }));
+    return lastConfigId == null ? 0 : lastConfigId;
+  }
+
+  @Override
+  public void checkpoint(String runName, long lastConfigId, int processedRecipients) {
+    transactionTemplate.executeWithoutResult(
+        status -> notificationRunRepository.checkpoint(runName, lastConfigId, processedRecipients, LocalDateTime.now())
+    );
+  }
+
+  @Override
+  public void complete(String runName) {
+    transactionTemplate.executeWithoutResult(status -> notificationRunRepository.complete(runName, LocalDateTime.now()));
+  }
+
+  @Override
+  public List<NotificationRunDto> getRuns(LocalDate date) {
+    return notificationRunRepository.findAllStartedBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay()).stream()
+        .map(this::createRunDto)
+        .toList();
+  }
+
+  private NotificationRunDto createRunDto(NotificationRunEntity run) {
+    LocalDateTime lastProgressAt = run.getCompletedAt() != null ? run.getCompletedAt()
+                                   : run.getLastCheckpointAt() != null ? run.getLastCheckpointAt() : run.getStartedAt();
+    long elapsedMillis = Duration.between(run.getStartedAt(), lastProgressAt).toMillis();
+    double recipientsPerSecond = elapsedMillis > 0 ? run.getProcessedRecipients() * 1000d / elapsedMillis : 0;
+
+    LocalDateTime estimatedCompletionAt = null;
+    if (run.getCompletedAt() == null && recipientsPerSecond > 0) {
+      long remainingRecipients = Math.max(run.getTotalRecipients() - run.getProcessedRecipients(), 0);
+      estimatedCompletionAt = lastProgressAt.plus(Duration.ofMillis((long) (remainingRecipients * 1000 / recipientsPerSecond)));
+    }
+
+    return NotificationRunDto.builder()
+        .runName(run.getRunName())
+        .totalRecipients(run.getTotalRecipients())
+        .processedRecipients(run.getProcessedRecipients())
+        .startedAt(run.getStartedAt())
+        .lastCheckpointAt(run.getLastCheckpointAt())
+        .completedAt(run.getCompletedAt())
+        .recipientsPerSecond(recipientsPerSecond)
+        .estimatedCompletionAt(estimatedCompletionAt)
+        .build();
+  }
+}
@@ -40,8 +40,10 @@ public class SpotifySynchronizationServiceImpl implements SpotifySynchronization
       savedArtists.addAll(getFollowedArtists());
     }
 
+    List<String> savedArtistIds = savedArtists.stream().map(SpotifyArtistDto::getId).collect(Collectors.toList());
+    Set<String> followedArtistIds = followArtistService.getFollowedExternalIdsOfCurrentUser(savedArtistIds, SPOTIFY);
     return savedArtists.stream()
-        .filter(artist -> !followArtistService.isCurrentUserFollowing(artist.getId(), SPOTIFY))
+        .filter(artist -> !followedArtistIds.contains(artist.getId()))
         .sorted(Comparator.comparing(SpotifyArtistDto::getName))
         .collect(Collectors.toList());
   }
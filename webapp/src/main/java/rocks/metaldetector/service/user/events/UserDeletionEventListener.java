@@ -16,6 +16,7 @@ import rocks.metaldetector.persistence.domain.notification.TelegramConfigReposit
 import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
 import rocks.metaldetector.persistence.domain.user.UserEntity;
 import rocks.metaldetector.persistence.domain.user.UserRepository;
+import rocks.metaldetector.service.artist.ArtistFollowerCountService;
 import rocks.metaldetector.service.email.AccountDeletedEmail;
 import rocks.metaldetector.service.email.EmailService;
 
@@ -30,6 +31,7 @@ public class UserDeletionEventListener implements ApplicationListener<UserDeleti
   static final String SPOTIFY_REGISTRATION_ID = "spotify-user";
 
   private final FollowActionRepository followActionRepository;
+  private final ArtistFollowerCountService artistFollowerCountService;
   private final NotificationConfigRepository notificationConfigRepository;
   private final TelegramConfigRepository telegramConfigRepository;
   private final UserRepository userRepository;
@@ -45,6 +47,7 @@ public class UserDeletionEventListener implements ApplicationListener<UserDeleti
 
     telegramConfigRepository.deleteByUser(user);
     notificationConfigRepository.deleteAllByUser(user);
+    artistFollowerCountService.removeFollowerOfUser(user);
     followActionRepository.deleteAllByUser(user);
 
     if (user instanceof UserEntity) {
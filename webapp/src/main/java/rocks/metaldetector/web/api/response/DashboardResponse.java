@@ -1,5 +1,6 @@
 package rocks.metaldetector.web.api.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +21,10 @@ public class DashboardResponse {
   private List<ReleaseDto> mostExpectedReleases;
   private List<ArtistDto> recentlyFollowedArtists;
   private List<ArtistDto> favoriteCommunityArtists;
+  private List<String> degradedSections;
+
+  @JsonIgnore
+  public boolean isDegraded() {
+    return degradedSections != null && !degradedSections.isEmpty();
+  }
 }
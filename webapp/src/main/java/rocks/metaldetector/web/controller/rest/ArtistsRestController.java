@@ -2,6 +2,7 @@ package rocks.metaldetector.web.controller.rest;
 
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,12 +14,15 @@ import rocks.metaldetector.service.artist.ArtistDto;
 import rocks.metaldetector.service.artist.ArtistSearchService;
 import rocks.metaldetector.service.artist.FollowArtistService;
 import rocks.metaldetector.service.dashboard.ArtistCollector;
+import rocks.metaldetector.service.dashboard.CommunitySnapshot;
+import rocks.metaldetector.service.dashboard.CommunitySnapshotService;
 import rocks.metaldetector.web.api.response.ArtistSearchResponse;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.MIN_FOLLOWER;
 import static rocks.metaldetector.support.Endpoints.Rest.FOLLOW_ARTIST;
 import static rocks.metaldetector.support.Endpoints.Rest.SEARCH_ARTIST;
 import static rocks.metaldetector.support.Endpoints.Rest.TOP_ARTISTS;
@@ -34,6 +38,7 @@ public class ArtistsRestController {
   private final ArtistSearchService artistSearchService;
   private final FollowArtistService followArtistService;
   private final ArtistCollector artistCollector;
+  private final CommunitySnapshotService communitySnapshotService;
 
   @GetMapping(path = SEARCH_ARTIST, produces = APPLICATION_JSON_VALUE)
   public ResponseEntity<ArtistSearchResponse> handleNameSearch(@RequestParam(value = "query", defaultValue = "") String query,
@@ -64,9 +69,21 @@ public class ArtistsRestController {
     return ResponseEntity.ok().build();
   }
 
+  /**
+   * The top artists with at least the minimum follower of the community snapshot are taken from it and may be cached
+   * by the client, the conditional request is answered by Spring with the entity tag.
+   */
   @GetMapping(path = TOP_ARTISTS, produces = APPLICATION_JSON_VALUE)
   public ResponseEntity<List<ArtistDto>> fetchTopArtists(@RequestParam(required = false, defaultValue = "2") int minFollower,
                                                          @RequestParam(required = false, defaultValue = "10") int limit) {
+    if (minFollower >= MIN_FOLLOWER) {
+      CommunitySnapshot snapshot = communitySnapshotService.getSnapshot();
+      return ResponseEntity.ok()
+          .cacheControl(CacheControl.maxAge(communitySnapshotService.getMaxAge()).cachePublic())
+          .eTag(snapshot.getETag(minFollower, limit))
+          .body(snapshot.getTopArtists(minFollower, limit));
+    }
+
     var topArtists = artistCollector.collectTopFollowedArtists(minFollower)
         .stream()
         .limit(limit)
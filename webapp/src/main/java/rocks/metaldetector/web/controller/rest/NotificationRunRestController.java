@@ -0,0 +1,33 @@
+package rocks.metaldetector.web.controller.rest;
+
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import rocks.metaldetector.service.notification.run.NotificationRunDto;
+import rocks.metaldetector.service.notification.run.NotificationRunService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static rocks.metaldetector.support.Endpoints.Rest.NOTIFICATION_RUNS;
+
+@RestController
+@AllArgsConstructor
+@PreAuthorize("hasRole('ROLE_ADMINISTRATOR')")
+public class NotificationRunRestController {
+
+  private final NotificationRunService notificationRunService;
+
+  @GetMapping(path = NOTIFICATION_RUNS,
+      produces = APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<NotificationRunDto>> getNotificationRuns(@RequestParam(value = "date", required = false)
+                                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+    List<NotificationRunDto> response = notificationRunService.getRuns(date != null ? date : LocalDate.now());
+    return ResponseEntity.ok(response);
+  }
+}
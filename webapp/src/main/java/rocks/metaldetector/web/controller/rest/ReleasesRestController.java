@@ -1,7 +1,12 @@
 package rocks.metaldetector.web.controller.rest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,11 +15,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import rocks.metaldetector.butler.facade.ReleaseService;
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
 import rocks.metaldetector.service.artist.ArtistDto;
 import rocks.metaldetector.service.artist.FollowArtistService;
 import rocks.metaldetector.service.dashboard.ArtistCollector;
+import rocks.metaldetector.service.dashboard.CommunitySnapshot;
+import rocks.metaldetector.service.dashboard.CommunitySnapshotService;
 import rocks.metaldetector.service.dashboard.ReleaseCollector;
 import rocks.metaldetector.support.DetectorSort;
 import rocks.metaldetector.support.Page;
@@ -24,12 +32,22 @@ import rocks.metaldetector.web.api.request.PaginatedReleasesRequest;
 import rocks.metaldetector.web.api.request.ReleaseUpdateRequest;
 import rocks.metaldetector.web.api.request.ReleasesRequest;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.MIN_FOLLOWER;
+import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.RESULT_LIMIT;
 import static rocks.metaldetector.support.Endpoints.Rest.ALL_RELEASES;
+import static rocks.metaldetector.support.Endpoints.Rest.ALL_RELEASES_EXPORT;
 import static rocks.metaldetector.support.Endpoints.Rest.RELEASES;
 import static rocks.metaldetector.support.Endpoints.Rest.TOP_UPCOMING_RELEASES;
 
@@ -37,10 +55,14 @@ import static rocks.metaldetector.support.Endpoints.Rest.TOP_UPCOMING_RELEASES;
 @AllArgsConstructor
 public class ReleasesRestController {
 
+  static final int NDJSON_FLUSH_INTERVAL = 100;
+
   private final ReleaseService releaseService;
   private final FollowArtistService followArtistService;
   private final ArtistCollector artistCollector;
   private final ReleaseCollector releaseCollector;
+  private final CommunitySnapshotService communitySnapshotService;
+  private final ObjectMapper objectMapper;
 
   @PreAuthorize("hasRole('ROLE_ADMINISTRATOR')")
   @GetMapping(path = ALL_RELEASES, produces = APPLICATION_JSON_VALUE)
@@ -50,6 +72,18 @@ public class ReleasesRestController {
     return ResponseEntity.ok(releaseDtos);
   }
 
+  /**
+   * Writes all releases as newline-delimited JSON while they are decoded from the butler response, so that
+   * the export starts immediately and its size does not matter for the heap.
+   */
+  @PreAuthorize("hasRole('ROLE_ADMINISTRATOR')")
+  @GetMapping(path = ALL_RELEASES_EXPORT, produces = APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamAllReleases(@Valid ReleasesRequest request) {
+    var timeRange = new TimeRange(request.getDateFrom(), request.getDateTo());
+    StreamingResponseBody responseBody = outputStream -> releaseService.streamAllReleases(emptyList(), timeRange, releases -> writeNdjson(releases, outputStream));
+    return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(responseBody);
+  }
+
   @GetMapping(path = RELEASES, produces = APPLICATION_JSON_VALUE)
   public ResponseEntity<Page<ReleaseDto>> findReleases(@Valid PaginatedReleasesRequest request) {
     var timeRange = new TimeRange(request.getDateFrom(), request.getDateTo());
@@ -74,13 +108,43 @@ public class ReleasesRestController {
     return ResponseEntity.ok().build();
   }
 
+  /**
+   * The default top releases are the most expected releases of the community snapshot, they may be cached by the client.
+   */
   @GetMapping(path = TOP_UPCOMING_RELEASES, produces = APPLICATION_JSON_VALUE)
   public ResponseEntity<List<ReleaseDto>> fetchTopUpcomingReleases(@RequestParam(required = false, defaultValue = "2") int minFollower,
                                                                    @RequestParam(required = false, defaultValue = "10") int limit) {
+    if (minFollower == MIN_FOLLOWER && limit == RESULT_LIMIT) {
+      CommunitySnapshot snapshot = communitySnapshotService.getSnapshot();
+      return ResponseEntity.ok()
+          .cacheControl(CacheControl.maxAge(communitySnapshotService.getMaxAge()).cachePublic())
+          .eTag(snapshot.getETag())
+          .body(snapshot.getMostExpectedReleases());
+    }
+
     var fromDate = LocalDate.now();
     var toDate = fromDate.plusMonths(6);
     var topFollowedArtists = artistCollector.collectTopFollowedArtists(minFollower);
     var topReleases = releaseCollector.collectTopReleases(new TimeRange(fromDate, toDate), topFollowedArtists, limit);
     return ResponseEntity.ok(topReleases);
   }
+
+  private long writeNdjson(Stream<ReleaseDto> releases, OutputStream outputStream) {
+    ObjectWriter releaseWriter = objectMapper.writerFor(ReleaseDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    long count = 0;
+    try (JsonGenerator generator = objectMapper.createGenerator(outputStream).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      generator.setRootValueSeparator(null);
+      for (Iterator<ReleaseDto> iterator = releases.iterator(); iterator.hasNext(); count++) {
+        releaseWriter.writeValue(generator, iterator.next());
+        generator.writeRaw('\n');
+        if (count % NDJSON_FLUSH_INTERVAL == 0) {
+          generator.flush();
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return count;
+  }
 }
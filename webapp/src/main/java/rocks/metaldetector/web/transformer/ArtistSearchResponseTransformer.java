@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 import rocks.metaldetector.discogs.facade.dto.DiscogsArtistSearchResultDto;
 import rocks.metaldetector.discogs.facade.dto.DiscogsArtistSearchResultEntryDto;
+import rocks.metaldetector.persistence.domain.artist.ArtistFollower;
 import rocks.metaldetector.persistence.domain.artist.ArtistRepository;
 import rocks.metaldetector.spotify.facade.dto.SpotifyArtistDto;
 import rocks.metaldetector.spotify.facade.dto.SpotifyArtistSearchResultDto;
@@ -35,10 +36,11 @@ public class ArtistSearchResponseTransformer {
   }
 
   private List<ArtistSearchResponseEntryDto> transformSpotifySearchResults(List<SpotifyArtistDto> spotifySearchResults) {
-    return spotifySearchResults.stream().map(this::transformSpotifySearchResult).collect(Collectors.toList());
+    Map<String, Integer> follower = countFollower(spotifySearchResults.stream().map(SpotifyArtistDto::getId).collect(Collectors.toList()));
+    return spotifySearchResults.stream().map(result -> transformSpotifySearchResult(result, follower)).collect(Collectors.toList());
   }
 
-  private ArtistSearchResponseEntryDto transformSpotifySearchResult(SpotifyArtistDto spotifySearchResult) {
+  private ArtistSearchResponseEntryDto transformSpotifySearchResult(SpotifyArtistDto spotifySearchResult, Map<String, Integer> follower) {
     return ArtistSearchResponseEntryDto.builder()
         .id(spotifySearchResult.getId())
         .name(spotifySearchResult.getName())
@@ -47,7 +49,7 @@ public class ArtistSearchResponseTransformer {
         .source(SPOTIFY.getDisplayName())
         .genres(spotifySearchResult.getGenres())
         .popularity(spotifySearchResult.getPopularity())
-        .metalDetectorFollower(artistRepository.countArtistFollower(spotifySearchResult.getId()))
+        .metalDetectorFollower(follower.getOrDefault(spotifySearchResult.getId(), 0))
         .spotifyFollower(spotifySearchResult.getFollower())
         .build();
   }
@@ -61,10 +63,11 @@ public class ArtistSearchResponseTransformer {
   }
 
   private List<ArtistSearchResponseEntryDto> transformDiscogsSearchResults(List<DiscogsArtistSearchResultEntryDto> discogsSearchResults) {
-    return discogsSearchResults.stream().map(this::transformDiscogsSearchResult).collect(Collectors.toList());
+    Map<String, Integer> follower = countFollower(discogsSearchResults.stream().map(DiscogsArtistSearchResultEntryDto::getId).collect(Collectors.toList()));
+    return discogsSearchResults.stream().map(result -> transformDiscogsSearchResult(result, follower)).collect(Collectors.toList());
   }
 
-  private ArtistSearchResponseEntryDto transformDiscogsSearchResult(DiscogsArtistSearchResultEntryDto discogsSearchResult) {
+  private ArtistSearchResponseEntryDto transformDiscogsSearchResult(DiscogsArtistSearchResultEntryDto discogsSearchResult, Map<String, Integer> follower) {
     Map<ImageSize, String> images = discogsSearchResult.getImageUrl() != null ? Map.of(M, discogsSearchResult.getImageUrl()) : Collections.emptyMap();
     return ArtistSearchResponseEntryDto.builder()
         .id(String.valueOf(discogsSearchResult.getId()))
@@ -72,7 +75,16 @@ public class ArtistSearchResponseTransformer {
         .uri(discogsSearchResult.getUri())
         .images(images)
         .source(DISCOGS.getDisplayName())
-        .metalDetectorFollower(artistRepository.countArtistFollower(discogsSearchResult.getId()))
+        .metalDetectorFollower(follower.getOrDefault(discogsSearchResult.getId(), 0))
         .build();
   }
+
+  // one query for the whole page instead of one per search result
+  private Map<String, Integer> countFollower(List<String> externalIds) {
+    if (externalIds.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    return artistRepository.countArtistFollowerIn(externalIds).stream()
+        .collect(Collectors.toMap(ArtistFollower::getExternalId, ArtistFollower::getFollower));
+  }
 }
@@ -0,0 +1,14 @@
+-- Creation Date: 2026-10-17
+-- Description: leases to elect one runner per scheduled job execution
+
+create table job_leases(
+    id bigserial not null constraint job_leases_pkey primary key,
+    created_by varchar(255),
+    created_date timestamp,
+    last_modified_by varchar(255),
+    last_modified_date timestamp,
+    lease_name varchar(255) not null constraint uk_job_leases_lease_name unique,
+    owner varchar(255) not null,
+    leased_until timestamp not null,
+    completed boolean not null default false
+);
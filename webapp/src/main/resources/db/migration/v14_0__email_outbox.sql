@@ -0,0 +1,19 @@
+-- Creation Date: 2026-10-17
+-- Description: outbox for rendered emails that are sent by a background worker
+
+create table email_outbox(
+    id bigserial not null constraint email_outbox_pkey primary key,
+    created_by varchar(255),
+    created_date timestamp,
+    last_modified_by varchar(255),
+    last_modified_date timestamp,
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    html text not null,
+    status varchar(20) not null,
+    attempts integer not null default 0,
+    next_attempt_at timestamp not null,
+    last_error varchar(1000)
+);
+
+create index idx_email_outbox_status_next_attempt_at on email_outbox (status, next_attempt_at);
@@ -0,0 +1,14 @@
+-- Creation Date: 2026-10-17
+-- Description: hashes of sent notification digests to skip sending the same releases twice
+
+create table notification_history(
+    id bigserial not null constraint notification_history_pkey primary key,
+    created_by varchar(255),
+    created_date timestamp,
+    last_modified_by varchar(255),
+    last_modified_date timestamp,
+    digest_hash varchar(64) not null constraint uk_notification_history_digest_hash unique,
+    channel varchar(20) not null
+);
+
+create index idx_notification_history_created_date on notification_history (created_date);
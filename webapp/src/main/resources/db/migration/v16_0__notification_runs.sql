@@ -0,0 +1,19 @@
+-- Creation Date: 2026-10-17
+-- Description: progress checkpoints of notification runs to resume a run after a crash
+
+create table notification_runs(
+    id bigserial not null constraint notification_runs_pkey primary key,
+    created_by varchar(255),
+    created_date timestamp,
+    last_modified_by varchar(255),
+    last_modified_date timestamp,
+    run_name varchar(255) not null constraint uk_notification_runs_run_name unique,
+    total_recipients bigint not null,
+    processed_recipients bigint not null default 0,
+    last_config_id bigint not null default 0,
+    started_at timestamp not null,
+    last_checkpoint_at timestamp,
+    completed_at timestamp
+);
+
+create index idx_notification_runs_started_at on notification_runs (started_at);
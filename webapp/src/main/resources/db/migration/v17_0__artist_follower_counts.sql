@@ -0,0 +1,21 @@
+-- Creation Date: 2026-10-17
+-- Description: follower count per artist that is kept up to date with the follow actions
+
+create table artist_follower_counts(
+    id bigserial not null constraint artist_follower_counts_pkey primary key,
+    created_by varchar(255),
+    created_date timestamp,
+    last_modified_by varchar(255),
+    last_modified_date timestamp,
+    artist_id bigint not null constraint uk_artist_follower_counts_artist_id unique
+        constraint fk_artist_follower_counts_artist_id references artists,
+    follower integer not null default 0
+);
+
+create index idx_artist_follower_counts_follower on artist_follower_counts (follower desc);
+create index idx_artists_external_id on artists (external_id);
+
+insert into artist_follower_counts (artist_id, follower)
+select fa.artist_id, count(fa.id)
+from follow_actions fa
+group by fa.artist_id;
@@ -0,0 +1,32 @@
+package rocks.metaldetector.config.misc;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+class NotificationSchedulePropertiesTest implements WithAssertions {
+
+  @Test
+  @DisplayName("buckets are spread evenly across the delivery window")
+  void test_bucket_start() {
+    // given
+    var underTest = new NotificationScheduleProperties();
+    underTest.setWindowStart(Duration.ofHours(6));
+    underTest.setWindow(Duration.ofHours(2));
+    underTest.setBuckets(8);
+    var date = LocalDate.of(2026, 10, 17);
+
+    // when
+    var firstBucketStart = underTest.getBucketStart(date, 0);
+    var secondBucketStart = underTest.getBucketStart(date, 1);
+    var lastBucketStart = underTest.getBucketStart(date, 7);
+
+    // then
+    assertThat(firstBucketStart).isEqualTo(date.atTime(6, 0));
+    assertThat(secondBucketStart).isEqualTo(date.atTime(6, 15));
+    assertThat(lastBucketStart).isEqualTo(date.atTime(7, 45));
+  }
+}
@@ -0,0 +1,246 @@
+package rocks.metaldetector.service.artist;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rocks.metaldetector.persistence.domain.artist.ArtistFollowerCountEntity;
+import rocks.metaldetector.persistence.domain.artist.ArtistFollowerCountRepository;
+import rocks.metaldetector.persistence.domain.artist.ArtistRepository;
+import rocks.metaldetector.persistence.domain.user.UserEntity;
+import rocks.metaldetector.service.lease.JobLeaseService;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static rocks.metaldetector.service.artist.ArtistFollowerCountServiceImpl.RECONCILIATION_JOB;
+
+@ExtendWith(MockitoExtension.class)
+class ArtistFollowerCountServiceImplTest implements WithAssertions {
+
+  @Mock
+  private ArtistFollowerCountRepository artistFollowerCountRepository;
+
+  @Mock
+  private ArtistRepository artistRepository;
+
+  @Mock
+  private JobLeaseService jobLeaseService;
+
+  @InjectMocks
+  private ArtistFollowerCountServiceImpl underTest;
+
+  @AfterEach
+  void tearDown() {
+    reset(artistFollowerCountRepository, artistRepository, jobLeaseService);
+  }
+
+  @Nested
+  @DisplayName("Tests for adding follower")
+  class AddFollowerTest {
+
+    @Test
+    @DisplayName("the existing follower counts are increased by one")
+    void test_existing_counts_increased() {
+      // given
+      var artist = ArtistEntityFactory.withExternalId("a");
+      var count = ArtistFollowerCountEntity.builder().artist(artist).follower(2).build();
+      doReturn(List.of(count)).when(artistFollowerCountRepository).findAllByArtistIn(any());
+
+      // when
+      underTest.addFollower(List.of(artist));
+
+      // then
+      verify(artistFollowerCountRepository).addFollower(Collections.singleton(artist), 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("a follower count with one follower is created for artists without count")
+    void test_missing_counts_created() {
+      // given
+      ArgumentCaptor<Collection<ArtistFollowerCountEntity>> argumentCaptor = ArgumentCaptor.forClass(Collection.class);
+      var countedArtist = ArtistEntityFactory.withExternalId("a");
+      var newArtist = ArtistEntityFactory.withExternalId("b");
+      var count = ArtistFollowerCountEntity.builder().artist(countedArtist).follower(2).build();
+      doReturn(List.of(count)).when(artistFollowerCountRepository).findAllByArtistIn(any());
+
+      // when
+      underTest.addFollower(List.of(countedArtist, newArtist));
+
+      // then
+      verify(artistFollowerCountRepository).saveAll(argumentCaptor.capture());
+      assertThat(argumentCaptor.getValue()).singleElement().satisfies(newCount -> {
+        assertThat(newCount.getArtist()).isEqualTo(newArtist);
+        assertThat(newCount.getFollower()).isEqualTo(1);
+      });
+    }
+
+    @Test
+    @DisplayName("the artists without count are locked before the counts are read again")
+    void test_uncounted_artists_locked() {
+      // given
+      var countedArtist = ArtistEntityFactory.withExternalId("a");
+      var newArtist = ArtistEntityFactory.withExternalId("b");
+      var count = ArtistFollowerCountEntity.builder().artist(countedArtist).follower(2).build();
+      doReturn(List.of(count)).when(artistFollowerCountRepository).findAllByArtistIn(List.of(countedArtist, newArtist));
+      InOrder inOrder = inOrder(artistRepository, artistFollowerCountRepository);
+
+      // when
+      underTest.addFollower(List.of(countedArtist, newArtist));
+
+      // then
+      inOrder.verify(artistRepository).lockAll(List.of(newArtist));
+      inOrder.verify(artistFollowerCountRepository).findAllByArtistIn(List.of(newArtist));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("a count created by a concurrent follow while waiting for the lock is increased instead of created")
+    void test_concurrently_created_count_increased() {
+      // given
+      ArgumentCaptor<Collection<ArtistFollowerCountEntity>> argumentCaptor = ArgumentCaptor.forClass(Collection.class);
+      var artist = ArtistEntityFactory.withExternalId("a");
+      var count = ArtistFollowerCountEntity.builder().artist(artist).follower(1).build();
+      doReturn(Collections.emptyList(), List.of(count)).when(artistFollowerCountRepository).findAllByArtistIn(any());
+
+      // when
+      underTest.addFollower(List.of(artist));
+
+      // then
+      verify(artistFollowerCountRepository).addFollower(Collections.singleton(artist), 1);
+      verify(artistFollowerCountRepository).saveAll(argumentCaptor.capture());
+      assertThat(argumentCaptor.getValue()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("no artist is locked if all artists have a count")
+    void test_no_lock_if_all_counted() {
+      // given
+      var artist = ArtistEntityFactory.withExternalId("a");
+      var count = ArtistFollowerCountEntity.builder().artist(artist).follower(2).build();
+      doReturn(List.of(count)).when(artistFollowerCountRepository).findAllByArtistIn(any());
+
+      // when
+      underTest.addFollower(List.of(artist));
+
+      // then
+      verifyNoInteractions(artistRepository);
+    }
+
+    @Test
+    @DisplayName("no update is executed if no artist has a count yet")
+    void test_no_update_without_counts() {
+      // when
+      underTest.addFollower(List.of(ArtistEntityFactory.withExternalId("a")));
+
+      // then
+      verify(artistFollowerCountRepository, never()).addFollower(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("nothing happens without artists")
+    void test_no_artists() {
+      // when
+      underTest.addFollower(Collections.emptyList());
+
+      // then
+      verifyNoInteractions(artistFollowerCountRepository);
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for removing follower")
+  class RemoveFollowerTest {
+
+    @Test
+    @DisplayName("the follower count is decreased by the removed follow actions")
+    void test_count_decreased() {
+      // given
+      var artist = ArtistEntityFactory.withExternalId("a");
+
+      // when
+      underTest.removeFollower(artist, 2);
+
+      // then
+      verify(artistFollowerCountRepository).addFollower(List.of(artist), -2);
+    }
+
+    @Test
+    @DisplayName("the follower count is not changed if no follow action was removed")
+    void test_count_not_changed() {
+      // when
+      underTest.removeFollower(ArtistEntityFactory.withExternalId("a"), 0);
+
+      // then
+      verifyNoInteractions(artistFollowerCountRepository);
+    }
+
+    @Test
+    @DisplayName("the follow actions of a user are removed from the follower counts")
+    void test_follower_of_user_removed() {
+      // given
+      var user = mock(UserEntity.class);
+      doReturn(1L).when(user).getId();
+
+      // when
+      underTest.removeFollowerOfUser(user);
+
+      // then
+      verify(artistFollowerCountRepository).removeFollowerOfUser(1L);
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for the reconciliation")
+  class ReconciliationTest {
+
+    @Test
+    @DisplayName("the counts are corrected and the missing counts are created")
+    void test_counts_reconciled() {
+      // given
+      var leaseName = RECONCILIATION_JOB + ":" + LocalDate.now();
+      doReturn(true).when(jobLeaseService).acquire(any());
+
+      // when
+      underTest.reconcileFollowerCounts();
+
+      // then
+      verify(jobLeaseService).acquire(leaseName);
+      verify(artistFollowerCountRepository).correctFollower();
+      verify(artistFollowerCountRepository).insertMissingFollower();
+      verify(jobLeaseService).complete(leaseName);
+    }
+
+    @Test
+    @DisplayName("the counts are not reconciled if another instance holds the lease")
+    void test_no_reconciliation_without_lease() {
+      // given
+      doReturn(false).when(jobLeaseService).acquire(any());
+
+      // when
+      underTest.reconcileFollowerCounts();
+
+      // then
+      verifyNoInteractions(artistFollowerCountRepository);
+    }
+  }
+}
@@ -19,6 +19,7 @@ import rocks.metaldetector.web.api.response.ArtistSearchResponseEntryDto;
 import rocks.metaldetector.web.transformer.ArtistSearchResponseTransformer;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -101,7 +102,7 @@ public class ArtistSearchServiceImplTest implements WithAssertions {
         }
 
         @Test
-        @DisplayName("Should call FollowArtistService for each artist to check if the user is already following the artist")
+        @DisplayName("Should call FollowArtistService once with all artists to check if the user is already following them")
         void should_call_follow_artist_service() {
             // given
             var discogssearchresults = DtoFactory.ArtistSearchResponseFactory.discogs();
@@ -112,9 +113,7 @@ public class ArtistSearchServiceImplTest implements WithAssertions {
             underTest.searchDiscogsByName("the query", PageRequest.of(1, 10));
 
             // then
-            verify(followArtistService).isCurrentUserFollowing("1", ArtistSource.DISCOGS);
-            verify(followArtistService).isCurrentUserFollowing("2", ArtistSource.DISCOGS);
-            verify(followArtistService).isCurrentUserFollowing("3", ArtistSource.DISCOGS);
+            verify(followArtistService).getFollowedExternalIdsOfCurrentUser(List.of("1", "2", "3"), ArtistSource.DISCOGS);
         }
 
         @Test
@@ -123,7 +122,7 @@ public class ArtistSearchServiceImplTest implements WithAssertions {
             // given
             var discogssearchresults = DtoFactory.ArtistSearchResponseFactory.discogs();
             discogssearchresults.setSearchResults(createListOfSearchResultEntries(List.of("1", "2", "3")));
-            doReturn(true, false, true).when(followArtistService).isCurrentUserFollowing(any(), any());
+            doReturn(Set.of("1", "3")).when(followArtistService).getFollowedExternalIdsOfCurrentUser(any(), any());
             doReturn(discogssearchresults).when(searchResponseTransformer).transformDiscogs(any(), any());
 
             // when
@@ -196,7 +195,7 @@ public class ArtistSearchServiceImplTest implements WithAssertions {
         }
 
         @Test
-        @DisplayName("Should call FollowArtistService for each artist to check if the user is already following the artist")
+        @DisplayName("Should call FollowArtistService once with all artists to check if the user is already following them")
         void should_call_follow_artist_service() {
             // given
             var spotifySearchResults = DtoFactory.ArtistSearchResponseFactory.spotify();
@@ -207,9 +206,7 @@ public class ArtistSearchServiceImplTest implements WithAssertions {
             underTest.searchSpotifyByName("the query", PageRequest.of(1, 10));
 
             // then
-            verify(followArtistService).isCurrentUserFollowing("1", ArtistSource.SPOTIFY);
-            verify(followArtistService).isCurrentUserFollowing("2", ArtistSource.SPOTIFY);
-            verify(followArtistService).isCurrentUserFollowing("3", ArtistSource.SPOTIFY);
+            verify(followArtistService).getFollowedExternalIdsOfCurrentUser(List.of("1", "2", "3"), ArtistSource.SPOTIFY);
         }
 
         @Test
@@ -218,7 +215,7 @@ public class ArtistSearchServiceImplTest implements WithAssertions {
             // given
             var spotifySearchResults = DtoFactory.ArtistSearchResponseFactory.spotify();
             spotifySearchResults.setSearchResults(createListOfSearchResultEntries(List.of("1", "2", "3")));
-            doReturn(true, false, true).when(followArtistService).isCurrentUserFollowing(any(), any());
+            doReturn(Set.of("1", "3")).when(followArtistService).getFollowedExternalIdsOfCurrentUser(any(), any());
             doReturn(spotifySearchResults).when(searchResponseTransformer).transformSpotify(any(), any());
 
             // when
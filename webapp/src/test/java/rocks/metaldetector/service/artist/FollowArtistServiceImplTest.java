@@ -7,26 +7,34 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 import rocks.metaldetector.discogs.facade.DiscogsService;
 import rocks.metaldetector.persistence.domain.artist.ArtistEntity;
 import rocks.metaldetector.persistence.domain.artist.ArtistRepository;
 import rocks.metaldetector.persistence.domain.artist.ArtistSource;
 import rocks.metaldetector.persistence.domain.artist.FollowActionEntity;
 import rocks.metaldetector.persistence.domain.artist.FollowActionRepository;
+import rocks.metaldetector.persistence.domain.artist.FollowedArtistName;
+import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
 import rocks.metaldetector.persistence.domain.user.UserEntity;
 import rocks.metaldetector.security.AuthenticationFacade;
+import rocks.metaldetector.service.artist.events.FollowActionEvent;
 import rocks.metaldetector.service.artist.transformer.ArtistDtoTransformer;
 import rocks.metaldetector.service.artist.transformer.ArtistEntityTransformer;
+import rocks.metaldetector.service.user.UserEntityFactory;
 import rocks.metaldetector.spotify.facade.SpotifyService;
 import rocks.metaldetector.testutil.DtoFactory.ArtistDtoFactory;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -39,6 +47,8 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static rocks.metaldetector.persistence.domain.artist.ArtistSource.DISCOGS;
 import static rocks.metaldetector.persistence.domain.artist.ArtistSource.SPOTIFY;
+import static rocks.metaldetector.service.artist.events.FollowActionEvent.Action.FOLLOW;
+import static rocks.metaldetector.service.artist.events.FollowActionEvent.Action.UNFOLLOW;
 import static rocks.metaldetector.testutil.DtoFactory.DiscogsArtistDtoFactory;
 import static rocks.metaldetector.testutil.DtoFactory.SpotifyArtistDtoFactory;
 
@@ -54,6 +64,9 @@ class FollowArtistServiceImplTest implements WithAssertions {
   @Mock
   private ArtistEntityTransformer artistEntityTransformer;
 
+  @Mock
+  private ArtistFollowerCountService artistFollowerCountService;
+
   @Mock
   private ArtistRepository artistRepository;
 
@@ -72,6 +85,9 @@ class FollowArtistServiceImplTest implements WithAssertions {
   @Mock
   private SpotifyService spotifyService;
 
+  @Mock
+  private ApplicationEventPublisher applicationEventPublisher;
+
   @InjectMocks
   private FollowArtistServiceImpl underTest;
 
@@ -80,8 +96,8 @@ class FollowArtistServiceImplTest implements WithAssertions {
 
   @AfterEach
   void tearDown() {
-    reset(artistDtoTransformer, artistEntityTransformer, artistRepository, artistService, authenticationFacade,
-          discogsService, followActionRepository, spotifyService, userEntity);
+    reset(artistDtoTransformer, artistEntityTransformer, artistFollowerCountService, artistRepository, artistService, authenticationFacade,
+          discogsService, followActionRepository, spotifyService, applicationEventPublisher, userEntity);
   }
 
   @Test
@@ -116,6 +132,22 @@ class FollowArtistServiceImplTest implements WithAssertions {
     verify(authenticationFacade).getCurrentUser();
   }
 
+  @Test
+  @DisplayName("The follower count of the artist is increased on follow")
+  void follow_should_add_follower() {
+    // given
+    var artist = ArtistEntityFactory.withExternalId(EXTERNAL_ID);
+    when(artistRepository.existsByExternalIdAndSource(anyString(), any())).thenReturn(true);
+    when(artistRepository.findByExternalIdAndSource(anyString(), any())).thenReturn(Optional.of(artist));
+    when(authenticationFacade.getCurrentUser()).thenReturn(userEntity);
+
+    // when
+    underTest.follow(EXTERNAL_ID, ARTIST_SOURCE);
+
+    // then
+    verify(artistFollowerCountService).addFollower(List.of(artist));
+  }
+
   @Test
   @DisplayName("Spotify Artist is only searched on Spotify if it does not yet exist on follow")
   void follow_should_search_spotify() {
@@ -230,6 +262,27 @@ class FollowArtistServiceImplTest implements WithAssertions {
     verify(followActionRepository).save(followAction);
   }
 
+  @Test
+  @DisplayName("FollowActionEvent is published on follow")
+  void follow_should_publish_event() {
+    // given
+    ArgumentCaptor<FollowActionEvent> argumentCaptor = ArgumentCaptor.forClass(FollowActionEvent.class);
+    ArtistEntity artist = ArtistEntityFactory.withExternalId(EXTERNAL_ID);
+    when(artistRepository.existsByExternalIdAndSource(anyString(), any())).thenReturn(true);
+    when(artistRepository.findByExternalIdAndSource(anyString(), any())).thenReturn(Optional.of(artist));
+    when(authenticationFacade.getCurrentUser()).thenReturn(userEntity);
+
+    // when
+    underTest.follow(EXTERNAL_ID, ARTIST_SOURCE);
+
+    // then
+    verify(applicationEventPublisher).publishEvent(argumentCaptor.capture());
+    FollowActionEvent event = argumentCaptor.getValue();
+    assertThat(event.getUser()).isEqualTo(userEntity);
+    assertThat(event.getArtists()).containsExactly(artist);
+    assertThat(event.getAction()).isEqualTo(FOLLOW);
+  }
+
   @Test
   @DisplayName("Artist is fetched from repository on unfollow")
   void unfollow_should_fetch_artist_from_repository() {
@@ -271,6 +324,42 @@ class FollowArtistServiceImplTest implements WithAssertions {
     verify(followActionRepository).deleteByUserAndArtist(userEntity, artist);
   }
 
+  @Test
+  @DisplayName("The removed follow actions are subtracted from the follower count on unfollow")
+  void unfollow_should_remove_follower() {
+    // given
+    ArtistEntity artist = ArtistEntityFactory.withExternalId(EXTERNAL_ID);
+    when(artistRepository.findByExternalIdAndSource(anyString(), any())).thenReturn(Optional.of(artist));
+    when(authenticationFacade.getCurrentUser()).thenReturn(userEntity);
+    when(followActionRepository.deleteByUserAndArtist(any(), any())).thenReturn(1L);
+
+    // when
+    underTest.unfollow(EXTERNAL_ID, ARTIST_SOURCE);
+
+    // then
+    verify(artistFollowerCountService).removeFollower(artist, 1L);
+  }
+
+  @Test
+  @DisplayName("FollowActionEvent is published on unfollow")
+  void unfollow_should_publish_event() {
+    // given
+    ArgumentCaptor<FollowActionEvent> argumentCaptor = ArgumentCaptor.forClass(FollowActionEvent.class);
+    ArtistEntity artist = ArtistEntityFactory.withExternalId(EXTERNAL_ID);
+    when(artistRepository.findByExternalIdAndSource(anyString(), any())).thenReturn(Optional.of(artist));
+    when(authenticationFacade.getCurrentUser()).thenReturn(userEntity);
+
+    // when
+    underTest.unfollow(EXTERNAL_ID, ARTIST_SOURCE);
+
+    // then
+    verify(applicationEventPublisher).publishEvent(argumentCaptor.capture());
+    FollowActionEvent event = argumentCaptor.getValue();
+    assertThat(event.getUser()).isEqualTo(userEntity);
+    assertThat(event.getArtists()).containsExactly(artist);
+    assertThat(event.getAction()).isEqualTo(UNFOLLOW);
+  }
+
   @Test
   @DisplayName("isCurrentUserFollowing(): should fetch user entity")
   void isCurrentUserFollowing_should_fetch_user_entity() {
@@ -335,6 +424,85 @@ class FollowArtistServiceImplTest implements WithAssertions {
     assertThat(result).isEqualTo(existsByUserIdAndArtistId);
   }
 
+  @Test
+  @DisplayName("getFollowedExternalIdsOfCurrentUser(): should query all external ids at once")
+  void getFollowedExternalIdsOfCurrentUser_should_call_follow_action_repository() {
+    // given
+    var externalIds = List.of("1", "2", "3");
+    doReturn(userEntity).when(authenticationFacade).getCurrentUser();
+
+    // when
+    underTest.getFollowedExternalIdsOfCurrentUser(externalIds, ARTIST_SOURCE);
+
+    // then
+    verify(followActionRepository).findFollowedExternalIds(userEntity, ARTIST_SOURCE, externalIds);
+  }
+
+  @Test
+  @DisplayName("getFollowedExternalIdsOfCurrentUser(): should return result from FollowActionRepository")
+  void getFollowedExternalIdsOfCurrentUser_should_return_result() {
+    // given
+    var followedIds = Set.of("1", "3");
+    doReturn(followedIds).when(followActionRepository).findFollowedExternalIds(any(), any(), any());
+
+    // when
+    var result = underTest.getFollowedExternalIdsOfCurrentUser(List.of("1", "2", "3"), ARTIST_SOURCE);
+
+    // then
+    assertThat(result).isEqualTo(followedIds);
+  }
+
+  @Test
+  @DisplayName("getFollowedExternalIdsOfCurrentUser(): should not query without external ids")
+  void getFollowedExternalIdsOfCurrentUser_should_not_query_without_ids() {
+    // when
+    var result = underTest.getFollowedExternalIdsOfCurrentUser(Collections.emptyList(), ARTIST_SOURCE);
+
+    // then
+    assertThat(result).isEmpty();
+    verifyNoInteractions(followActionRepository, authenticationFacade);
+  }
+
+  @Test
+  @DisplayName("getFollowedArtistNamesOfUsers(): should query the artist names of all users at once")
+  void getFollowedArtistNamesOfUsers_should_query_once() {
+    // given
+    List<AbstractUserEntity> users = List.of(createUser(1L, "user1"), createUser(2L, "user2"));
+
+    // when
+    underTest.getFollowedArtistNamesOfUsers(users);
+
+    // then
+    verify(followActionRepository).findFollowedArtistNames(users);
+  }
+
+  @Test
+  @DisplayName("getFollowedArtistNamesOfUsers(): should group the artist names by user")
+  void getFollowedArtistNamesOfUsers_should_group_by_user() {
+    // given
+    var user1 = createUser(1L, "user1");
+    var user2 = createUser(2L, "user2");
+    doReturn(List.of(createFollowedArtistName(1L, "A"), createFollowedArtistName(1L, "B")))
+        .when(followActionRepository).findFollowedArtistNames(any());
+
+    // when
+    var result = underTest.getFollowedArtistNamesOfUsers(List.of(user1, user2));
+
+    // then
+    assertThat(result).containsOnly(entry(user1, List.of("A", "B")), entry(user2, Collections.emptyList()));
+  }
+
+  @Test
+  @DisplayName("getFollowedArtistNamesOfUsers(): should not query without users")
+  void getFollowedArtistNamesOfUsers_should_not_query_without_users() {
+    // when
+    var result = underTest.getFollowedArtistNamesOfUsers(Collections.emptyList());
+
+    // then
+    assertThat(result).isEmpty();
+    verifyNoInteractions(followActionRepository);
+  }
+
   @Test
   @DisplayName("Getting followed artists should get current user")
   void get_followed_should_call_user_supplier() {
@@ -480,4 +648,50 @@ class FollowArtistServiceImplTest implements WithAssertions {
     // then
     verify(followActionRepository).saveAll(expectedFollowActionEntities);
   }
+
+  @Test
+  @DisplayName("The follower count of all followed artists is increased on follow multiple spotify artists")
+  void test_follow_multiple_spotify_artists_should_add_follower() {
+    // given
+    var artistEntities = List.of(ArtistEntityFactory.withExternalId("a"), ArtistEntityFactory.withExternalId("b"));
+    doReturn(userEntity).when(authenticationFacade).getCurrentUser();
+    doReturn(artistEntities).when(artistRepository).findAllByExternalIdIn(any());
+
+    // when
+    underTest.followSpotifyArtists(List.of("a", "b"));
+
+    // then
+    verify(artistFollowerCountService).addFollower(artistEntities);
+  }
+
+  @Test
+  @DisplayName("FollowActionEvent with all followed artists is published on follow multiple spotify artists")
+  void test_follow_multiple_spotify_artists_should_publish_event() {
+    // given
+    ArgumentCaptor<FollowActionEvent> argumentCaptor = ArgumentCaptor.forClass(FollowActionEvent.class);
+    var artistEntities = List.of(ArtistEntityFactory.withExternalId("a"), ArtistEntityFactory.withExternalId("b"));
+    doReturn(userEntity).when(authenticationFacade).getCurrentUser();
+    doReturn(artistEntities).when(artistRepository).findAllByExternalIdIn(any());
+
+    // when
+    underTest.followSpotifyArtists(List.of("a", "b"));
+
+    // then
+    verify(applicationEventPublisher).publishEvent(argumentCaptor.capture());
+    assertThat(argumentCaptor.getValue().getArtists()).isEqualTo(artistEntities);
+    assertThat(argumentCaptor.getValue().getAction()).isEqualTo(FOLLOW);
+  }
+
+  private UserEntity createUser(long id, String username) {
+    var user = UserEntityFactory.createUser(username, username + "@example.com");
+    ReflectionTestUtils.setField(user, "id", id);
+    return user;
+  }
+
+  private FollowedArtistName createFollowedArtistName(long userId, String artistName) {
+    var followedArtistName = mock(FollowedArtistName.class);
+    doReturn(userId).when(followedArtistName).getUserId();
+    doReturn(artistName).when(followedArtistName).getArtistName();
+    return followedArtistName;
+  }
 }
@@ -2,6 +2,7 @@ package rocks.metaldetector.service.cleanup;
 
 import org.assertj.core.api.WithAssertions;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,16 +11,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import rocks.metaldetector.persistence.domain.notification.NotificationConfigRepository;
 import rocks.metaldetector.persistence.domain.user.UserRepository;
+import rocks.metaldetector.service.lease.JobLeaseService;
 import rocks.metaldetector.service.user.UserEntityFactory;
 
 import java.util.Collections;
+import java.time.LocalDate;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static rocks.metaldetector.service.cleanup.RegistrationCleanupServiceImpl.REGISTRATION_CLEANUP_JOB;
 
 @ExtendWith(MockitoExtension.class)
 class RegistrationCleanupServiceImplTest implements WithAssertions {
@@ -30,12 +36,47 @@ class RegistrationCleanupServiceImplTest implements WithAssertions {
   @Mock
   private NotificationConfigRepository notificationConfigRepository;
 
+  @Mock
+  private JobLeaseService jobLeaseService;
+
   @InjectMocks
   private RegistrationCleanupServiceImpl underTest;
 
+  @BeforeEach
+  void setup() {
+    lenient().doReturn(true).when(jobLeaseService).acquire(any());
+  }
+
   @AfterEach
   void tearDown() {
-    reset(userRepository, notificationConfigRepository);
+    reset(userRepository, notificationConfigRepository, jobLeaseService);
+  }
+
+  @Test
+  @DisplayName("lease for today's cleanup is acquired and completed")
+  void test_lease_acquired_and_completed() {
+    // given
+    var leaseName = REGISTRATION_CLEANUP_JOB + ":" + LocalDate.now();
+
+    // when
+    underTest.cleanupUsersWithExpiredToken();
+
+    // then
+    verify(jobLeaseService).acquire(leaseName);
+    verify(jobLeaseService).complete(leaseName);
+  }
+
+  @Test
+  @DisplayName("nothing is called if the lease is held by another node")
+  void test_nothing_called_without_lease() {
+    // given
+    doReturn(false).when(jobLeaseService).acquire(any());
+
+    // when
+    underTest.cleanupUsersWithExpiredToken();
+
+    // then
+    verifyNoInteractions(userRepository, notificationConfigRepository);
   }
 
   @Test
@@ -0,0 +1,246 @@
+package rocks.metaldetector.service.dashboard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.assertj.core.api.WithAssertions;
+import org.assertj.core.data.TemporalUnitLessThanOffset;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import rocks.metaldetector.butler.facade.ReleasesImportedEvent;
+import rocks.metaldetector.config.misc.DashboardProperties;
+import rocks.metaldetector.support.TimeRange;
+import rocks.metaldetector.testutil.DtoFactory.ArtistDtoFactory;
+import rocks.metaldetector.testutil.DtoFactory.ReleaseDtoFactory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.time.temporal.ChronoUnit.DAYS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static rocks.metaldetector.service.dashboard.CommunitySnapshotService.PRINCIPAL;
+import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.MIN_FOLLOWER;
+import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.RESULT_LIMIT;
+import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.TIME_RANGE_MONTHS;
+
+@ExtendWith(MockitoExtension.class)
+class CommunitySnapshotServiceTest implements WithAssertions {
+
+  @Mock
+  private ArtistCollector artistCollector;
+
+  @Mock
+  private ReleaseCollector releaseCollector;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  private CommunitySnapshotService underTest;
+
+  @BeforeEach
+  void setup() {
+    underTest = new CommunitySnapshotService(artistCollector, releaseCollector, new DashboardProperties(), objectMapper);
+  }
+
+  @AfterEach
+  void tearDown() {
+    reset(artistCollector, releaseCollector);
+    SecurityContextHolder.clearContext();
+  }
+
+  @Nested
+  @DisplayName("Tests for building the snapshot")
+  class BuildTest {
+
+    @Test
+    @DisplayName("Should collect the top artists with the minimum follower")
+    void should_collect_top_artists() {
+      // given
+      var artists = List.of(ArtistDtoFactory.withName("A"), ArtistDtoFactory.withName("B"));
+      doReturn(artists).when(artistCollector).collectTopFollowedArtists(anyInt());
+
+      // when
+      var result = underTest.getSnapshot();
+
+      // then
+      verify(artistCollector).collectTopFollowedArtists(MIN_FOLLOWER);
+      assertThat(result.getTopArtists()).isEqualTo(artists);
+    }
+
+    @Test
+    @DisplayName("Should collect the most expected releases of the top artists")
+    void should_collect_most_expected_releases() {
+      // given
+      ArgumentCaptor<TimeRange> timeRangeCaptor = ArgumentCaptor.forClass(TimeRange.class);
+      var offset = new TemporalUnitLessThanOffset(1, DAYS);
+      var now = LocalDate.now();
+      var artists = List.of(ArtistDtoFactory.withName("A"));
+      var releases = List.of(ReleaseDtoFactory.withArtistName("A"));
+      doReturn(artists).when(artistCollector).collectTopFollowedArtists(anyInt());
+      doReturn(releases).when(releaseCollector).collectTopReleases(any(), any(), anyInt());
+
+      // when
+      var result = underTest.getSnapshot();
+
+      // then
+      verify(releaseCollector).collectTopReleases(timeRangeCaptor.capture(), eq(artists), eq(RESULT_LIMIT));
+      assertThat(timeRangeCaptor.getValue().getDateFrom()).isCloseTo(now, offset);
+      assertThat(timeRangeCaptor.getValue().getDateTo()).isCloseTo(now.plusMonths(TIME_RANGE_MONTHS), offset);
+      assertThat(result.getMostExpectedReleases()).isEqualTo(releases);
+    }
+
+    @Test
+    @DisplayName("Should build the snapshot as anonymous user and restore the context of the caller")
+    void should_build_anonymously() {
+      // given
+      var authentication = new TestingAuthenticationToken("user", "password");
+      SecurityContextHolder.getContext().setAuthentication(authentication);
+      doAnswer(invocation -> {
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isSameAs(PRINCIPAL);
+        return List.of();
+      }).when(artistCollector).collectTopFollowedArtists(anyInt());
+
+      // when
+      underTest.getSnapshot();
+
+      // then
+      verify(artistCollector).collectTopFollowedArtists(anyInt());
+      assertThat(SecurityContextHolder.getContext().getAuthentication()).isSameAs(authentication);
+    }
+
+    @Test
+    @DisplayName("Should keep the version as long as the content does not change")
+    void should_keep_version() {
+      // given
+      doReturn(List.of(ArtistDtoFactory.withName("A"))).when(artistCollector).collectTopFollowedArtists(anyInt());
+      var first = underTest.refresh();
+
+      // when
+      var second = underTest.refresh();
+
+      // then
+      assertThat(second).isNotSameAs(first);
+      assertThat(second.getVersion()).isEqualTo(first.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should change the version with the content")
+    void should_change_version() {
+      // given
+      doReturn(List.of(ArtistDtoFactory.withName("A")), List.of(ArtistDtoFactory.withName("B"))).when(artistCollector).collectTopFollowedArtists(anyInt());
+      var first = underTest.refresh();
+
+      // when
+      var second = underTest.refresh();
+
+      // then
+      assertThat(second.getVersion()).isNotEqualTo(first.getVersion());
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for refreshing the snapshot")
+  class RefreshTest {
+
+    @Test
+    @DisplayName("Should build the snapshot only once for all callers")
+    void should_build_once() {
+      // when
+      var first = underTest.getSnapshot();
+      var second = underTest.getSnapshot();
+
+      // then
+      assertThat(second).isSameAs(first);
+      verify(artistCollector).collectTopFollowedArtists(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should replace the snapshot on a periodic refresh")
+    void should_replace_snapshot() {
+      // given
+      var first = underTest.getSnapshot();
+
+      // when
+      underTest.refreshPeriodically();
+
+      // then
+      assertThat(underTest.getSnapshot()).isNotSameAs(first);
+      verify(artistCollector, times(2)).collectTopFollowedArtists(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should keep the previous snapshot if the periodic refresh fails")
+    void should_keep_snapshot_on_failed_refresh() {
+      // given
+      var first = underTest.getSnapshot();
+      doThrow(new IllegalStateException("database not available")).when(artistCollector).collectTopFollowedArtists(anyInt());
+
+      // when
+      underTest.refreshPeriodically();
+
+      // then
+      assertThat(underTest.getSnapshot()).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the snapshot on the next request after an import")
+    void should_rebuild_after_import() {
+      // given
+      var first = underTest.getSnapshot();
+
+      // when
+      underTest.onReleasesImported(new ReleasesImportedEvent(this, LocalDateTime.now()));
+      var second = underTest.getSnapshot();
+      var third = underTest.getSnapshot();
+
+      // then
+      assertThat(second).isNotSameAs(first);
+      assertThat(third).isSameAs(second);
+      verify(artistCollector, times(2)).collectTopFollowedArtists(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should keep the outdated snapshot if it cannot be rebuilt after an import")
+    void should_keep_outdated_snapshot() {
+      // given
+      var first = underTest.getSnapshot();
+      underTest.onReleasesImported(new ReleasesImportedEvent(this, LocalDateTime.now()));
+      doThrow(new IllegalStateException("database not available")).when(artistCollector).collectTopFollowedArtists(anyInt());
+
+      // when
+      var result = underTest.getSnapshot();
+
+      // then
+      assertThat(result).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should throw the exception if there is no snapshot yet")
+    void should_throw_without_snapshot() {
+      // given
+      doThrow(new IllegalStateException("database not available")).when(artistCollector).collectTopFollowedArtists(anyInt());
+
+      // when
+      var throwable = catchThrowable(() -> underTest.getSnapshot());
+
+      // then
+      assertThat(throwable).isInstanceOf(IllegalStateException.class);
+    }
+  }
+}
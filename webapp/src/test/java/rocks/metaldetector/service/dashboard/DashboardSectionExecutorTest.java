@@ -0,0 +1,87 @@
+package rocks.metaldetector.service.dashboard;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import rocks.metaldetector.config.misc.DashboardProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static rocks.metaldetector.service.dashboard.DashboardSectionExecutor.SECTION_METRIC;
+
+class DashboardSectionExecutorTest implements WithAssertions {
+
+  private SimpleMeterRegistry meterRegistry;
+  private DashboardSectionExecutor underTest;
+
+  @BeforeEach
+  void setup() {
+    DashboardProperties properties = new DashboardProperties();
+    properties.setSectionTimeout(Duration.ofMillis(50));
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new DashboardSectionExecutor(properties, meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    underTest.destroy();
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("Should run the task with the security context of the caller")
+  void should_run_in_caller_context() {
+    // given
+    var authentication = new TestingAuthenticationToken("user", "password");
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+
+    // when
+    var result = underTest.supplyAsync(() -> SecurityContextHolder.getContext().getAuthentication());
+
+    // then
+    assertThat(result.join()).isSameAs(authentication);
+  }
+
+  @Test
+  @DisplayName("Should not complete a shared future when the section times out")
+  void should_not_complete_shared_future() {
+    // given
+    CompletableFuture<String> sharedFuture = new CompletableFuture<>();
+    List<String> degradedSections = new ArrayList<>();
+
+    // when
+    var result = underTest.getOrDegrade("section", underTest.startSection("section", () -> sharedFuture), "fallback", degradedSections);
+
+    // then
+    assertThat(result).isEqualTo("fallback");
+    assertThat(degradedSections).containsExactly("section");
+    assertThat(sharedFuture).isNotDone();
+    assertThat(meterRegistry.get(SECTION_METRIC).tag("section", "section").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should degrade a section that could not be started")
+  void should_degrade_section_failing_on_start() {
+    // given
+    List<String> degradedSections = new ArrayList<>();
+
+    // when
+    CompletableFuture<String> section = underTest.startSection("section", () -> {
+      throw new IllegalStateException();
+    });
+    var result = underTest.getOrDegrade("section", section, "fallback", degradedSections);
+
+    // then
+    assertThat(result).isEqualTo("fallback");
+    assertThat(degradedSections).containsExactly("section");
+    assertThat(meterRegistry.get(SECTION_METRIC).tag("outcome", "failure").timer().count()).isEqualTo(1);
+  }
+}
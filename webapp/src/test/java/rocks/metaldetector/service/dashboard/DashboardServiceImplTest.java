@@ -1,35 +1,45 @@
 package rocks.metaldetector.service.dashboard;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.WithAssertions;
-import org.assertj.core.data.TemporalUnitLessThanOffset;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import rocks.metaldetector.config.misc.DashboardProperties;
+import rocks.metaldetector.persistence.domain.user.UserEntity;
+import rocks.metaldetector.security.AuthenticationFacade;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.service.artist.ArtistDto;
 import rocks.metaldetector.service.artist.FollowArtistService;
-import rocks.metaldetector.support.TimeRange;
 import rocks.metaldetector.testutil.DtoFactory.ArtistDtoFactory;
 import rocks.metaldetector.testutil.DtoFactory.ReleaseDtoFactory;
+import rocks.metaldetector.web.api.response.DashboardResponse;
 
-import java.time.LocalDate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
-import static java.time.temporal.ChronoUnit.DAYS;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
-import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.MIN_FOLLOWER;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.RESULT_LIMIT;
-import static rocks.metaldetector.service.dashboard.DashboardServiceImpl.TIME_RANGE_MONTHS;
 
 @ExtendWith(MockitoExtension.class)
 class DashboardServiceImplTest implements WithAssertions {
@@ -40,15 +50,44 @@ class DashboardServiceImplTest implements WithAssertions {
   @Mock
   private ArtistCollector artistCollector;
 
+  @Mock
+  private CommunitySnapshotService communitySnapshotService;
+
   @Mock
   private FollowArtistService followArtistService;
 
-  @InjectMocks
+  @Mock
+  private AuthenticationFacade authenticationFacade;
+
+  @Mock
+  private DashboardSnapshotCache dashboardSnapshotCache;
+
+  @Mock
+  private UserEntity userEntity;
+
+  private DashboardProperties dashboardProperties;
+  private SimpleMeterRegistry meterRegistry;
+  private DashboardSectionExecutor sectionExecutor;
   private DashboardServiceImpl underTest;
 
+  @BeforeEach
+  void setup() {
+    dashboardProperties = new DashboardProperties();
+    meterRegistry = new SimpleMeterRegistry();
+    sectionExecutor = new DashboardSectionExecutor(dashboardProperties, meterRegistry);
+    underTest = new DashboardServiceImpl(releaseCollector, artistCollector, communitySnapshotService, followArtistService, authenticationFacade, dashboardSnapshotCache, sectionExecutor);
+    lenient().doReturn(userEntity).when(authenticationFacade).getCurrentUser();
+    lenient().doReturn("publicId").when(userEntity).getPublicId();
+    lenient().doAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get()).when(dashboardSnapshotCache).get(any(), any());
+    lenient().doReturn(CompletableFuture.completedFuture(Collections.emptyList())).when(releaseCollector).collectUpcomingReleases(anyList());
+    lenient().doReturn(CompletableFuture.completedFuture(Collections.emptyList())).when(releaseCollector).collectRecentReleases(anyList());
+    lenient().doReturn(createSnapshot(Collections.emptyList(), Collections.emptyList())).when(communitySnapshotService).getSnapshot();
+  }
+
   @AfterEach
   void tearDown() {
-    reset(releaseCollector, artistCollector, followArtistService);
+    sectionExecutor.destroy();
+    reset(releaseCollector, artistCollector, communitySnapshotService, followArtistService, authenticationFacade, dashboardSnapshotCache, userEntity);
   }
 
   @Nested
@@ -94,35 +133,15 @@ class DashboardServiceImplTest implements WithAssertions {
     }
 
     @Test
-    @DisplayName("releaseCollector is called to get most expected releases")
-    void test_release_collector_most_expected_releases() {
-      // given
-      ArgumentCaptor<TimeRange> argumentCaptor = ArgumentCaptor.forClass(TimeRange.class);
-      TemporalUnitLessThanOffset offset = new TemporalUnitLessThanOffset(1, DAYS);
-      var now = LocalDate.now();
-      var expectedTimeRange = new TimeRange(now, now.plusMonths(TIME_RANGE_MONTHS));
-      var artist = ArtistDtoFactory.createDefault();
-      var artists = List.of(artist, artist, artist, artist, artist);
-      doReturn(artists).when(artistCollector).collectTopFollowedArtists(anyInt());
-
-      // when
-      underTest.createDashboardResponse();
-
-      // then
-      verify(releaseCollector).collectTopReleases(argumentCaptor.capture(), eq(artists), eq(RESULT_LIMIT));
-      var timeRange = argumentCaptor.getValue();
-      assertThat(timeRange.getDateFrom()).isCloseTo(expectedTimeRange.getDateFrom(), offset);
-      assertThat(timeRange.getDateTo()).isCloseTo(expectedTimeRange.getDateTo(), offset);
-    }
-
-    @Test
-    @DisplayName("artistCollector is called to get top followed artists")
-    void test_artist_collector_top_artists() {
+    @DisplayName("communitySnapshotService is called to get the community sections")
+    void test_community_snapshot_service() {
       // when
       underTest.createDashboardResponse();
 
       // then
-      verify(artistCollector).collectTopFollowedArtists(MIN_FOLLOWER);
+      verify(communitySnapshotService).getSnapshot();
+      verify(artistCollector, never()).collectTopFollowedArtists(anyInt());
+      verify(releaseCollector, never()).collectTopReleases(any(), any(), anyInt());
     }
 
     @Test
@@ -140,7 +159,7 @@ class DashboardServiceImplTest implements WithAssertions {
     void test_upcoming_releases_returned() {
       // given
       var releases = List.of(ReleaseDtoFactory.createDefault());
-      doReturn(releases).when(releaseCollector).collectUpcomingReleases(anyList());
+      doReturn(CompletableFuture.completedFuture(releases)).when(releaseCollector).collectUpcomingReleases(anyList());
 
       // when
       var result = underTest.createDashboardResponse();
@@ -154,7 +173,7 @@ class DashboardServiceImplTest implements WithAssertions {
     void test_recent_releases_returned() {
       // given
       var releases = List.of(ReleaseDtoFactory.createDefault());
-      doReturn(releases).when(releaseCollector).collectRecentReleases(anyList());
+      doReturn(CompletableFuture.completedFuture(releases)).when(releaseCollector).collectRecentReleases(anyList());
 
       // when
       var result = underTest.createDashboardResponse();
@@ -169,7 +188,7 @@ class DashboardServiceImplTest implements WithAssertions {
       // given
       var artist = ArtistDtoFactory.createDefault();
       var artists = List.of(artist, artist, artist, artist, artist);
-      doReturn(artists).when(artistCollector).collectTopFollowedArtists(anyInt());
+      doReturn(createSnapshot(artists, Collections.emptyList())).when(communitySnapshotService).getSnapshot();
 
       // when
       var result = underTest.createDashboardResponse();
@@ -178,12 +197,26 @@ class DashboardServiceImplTest implements WithAssertions {
       assertThat(result.getFavoriteCommunityArtists()).isEqualTo(artists);
     }
 
+    @Test
+    @DisplayName("top followed artists are limited")
+    void test_top_followed_artists_limited() {
+      // given
+      var artist = ArtistDtoFactory.createDefault();
+      doReturn(createSnapshot(Collections.nCopies(RESULT_LIMIT + 1, artist), Collections.emptyList())).when(communitySnapshotService).getSnapshot();
+
+      // when
+      var result = underTest.createDashboardResponse();
+
+      // then
+      assertThat(result.getFavoriteCommunityArtists()).hasSize(RESULT_LIMIT);
+    }
+
     @Test
     @DisplayName("most expected releases are returned")
     void test_most_expected_releases_returned() {
       // given
       var releases = List.of(ReleaseDtoFactory.createDefault());
-      doReturn(releases).when(releaseCollector).collectTopReleases(any(), any(), anyInt());
+      doReturn(createSnapshot(Collections.emptyList(), releases)).when(communitySnapshotService).getSnapshot();
 
       // when
       var result = underTest.createDashboardResponse();
@@ -206,4 +239,113 @@ class DashboardServiceImplTest implements WithAssertions {
       assertThat(result.getRecentlyFollowedArtists()).isEqualTo(artists);
     }
   }
+
+  @Nested
+  @DisplayName("Tests for the degraded sections")
+  class DegradedSectionTest {
+
+    @Test
+    @DisplayName("a failed section is marked as degraded and the other sections are returned")
+    void test_failed_section_degraded() {
+      // given
+      var artists = List.of(ArtistDtoFactory.createDefault());
+      doReturn(CompletableFuture.failedFuture(new IllegalStateException("butler not available"))).when(releaseCollector).collectUpcomingReleases(anyList());
+      doReturn(artists).when(artistCollector).collectRecentlyFollowedArtists(anyInt());
+
+      // when
+      var result = underTest.createDashboardResponse();
+
+      // then
+      assertThat(result.isDegraded()).isTrue();
+      assertThat(result.getDegradedSections()).containsExactly("upcomingReleases");
+      assertThat(result.getUpcomingReleases()).isEmpty();
+      assertThat(result.getRecentlyFollowedArtists()).isEqualTo(artists);
+    }
+
+    @Test
+    @DisplayName("a section that does not finish in time is marked as degraded")
+    void test_slow_section_degraded() {
+      // given
+      dashboardProperties.setSectionTimeout(Duration.ofMillis(50));
+      doReturn(new CompletableFuture<>()).when(releaseCollector).collectRecentReleases(anyList());
+
+      // when
+      var result = underTest.createDashboardResponse();
+
+      // then
+      assertThat(result.getDegradedSections()).containsExactly("recentReleases");
+      assertThat(result.getRecentReleases()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("the community sections are degraded if there is no community snapshot")
+    void test_community_sections_degraded_without_snapshot() {
+      // given
+      doThrow(new IllegalStateException("database not available")).when(communitySnapshotService).getSnapshot();
+
+      // when
+      var result = underTest.createDashboardResponse();
+
+      // then
+      assertThat(result.getDegradedSections()).containsExactlyInAnyOrder("favoriteCommunityArtists", "mostExpectedReleases");
+      assertThat(result.getUpcomingReleases()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("a complete dashboard is not degraded")
+    void test_not_degraded() {
+      // when
+      var result = underTest.createDashboardResponse();
+
+      // then
+      assertThat(result.isDegraded()).isFalse();
+      assertThat(result.getDegradedSections()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("the duration of every section is recorded")
+    void test_section_timers() {
+      // when
+      underTest.createDashboardResponse();
+
+      // then
+      assertThat(meterRegistry.find(DashboardSectionExecutor.SECTION_METRIC).timers()).hasSize(5);
+      assertThat(meterRegistry.get(DashboardSectionExecutor.SECTION_METRIC).tag("section", "upcomingReleases").tag("outcome", "success").timer().count())
+          .isEqualTo(1);
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for the dashboard snapshots")
+  class SnapshotTest {
+
+    @Test
+    @DisplayName("the snapshot of the current user is requested")
+    void test_snapshot_of_current_user() {
+      // when
+      underTest.createDashboardResponse();
+
+      // then
+      verify(dashboardSnapshotCache).get(eq("publicId"), any());
+    }
+
+    @Test
+    @DisplayName("an existing snapshot is returned without collecting the dashboard again")
+    void test_snapshot_returned() {
+      // given
+      var snapshot = DashboardResponse.builder().build();
+      doReturn(snapshot).when(dashboardSnapshotCache).get(any(), any());
+
+      // when
+      var result = underTest.createDashboardResponse();
+
+      // then
+      assertThat(result).isSameAs(snapshot);
+      verifyNoInteractions(followArtistService, releaseCollector, artistCollector, communitySnapshotService);
+    }
+  }
+
+  private CommunitySnapshot createSnapshot(List<ArtistDto> topArtists, List<ReleaseDto> mostExpectedReleases) {
+    return new CommunitySnapshot(topArtists, mostExpectedReleases, LocalDateTime.now(), "version");
+  }
 }
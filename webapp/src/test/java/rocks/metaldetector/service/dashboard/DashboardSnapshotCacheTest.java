@@ -0,0 +1,149 @@
+package rocks.metaldetector.service.dashboard;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import rocks.metaldetector.butler.facade.ReleasesImportedEvent;
+import rocks.metaldetector.persistence.domain.user.UserEntity;
+import rocks.metaldetector.service.artist.events.FollowActionEvent;
+import rocks.metaldetector.service.user.events.UserDeletionEvent;
+import rocks.metaldetector.web.api.response.DashboardResponse;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static rocks.metaldetector.service.artist.events.FollowActionEvent.Action.FOLLOW;
+import static rocks.metaldetector.service.dashboard.DashboardSnapshotCache.DASHBOARD_SNAPSHOTS_CACHE;
+
+class DashboardSnapshotCacheTest implements WithAssertions {
+
+  private final AtomicInteger builds = new AtomicInteger();
+  private DashboardSnapshotCache underTest;
+
+  @BeforeEach
+  void setup() {
+    builds.set(0);
+    underTest = new DashboardSnapshotCache(new ConcurrentMapCacheManager(DASHBOARD_SNAPSHOTS_CACHE));
+  }
+
+  @Nested
+  @DisplayName("Tests for the snapshots")
+  class SnapshotTest {
+
+    @Test
+    @DisplayName("Should build the dashboard of a user only once")
+    void should_build_once() {
+      // when
+      var first = underTest.get("user", DashboardSnapshotCacheTest.this::build);
+      var second = underTest.get("user", DashboardSnapshotCacheTest.this::build);
+
+      // then
+      assertThat(builds).hasValue(1);
+      assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should build the dashboards of different users separately")
+    void should_build_per_user() {
+      // when
+      underTest.get("user", DashboardSnapshotCacheTest.this::build);
+      underTest.get("other user", DashboardSnapshotCacheTest.this::build);
+
+      // then
+      assertThat(builds).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should not keep a snapshot without a user")
+    void should_build_without_user() {
+      // when
+      underTest.get(null, DashboardSnapshotCacheTest.this::build);
+      underTest.get(null, DashboardSnapshotCacheTest.this::build);
+
+      // then
+      assertThat(builds).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should build the dashboard if the cache does not exist")
+    void should_build_without_cache() {
+      // given
+      underTest = new DashboardSnapshotCache(new ConcurrentMapCacheManager("otherCache"));
+
+      // when
+      underTest.get("user", DashboardSnapshotCacheTest.this::build);
+      underTest.get("user", DashboardSnapshotCacheTest.this::build);
+
+      // then
+      assertThat(builds).hasValue(2);
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for the invalidation")
+  class InvalidationTest {
+
+    @Test
+    @DisplayName("Should rebuild only the dashboard of the user who followed an artist")
+    void should_evict_on_follow_action() {
+      // given
+      underTest.get("user", DashboardSnapshotCacheTest.this::build);
+      underTest.get("other user", DashboardSnapshotCacheTest.this::build);
+
+      // when
+      underTest.onFollowAction(new FollowActionEvent(this, createUser("user"), Collections.emptyList(), FOLLOW));
+      underTest.get("user", DashboardSnapshotCacheTest.this::build);
+      underTest.get("other user", DashboardSnapshotCacheTest.this::build);
+
+      // then
+      assertThat(builds).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Should remove the dashboard of a deleted user")
+    void should_evict_on_user_deletion() {
+      // given
+      underTest.get("user", DashboardSnapshotCacheTest.this::build);
+
+      // when
+      underTest.onUserDeletion(new UserDeletionEvent(this, createUser("user")));
+      underTest.get("user", DashboardSnapshotCacheTest.this::build);
+
+      // then
+      assertThat(builds).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should rebuild all dashboards after an import")
+    void should_evict_all_after_import() {
+      // given
+      underTest.get("user", DashboardSnapshotCacheTest.this::build);
+      underTest.get("other user", DashboardSnapshotCacheTest.this::build);
+
+      // when
+      underTest.onReleasesImported(new ReleasesImportedEvent(this, LocalDateTime.now()));
+      underTest.get("user", DashboardSnapshotCacheTest.this::build);
+      underTest.get("other user", DashboardSnapshotCacheTest.this::build);
+
+      // then
+      assertThat(builds).hasValue(4);
+    }
+
+    private UserEntity createUser(String publicId) {
+      UserEntity user = mock(UserEntity.class);
+      doReturn(publicId).when(user).getPublicId();
+      return user;
+    }
+  }
+
+  private DashboardResponse build() {
+    builds.incrementAndGet();
+    return DashboardResponse.builder().build();
+  }
+}
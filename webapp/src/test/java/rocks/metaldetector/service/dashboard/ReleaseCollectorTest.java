@@ -6,10 +6,19 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import rocks.metaldetector.butler.api.ButlerRelease;
+import rocks.metaldetector.butler.api.ButlerReleasesRequest;
+import rocks.metaldetector.butler.api.ButlerReleasesResponse;
+import rocks.metaldetector.butler.client.ReleaseButlerRestClient;
+import rocks.metaldetector.butler.config.ReleaseReplicaProperties;
 import rocks.metaldetector.butler.facade.ReleaseService;
+import rocks.metaldetector.butler.replica.ReleaseReplica;
+import rocks.metaldetector.support.ConcurrentPageFetcher;
 import rocks.metaldetector.support.DetectorSort;
 import rocks.metaldetector.support.Page;
 import rocks.metaldetector.support.PageRequest;
@@ -21,13 +30,16 @@ import rocks.metaldetector.testutil.DtoFactory.ReleaseDtoFactory;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -43,6 +55,9 @@ class ReleaseCollectorTest implements WithAssertions {
   @Mock
   private ReleaseService releaseService;
 
+  @Spy
+  private ConcurrentPageFetcher pageFetcher = new ConcurrentPageFetcher(1, 1);
+
   @InjectMocks
   private ReleaseCollector underTest;
 
@@ -59,10 +74,11 @@ class ReleaseCollectorTest implements WithAssertions {
     @DisplayName("collecting upcoming releases does not call releaseService when no artists are given")
     void test_upcoming_releases_does_not_call_release_service() {
       // when
-      underTest.collectUpcomingReleases(Collections.emptyList());
+      var result = underTest.collectUpcomingReleases(Collections.emptyList());
 
       // then
       verifyNoInteractions(releaseService);
+      assertThat(result).isCompletedWithValue(Collections.emptyList());
     }
 
     @Test
@@ -71,13 +87,12 @@ class ReleaseCollectorTest implements WithAssertions {
       // given
       var expectedArtistNames = List.of("A");
       var artists = List.of(ArtistDtoFactory.withName("A"));
-      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
 
       // when
       underTest.collectUpcomingReleases(artists);
 
       // then
-      verify(releaseService).findReleases(eq(expectedArtistNames), any(), any(), any());
+      verify(releaseService).findTopReleasesAsync(eq(expectedArtistNames), any(), any(), anyInt());
     }
 
     @Test
@@ -87,93 +102,43 @@ class ReleaseCollectorTest implements WithAssertions {
       var tomorrow = LocalDate.now().plusDays(1);
       var expectedTimeRange = new TimeRange(tomorrow, tomorrow.plusMonths(TIME_RANGE_MONTHS));
       var artists = List.of(ArtistDtoFactory.withName("A"));
-      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
-
-      // when
-      underTest.collectUpcomingReleases(artists);
-
-      // then
-      verify(releaseService).findReleases(any(), eq(expectedTimeRange), any(), any());
-    }
-
-    @Test
-    @DisplayName("collecting upcoming releases calls releaseService without query")
-    void test_upcoming_releases_calls_release_service_without_query() {
-      // given
-      var artists = List.of(ArtistDtoFactory.withName("A"));
-      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
 
       // when
       underTest.collectUpcomingReleases(artists);
 
       // then
-      verify(releaseService).findReleases(any(), any(), eq(null), any());
+      verify(releaseService).findTopReleasesAsync(any(), eq(expectedTimeRange), any(), anyInt());
     }
 
     @Test
-    @DisplayName("collecting upcoming releases calls releaseService with correct page request and sorting")
-    void test_upcoming_releases_calls_release_service_with_page_request() {
+    @DisplayName("collecting upcoming releases requests only the first releases in the correct order")
+    void test_upcoming_releases_calls_release_service_with_sorting_and_limit() {
       // given
-      var sorting = new DetectorSort("releaseDate", ASC);
-      var expectedPageRequest = new PageRequest(1, PAGE_SIZE, sorting);
+      var expectedSorting = new DetectorSort("releaseDate", ASC);
       var artists = List.of(ArtistDtoFactory.withName("A"));
-      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
 
       // when
       underTest.collectUpcomingReleases(artists);
 
       // then
-      verify(releaseService).findReleases(any(), any(), any(), eq(expectedPageRequest));
+      verify(releaseService).findTopReleasesAsync(any(), any(), eq(expectedSorting), eq(RESULT_LIMIT));
       verifyNoMoreInteractions(releaseService);
     }
 
-    @Test
-    @DisplayName("collecting upcoming releases calls releaseService again if multiple pages are present")
-    void test_upcoming_releases_calls_release_service_again() {
-      // given
-      var sorting = new DetectorSort("releaseDate", ASC);
-      var expectedPageRequest1 = new PageRequest(1, PAGE_SIZE, sorting);
-      var expectedPageRequest2 = new PageRequest(2, PAGE_SIZE, sorting);
-      var artists = List.of(ArtistDtoFactory.withName("A"));
-      doReturn(new Page<>(Collections.emptyList(), new Pagination(2, 1, 1))).when(releaseService).findReleases(any(), any(), any(), any());
-
-      // when
-      underTest.collectUpcomingReleases(artists);
-
-      // then
-      verify(releaseService).findReleases(any(), any(), any(), eq(expectedPageRequest1));
-      verify(releaseService).findReleases(any(), any(), any(), eq(expectedPageRequest2));
-    }
-
     @Test
     @DisplayName("collecting upcoming releases returns list of releases")
     void test_upcoming_returns_releases() {
       // given
       var artists = List.of(ArtistDtoFactory.withName("A"));
       var releases = List.of(ReleaseDtoFactory.createDefault(), ReleaseDtoFactory.createDefault());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
+      doReturn(CompletableFuture.completedFuture(releases)).when(releaseService).findTopReleasesAsync(any(), any(), any(), anyInt());
 
       // when
-      var result = underTest.collectUpcomingReleases(artists);
+      var result = underTest.collectUpcomingReleases(artists).join();
 
       // then
       assertThat(result).isEqualTo(releases);
     }
-
-    @Test
-    @DisplayName("collecting upcoming releases limits returned releases")
-    void test_upcoming_limits_releases() {
-      // given
-      var artists = List.of(ArtistDtoFactory.withName("A"));
-      var releases = Stream.generate(ReleaseDtoFactory::createDefault).limit(RESULT_LIMIT + 1).collect(Collectors.toList());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
-
-      // when
-      var result = underTest.collectUpcomingReleases(artists);
-
-      // then
-      assertThat(result.size()).isEqualTo(RESULT_LIMIT);
-    }
   }
 
   @Nested
@@ -184,10 +149,11 @@ class ReleaseCollectorTest implements WithAssertions {
     @DisplayName("collecting recent releases does not call releaseService when no artists are given")
     void test_recent_releases_does_not_call_release_service() {
       // when
-      underTest.collectRecentReleases(Collections.emptyList());
+      var result = underTest.collectRecentReleases(Collections.emptyList());
 
       // then
       verifyNoInteractions(releaseService);
+      assertThat(result).isCompletedWithValue(Collections.emptyList());
     }
 
     @Test
@@ -196,13 +162,12 @@ class ReleaseCollectorTest implements WithAssertions {
       // given
       var expectedArtistNames = List.of("A");
       var artists = List.of(ArtistDtoFactory.withName("A"));
-      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
 
       // when
       underTest.collectRecentReleases(artists);
 
       // then
-      verify(releaseService).findReleases(eq(expectedArtistNames), any(), any(), any());
+      verify(releaseService).findTopReleasesAsync(eq(expectedArtistNames), any(), any(), anyInt());
     }
 
     @Test
@@ -212,93 +177,43 @@ class ReleaseCollectorTest implements WithAssertions {
       var now = LocalDate.now();
       var expectedTimeRange = new TimeRange(now.minusMonths(TIME_RANGE_MONTHS), now);
       var artists = List.of(ArtistDtoFactory.withName("A"));
-      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
-
-      // when
-      underTest.collectRecentReleases(artists);
-
-      // then
-      verify(releaseService).findReleases(any(), eq(expectedTimeRange), any(), any());
-    }
-
-    @Test
-    @DisplayName("collecting recent releases calls releaseService without query")
-    void test_recent_releases_calls_release_service_without_query() {
-      // given
-      var artists = List.of(ArtistDtoFactory.withName("A"));
-      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
 
       // when
       underTest.collectRecentReleases(artists);
 
       // then
-      verify(releaseService).findReleases(any(), any(), eq(null), any());
+      verify(releaseService).findTopReleasesAsync(any(), eq(expectedTimeRange), any(), anyInt());
     }
 
     @Test
-    @DisplayName("collecting recent releases calls releaseService with correct page request and sorting")
-    void test_recent_releases_calls_release_service_with_page_request() {
+    @DisplayName("collecting recent releases requests only the first releases in the correct order")
+    void test_recent_releases_calls_release_service_with_sorting_and_limit() {
       // given
       var expectedSorting = new DetectorSort("releaseDate", DESC);
-      var expectedPageRequest = new PageRequest(1, PAGE_SIZE, expectedSorting);
       var artists = List.of(ArtistDtoFactory.withName("A"));
-      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
 
       // when
       underTest.collectRecentReleases(artists);
 
       // then
-      verify(releaseService).findReleases(any(), any(), any(), eq(expectedPageRequest));
+      verify(releaseService).findTopReleasesAsync(any(), any(), eq(expectedSorting), eq(RESULT_LIMIT));
       verifyNoMoreInteractions(releaseService);
     }
 
-    @Test
-    @DisplayName("collecting recent releases calls releaseService again if multiple pages are present")
-    void test_recent_releases_calls_release_service_again() {
-      // given
-      var sorting = new DetectorSort("releaseDate", DESC);
-      var expectedPageRequest1 = new PageRequest(1, PAGE_SIZE, sorting);
-      var expectedPageRequest2 = new PageRequest(2, PAGE_SIZE, sorting);
-      var artists = List.of(ArtistDtoFactory.withName("A"));
-      doReturn(new Page<>(Collections.emptyList(), new Pagination(2, 1, 1))).when(releaseService).findReleases(any(), any(), any(), any());
-
-      // when
-      underTest.collectRecentReleases(artists);
-
-      // then
-      verify(releaseService).findReleases(any(), any(), any(), eq(expectedPageRequest1));
-      verify(releaseService).findReleases(any(), any(), any(), eq(expectedPageRequest2));
-    }
-
     @Test
     @DisplayName("collecting recent releases returns list of releases")
     void test_recent_returns_releases() {
       // given
       var artists = List.of(ArtistDtoFactory.withName("A"));
       var releases = List.of(ReleaseDtoFactory.createDefault(), ReleaseDtoFactory.createDefault());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
+      doReturn(CompletableFuture.completedFuture(releases)).when(releaseService).findTopReleasesAsync(any(), any(), any(), anyInt());
 
       // when
-      var result = underTest.collectRecentReleases(artists);
+      var result = underTest.collectRecentReleases(artists).join();
 
       // then
       assertThat(result).isEqualTo(releases);
     }
-
-    @Test
-    @DisplayName("collecting recent releases limits returned releases")
-    void test_recent_limits_releases() {
-      // given
-      var artists = List.of(ArtistDtoFactory.withName("A"));
-      var releases = Stream.generate(ReleaseDtoFactory::createDefault).limit(RESULT_LIMIT + 1).collect(Collectors.toList());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
-
-      // when
-      var result = underTest.collectRecentReleases(artists);
-
-      // then
-      assertThat(result.size()).isEqualTo(RESULT_LIMIT);
-    }
   }
 
   @Nested
@@ -458,4 +373,44 @@ class ReleaseCollectorTest implements WithAssertions {
       assertThat(result).containsExactly(release1);
     }
   }
+
+  @Nested
+  @DisplayName("Tests for the release replica")
+  class ReleaseReplicaTests {
+
+    @Test
+    @DisplayName("the release replica answers the queries of all collected releases")
+    void test_release_replica_answers_collected_releases() {
+      // given
+      ArgumentCaptor<DetectorSort> sortCaptor = ArgumentCaptor.forClass(DetectorSort.class);
+      ArgumentCaptor<PageRequest> pageRequestCaptor = ArgumentCaptor.forClass(PageRequest.class);
+      var artists = List.of(ArtistDtoFactory.withName("A"));
+      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
+      underTest.collectUpcomingReleases(artists);
+      underTest.collectRecentReleases(artists);
+      underTest.collectTopReleases(new TimeRange(), artists, 10);
+      verify(releaseService, times(2)).findTopReleasesAsync(any(), any(), sortCaptor.capture(), anyInt());
+      verify(releaseService).findReleases(any(), any(), any(), pageRequestCaptor.capture());
+      var sorts = Stream.concat(sortCaptor.getAllValues().stream(), Stream.of(pageRequestCaptor.getValue().getSort())).toList();
+      var releaseReplica = createReleaseReplica();
+      var request = ButlerReleasesRequest.builder().artists(List.of("A")).page(1).size(PAGE_SIZE).build();
+
+      // when
+      var responses = sorts.stream().map(sort -> releaseReplica.queryReleases(request, sort)).toList();
+
+      // then
+      assertThat(responses).hasSize(3).allSatisfy(response -> assertThat(response).isPresent());
+    }
+
+    private ReleaseReplica createReleaseReplica() {
+      var butlerClient = mock(ReleaseButlerRestClient.class);
+      var release = ButlerRelease.builder().id(1L).artist("A").albumTitle("Heavy Release").releaseDate(LocalDate.now()).build();
+      doReturn(ButlerReleasesResponse.builder().releases(List.of(release)).build()).when(butlerClient).queryAllReleases(any());
+      var properties = new ReleaseReplicaProperties();
+      properties.setEnabled(true);
+      var releaseReplica = new ReleaseReplica(butlerClient, properties);
+      releaseReplica.refresh();
+      return releaseReplica;
+    }
+  }
 }
@@ -0,0 +1,180 @@
+package rocks.metaldetector.service.dashboard;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.service.artist.ArtistDto;
+import rocks.metaldetector.testutil.DtoFactory.ArtistDtoFactory;
+import rocks.metaldetector.testutil.DtoFactory.ReleaseDtoFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+class TopReleaseSelectorTest implements WithAssertions {
+
+  @Test
+  @DisplayName("Should select the releases of the artists with the most followers")
+  void should_select_most_followed() {
+    // given
+    var artists = List.of(createArtist("a", 1), createArtist("b", 3), createArtist("c", 2));
+    var releaseA = ReleaseDtoFactory.withArtistName("a");
+    var releaseB = ReleaseDtoFactory.withArtistName("b");
+    var releaseC = ReleaseDtoFactory.withArtistName("c");
+    var underTest = new TopReleaseSelector(artists, 2);
+
+    // when
+    underTest.offerAll(List.of(releaseA, releaseB, releaseC));
+
+    // then
+    assertThat(underTest.getSelectedReleases()).containsExactlyInAnyOrder(releaseB, releaseC);
+  }
+
+  @Test
+  @DisplayName("Should return the selected releases by release date")
+  void should_sort_by_release_date() {
+    // given
+    var artists = List.of(createArtist("a", 1), createArtist("b", 3));
+    var releaseA = ReleaseDtoFactory.withArtistName("a");
+    var releaseB = ReleaseDtoFactory.withArtistName("b");
+    releaseA.setReleaseDate(LocalDate.of(2024, 1, 1));
+    releaseB.setReleaseDate(LocalDate.of(2024, 2, 1));
+    var underTest = new TopReleaseSelector(artists, 2);
+
+    // when
+    underTest.offerAll(List.of(releaseB, releaseA));
+
+    // then
+    assertThat(underTest.getSelectedReleases()).containsExactly(releaseA, releaseB);
+  }
+
+  @Test
+  @DisplayName("Should keep the earlier offered release of artists with the same number of followers")
+  void should_keep_offer_order_for_ties() {
+    // given
+    var artists = List.of(createArtist("a", 1), createArtist("b", 1));
+    var releaseA = ReleaseDtoFactory.withArtistName("a");
+    var releaseB = ReleaseDtoFactory.withArtistName("b");
+    var underTest = new TopReleaseSelector(artists, 1);
+
+    // when
+    underTest.offerAll(List.of(releaseA, releaseB));
+
+    // then
+    assertThat(underTest.getSelectedReleases()).containsExactly(releaseA);
+  }
+
+  @Test
+  @DisplayName("Should keep the position of the releases for ties if pages are offered out of order")
+  void should_keep_page_order_for_ties() {
+    // given
+    var artists = List.of(createArtist("a", 1), createArtist("b", 1));
+    var releaseA = ReleaseDtoFactory.withArtistName("a");
+    var releaseB = ReleaseDtoFactory.withArtistName("b");
+    var underTest = new TopReleaseSelector(artists, 1);
+
+    // when
+    underTest.offerAll(List.of(releaseB), 50);
+    underTest.offerAll(List.of(releaseA), 0);
+
+    // then
+    assertThat(underTest.getSelectedReleases()).containsExactly(releaseA);
+  }
+
+  @Test
+  @DisplayName("Should match artist names case insensitive")
+  void should_ignore_case() {
+    // given
+    var artists = List.of(createArtist("Opeth", 5), createArtist("a", 1));
+    var release = ReleaseDtoFactory.withArtistName("OPETH");
+    var underTest = new TopReleaseSelector(artists, 1);
+
+    // when
+    underTest.offerAll(List.of(ReleaseDtoFactory.withArtistName("a"), release));
+
+    // then
+    assertThat(underTest.getSelectedReleases()).containsExactly(release);
+  }
+
+  @Test
+  @DisplayName("Should match artist names independent of the default locale")
+  void should_ignore_default_locale() {
+    // given
+    var defaultLocale = Locale.getDefault();
+    Locale.setDefault(Locale.forLanguageTag("tr"));
+    try {
+      var artists = List.of(createArtist("INFINITY", 5), createArtist("a", 1));
+      var release = ReleaseDtoFactory.withArtistName("infinity");
+      var underTest = new TopReleaseSelector(artists, 1);
+
+      // when
+      underTest.offerAll(List.of(ReleaseDtoFactory.withArtistName("a"), release));
+
+      // then
+      assertThat(underTest.getSelectedReleases()).containsExactly(release);
+    }
+    finally {
+      Locale.setDefault(defaultLocale);
+    }
+  }
+
+  @Test
+  @DisplayName("Should return an empty list for a limit below one")
+  void should_return_empty_list() {
+    // given
+    var underTest = new TopReleaseSelector(List.of(createArtist("a", 1)), 0);
+
+    // when
+    underTest.offer(ReleaseDtoFactory.withArtistName("a"));
+
+    // then
+    assertThat(underTest.getSelectedReleases()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should select the same releases as sorting all releases")
+  void should_match_full_sort() {
+    // given
+    var random = new Random(42);
+    List<ArtistDto> artists = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      artists.add(createArtist("Artist " + i, random.nextInt(10)));
+    }
+    List<ReleaseDto> releases = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      ReleaseDto release = ReleaseDtoFactory.withArtistName("artist " + random.nextInt(50));
+      release.setId(i);
+      release.setReleaseDate(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(60)));
+      releases.add(release);
+    }
+    var underTest = new TopReleaseSelector(artists, 25);
+
+    // when
+    underTest.offerAll(releases);
+
+    // then
+    assertThat(underTest.getSelectedReleases()).containsExactlyElementsOf(sortAll(artists, releases, 25));
+  }
+
+  private List<ReleaseDto> sortAll(List<ArtistDto> artists, List<ReleaseDto> releases, int maxReleases) {
+    Map<String, Integer> followersPerArtist = artists.stream()
+        .collect(Collectors.groupingBy(artistDto -> artistDto.getArtistName().toLowerCase(), Collectors.summingInt(ArtistDto::getFollower)));
+    return releases.stream()
+        .sorted(Comparator.comparingInt((ReleaseDto release) -> followersPerArtist.get(release.getArtist().toLowerCase())).reversed())
+        .limit(maxReleases)
+        .sorted(Comparator.comparing(ReleaseDto::getReleaseDate))
+        .collect(Collectors.toList());
+  }
+
+  private ArtistDto createArtist(String name, int follower) {
+    ArtistDto artist = ArtistDtoFactory.withName(name);
+    artist.setFollower(follower);
+    return artist;
+  }
+}
@@ -6,12 +6,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
 import rocks.metaldetector.config.misc.MailProperties;
 
@@ -20,6 +17,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,7 +27,7 @@ import static rocks.metaldetector.testutil.DtoFactory.ReleaseDtoFactory;
 class ConsoleEmailServiceTest implements WithAssertions {
 
   @Mock
-  private SpringTemplateEngine templateEngine;
+  private EmailRenderer emailRenderer;
 
   @Mock
   private MailProperties mailProperties;
@@ -40,32 +38,28 @@ class ConsoleEmailServiceTest implements WithAssertions {
   @BeforeEach
   void setUp() {
     when(mailProperties.getFromEmail()).thenReturn("from@example.de");
-    when(templateEngine.process(anyString(), any(Context.class))).thenReturn("<h1>Test</h1>");
+    when(emailRenderer.render(any(), anyString())).thenReturn("<h1>Test</h1>");
   }
 
   @AfterEach
   void tearDown() {
-    reset(templateEngine, mailProperties);
+    reset(emailRenderer, mailProperties);
   }
 
   @Test
-  @DisplayName("Sending an email to Console should interact with TemplateEngine as expected")
-  void send_email_should_use_template_engine() {
+  @DisplayName("Sending an email to Console should render the email with the application url")
+  void send_email_should_use_email_renderer() {
     // given
     List<ReleaseDto> releases = List.of(ReleaseDtoFactory.createDefault());
-    ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.forClass(Context.class);
-    ArgumentCaptor<String> templateNameCaptor = ArgumentCaptor.forClass(String.class);
     AbstractEmail email = new ReleasesEmail("john.doe@example.com", "JohnDoe", releases, releases);
+    when(mailProperties.getApplicationHostUrl()).thenReturn("http://localhost");
+    when(mailProperties.getApplicationPort()).thenReturn(8080);
 
     // when
     emailService.sendEmail(email);
 
     // then
-    verify(templateEngine).process(templateNameCaptor.capture(), contextCaptor.capture());
-
-    assertThat(templateNameCaptor.getValue()).isEqualTo(email.getTemplateName());
-    assertThat(contextCaptor.getValue().getVariable("upcomingReleases")).isEqualTo(releases);
-    assertThat(contextCaptor.getValue().getVariable("recentReleases")).isEqualTo(releases);
+    verify(emailRenderer).render(eq(email), eq("http://localhost:8080"));
   }
 
   @Test
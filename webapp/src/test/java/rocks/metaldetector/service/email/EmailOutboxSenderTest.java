@@ -0,0 +1,259 @@
+package rocks.metaldetector.service.email;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.transaction.PlatformTransactionManager;
+import rocks.metaldetector.config.misc.EmailOutboxProperties;
+import rocks.metaldetector.config.misc.MailProperties;
+import rocks.metaldetector.persistence.domain.email.EmailOutboxEntity;
+import rocks.metaldetector.persistence.domain.email.EmailOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static rocks.metaldetector.persistence.domain.email.EmailOutboxStatus.FAILED;
+import static rocks.metaldetector.persistence.domain.email.EmailOutboxStatus.PENDING;
+import static rocks.metaldetector.persistence.domain.email.EmailOutboxStatus.SENT;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxSenderTest implements WithAssertions {
+
+  @Mock
+  private EmailOutboxRepository emailOutboxRepository;
+
+  @Mock
+  private JavaMailSenderImpl mailSender;
+
+  @Mock
+  private MailProperties mailProperties;
+
+  @Mock
+  private MimeMessageHelperFunction messageHelperFunction;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private Session session;
+
+  @Mock
+  private Transport transport;
+
+  @Mock
+  private MimeMessage mimeMessage;
+
+  private EmailOutboxProperties emailOutboxProperties;
+  private EmailOutboxSender underTest;
+
+  @BeforeEach
+  void setup() throws MessagingException {
+    emailOutboxProperties = new EmailOutboxProperties();
+    emailOutboxProperties.setBatchSize(2);
+    emailOutboxProperties.setMaxAttempts(3);
+    emailOutboxProperties.setRetryBackoff(Duration.ofMinutes(1));
+    underTest = new EmailOutboxSender(emailOutboxRepository, mailSender, mailProperties, messageHelperFunction, emailOutboxProperties, transactionManager);
+
+    lenient().doReturn(mimeMessage).when(mailSender).createMimeMessage();
+    lenient().doReturn(mock(MimeMessageHelper.class)).when(messageHelperFunction).apply(any());
+    lenient().doReturn(session).when(mailSender).getSession();
+    lenient().doReturn("smtp").when(mailSender).getProtocol();
+    lenient().doReturn(transport).when(session).getTransport("smtp");
+    lenient().doReturn(new Address[0]).when(mimeMessage).getAllRecipients();
+  }
+
+  @AfterEach
+  void tearDown() {
+    reset(emailOutboxRepository, mailSender, mailProperties, messageHelperFunction, transactionManager, session, transport, mimeMessage);
+  }
+
+  @Test
+  @DisplayName("due pending emails are fetched in batches of the configured size")
+  void test_due_emails_fetched() {
+    // when
+    underTest.sendPendingEmails();
+
+    // then
+    verify(emailOutboxRepository).findDueForUpdate(eq(PENDING), any(), eq(Pageable.ofSize(2)));
+  }
+
+  @Test
+  @DisplayName("next batch is fetched if the batch was full")
+  void test_next_batch_fetched() {
+    // given
+    doReturn(List.of(createEmail(), createEmail()))
+        .doReturn(Collections.emptyList())
+        .when(emailOutboxRepository).findDueForUpdate(any(), any(), any());
+
+    // when
+    underTest.sendPendingEmails();
+
+    // then
+    verify(emailOutboxRepository, times(2)).findDueForUpdate(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("emails are sent over one connection and marked as sent")
+  void test_emails_sent_over_one_connection() throws MessagingException {
+    // given
+    var email1 = createEmail();
+    var email2 = createEmail();
+    doReturn(List.of(email1))
+        .doReturn(List.of(email2))
+        .doReturn(Collections.emptyList())
+        .when(emailOutboxRepository).findDueForUpdate(any(), any(), any());
+    doReturn(true).when(transport).isConnected();
+    emailOutboxProperties.setBatchSize(1);
+
+    // when
+    underTest.sendPendingEmails();
+
+    // then
+    verify(transport).connect(any(), anyInt(), any(), any());
+    verify(transport, times(2)).sendMessage(eq(mimeMessage), any());
+    assertThat(email1.getStatus()).isEqualTo(SENT);
+    assertThat(email2.getStatus()).isEqualTo(SENT);
+  }
+
+  @Test
+  @DisplayName("emails are claimed until the claim timeout before sending")
+  void test_emails_claimed() throws MessagingException {
+    // given
+    var email = createEmail();
+    var claimedUntil = new AtomicReference<LocalDateTime>();
+    emailOutboxProperties.setClaimTimeout(Duration.ofMinutes(10));
+    doReturn(List.of(email)).when(emailOutboxRepository).findDueForUpdate(any(), any(), any());
+    doAnswer(invocation -> {
+      claimedUntil.set(email.getNextAttemptAt());
+      return null;
+    }).when(transport).sendMessage(any(), any());
+    var before = LocalDateTime.now();
+
+    // when
+    underTest.sendPendingEmails();
+
+    // then
+    assertThat(claimedUntil.get()).isAfterOrEqualTo(before.plusMinutes(10));
+  }
+
+  @Test
+  @DisplayName("emails are sent outside of the claim transaction and saved in a transaction afterwards")
+  void test_emails_sent_outside_of_transaction() throws MessagingException {
+    // given
+    var email = createEmail();
+    doReturn(List.of(email)).when(emailOutboxRepository).findDueForUpdate(any(), any(), any());
+
+    // when
+    underTest.sendPendingEmails();
+
+    // then
+    InOrder order = inOrder(emailOutboxRepository, transactionManager, transport);
+    order.verify(emailOutboxRepository).findDueForUpdate(any(), any(), any());
+    order.verify(transactionManager).commit(any());
+    order.verify(transport).sendMessage(any(), any());
+    order.verify(transactionManager).getTransaction(any());
+    order.verify(emailOutboxRepository).save(email);
+    order.verify(transactionManager).commit(any());
+  }
+
+  @Test
+  @DisplayName("failed email is scheduled for a retry with backoff")
+  void test_failed_email_retried() throws MessagingException {
+    // given
+    var email = createEmail();
+    doReturn(List.of(email)).when(emailOutboxRepository).findDueForUpdate(any(), any(), any());
+    doThrow(new MessagingException("smtp down")).when(transport).sendMessage(any(), any());
+    var before = LocalDateTime.now();
+
+    // when
+    underTest.sendPendingEmails();
+
+    // then
+    assertThat(email.getStatus()).isEqualTo(PENDING);
+    assertThat(email.getAttempts()).isEqualTo(1);
+    assertThat(email.getLastError()).isEqualTo("smtp down");
+    assertThat(email.getNextAttemptAt()).isAfterOrEqualTo(before.plusMinutes(1));
+  }
+
+  @Test
+  @DisplayName("email is marked as failed after the maximal number of attempts")
+  void test_email_failed_after_max_attempts() throws MessagingException {
+    // given
+    var email = createEmail();
+    email.setAttempts(2);
+    doReturn(List.of(email)).when(emailOutboxRepository).findDueForUpdate(any(), any(), any());
+    doThrow(new MessagingException("smtp down")).when(transport).sendMessage(any(), any());
+
+    // when
+    underTest.sendPendingEmails();
+
+    // then
+    assertThat(email.getStatus()).isEqualTo(FAILED);
+    assertThat(email.getAttempts()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("a failing email does not affect the other emails of the batch")
+  void test_failing_email_does_not_affect_batch() throws MessagingException {
+    // given
+    var failingEmail = createEmail();
+    var otherEmail = createEmail();
+    doReturn(List.of(failingEmail, otherEmail)).doReturn(Collections.emptyList()).when(emailOutboxRepository).findDueForUpdate(any(), any(), any());
+    doThrow(new MessagingException("rejected")).doNothing().when(transport).sendMessage(any(), any());
+
+    // when
+    underTest.sendPendingEmails();
+
+    // then
+    assertThat(failingEmail.getStatus()).isEqualTo(PENDING);
+    assertThat(otherEmail.getStatus()).isEqualTo(SENT);
+  }
+
+  @Test
+  @DisplayName("sent emails older than the retention are deleted")
+  void test_sent_emails_deleted() {
+    // when
+    underTest.deleteSentEmails();
+
+    // then
+    verify(emailOutboxRepository).deleteByStatusModifiedBefore(eq(SENT), any());
+  }
+
+  private EmailOutboxEntity createEmail() {
+    return EmailOutboxEntity.builder()
+        .recipient("john.doe@example.com")
+        .subject("subject")
+        .html("<h1>Test</h1>")
+        .nextAttemptAt(LocalDateTime.now())
+        .build();
+  }
+}
@@ -0,0 +1,182 @@
+package rocks.metaldetector.service.email;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.IContext;
+import rocks.metaldetector.butler.facade.ReleasesImportedEvent;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.config.constants.ViewNames;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static rocks.metaldetector.service.email.EmailRenderer.RELEASE_LIST_TEMPLATE;
+import static rocks.metaldetector.testutil.DtoFactory.ReleaseDtoFactory;
+
+class EmailRendererTest implements WithAssertions {
+
+  private static final String BASE_URL = "http://localhost";
+
+  @Test
+  @DisplayName("email is rendered with its release list")
+  void test_email_rendered() {
+    // given
+    var underTest = new EmailRenderer();
+    var email = new TodaysReleasesEmail("john.doe@example.com", "JohnDoe", List.of(ReleaseDtoFactory.withArtistName("Darkthrone")));
+
+    // when
+    var result = underTest.render(email, BASE_URL);
+
+    // then
+    assertThat(result).contains("JohnDoe");
+    assertThat(result).contains("Darkthrone");
+    assertThat(result).contains(BASE_URL);
+  }
+
+  @Test
+  @DisplayName("release list variables are rendered with the release list fragment")
+  void test_release_list_variable() {
+    // given
+    var templateEngine = mock(ITemplateEngine.class);
+    doReturn("<div>releases</div>").when(templateEngine).process(eq(RELEASE_LIST_TEMPLATE), any(IContext.class));
+    var underTest = new EmailRenderer(templateEngine, 10);
+    var email = new TodaysReleasesEmail("john.doe@example.com", "JohnDoe", List.of(ReleaseDtoFactory.createDefault()));
+
+    // when
+    underTest.render(email, BASE_URL);
+
+    // then
+    verify(templateEngine).process(eq(email.getTemplateName()), argThat((IContext context) -> "<div>releases</div>".equals(context.getVariable("todaysReleasesHtml"))));
+  }
+
+  @Test
+  @DisplayName("release list fragment is rendered once for the same releases")
+  void test_release_list_fragment_cached() {
+    // given
+    var templateEngine = mockTemplateEngine();
+    var underTest = new EmailRenderer(templateEngine, 10);
+    List<ReleaseDto> releases = List.of(ReleaseDtoFactory.withArtistName("Darkthrone"));
+
+    // when
+    underTest.render(new TodaysReleasesEmail("john.doe@example.com", "JohnDoe", releases), BASE_URL);
+    underTest.render(new TodaysReleasesEmail("jane.doe@example.com", "JaneDoe", List.of(ReleaseDtoFactory.withArtistName("Darkthrone"))), BASE_URL);
+
+    // then
+    verify(templateEngine).process(eq(RELEASE_LIST_TEMPLATE), any(IContext.class));
+    verify(templateEngine, times(2)).process(eq(ViewNames.EmailTemplates.TODAYS_RELEASES), any(IContext.class));
+  }
+
+  @Test
+  @DisplayName("release list fragment is rendered for each distinct release list")
+  void test_release_list_fragment_rendered_per_release_list() {
+    // given
+    var templateEngine = mockTemplateEngine();
+    var underTest = new EmailRenderer(templateEngine, 10);
+
+    // when
+    underTest.render(new TodaysReleasesEmail("john.doe@example.com", "JohnDoe", List.of(ReleaseDtoFactory.withArtistName("Darkthrone"))), BASE_URL);
+    underTest.render(new TodaysReleasesEmail("jane.doe@example.com", "JaneDoe", List.of(ReleaseDtoFactory.withArtistName("Mayhem"))), BASE_URL);
+
+    // then
+    verify(templateEngine, times(2)).process(eq(RELEASE_LIST_TEMPLATE), any(IContext.class));
+  }
+
+  @ParameterizedTest(name = "release list fragment is rendered again if the {0} of a release changed")
+  @MethodSource("releaseChangeProvider")
+  @DisplayName("release list fragment is rendered again if a rendered value of a release changed")
+  void test_release_list_fragment_rendered_for_changed_release(String property, Consumer<ReleaseDto> change) {
+    // given
+    var templateEngine = mockTemplateEngine();
+    var underTest = new EmailRenderer(templateEngine, 10);
+    var release = ReleaseDtoFactory.withArtistName("Darkthrone");
+    var releases = List.of(release);
+
+    // when
+    underTest.render(new TodaysReleasesEmail("john.doe@example.com", "JohnDoe", releases), BASE_URL);
+    change.accept(release);
+    underTest.render(new TodaysReleasesEmail("john.doe@example.com", "JohnDoe", releases), BASE_URL);
+
+    // then
+    verify(templateEngine, times(2)).process(eq(RELEASE_LIST_TEMPLATE), any(IContext.class));
+  }
+
+  @Test
+  @DisplayName("release list fragment is rendered again after an import of the butler")
+  void test_release_list_fragment_rendered_after_import() {
+    // given
+    var templateEngine = mockTemplateEngine();
+    var underTest = new EmailRenderer(templateEngine, 10);
+    var releases = List.of(ReleaseDtoFactory.withArtistName("Darkthrone"));
+
+    // when
+    underTest.render(new TodaysReleasesEmail("john.doe@example.com", "JohnDoe", releases), BASE_URL);
+    underTest.onReleasesImported(new ReleasesImportedEvent(this, LocalDateTime.now()));
+    underTest.render(new TodaysReleasesEmail("john.doe@example.com", "JohnDoe", releases), BASE_URL);
+
+    // then
+    verify(templateEngine, times(2)).process(eq(RELEASE_LIST_TEMPLATE), any(IContext.class));
+  }
+
+  @Test
+  @DisplayName("least recently used release list is evicted if the cache is full")
+  void test_release_list_evicted() {
+    // given
+    var templateEngine = mockTemplateEngine();
+    var underTest = new EmailRenderer(templateEngine, 1);
+    var releasesA = List.of(ReleaseDtoFactory.withArtistName("Darkthrone"));
+    var releasesB = List.of(ReleaseDtoFactory.withArtistName("Mayhem"));
+
+    // when
+    underTest.render(new TodaysReleasesEmail("john.doe@example.com", "JohnDoe", releasesA), BASE_URL);
+    underTest.render(new TodaysReleasesEmail("john.doe@example.com", "JohnDoe", releasesB), BASE_URL);
+    underTest.render(new TodaysReleasesEmail("john.doe@example.com", "JohnDoe", releasesA), BASE_URL);
+
+    // then
+    verify(templateEngine, times(3)).process(eq(RELEASE_LIST_TEMPLATE), any(IContext.class));
+  }
+
+  @Test
+  @DisplayName("empty release lists are not rendered")
+  void test_empty_release_list_not_rendered() {
+    // given
+    var templateEngine = mock(ITemplateEngine.class);
+    var underTest = new EmailRenderer(templateEngine, 10);
+
+    // when
+    underTest.render(new ReleasesEmail("john.doe@example.com", "JohnDoe", Collections.emptyList(), Collections.emptyList()), BASE_URL);
+
+    // then
+    verify(templateEngine, never()).process(eq(RELEASE_LIST_TEMPLATE), any(IContext.class));
+  }
+
+  private ITemplateEngine mockTemplateEngine() {
+    var templateEngine = mock(ITemplateEngine.class);
+    doReturn("<div>releases</div>").when(templateEngine).process(eq(RELEASE_LIST_TEMPLATE), any(IContext.class));
+    return templateEngine;
+  }
+
+  private static Stream<Arguments> releaseChangeProvider() {
+    return Stream.of(
+        Arguments.of("artist", (Consumer<ReleaseDto>) release -> release.setArtist("Mayhem")),
+        Arguments.of("album title", (Consumer<ReleaseDto>) release -> release.setAlbumTitle("De Mysteriis Dom Sathanas")),
+        Arguments.of("release date", (Consumer<ReleaseDto>) release -> release.setReleaseDate(release.getReleaseDate().plusDays(1))),
+        Arguments.of("cover", (Consumer<ReleaseDto>) release -> release.setCoverUrl("http://example.com/new-cover.jpg"))
+    );
+  }
+}
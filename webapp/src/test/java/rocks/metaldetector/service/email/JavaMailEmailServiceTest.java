@@ -1,9 +1,7 @@
 package rocks.metaldetector.service.email;
 
-import jakarta.mail.internet.MimeMessage;
 import org.assertj.core.api.WithAssertions;
 import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,135 +9,73 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.ISpringTemplateEngine;
 import rocks.metaldetector.config.misc.MailProperties;
-import rocks.metaldetector.support.Endpoints;
+import rocks.metaldetector.persistence.domain.email.EmailOutboxEntity;
+import rocks.metaldetector.persistence.domain.email.EmailOutboxRepository;
 
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.any;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
+import static rocks.metaldetector.persistence.domain.email.EmailOutboxStatus.PENDING;
 
 @ExtendWith(MockitoExtension.class)
 class JavaMailEmailServiceTest implements WithAssertions {
 
   @Mock
-  private JavaMailSender emailSender;
+  private EmailOutboxRepository emailOutboxRepository;
 
   @Mock
-  private ISpringTemplateEngine templateEngine;
+  private EmailRenderer emailRenderer;
 
   @Mock
   private MailProperties mailProperties;
 
-  @Mock
-  private MimeMessageHelperFunction messageHelperFunction;
-
-  @Mock
-  private MimeMessageHelper mimeMessageHelperMock;
-
   @InjectMocks
   private JavaMailEmailService underTest;
 
-  @BeforeEach
-  void setUp() {
-    doReturn(mimeMessageHelperMock).when(messageHelperFunction).apply(any());
-  }
-
   @AfterEach
   void tearDown() {
-    reset(emailSender, templateEngine, mailProperties, messageHelperFunction);
-  }
-
-  @Test
-  @DisplayName("Should call createMimeMessage on JavaMailSender")
-  void should_call_create_mime_message() {
-    // given
-    AbstractEmail email = new ForgotPasswordEmail("john.doe@example.com", "user", "token");
-
-    // when
-    underTest.sendEmail(email);
-
-    // then
-    verify(emailSender).createMimeMessage();
+    reset(emailOutboxRepository, emailRenderer, mailProperties);
   }
 
   @Test
-  @DisplayName("Should call TemplateEngine")
-  void should_call_template_engine() {
+  @DisplayName("Should render the email with the application url")
+  void should_call_email_renderer() {
     // given
-    final String TOKEN = "token";
-    final String EXPECTED_VERIFICATION_URL = mailProperties.getApplicationHostUrl() + Endpoints.Authentication.REGISTRATION_VERIFICATION + "?token=" + TOKEN;
-    ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.forClass(Context.class);
-    ArgumentCaptor<String> templateNameCaptor = ArgumentCaptor.forClass(String.class);
-    AbstractEmail email = new RegistrationVerificationEmail("john.doe@example.com", "username", TOKEN);
-
-    // when
-    underTest.sendEmail(email);
-
-    // then
-    verify(templateEngine).process(templateNameCaptor.capture(), contextCaptor.capture());
-    assertThat(templateNameCaptor.getValue()).isEqualTo(email.getTemplateName());
-    assertThat(contextCaptor.getValue().getVariable("verificationUrl")).isEqualTo(EXPECTED_VERIFICATION_URL);
-  }
-
-  @Test
-  @DisplayName("Should call MessageHelperFunction")
-  void should_call_message_helper_function() {
-    // given
-    MimeMessage mimeMessage = mock(MimeMessage.class);
-    doReturn(mimeMessage).when(emailSender).createMimeMessage();
     AbstractEmail email = new RegistrationVerificationEmail("john.doe@example.com", "username", "token");
+    doReturn("http://localhost").when(mailProperties).getApplicationHostUrl();
 
     // when
     underTest.sendEmail(email);
 
     // then
-    verify(messageHelperFunction).apply(mimeMessage);
+    verify(emailRenderer).render(email, "http://localhost");
   }
 
   @Test
-  @DisplayName("Should set email data")
-  void should_set_email_data() throws Exception {
+  @DisplayName("Should store the rendered email as pending in the outbox")
+  void should_store_email_in_outbox() {
     // given
     AbstractEmail email = new RegistrationVerificationEmail("john.doe@example.com", "username", "token");
     String emailAsHtml = "<h1>Test</h1>";
-    String fromEmail = "from@example.de";
-    String fromName = "Example";
-    String applicationUrl = "localhost";
-    doReturn(emailAsHtml).when(templateEngine).process(anyString(), any(Context.class));
-    doReturn(fromEmail).when(mailProperties).getFromEmail();
-    doReturn(fromName).when(mailProperties).getFromName();
-    doReturn(applicationUrl).when(mailProperties).getApplicationHostUrl();
-
-    // when
-    underTest.sendEmail(email);
-
-    // then
-    verify(mimeMessageHelperMock).setTo(email.getRecipient());
-    verify(mimeMessageHelperMock).setText(emailAsHtml, true);
-    verify(mimeMessageHelperMock).setSubject(email.getSubject());
-    verify(mimeMessageHelperMock).setFrom(fromEmail, fromName);
-    verify(mimeMessageHelperMock).setReplyTo(fromEmail);
-  }
-
-  @Test
-  @DisplayName("Should send mime message via emailSender")
-  void should_send_message() {
-    // given
-    AbstractEmail email = new RegistrationVerificationEmail("john.doe@example.com", "username", "token");
-    MimeMessage mimeMessageMock = mock(MimeMessage.class);
-    doReturn(mimeMessageMock).when(emailSender).createMimeMessage();
+    ArgumentCaptor<EmailOutboxEntity> outboxCaptor = ArgumentCaptor.forClass(EmailOutboxEntity.class);
+    doReturn(emailAsHtml).when(emailRenderer).render(any(), any());
+    var before = LocalDateTime.now();
 
     // when
     underTest.sendEmail(email);
 
     // then
-    verify(emailSender).send(mimeMessageMock);
+    verify(emailOutboxRepository).save(outboxCaptor.capture());
+    var outboxEmail = outboxCaptor.getValue();
+    assertThat(outboxEmail.getRecipient()).isEqualTo(email.getRecipient());
+    assertThat(outboxEmail.getSubject()).isEqualTo(email.getSubject());
+    assertThat(outboxEmail.getHtml()).isEqualTo(emailAsHtml);
+    assertThat(outboxEmail.getStatus()).isEqualTo(PENDING);
+    assertThat(outboxEmail.getAttempts()).isZero();
+    assertThat(outboxEmail.getNextAttemptAt()).isAfterOrEqualTo(before);
   }
 }
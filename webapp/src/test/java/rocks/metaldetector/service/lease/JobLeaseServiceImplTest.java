@@ -0,0 +1,175 @@
+package rocks.metaldetector.service.lease;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import rocks.metaldetector.config.misc.JobLeaseProperties;
+import rocks.metaldetector.persistence.domain.job.JobLeaseEntity;
+import rocks.metaldetector.persistence.domain.job.JobLeaseRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class JobLeaseServiceImplTest implements WithAssertions {
+
+  private static final String LEASE_NAME = "job:2024-01-01:0";
+
+  @Mock
+  private JobLeaseRepository jobLeaseRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private JobLeaseServiceImpl underTest;
+
+  @BeforeEach
+  void setup() {
+    var jobLeaseProperties = new JobLeaseProperties();
+    jobLeaseProperties.setDuration(Duration.ofMinutes(10));
+    underTest = new JobLeaseServiceImpl(jobLeaseRepository, jobLeaseProperties, transactionManager);
+  }
+
+  @AfterEach
+  void tearDown() {
+    reset(jobLeaseRepository, transactionManager);
+  }
+
+  @Test
+  @DisplayName("expired lease is taken over")
+  void test_expired_lease_taken_over() {
+    // given
+    doReturn(1).when(jobLeaseRepository).takeOverExpiredLease(eq(LEASE_NAME), anyString(), any(), any());
+
+    // when
+    var result = underTest.acquire(LEASE_NAME);
+
+    // then
+    assertThat(result).isTrue();
+    verify(jobLeaseRepository, never()).saveAndFlush(any());
+  }
+
+  @Test
+  @DisplayName("new lease is created for the configured duration if none exists")
+  void test_new_lease_created() {
+    // given
+    ArgumentCaptor<JobLeaseEntity> argumentCaptor = ArgumentCaptor.forClass(JobLeaseEntity.class);
+    var now = LocalDateTime.now();
+
+    // when
+    var result = underTest.acquire(LEASE_NAME);
+
+    // then
+    assertThat(result).isTrue();
+    verify(jobLeaseRepository).saveAndFlush(argumentCaptor.capture());
+    var lease = argumentCaptor.getValue();
+    assertThat(lease.getLeaseName()).isEqualTo(LEASE_NAME);
+    assertThat(lease.getOwner()).isNotBlank();
+    assertThat(lease.getLeasedUntil()).isAfterOrEqualTo(now.plusMinutes(10));
+    assertThat(lease.isCompleted()).isFalse();
+  }
+
+  @Test
+  @DisplayName("lease is not acquired if another node holds it")
+  void test_lease_held_by_other_node() {
+    // given
+    doThrow(new DataIntegrityViolationException("duplicate key")).when(jobLeaseRepository).saveAndFlush(any());
+
+    // when
+    var result = underTest.acquire(LEASE_NAME);
+
+    // then
+    assertThat(result).isFalse();
+  }
+
+  @Test
+  @DisplayName("acquireExpired never creates a new lease")
+  void test_acquire_expired_does_not_create_lease() {
+    // when
+    var result = underTest.acquireExpired(LEASE_NAME);
+
+    // then
+    assertThat(result).isFalse();
+    verify(jobLeaseRepository, never()).saveAndFlush(any());
+  }
+
+  @Test
+  @DisplayName("lease is completed by its owner")
+  void test_lease_completed() {
+    // given
+    ArgumentCaptor<String> ownerCaptor = ArgumentCaptor.forClass(String.class);
+    underTest.acquire(LEASE_NAME);
+
+    // when
+    underTest.complete(LEASE_NAME);
+
+    // then
+    verify(jobLeaseRepository).completeLease(eq(LEASE_NAME), ownerCaptor.capture());
+    verify(jobLeaseRepository).takeOverExpiredLease(eq(LEASE_NAME), eq(ownerCaptor.getValue()), any(), any());
+  }
+
+  @Test
+  @DisplayName("lease is renewed for the configured duration by its owner")
+  void test_lease_renewed() {
+    // given
+    ArgumentCaptor<String> ownerCaptor = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<LocalDateTime> leasedUntilCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+    var now = LocalDateTime.now();
+    doReturn(1).when(jobLeaseRepository).renewLease(eq(LEASE_NAME), anyString(), any());
+    underTest.acquire(LEASE_NAME);
+
+    // when
+    var result = underTest.renew(LEASE_NAME);
+
+    // then
+    assertThat(result).isTrue();
+    verify(jobLeaseRepository).renewLease(eq(LEASE_NAME), ownerCaptor.capture(), leasedUntilCaptor.capture());
+    verify(jobLeaseRepository).takeOverExpiredLease(eq(LEASE_NAME), eq(ownerCaptor.getValue()), any(), any());
+    assertThat(leasedUntilCaptor.getValue()).isAfterOrEqualTo(now.plusMinutes(10));
+  }
+
+  @Test
+  @DisplayName("renew returns false if the lease is no longer held")
+  void test_lease_not_renewed() {
+    // given
+    doReturn(0).when(jobLeaseRepository).renewLease(eq(LEASE_NAME), anyString(), any());
+
+    // when
+    var result = underTest.renew(LEASE_NAME);
+
+    // then
+    assertThat(result).isFalse();
+  }
+
+  @Test
+  @DisplayName("leases that expired before the retention are deleted")
+  void test_expired_leases_deleted() {
+    // given
+    ArgumentCaptor<LocalDateTime> beforeCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+    var now = LocalDateTime.now();
+
+    // when
+    underTest.deleteExpiredLeases();
+
+    // then
+    verify(jobLeaseRepository).deleteAllLeasedUntilBefore(beforeCaptor.capture());
+    assertThat(beforeCaptor.getValue()).isBetween(now.minusDays(7), LocalDateTime.now().minusDays(7));
+  }
+}
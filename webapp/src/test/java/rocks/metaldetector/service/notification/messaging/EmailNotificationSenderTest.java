@@ -11,6 +11,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
 import rocks.metaldetector.config.constants.ViewNames;
+import rocks.metaldetector.persistence.domain.notification.NotificationRecipient;
 import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
 import rocks.metaldetector.service.email.EmailService;
 import rocks.metaldetector.service.email.ReleasesEmail;
@@ -28,6 +29,7 @@ import static org.mockito.Mockito.verify;
 class EmailNotificationSenderTest implements WithAssertions {
 
   private static final AbstractUserEntity USER = UserEntityFactory.createUser("user", "user@user.user");
+  private static final NotificationRecipient RECIPIENT = new NotificationRecipient(null, USER, null);
 
   @Mock
   private EmailService emailService;
@@ -48,7 +50,7 @@ class EmailNotificationSenderTest implements WithAssertions {
     var releases = List.of(ReleaseDtoFactory.createDefault());
 
     // when
-    underTest.sendFrequencyMessage(USER, releases, releases);
+    underTest.sendFrequencyMessage(RECIPIENT, releases, releases);
 
     // then
     verify(emailService).sendEmail(argumentCaptor.capture());
@@ -73,7 +75,7 @@ class EmailNotificationSenderTest implements WithAssertions {
     var releases = List.of(ReleaseDtoFactory.createDefault());
 
     // when
-    underTest.sendReleaseDateMessage(USER, releases);
+    underTest.sendReleaseDateMessage(RECIPIENT, releases);
 
     // then
     verify(emailService).sendEmail(argumentCaptor.capture());
@@ -96,7 +98,7 @@ class EmailNotificationSenderTest implements WithAssertions {
     var releases = List.of(ReleaseDtoFactory.createDefault());
 
     // when
-    underTest.sendAnnouncementDateMessage(USER, releases);
+    underTest.sendAnnouncementDateMessage(RECIPIENT, releases);
 
     // then
     verify(emailService).sendEmail(argumentCaptor.capture());
@@ -0,0 +1,108 @@
+package rocks.metaldetector.service.notification.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+import rocks.metaldetector.config.misc.NotificationDispatchProperties;
+import rocks.metaldetector.persistence.domain.notification.NotificationConfigEntity;
+import rocks.metaldetector.persistence.domain.notification.NotificationRecipient;
+import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
+import rocks.metaldetector.service.user.UserEntityFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static rocks.metaldetector.persistence.domain.notification.NotificationChannel.EMAIL;
+import static rocks.metaldetector.persistence.domain.notification.NotificationChannel.TELEGRAM;
+import static rocks.metaldetector.service.notification.messaging.NotificationDispatcher.IN_FLIGHT_METRIC;
+import static rocks.metaldetector.service.notification.messaging.NotificationDispatcher.QUEUE_SIZE_METRIC;
+import static rocks.metaldetector.service.notification.messaging.NotificationScheduler.PRINCIPAL;
+
+class NotificationDispatcherTest implements WithAssertions {
+
+  private static final AbstractUserEntity USER = UserEntityFactory.createUser("user", "user@user.user");
+
+  private SimpleMeterRegistry meterRegistry;
+  private NotificationDispatcher underTest;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new NotificationDispatcher(new NotificationDispatchProperties(), meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    underTest.destroy();
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("notification task is executed for each recipient")
+  void test_task_executed_for_each_recipient() {
+    // given
+    var emailRecipient = createRecipient(NotificationConfigEntity.builder().user(USER).channel(EMAIL).build());
+    var telegramRecipient = createRecipient(NotificationConfigEntity.builder().user(USER).channel(TELEGRAM).build());
+    Set<NotificationRecipient> notifiedRecipients = ConcurrentHashMap.newKeySet();
+
+    // when
+    underTest.dispatch(List.of(emailRecipient, telegramRecipient), notifiedRecipients::add);
+
+    // then
+    assertThat(notifiedRecipients).containsExactlyInAnyOrder(emailRecipient, telegramRecipient);
+  }
+
+  @Test
+  @DisplayName("a failing notification does not affect the other notifications")
+  void test_failing_notification() {
+    // given
+    var failingRecipient = createRecipient(NotificationConfigEntity.builder().user(USER).channel(EMAIL).frequencyInWeeks(1).build());
+    var otherRecipient = createRecipient(NotificationConfigEntity.builder().user(USER).channel(EMAIL).frequencyInWeeks(2).build());
+    Set<NotificationRecipient> notifiedRecipients = ConcurrentHashMap.newKeySet();
+
+    // when
+    underTest.dispatch(List.of(failingRecipient, otherRecipient), recipient -> {
+      if (recipient == failingRecipient) {
+        throw new RuntimeException("boom");
+      }
+      notifiedRecipients.add(recipient);
+    });
+
+    // then
+    assertThat(notifiedRecipients).containsExactly(otherRecipient);
+  }
+
+  @Test
+  @DisplayName("security context of the caller is available in the notification task")
+  void test_security_context_propagated() {
+    // given
+    var recipient = createRecipient(NotificationConfigEntity.builder().user(USER).channel(TELEGRAM).build());
+    SecurityContextHolder.getContext().setAuthentication(PRINCIPAL);
+    Set<Object> authentications = ConcurrentHashMap.newKeySet();
+
+    // when
+    underTest.dispatch(List.of(recipient), r -> authentications.add(SecurityContextHolder.getContext().getAuthentication()));
+
+    // then
+    assertThat(authentications).containsExactly(PRINCIPAL);
+  }
+
+  @Test
+  @DisplayName("queue size and in-flight gauges are registered for each channel")
+  void test_gauges_registered() {
+    // expect
+    for (var channel : List.of(EMAIL, TELEGRAM)) {
+      assertThat(meterRegistry.find(QUEUE_SIZE_METRIC).tag("channel", channel.name()).gauge()).isNotNull();
+      assertThat(meterRegistry.find(IN_FLIGHT_METRIC).tag("channel", channel.name()).gauge()).isNotNull();
+    }
+  }
+
+  private NotificationRecipient createRecipient(NotificationConfigEntity notificationConfig) {
+    return new NotificationRecipient(notificationConfig, USER, null);
+  }
+}
@@ -0,0 +1,188 @@
+package rocks.metaldetector.service.notification.messaging;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import rocks.metaldetector.butler.facade.dto.ReleaseDto;
+import rocks.metaldetector.config.misc.NotificationHistoryProperties;
+import rocks.metaldetector.persistence.domain.notification.NotificationChannel;
+import rocks.metaldetector.persistence.domain.notification.NotificationConfigEntity;
+import rocks.metaldetector.persistence.domain.notification.NotificationHistoryEntity;
+import rocks.metaldetector.persistence.domain.notification.NotificationHistoryRepository;
+import rocks.metaldetector.persistence.domain.notification.NotificationRecipient;
+import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
+import rocks.metaldetector.service.user.UserEntityFactory;
+import rocks.metaldetector.testutil.DtoFactory.ReleaseDtoFactory;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static rocks.metaldetector.persistence.domain.notification.NotificationChannel.EMAIL;
+import static rocks.metaldetector.persistence.domain.notification.NotificationChannel.TELEGRAM;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationHistoryTest implements WithAssertions {
+
+  @Mock
+  private NotificationHistoryRepository notificationHistoryRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private NotificationHistoryProperties notificationHistoryProperties;
+
+  private NotificationHistory underTest;
+
+  @BeforeEach
+  void setup() {
+    notificationHistoryProperties = new NotificationHistoryProperties();
+    underTest = new NotificationHistory(notificationHistoryRepository, notificationHistoryProperties, transactionManager);
+  }
+
+  @AfterEach
+  void tearDown() {
+    reset(notificationHistoryRepository, transactionManager);
+  }
+
+  @Test
+  @DisplayName("digest does not depend on the order of the releases")
+  void test_digest_independent_of_order() {
+    // given
+    var recipient = createRecipient(1L, EMAIL);
+    var release1 = createRelease(1L);
+    var release2 = createRelease(2L);
+
+    // when
+    var digest1 = underTest.createDigest(recipient, List.of(release1, release2));
+    var digest2 = underTest.createDigest(recipient, List.of(release2, release1));
+
+    // then
+    assertThat(digest1).isEqualTo(digest2).hasSize(64);
+  }
+
+  @Test
+  @DisplayName("digest differs for other releases")
+  void test_digest_differs_for_releases() {
+    // given
+    var recipient = createRecipient(1L, EMAIL);
+
+    // when
+    var digest1 = underTest.createDigest(recipient, List.of(createRelease(1L)));
+    var digest2 = underTest.createDigest(recipient, List.of(createRelease(1L), createRelease(2L)));
+
+    // then
+    assertThat(digest1).isNotEqualTo(digest2);
+  }
+
+  @Test
+  @DisplayName("digest differs for other channels")
+  void test_digest_differs_for_channels() {
+    // given
+    var releases = List.of(createRelease(1L));
+
+    // when
+    var digest1 = underTest.createDigest(createRecipient(1L, EMAIL), releases);
+    var digest2 = underTest.createDigest(createRecipient(1L, TELEGRAM), releases);
+
+    // then
+    assertThat(digest1).isNotEqualTo(digest2);
+  }
+
+  @Test
+  @DisplayName("digest differs for other users")
+  void test_digest_differs_for_users() {
+    // given
+    var releases = List.of(createRelease(1L));
+
+    // when
+    var digest1 = underTest.createDigest(createRecipient(1L, EMAIL), releases);
+    var digest2 = underTest.createDigest(createRecipient(2L, EMAIL), releases);
+
+    // then
+    assertThat(digest1).isNotEqualTo(digest2);
+  }
+
+  @Test
+  @DisplayName("record saves the digest with the channel")
+  void test_record_saves_digest() {
+    // given
+    ArgumentCaptor<NotificationHistoryEntity> argumentCaptor = ArgumentCaptor.forClass(NotificationHistoryEntity.class);
+
+    // when
+    var result = underTest.record("digest", createRecipient(1L, TELEGRAM));
+
+    // then
+    assertThat(result).isTrue();
+    verify(notificationHistoryRepository).saveAndFlush(argumentCaptor.capture());
+    assertThat(argumentCaptor.getValue().getDigestHash()).isEqualTo("digest");
+    assertThat(argumentCaptor.getValue().getChannel()).isEqualTo(TELEGRAM);
+  }
+
+  @Test
+  @DisplayName("record returns false if the digest already exists")
+  void test_record_existing_digest() {
+    // given
+    doThrow(DataIntegrityViolationException.class).when(notificationHistoryRepository).saveAndFlush(any());
+
+    // when
+    var result = underTest.record("digest", createRecipient(1L, EMAIL));
+
+    // then
+    assertThat(result).isFalse();
+  }
+
+  @Test
+  @DisplayName("remove deletes the digest")
+  void test_remove() {
+    // when
+    underTest.remove("digest");
+
+    // then
+    verify(notificationHistoryRepository).deleteByDigestHash("digest");
+  }
+
+  @Test
+  @DisplayName("digests older than the retention are deleted")
+  void test_delete_expired_digests() {
+    // given
+    notificationHistoryProperties.setRetention(Duration.ofDays(10));
+    ArgumentCaptor<Date> argumentCaptor = ArgumentCaptor.forClass(Date.class);
+    var expectedBefore = System.currentTimeMillis() - Duration.ofDays(10).toMillis();
+    doReturn(3).when(notificationHistoryRepository).deleteAllCreatedBefore(any());
+
+    // when
+    underTest.deleteExpiredDigests();
+
+    // then
+    verify(notificationHistoryRepository).deleteAllCreatedBefore(argumentCaptor.capture());
+    assertThat(argumentCaptor.getValue().getTime()).isCloseTo(expectedBefore, within(10000L));
+  }
+
+  private NotificationRecipient createRecipient(long userId, NotificationChannel channel) {
+    AbstractUserEntity user = UserEntityFactory.createUser("user" + userId, "user" + userId + "@example.com");
+    ReflectionTestUtils.setField(user, "id", userId);
+    var notificationConfig = NotificationConfigEntity.builder().user(user).channel(channel).build();
+    return new NotificationRecipient(notificationConfig, user, null);
+  }
+
+  private ReleaseDto createRelease(long id) {
+    var release = ReleaseDtoFactory.createDefault();
+    release.setId(id);
+    return release;
+  }
+}
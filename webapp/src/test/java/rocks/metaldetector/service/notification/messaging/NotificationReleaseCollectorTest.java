@@ -10,30 +10,32 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import rocks.metaldetector.butler.facade.ReleaseService;
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
 import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
 import rocks.metaldetector.service.artist.FollowArtistService;
 import rocks.metaldetector.service.user.UserEntityFactory;
+import rocks.metaldetector.support.ConcurrentPageFetcher;
 import rocks.metaldetector.support.Page;
 import rocks.metaldetector.support.PageRequest;
 import rocks.metaldetector.support.Pagination;
 import rocks.metaldetector.support.TimeRange;
-import rocks.metaldetector.testutil.DtoFactory.ArtistDtoFactory;
 import rocks.metaldetector.testutil.DtoFactory.ReleaseDtoFactory;
 
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import static java.time.temporal.ChronoUnit.DAYS;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
-import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -44,6 +46,7 @@ import static rocks.metaldetector.service.notification.messaging.NotificationRel
 class NotificationReleaseCollectorTest implements WithAssertions {
 
   private static final AbstractUserEntity USER = UserEntityFactory.createUser("user", "user@user.user");
+  private static final AbstractUserEntity OTHER_USER = UserEntityFactory.createUser("other", "other@user.user");
 
   @Mock
   private ReleaseService releaseService;
@@ -51,6 +54,9 @@ class NotificationReleaseCollectorTest implements WithAssertions {
   @Mock
   private FollowArtistService followArtistService;
 
+  @Spy
+  private ConcurrentPageFetcher pageFetcher = new ConcurrentPageFetcher(1, 1);
+
   @InjectMocks
   private NotificationReleaseCollector underTest;
 
@@ -60,212 +66,192 @@ class NotificationReleaseCollectorTest implements WithAssertions {
   }
 
   @Nested
-  @DisplayName("Tests for frequency releases")
-  class FrequencyReleases {
+  @DisplayName("Tests for creating the release index")
+  class ReleaseIndexCreation {
 
     @Test
-    @DisplayName("followArtistService is called")
+    @DisplayName("followArtistService is called once with all distinct users")
     void test_follow_artist_service_called() {
       // when
-      underTest.fetchReleasesForUserAndFrequency(USER, 666, false);
+      underTest.createReleaseDateReleaseIndex(List.of(USER, OTHER_USER, USER));
 
       // then
-      verify(followArtistService).getFollowedArtistsOfUser(USER);
+      verify(followArtistService).getFollowedArtistNamesOfUsers(Set.of(USER, OTHER_USER));
     }
 
     @Test
-    @DisplayName("releaseService is called for user's current and recent releases")
-    void test_release_service_called_for_current_releases() {
+    @DisplayName("releaseService is called once with the union of all followed artists")
+    void test_release_service_called_with_union() {
       // given
-      ArgumentCaptor<TimeRange> argumentCaptor = ArgumentCaptor.forClass(TimeRange.class);
-      TemporalUnitLessThanOffset offset = new TemporalUnitLessThanOffset(1, DAYS);
-      var now = LocalDate.now();
-      var frequency = 6;
-      var followedArtist = ArtistDtoFactory.createDefault();
-      var timeRangeUpcoming = new TimeRange(now, now.plusWeeks(frequency));
-      var timeRangeRecent = new TimeRange(now.minusWeeks(frequency), now.minusDays(1));
       var expectedPageRequest = new PageRequest(1, PAGE_SIZE, null);
-      doReturn(List.of(followedArtist)).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(List.of(ReleaseDtoFactory.createDefault()), new Pagination()))
-          .when(releaseService).findReleases(anyList(), any(), any(), any());
+      doReturn(Map.of(USER, List.of("A", "B"), OTHER_USER, List.of("B", "C"))).when(followArtistService).getFollowedArtistNamesOfUsers(any());
+      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(anyList(), any(), any(), any());
 
       // when
-      underTest.fetchReleasesForUserAndFrequency(USER, frequency, false);
+      underTest.createReleaseDateReleaseIndex(List.of(USER, OTHER_USER));
 
       // then
-      verify(releaseService, times(2)).findReleases(eq(List.of(followedArtist.getArtistName())), argumentCaptor.capture(), eq(null), eq(expectedPageRequest));
-      var timeRanges = argumentCaptor.getAllValues();
-      assertThat(timeRanges.get(0).getDateFrom()).isCloseTo(timeRangeUpcoming.getDateFrom(), offset);
-      assertThat(timeRanges.get(0).getDateTo()).isCloseTo(timeRangeUpcoming.getDateTo(), offset);
-      assertThat(timeRanges.get(1).getDateFrom()).isCloseTo(timeRangeRecent.getDateFrom(), offset);
-      assertThat(timeRanges.get(1).getDateTo()).isCloseTo(timeRangeRecent.getDateTo(), offset);
+      verify(releaseService).findReleases(eq(List.of("A", "B", "C")), any(), eq(null), eq(expectedPageRequest));
     }
 
     @Test
-    @DisplayName("releaseService is called again for user's current and recent releases")
-    void test_release_service_called_again_for_current_releases() {
+    @DisplayName("releaseService is called for each page")
+    void test_release_service_called_for_each_page() {
       // given
       var expectedPageRequest1 = new PageRequest(1, PAGE_SIZE, null);
       var expectedPageRequest2 = new PageRequest(2, PAGE_SIZE, null);
-      doReturn(List.of(ArtistDtoFactory.createDefault())).when(followArtistService).getFollowedArtistsOfUser(any());
+      doReturn(Map.of(USER, List.of("A"), OTHER_USER, List.of("A"))).when(followArtistService).getFollowedArtistNamesOfUsers(any());
       doReturn(new Page<>(List.of(ReleaseDtoFactory.createDefault()), new Pagination(2, 1, 1)))
           .when(releaseService).findReleases(anyList(), any(), any(), any());
 
       // when
-      underTest.fetchReleasesForUserAndFrequency(USER, 6, false);
+      underTest.createReleaseDateReleaseIndex(List.of(USER, OTHER_USER));
 
       // then
-      verify(releaseService, times(2)).findReleases(any(), any(), any(), eq(expectedPageRequest1));
-      verify(releaseService, times(2)).findReleases(any(), any(), any(), eq(expectedPageRequest2));
+      verify(releaseService).findReleases(any(), any(), any(), eq(expectedPageRequest1));
+      verify(releaseService).findReleases(any(), any(), any(), eq(expectedPageRequest2));
     }
 
     @Test
     @DisplayName("releaseService is not called if no followed artists exist")
     void test_release_service_not_called() {
       // given
-      doReturn(Collections.emptyList()).when(followArtistService).getFollowedArtistsOfUser(any());
+      doReturn(Map.of(USER, Collections.emptyList())).when(followArtistService).getFollowedArtistNamesOfUsers(any());
 
       // when
-      underTest.fetchReleasesForUserAndFrequency(USER, 666, false);
+      underTest.createFrequencyReleaseIndex(List.of(USER), 4);
 
       // then
       verifyNoInteractions(releaseService);
     }
 
     @Test
-    @DisplayName("releases are returned in container")
-    void test_releases_returned() {
+    @DisplayName("frequency index covers the largest frequency in both directions")
+    void test_frequency_time_range() {
       // given
-      var releases = List.of(ReleaseDtoFactory.createDefault());
-      var expectedReleaseContainer = new NotificationReleaseCollector.ReleaseContainer(releases, releases);
-      doReturn(List.of(ArtistDtoFactory.createDefault())).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
+      ArgumentCaptor<TimeRange> argumentCaptor = ArgumentCaptor.forClass(TimeRange.class);
+      TemporalUnitLessThanOffset offset = new TemporalUnitLessThanOffset(1, DAYS);
+      var now = LocalDate.now();
+      doReturn(Map.of(USER, List.of("A"), OTHER_USER, List.of("A"))).when(followArtistService).getFollowedArtistNamesOfUsers(any());
+      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(anyList(), any(), any(), any());
 
       // when
-      var result = underTest.fetchReleasesForUserAndFrequency(USER, 666, false);
+      underTest.createFrequencyReleaseIndex(List.of(USER), 6);
 
       // then
-      assertThat(result).isEqualTo(expectedReleaseContainer);
+      verify(releaseService).findReleases(any(), argumentCaptor.capture(), any(), any());
+      assertThat(argumentCaptor.getValue().getDateFrom()).isCloseTo(now.minusWeeks(6), offset);
+      assertThat(argumentCaptor.getValue().getDateTo()).isCloseTo(now.plusWeeks(6), offset);
     }
 
     @Test
-    @DisplayName("reissues are returned if configured")
-    void test_reissues_returned() {
+    @DisplayName("release date index covers today")
+    void test_release_date_time_range() {
       // given
-      var defaultRelease = ReleaseDtoFactory.createDefault();
-      var reissue = ReleaseDtoFactory.createDefault();
-      reissue.setReissue(true);
-      var releases = List.of(defaultRelease, reissue);
-      doReturn(List.of(ArtistDtoFactory.createDefault())).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
+      ArgumentCaptor<TimeRange> argumentCaptor = ArgumentCaptor.forClass(TimeRange.class);
+      TemporalUnitLessThanOffset offset = new TemporalUnitLessThanOffset(1, DAYS);
+      var now = LocalDate.now();
+      doReturn(Map.of(USER, List.of("A"), OTHER_USER, List.of("A"))).when(followArtistService).getFollowedArtistNamesOfUsers(any());
+      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(anyList(), any(), any(), any());
 
       // when
-      var result = underTest.fetchReleasesForUserAndFrequency(USER, 666, true);
+      underTest.createReleaseDateReleaseIndex(List.of(USER));
 
       // then
-      assertThat(result.getRecentReleases()).containsAll(releases);
-      assertThat(result.getUpcomingReleases()).containsAll(releases);
+      verify(releaseService).findReleases(any(), argumentCaptor.capture(), any(), any());
+      assertThat(argumentCaptor.getValue().getDateFrom()).isCloseTo(now, offset);
+      assertThat(argumentCaptor.getValue().getDateTo()).isCloseTo(now, offset);
     }
 
     @Test
-    @DisplayName("reissues are not returned if configured")
-    void test_reissues_not_returned() {
+    @DisplayName("announcement date index is open ended")
+    void test_announcement_date_time_range() {
       // given
-      var defaultRelease = ReleaseDtoFactory.createDefault();
-      var reissue = ReleaseDtoFactory.createDefault();
-      reissue.setReissue(true);
-      var releases = List.of(defaultRelease, reissue);
-      doReturn(List.of(ArtistDtoFactory.createDefault())).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
+      ArgumentCaptor<TimeRange> argumentCaptor = ArgumentCaptor.forClass(TimeRange.class);
+      TemporalUnitLessThanOffset offset = new TemporalUnitLessThanOffset(1, DAYS);
+      var now = LocalDate.now();
+      doReturn(Map.of(USER, List.of("A"), OTHER_USER, List.of("A"))).when(followArtistService).getFollowedArtistNamesOfUsers(any());
+      doReturn(new Page<>(Collections.emptyList(), new Pagination())).when(releaseService).findReleases(anyList(), any(), any(), any());
 
       // when
-      var result = underTest.fetchReleasesForUserAndFrequency(USER, 666, false);
+      underTest.createAnnouncementDateReleaseIndex(List.of(USER));
 
       // then
-      assertThat(result.getRecentReleases()).containsExactly(defaultRelease);
-      assertThat(result.getUpcomingReleases()).containsExactly(defaultRelease);
+      verify(releaseService, times(1)).findReleases(any(), argumentCaptor.capture(), any(), any());
+      assertThat(argumentCaptor.getValue().getDateFrom()).isCloseTo(now, offset);
+      assertThat(argumentCaptor.getValue().getDateTo()).isNull();
     }
   }
 
   @Nested
-  @DisplayName("Tests for todays releases")
-  class TodaysReleases {
-
-    @Test
-    @DisplayName("followArtistService is called")
-    void test_follow_artist_service_called() {
-      // when
-      underTest.fetchTodaysReleaseForUser(USER, false);
-
-      // then
-      verify(followArtistService).getFollowedArtistsOfUser(USER);
-    }
+  @DisplayName("Tests for frequency releases")
+  class FrequencyReleases {
 
     @Test
-    @DisplayName("releaseService is called for user's todays releases")
-    void test_release_service_called() {
+    @DisplayName("upcoming and recent releases are returned in container")
+    void test_releases_returned() {
       // given
-      ArgumentCaptor<TimeRange> argumentCaptor = ArgumentCaptor.forClass(TimeRange.class);
-      TemporalUnitLessThanOffset offset = new TemporalUnitLessThanOffset(1, DAYS);
       var now = LocalDate.now();
-      var followedArtist = ArtistDtoFactory.createDefault();
-      var expectedPageRequest = new PageRequest(1, PAGE_SIZE, null);
-      doReturn(List.of(followedArtist)).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(List.of(ReleaseDtoFactory.createDefault()), new Pagination())).when(releaseService).findReleases(anyList(), any(), any(), any());
+      var upcomingRelease = createRelease("A", now.plusDays(3));
+      var recentRelease = createRelease("A", now.minusDays(3));
+      var releaseIndex = createIndex(List.of("A"), List.of(recentRelease, upcomingRelease));
 
       // when
-      underTest.fetchTodaysReleaseForUser(USER, false);
+      var result = underTest.fetchReleasesForUserAndFrequency(releaseIndex, USER, 1, false);
 
       // then
-      verify(releaseService).findReleases(eq(List.of(followedArtist.getArtistName())), argumentCaptor.capture(), eq(null), eq(expectedPageRequest));
-      var timeRange = argumentCaptor.getValue();
-      assertThat(timeRange.getDateFrom()).isCloseTo(now, offset);
-      assertThat(timeRange.getDateTo()).isCloseTo(now, offset);
+      assertThat(result).isEqualTo(new NotificationReleaseCollector.ReleaseContainer(List.of(upcomingRelease), List.of(recentRelease)));
     }
 
     @Test
-    @DisplayName("releaseService is called again for user's todays releases")
-    void test_release_service_called_again() {
+    @DisplayName("releases outside of the user's frequency are not returned")
+    void test_releases_outside_frequency_not_returned() {
       // given
-      var expectedPageRequest1 = new PageRequest(1, PAGE_SIZE, null);
-      var expectedPageRequest2 = new PageRequest(2, PAGE_SIZE, null);
-      doReturn(List.of(ArtistDtoFactory.createDefault())).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(List.of(ReleaseDtoFactory.createDefault()), new Pagination(2, 1, 1))).when(releaseService).findReleases(anyList(), any(), any(), any());
+      var now = LocalDate.now();
+      var releaseIndex = createIndex(List.of("A"), List.of(createRelease("A", now.plusWeeks(3)), createRelease("A", now.minusWeeks(3))));
 
       // when
-      underTest.fetchTodaysReleaseForUser(USER, false);
+      var result = underTest.fetchReleasesForUserAndFrequency(releaseIndex, USER, 2, false);
 
       // then
-      verify(releaseService).findReleases(any(), any(), any(), eq(expectedPageRequest1));
-      verify(releaseService).findReleases(any(), any(), any(), eq(expectedPageRequest2));
+      assertThat(result.getUpcomingReleases()).isEmpty();
+      assertThat(result.getRecentReleases()).isEmpty();
     }
 
     @Test
-    @DisplayName("releaseService is not called if not followed artists exist")
-    void test_release_service_not_called() {
+    @DisplayName("only releases of followed artists are returned")
+    void test_only_followed_artists_returned() {
       // given
-      doReturn(Collections.emptyList()).when(followArtistService).getFollowedArtistsOfUser(any());
+      var now = LocalDate.now();
+      var followedRelease = createRelease("a", now.plusDays(1));
+      var releaseIndex = createIndex(List.of("A"), List.of(followedRelease, createRelease("B", now.plusDays(1))));
 
       // when
-      underTest.fetchTodaysReleaseForUser(USER, false);
+      var result = underTest.fetchReleasesForUserAndFrequency(releaseIndex, USER, 2, false);
 
       // then
-      verifyNoInteractions(releaseService);
+      assertThat(result.getUpcomingReleases()).containsExactly(followedRelease);
     }
 
     @Test
-    @DisplayName("releases are returned")
-    void test_releases_returned() {
+    @DisplayName("artist names are matched independent of the default locale")
+    void test_artists_matched_independent_of_locale() {
       // given
-      var releases = List.of(ReleaseDtoFactory.createDefault());
-      doReturn(List.of(ArtistDtoFactory.createDefault())).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
+      var defaultLocale = Locale.getDefault();
+      Locale.setDefault(Locale.forLanguageTag("tr"));
+      try {
+        var followedRelease = createRelease("infinity", LocalDate.now().plusDays(1));
+        var releaseIndex = createIndex(List.of("INFINITY"), List.of(followedRelease));
 
-      // when
-      var result = underTest.fetchTodaysReleaseForUser(USER, false);
+        // when
+        var result = underTest.fetchReleasesForUserAndFrequency(releaseIndex, USER, 2, false);
 
-      // then
-      assertThat(result).isEqualTo(releases);
+        // then
+        assertThat(result.getUpcomingReleases()).containsExactly(followedRelease);
+      }
+      finally {
+        Locale.setDefault(defaultLocale);
+      }
     }
 
     @Test
@@ -275,15 +261,13 @@ class NotificationReleaseCollectorTest implements WithAssertions {
       var defaultRelease = ReleaseDtoFactory.createDefault();
       var reissue = ReleaseDtoFactory.createDefault();
       reissue.setReissue(true);
-      var releases = List.of(defaultRelease, reissue);
-      doReturn(List.of(ArtistDtoFactory.createDefault())).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
+      var releaseIndex = createIndex(List.of("A"), List.of(defaultRelease, reissue));
 
       // when
-      var result = underTest.fetchTodaysReleaseForUser(USER, true);
+      var result = underTest.fetchReleasesForUserAndFrequency(releaseIndex, USER, 4, true);
 
       // then
-      assertThat(result).containsAll(releases);
+      assertThat(result.getUpcomingReleases()).containsExactly(defaultRelease, reissue);
     }
 
     @Test
@@ -293,83 +277,84 @@ class NotificationReleaseCollectorTest implements WithAssertions {
       var defaultRelease = ReleaseDtoFactory.createDefault();
       var reissue = ReleaseDtoFactory.createDefault();
       reissue.setReissue(true);
-      var releases = List.of(defaultRelease, reissue);
-      doReturn(List.of(ArtistDtoFactory.createDefault())).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
+      var releaseIndex = createIndex(List.of("A"), List.of(defaultRelease, reissue));
 
       // when
-      var result = underTest.fetchTodaysReleaseForUser(USER, false);
+      var result = underTest.fetchReleasesForUserAndFrequency(releaseIndex, USER, 4, false);
 
       // then
-      assertThat(result).containsExactly(defaultRelease);
+      assertThat(result.getUpcomingReleases()).containsExactly(defaultRelease);
     }
   }
 
   @Nested
-  @DisplayName("Tests for todays announcements")
-  class TodaysAnnouncements {
+  @DisplayName("Tests for todays releases")
+  class TodaysReleases {
 
     @Test
-    @DisplayName("followArtistService is called")
-    void test_follow_artist_service_called() {
+    @DisplayName("today's releases are returned")
+    void test_releases_returned() {
+      // given
+      var now = LocalDate.now();
+      var todaysRelease = createRelease("A", now);
+      var releaseIndex = createIndex(List.of("A"), List.of(todaysRelease, createRelease("A", now.plusDays(1))));
+
       // when
-      underTest.fetchTodaysAnnouncementsForUser(USER, false);
+      var result = underTest.fetchTodaysReleaseForUser(releaseIndex, USER, false);
 
       // then
-      verify(followArtistService).getFollowedArtistsOfUser(USER);
+      assertThat(result).containsExactly(todaysRelease);
     }
 
     @Test
-    @DisplayName("releaseService is called for user's todays releases")
-    void test_release_service_called() {
+    @DisplayName("nothing is returned for a user without followed artists")
+    void test_nothing_returned() {
       // given
-      ArgumentCaptor<TimeRange> argumentCaptor = ArgumentCaptor.forClass(TimeRange.class);
-      TemporalUnitLessThanOffset offset = new TemporalUnitLessThanOffset(1, DAYS);
-      var now = LocalDate.now();
-      var followedArtist = ArtistDtoFactory.createDefault();
-      var expectedPageRequest = new PageRequest(1, PAGE_SIZE, null);
-      doReturn(List.of(followedArtist)).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(List.of(ReleaseDtoFactory.withAnnouncementDate(now)), new Pagination())).when(releaseService).findReleases(anyList(), any(), any(), any());
+      var releaseIndex = createIndex(Collections.emptyList(), List.of(createRelease("A", LocalDate.now())));
 
       // when
-      underTest.fetchTodaysAnnouncementsForUser(USER, false);
+      var result = underTest.fetchTodaysReleaseForUser(releaseIndex, USER, false);
 
       // then
-      verify(releaseService).findReleases(eq(List.of(followedArtist.getArtistName())), argumentCaptor.capture(), eq(null), eq(expectedPageRequest));
-      var timeRange = argumentCaptor.getValue();
-      assertThat(timeRange.getDateFrom()).isCloseTo(now, offset);
-      assertThat(timeRange.getDateTo()).isNull();
+      assertThat(result).isEmpty();
     }
 
     @Test
-    @DisplayName("releaseService is called again for user's todays releases")
-    void test_release_service_called_again() {
+    @DisplayName("reissues are returned if configured")
+    void test_reissues_returned() {
       // given
-      var expectedPageRequest1 = new PageRequest(1, PAGE_SIZE, null);
-      var expectedPageRequest2 = new PageRequest(1, PAGE_SIZE, null);
-      doReturn(List.of(ArtistDtoFactory.createDefault())).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(List.of(ReleaseDtoFactory.withAnnouncementDate(LocalDate.now())), new Pagination(2, 1, 1))).when(releaseService).findReleases(anyList(), any(), any(), any());
+      var defaultRelease = createRelease("A", LocalDate.now());
+      var reissue = createRelease("A", LocalDate.now());
+      reissue.setReissue(true);
+      var releaseIndex = createIndex(List.of("A"), List.of(defaultRelease, reissue));
 
       // when
-      underTest.fetchTodaysAnnouncementsForUser(USER, false);
+      var result = underTest.fetchTodaysReleaseForUser(releaseIndex, USER, true);
 
       // then
-      verify(releaseService).findReleases(any(), any(), any(), eq(expectedPageRequest1));
-      verify(releaseService).findReleases(any(), any(), any(), eq(expectedPageRequest2));
+      assertThat(result).containsExactly(defaultRelease, reissue);
     }
 
     @Test
-    @DisplayName("releaseService is not called if not followed artists exist")
-    void test_release_service_not_called() {
+    @DisplayName("reissues are not returned if configured")
+    void test_reissues_not_returned() {
       // given
-      doReturn(Collections.emptyList()).when(followArtistService).getFollowedArtistsOfUser(any());
+      var defaultRelease = createRelease("A", LocalDate.now());
+      var reissue = createRelease("A", LocalDate.now());
+      reissue.setReissue(true);
+      var releaseIndex = createIndex(List.of("A"), List.of(defaultRelease, reissue));
 
       // when
-      underTest.fetchTodaysAnnouncementsForUser(USER, false);
+      var result = underTest.fetchTodaysReleaseForUser(releaseIndex, USER, false);
 
       // then
-      verifyNoInteractions(releaseService);
+      assertThat(result).containsExactly(defaultRelease);
     }
+  }
+
+  @Nested
+  @DisplayName("Tests for todays announcements")
+  class TodaysAnnouncements {
 
     @Test
     @DisplayName("today's announcements are returned")
@@ -377,16 +362,10 @@ class NotificationReleaseCollectorTest implements WithAssertions {
       // given
       var now = LocalDate.now();
       var todaysAnnouncement = ReleaseDtoFactory.withAnnouncementDate(now);
-      var releases = List.of(todaysAnnouncement, ReleaseDtoFactory.withAnnouncementDate(now.minusDays(1)));
-      doReturn(List.of(ArtistDtoFactory.createDefault())).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
+      var releaseIndex = createIndex(List.of("A"), List.of(todaysAnnouncement, ReleaseDtoFactory.withAnnouncementDate(now.minusDays(1))));
 
       // when
-      List<ReleaseDto> result;
-      try (MockedStatic<LocalDate> mock = mockStatic(LocalDate.class)) {
-        mock.when(LocalDate::now).thenReturn(now);
-        result = underTest.fetchTodaysAnnouncementsForUser(USER, false);
-      }
+      var result = underTest.fetchTodaysAnnouncementsForUser(releaseIndex, USER, false);
 
       // then
       assertThat(result).containsExactly(todaysAnnouncement);
@@ -400,19 +379,13 @@ class NotificationReleaseCollectorTest implements WithAssertions {
       var todaysAnnouncement = ReleaseDtoFactory.withAnnouncementDate(now);
       var reissue = ReleaseDtoFactory.withAnnouncementDate(now);
       reissue.setReissue(true);
-      var releases = List.of(todaysAnnouncement, ReleaseDtoFactory.withAnnouncementDate(now.minusDays(1)), reissue);
-      doReturn(List.of(ArtistDtoFactory.createDefault())).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
+      var releaseIndex = createIndex(List.of("A"), List.of(todaysAnnouncement, ReleaseDtoFactory.withAnnouncementDate(now.minusDays(1)), reissue));
 
       // when
-      List<ReleaseDto> result;
-      try (MockedStatic<LocalDate> mock = mockStatic(LocalDate.class)) {
-        mock.when(LocalDate::now).thenReturn(now);
-        result = underTest.fetchTodaysAnnouncementsForUser(USER, true);
-      }
+      var result = underTest.fetchTodaysAnnouncementsForUser(releaseIndex, USER, true);
 
       // then
-      assertThat(result).containsAll(List.of(todaysAnnouncement, reissue));
+      assertThat(result).containsExactly(todaysAnnouncement, reissue);
     }
 
     @Test
@@ -423,19 +396,27 @@ class NotificationReleaseCollectorTest implements WithAssertions {
       var todaysAnnouncement = ReleaseDtoFactory.withAnnouncementDate(now);
       var reissue = ReleaseDtoFactory.withAnnouncementDate(now);
       reissue.setReissue(true);
-      var releases = List.of(todaysAnnouncement, ReleaseDtoFactory.withAnnouncementDate(now.minusDays(1)), reissue);
-      doReturn(List.of(ArtistDtoFactory.createDefault())).when(followArtistService).getFollowedArtistsOfUser(any());
-      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(any(), any(), any(), any());
+      var releaseIndex = createIndex(List.of("A"), List.of(todaysAnnouncement, ReleaseDtoFactory.withAnnouncementDate(now.minusDays(1)), reissue));
 
       // when
-      List<ReleaseDto> result;
-      try (MockedStatic<LocalDate> mock = mockStatic(LocalDate.class)) {
-        mock.when(LocalDate::now).thenReturn(now);
-        result = underTest.fetchTodaysAnnouncementsForUser(USER, false);
-      }
+      var result = underTest.fetchTodaysAnnouncementsForUser(releaseIndex, USER, false);
 
       // then
       assertThat(result).containsExactly(todaysAnnouncement);
     }
   }
+
+  private NotificationReleaseIndex createIndex(List<String> followedArtistNames, List<ReleaseDto> releases) {
+    doReturn(Map.of(USER, followedArtistNames)).when(followArtistService).getFollowedArtistNamesOfUsers(any());
+    if (!followedArtistNames.isEmpty()) {
+      doReturn(new Page<>(releases, new Pagination())).when(releaseService).findReleases(anyList(), any(), any(), any());
+    }
+    return underTest.createAnnouncementDateReleaseIndex(List.of(USER));
+  }
+
+  private ReleaseDto createRelease(String artistName, LocalDate releaseDate) {
+    ReleaseDto release = ReleaseDtoFactory.withArtistName(artistName);
+    release.setReleaseDate(releaseDate);
+    return release;
+  }
 }
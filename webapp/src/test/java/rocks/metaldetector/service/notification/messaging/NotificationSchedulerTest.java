@@ -1,43 +1,76 @@
 package rocks.metaldetector.service.notification.messaging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.WithAssertions;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import rocks.metaldetector.config.misc.JobLeaseProperties;
+import rocks.metaldetector.config.misc.NotificationDispatchProperties;
+import rocks.metaldetector.config.misc.NotificationHistoryProperties;
+import rocks.metaldetector.config.misc.NotificationScheduleProperties;
 import rocks.metaldetector.persistence.domain.notification.NotificationConfigEntity;
 import rocks.metaldetector.persistence.domain.notification.NotificationConfigRepository;
+import rocks.metaldetector.persistence.domain.notification.NotificationHistoryRepository;
+import rocks.metaldetector.persistence.domain.notification.NotificationRecipient;
 import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
+import rocks.metaldetector.service.lease.JobLeaseService;
+import rocks.metaldetector.service.notification.run.NotificationRunService;
 import rocks.metaldetector.service.user.UserEntityFactory;
 import rocks.metaldetector.testutil.DtoFactory.ReleaseDtoFactory;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static rocks.metaldetector.persistence.domain.notification.NotificationChannel.EMAIL;
 import static rocks.metaldetector.persistence.domain.notification.NotificationChannel.TELEGRAM;
+import static rocks.metaldetector.service.notification.messaging.NotificationScheduler.ANNOUNCEMENT_DATE_JOB;
+import static rocks.metaldetector.service.notification.messaging.NotificationScheduler.BUCKET_DURATION_METRIC;
+import static rocks.metaldetector.service.notification.messaging.NotificationScheduler.BUCKET_LAG_METRIC;
+import static rocks.metaldetector.service.notification.messaging.NotificationScheduler.FREQUENCY_JOB;
 import static rocks.metaldetector.service.notification.messaging.NotificationScheduler.PRINCIPAL;
+import static rocks.metaldetector.service.notification.messaging.NotificationScheduler.RELEASE_DATE_JOB;
 
 @ExtendWith(MockitoExtension.class)
 class NotificationSchedulerTest implements WithAssertions {
@@ -53,173 +86,251 @@ class NotificationSchedulerTest implements WithAssertions {
   @Mock
   private NotificationSenderFunction notificationSenderFunction;
 
+  @Mock
+  private NotificationDispatcher notificationDispatcher;
+
+  @Mock
+  private JobLeaseService jobLeaseService;
+
+  @Spy
+  private JobLeaseProperties jobLeaseProperties = new JobLeaseProperties();
+
+  @Spy
+  private NotificationDispatchProperties notificationDispatchProperties = new NotificationDispatchProperties();
+
+  @Spy
+  private NotificationScheduleProperties notificationScheduleProperties = new NotificationScheduleProperties();
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Mock
+  private NotificationHistory notificationHistory;
+
+  @Mock
+  private NotificationRunService notificationRunService;
+
+  @Mock
+  private NotificationReleaseIndex releaseIndex;
+
   @InjectMocks
   private NotificationScheduler underTest;
 
+  @BeforeEach
+  void setup() {
+    lenient().doReturn(true).when(jobLeaseService).acquire(any());
+    lenient().doReturn(true).when(jobLeaseService).renew(any());
+    lenient().doReturn("digest").when(notificationHistory).createDigest(any(), any());
+    lenient().doReturn(true).when(notificationHistory).record(any(), any());
+    lenient().doAnswer(invocation -> {
+      List<NotificationRecipient> recipients = invocation.getArgument(0);
+      Consumer<NotificationRecipient> notificationTask = invocation.getArgument(1);
+      recipients.forEach(notificationTask);
+      return null;
+    }).when(notificationDispatcher).dispatch(any(), any());
+  }
+
   @AfterEach
   void tearDown() {
-    reset(notificationConfigRepository, notificationReleaseCollector, notificationSenderFunction);
+    reset(notificationConfigRepository, notificationReleaseCollector, notificationSenderFunction, notificationDispatcher, jobLeaseService, notificationHistory, notificationRunService, releaseIndex);
   }
 
   @Nested
   @DisplayName("Tests for notification on frequency")
   class FrequencyTests {
 
-    private final NotificationConfigEntity notificationConfig = NotificationConfigEntity.builder()
+    private final NotificationRecipient recipient = createRecipient(1L, NotificationConfigEntity.builder()
         .user(USER)
         .channel(EMAIL)
         .frequencyInWeeks(2)
-        .build();
+        .build());
 
     @Test
-    @DisplayName("repository is called")
+    @DisplayName("repository is queried for due recipients of the shard")
     void test_repository_called() {
+      // given
+      var now = LocalDate.now();
+
+      // when
+      underTest.notifyOnFrequency();
+
+      // then
+      verify(notificationConfigRepository).findDueFrequencyRecipients(0L, 0, 1, now, Pageable.ofSize(notificationDispatchProperties.getChunkSize()));
+    }
+
+    @Test
+    @DisplayName("release index is created for the users of the chunk and the largest frequency")
+    void test_release_index_created() {
+      // given
+      var otherRecipient = createRecipient(2L, NotificationConfigEntity.builder().user(USER).channel(TELEGRAM).frequencyInWeeks(4).build());
+      doReturn(List.of(recipient, otherRecipient)).when(notificationConfigRepository).findDueFrequencyRecipients(anyLong(), anyInt(), anyInt(), any(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createFrequencyReleaseIndex(any(), anyInt());
+      doReturn(new NotificationReleaseCollector.ReleaseContainer(Collections.emptyList(), Collections.emptyList()))
+          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), any(), anyInt(), anyBoolean());
+
       // when
       underTest.notifyOnFrequency();
 
       // then
-      verify(notificationConfigRepository).findAllActive();
+      verify(notificationReleaseCollector).createFrequencyReleaseIndex(Set.of(USER), 4);
     }
 
     @Test
     @DisplayName("releaseCollector is called")
     void test_release_collector_called() {
       // given
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
-      doReturn(mock(NotificationSender.class)).when(notificationSenderFunction).apply(any());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findDueFrequencyRecipients(anyLong(), anyInt(), anyInt(), any(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createFrequencyReleaseIndex(any(), anyInt());
       doReturn(new NotificationReleaseCollector.ReleaseContainer(Collections.emptyList(), Collections.emptyList()))
-          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), anyInt(), anyBoolean());
+          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), any(), anyInt(), anyBoolean());
 
       // when
       underTest.notifyOnFrequency();
 
       // then
-      verify(notificationReleaseCollector).fetchReleasesForUserAndFrequency(notificationConfig.getUser(), notificationConfig.getFrequencyInWeeks(), notificationConfig.getNotifyReissues());
+      var notificationConfig = recipient.getNotificationConfig();
+      verify(notificationReleaseCollector).fetchReleasesForUserAndFrequency(releaseIndex, USER, notificationConfig.getFrequencyInWeeks(), notificationConfig.getNotifyReissues());
     }
 
     @Test
     @DisplayName("serviceSupplier is called")
     void test_service_supplier_called() {
       // given
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
-      doReturn(mock(NotificationSender.class)).when(notificationSenderFunction).apply(any());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findDueFrequencyRecipients(anyLong(), anyInt(), anyInt(), any(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createFrequencyReleaseIndex(any(), anyInt());
+      doReturn(mockNotificationSender()).when(notificationSenderFunction).apply(any());
       doReturn(new NotificationReleaseCollector.ReleaseContainer(List.of(ReleaseDtoFactory.createDefault()), Collections.emptyList()))
-          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), anyInt(), anyBoolean());
+          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), any(), anyInt(), anyBoolean());
 
       // when
       underTest.notifyOnFrequency();
 
       // then
-      verify(notificationSenderFunction).apply(notificationConfig.getChannel());
+      verify(notificationSenderFunction).apply(EMAIL);
     }
 
     @Test
     @DisplayName("serviceSupplier is not called and message not sent if releases are empty")
     void test_service_supplier_not_called() {
       // given
-      var notificationServiceMock = mock(NotificationSender.class);
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
-      doReturn(notificationServiceMock).when(notificationSenderFunction).apply(any());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findDueFrequencyRecipients(anyLong(), anyInt(), anyInt(), any(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createFrequencyReleaseIndex(any(), anyInt());
       doReturn(new NotificationReleaseCollector.ReleaseContainer(Collections.emptyList(), Collections.emptyList()))
-          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), anyInt(), anyBoolean());
+          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), any(), anyInt(), anyBoolean());
 
       // when
       underTest.notifyOnFrequency();
 
       // then
       verifyNoInteractions(notificationSenderFunction);
-      verifyNoInteractions(notificationServiceMock);
     }
 
     @Test
     @DisplayName("message is sent with notificationService")
     void test_message_sent() {
       // given
-      var notificationServiceMock = mock(NotificationSender.class);
+      var notificationServiceMock = mockNotificationSender();
       var upcomingReleases = List.of(ReleaseDtoFactory.withArtistName("A"));
       var recentReleases = List.of(ReleaseDtoFactory.withArtistName("B"));
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findDueFrequencyRecipients(anyLong(), anyInt(), anyInt(), any(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createFrequencyReleaseIndex(any(), anyInt());
       doReturn(notificationServiceMock).when(notificationSenderFunction).apply(any());
       doReturn(new NotificationReleaseCollector.ReleaseContainer(upcomingReleases, recentReleases))
-          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), anyInt(), anyBoolean());
+          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), any(), anyInt(), anyBoolean());
 
       // when
       underTest.notifyOnFrequency();
 
       // then
-      verify(notificationServiceMock).sendFrequencyMessage(notificationConfig.getUser(), upcomingReleases, recentReleases);
+      verify(notificationServiceMock).sendFrequencyMessage(recipient, upcomingReleases, recentReleases);
     }
 
     @Test
     @DisplayName("notificationDate is saved")
     void test_notification_date_saved() {
       // given
-      ArgumentCaptor<NotificationConfigEntity> argumentCaptor = ArgumentCaptor.forClass(NotificationConfigEntity.class);
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
-      doReturn(mock(NotificationSender.class)).when(notificationSenderFunction).apply(any());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findDueFrequencyRecipients(anyLong(), anyInt(), anyInt(), any(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createFrequencyReleaseIndex(any(), anyInt());
       doReturn(new NotificationReleaseCollector.ReleaseContainer(Collections.emptyList(), Collections.emptyList()))
-          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), anyInt(), anyBoolean());
+          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), any(), anyInt(), anyBoolean());
 
       // when
       LocalDate now = LocalDate.of(2000, 1, 1);
-      try (MockedStatic<LocalDate> mock = mockStatic(LocalDate.class)) {
+      try (MockedStatic<LocalDate> mock = mockStatic(LocalDate.class, CALLS_REAL_METHODS)) {
         mock.when(LocalDate::now).thenReturn(now);
         underTest.notifyOnFrequency();
       }
 
       // then
-      verify(notificationConfigRepository).save(argumentCaptor.capture());
-      var savedConfig = argumentCaptor.getValue();
-      assertThat(savedConfig.getLastNotificationDate()).isEqualTo(now);
+      verify(notificationConfigRepository).updateLastNotificationDate(1L, now);
     }
 
     @Test
-    @DisplayName("services are called for each active config")
-    void test_services_called_for_each_config() {
+    @DisplayName("notifications are dispatched")
+    void test_notifications_dispatched() {
       // given
-      var notificationConfig2 = NotificationConfigEntity.builder().user(USER).channel(TELEGRAM).build();
-      var notificationServiceMock = mock(NotificationSender.class);
-      doReturn(List.of(notificationConfig, notificationConfig2)).when(notificationConfigRepository).findAllActive();
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findDueFrequencyRecipients(anyLong(), anyInt(), anyInt(), any(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createFrequencyReleaseIndex(any(), anyInt());
+      doReturn(new NotificationReleaseCollector.ReleaseContainer(Collections.emptyList(), Collections.emptyList()))
+          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), any(), anyInt(), anyBoolean());
+
+      // when
+      underTest.notifyOnFrequency();
+
+      // then
+      verify(notificationDispatcher).dispatch(eq(List.of(recipient)), any());
+    }
+
+    @Test
+    @DisplayName("services are called for each recipient")
+    void test_services_called_for_each_recipient() {
+      // given
+      var otherRecipient = createRecipient(2L, NotificationConfigEntity.builder().user(USER).channel(TELEGRAM).build());
+      var notificationServiceMock = mockNotificationSender();
+      doReturn(List.of(recipient, otherRecipient)).when(notificationConfigRepository).findDueFrequencyRecipients(anyLong(), anyInt(), anyInt(), any(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createFrequencyReleaseIndex(any(), anyInt());
       doReturn(notificationServiceMock).when(notificationSenderFunction).apply(any());
       doReturn(new NotificationReleaseCollector.ReleaseContainer(List.of(ReleaseDtoFactory.createDefault()), Collections.emptyList()))
-          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), anyInt(), anyBoolean());
+          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), any(), anyInt(), anyBoolean());
 
       // when
       underTest.notifyOnFrequency();
 
       // then
-      verify(notificationReleaseCollector, times(2)).fetchReleasesForUserAndFrequency(any(), anyInt(), anyBoolean());
+      verify(notificationReleaseCollector, times(2)).fetchReleasesForUserAndFrequency(any(), any(), anyInt(), anyBoolean());
       verify(notificationSenderFunction, times(2)).apply(any());
-      verify(notificationConfigRepository, times(2)).save(any());
+      verify(notificationConfigRepository, times(2)).updateLastNotificationDate(any(), any());
       verify(notificationServiceMock, times(2)).sendFrequencyMessage(any(), any(), any());
     }
 
     @Test
-    @DisplayName("nothing is called if notification is not due")
-    void test_nothing_called_if_not_due() {
+    @DisplayName("next chunk is queried after the last id of a full chunk")
+    void test_next_chunk_queried() {
       // given
-      notificationConfig.setLastNotificationDate(LocalDate.now());
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
+      var now = LocalDate.now();
+      var otherRecipient = createRecipient(2L, NotificationConfigEntity.builder().user(USER).channel(TELEGRAM).build());
+      notificationDispatchProperties.setChunkSize(2);
+      doReturn(List.of(recipient, otherRecipient)).when(notificationConfigRepository).findDueFrequencyRecipients(eq(0L), anyInt(), anyInt(), any(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createFrequencyReleaseIndex(any(), anyInt());
+      doReturn(new NotificationReleaseCollector.ReleaseContainer(Collections.emptyList(), Collections.emptyList()))
+          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), any(), anyInt(), anyBoolean());
 
       // when
       underTest.notifyOnFrequency();
 
       // then
-      verifyNoInteractions(notificationReleaseCollector);
+      verify(notificationConfigRepository).findDueFrequencyRecipients(0L, 0, 1, now, Pageable.ofSize(2));
+      verify(notificationConfigRepository).findDueFrequencyRecipients(2L, 0, 1, now, Pageable.ofSize(2));
     }
 
     @Test
-    @DisplayName("nothing is called if frequency is 0")
-    void test_nothing_called_if_frequency_zero() {
-      // given
-      notificationConfig.setFrequencyInWeeks(0);
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
-
+    @DisplayName("nothing is called if no recipient is due")
+    void test_nothing_called_if_not_due() {
       // when
       underTest.notifyOnFrequency();
 
       // then
-      verifyNoInteractions(notificationReleaseCollector);
+      verifyNoInteractions(notificationReleaseCollector, notificationDispatcher);
     }
 
     @Test
@@ -250,281 +361,682 @@ class NotificationSchedulerTest implements WithAssertions {
   @DisplayName("Tests for notification on release date")
   class ReleaseDateTests {
 
-    private final NotificationConfigEntity notificationConfig = NotificationConfigEntity.builder()
+    private final NotificationRecipient recipient = createRecipient(1L, NotificationConfigEntity.builder()
         .user(USER)
         .channel(EMAIL)
         .notificationAtReleaseDate(true)
-        .build();
+        .build());
 
     @Test
-    @DisplayName("repository is called")
+    @DisplayName("repository is queried for recipients of the shard")
     void test_repository_called() {
       // when
       underTest.notifyOnReleaseDate();
 
       // then
-      verify(notificationConfigRepository).findAllActive();
+      verify(notificationConfigRepository).findReleaseDateRecipients(0L, 0, 1, Pageable.ofSize(notificationDispatchProperties.getChunkSize()));
     }
 
     @Test
-    @DisplayName("releaseCollector is called")
-    void test_release_collector_called() {
+    @DisplayName("release index is created for the users of the chunk")
+    void test_release_index_created() {
       // given
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
-      doReturn(mock(NotificationSender.class)).when(notificationSenderFunction).apply(any());
-      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), anyBoolean());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findReleaseDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
+      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), any(), anyBoolean());
 
       // when
       underTest.notifyOnReleaseDate();
 
       // then
-      verify(notificationReleaseCollector).fetchTodaysReleaseForUser(notificationConfig.getUser(), notificationConfig.getNotifyReissues());
+      verify(notificationReleaseCollector).createReleaseDateReleaseIndex(Set.of(USER));
     }
 
     @Test
-    @DisplayName("serviceSupplier is called")
-    void test_service_supplier_called() {
+    @DisplayName("releaseCollector is called")
+    void test_release_collector_called() {
       // given
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
-      doReturn(mock(NotificationSender.class)).when(notificationSenderFunction).apply(any());
-      doReturn(List.of(ReleaseDtoFactory.createDefault())).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), anyBoolean());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findReleaseDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
+      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), any(), anyBoolean());
 
       // when
       underTest.notifyOnReleaseDate();
 
       // then
-      verify(notificationSenderFunction).apply(notificationConfig.getChannel());
+      verify(notificationReleaseCollector).fetchTodaysReleaseForUser(releaseIndex, USER, recipient.getNotificationConfig().getNotifyReissues());
     }
 
     @Test
-    @DisplayName("serviceSupplier is called not called and message not sent if releases are empty")
+    @DisplayName("serviceSupplier is not called and message not sent if releases are empty")
     void test_service_supplier_not_called() {
       // given
-      var notificationServiceMock = mock(NotificationSender.class);
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
-      doReturn(notificationServiceMock).when(notificationSenderFunction).apply(any());
-      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), anyBoolean());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findReleaseDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
+      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), any(), anyBoolean());
 
       // when
       underTest.notifyOnReleaseDate();
 
       // then
       verifyNoInteractions(notificationSenderFunction);
-      verifyNoInteractions(notificationServiceMock);
     }
 
     @Test
     @DisplayName("message is sent with notificationService")
     void test_message_sent() {
       // given
-      var notificationServiceMock = mock(NotificationSender.class);
+      var notificationServiceMock = mockNotificationSender();
       var todaysReleases = List.of(ReleaseDtoFactory.createDefault());
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findReleaseDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
       doReturn(notificationServiceMock).when(notificationSenderFunction).apply(any());
-      doReturn(todaysReleases).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), anyBoolean());
+      doReturn(todaysReleases).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), any(), anyBoolean());
 
       // when
       underTest.notifyOnReleaseDate();
 
       // then
-      verify(notificationServiceMock).sendReleaseDateMessage(notificationConfig.getUser(), todaysReleases);
+      verify(notificationSenderFunction).apply(EMAIL);
+      verify(notificationServiceMock).sendReleaseDateMessage(recipient, todaysReleases);
+    }
+
+    @Test
+    @DisplayName("nothing is called if there are no recipients")
+    void test_nothing_is_called() {
+      // when
+      underTest.notifyOnReleaseDate();
+
+      // then
+      verifyNoInteractions(notificationReleaseCollector, notificationDispatcher);
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for notification on announcement date")
+  class AnnouncementDateTests {
+
+    private final NotificationRecipient recipient = createRecipient(1L, NotificationConfigEntity.builder()
+        .user(USER)
+        .channel(TELEGRAM)
+        .notificationAtAnnouncementDate(true)
+        .build());
+
+    @Test
+    @DisplayName("repository is queried for recipients of the shard")
+    void test_repository_called() {
+      // when
+      underTest.notifyOnAnnouncementDate();
+
+      // then
+      verify(notificationConfigRepository).findAnnouncementDateRecipients(0L, 0, 1, Pageable.ofSize(notificationDispatchProperties.getChunkSize()));
     }
 
     @Test
-    @DisplayName("services are called for each active config")
-    void test_services_called_for_each_config() {
+    @DisplayName("release index is created for the users of the chunk")
+    void test_release_index_created() {
       // given
-      var notificationConfig2 = NotificationConfigEntity.builder().user(USER).notificationAtReleaseDate(true).channel(TELEGRAM).build();
-      var notificationServiceMock = mock(NotificationSender.class);
-      doReturn(List.of(notificationConfig, notificationConfig2)).when(notificationConfigRepository).findAllActive();
-      doReturn(notificationServiceMock).when(notificationSenderFunction).apply(any());
-      doReturn(List.of(ReleaseDtoFactory.createDefault())).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), anyBoolean());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findAnnouncementDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createAnnouncementDateReleaseIndex(any());
+      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(any(), any(), anyBoolean());
 
       // when
-      underTest.notifyOnReleaseDate();
+      underTest.notifyOnAnnouncementDate();
 
       // then
-      verify(notificationReleaseCollector, times(2)).fetchTodaysReleaseForUser(any(), anyBoolean());
-      verify(notificationSenderFunction, times(2)).apply(any());
-      verify(notificationServiceMock, times(2)).sendReleaseDateMessage(any(), any());
+      verify(notificationReleaseCollector).createAnnouncementDateReleaseIndex(Set.of(USER));
     }
 
     @Test
-    @DisplayName("nothing is called if notification on release date is not active")
-    void test_nothing_is_called() {
+    @DisplayName("releaseCollector is called")
+    void test_release_collector_called() {
       // given
-      notificationConfig.setNotificationAtReleaseDate(false);
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findAnnouncementDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createAnnouncementDateReleaseIndex(any());
+      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(any(), any(), anyBoolean());
 
       // when
-      underTest.notifyOnReleaseDate();
+      underTest.notifyOnAnnouncementDate();
 
       // then
-      verifyNoInteractions(notificationReleaseCollector);
+      verify(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(releaseIndex, USER, recipient.getNotificationConfig().getNotifyReissues());
     }
 
     @Test
-    @DisplayName("current authentication is set to anonymous and then to null again")
-    void test_current_authentication_set_to_anonymous() {
+    @DisplayName("serviceSupplier is not called and message not sent if releases are empty")
+    void test_service_supplier_not_called() {
       // given
-      var securityContextMock = mock(SecurityContext.class);
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findAnnouncementDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createAnnouncementDateReleaseIndex(any());
+      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(any(), any(), anyBoolean());
 
-      try (MockedStatic<SecurityContextHolder> mock = mockStatic(SecurityContextHolder.class)) {
-        //given
-        mock.when(SecurityContextHolder::getContext).thenReturn(securityContextMock);
+      // when
+      underTest.notifyOnAnnouncementDate();
 
-        //when
-        underTest.notifyOnReleaseDate();
+      // then
+      verifyNoInteractions(notificationSenderFunction);
+    }
 
-        //then
-        mock.verify(SecurityContextHolder::getContext, times(2));
-      }
+    @Test
+    @DisplayName("message is sent with notificationService")
+    void test_message_sent() {
+      // given
+      var notificationServiceMock = mockNotificationSender();
+      var todaysAnnouncements = List.of(ReleaseDtoFactory.createDefault());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findAnnouncementDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createAnnouncementDateReleaseIndex(any());
+      doReturn(notificationServiceMock).when(notificationSenderFunction).apply(any());
+      doReturn(todaysAnnouncements).when(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(any(), any(), anyBoolean());
+
+      // when
+      underTest.notifyOnAnnouncementDate();
 
       // then
-      InOrder order = Mockito.inOrder(securityContextMock);
-      order.verify(securityContextMock).setAuthentication(PRINCIPAL);
-      order.verify(securityContextMock).setAuthentication(null);
+      verify(notificationSenderFunction).apply(TELEGRAM);
+      verify(notificationServiceMock).sendAnnouncementDateMessage(recipient, todaysAnnouncements);
+    }
+
+    @Test
+    @DisplayName("nothing is called if there are no recipients")
+    void test_nothing_is_called() {
+      // when
+      underTest.notifyOnAnnouncementDate();
+
+      // then
+      verifyNoInteractions(notificationReleaseCollector, notificationDispatcher);
     }
   }
 
   @Nested
-  @DisplayName("Tests for notification on announcement date")
-  class AnnouncementDateTests {
+  @DisplayName("Tests for notification digests")
+  class NotificationDigestTests {
 
-    private final NotificationConfigEntity notificationConfig = NotificationConfigEntity.builder()
+    private final NotificationRecipient recipient = createRecipient(1L, NotificationConfigEntity.builder()
         .user(USER)
         .channel(EMAIL)
-        .notificationAtAnnouncementDate(true)
-        .build();
+        .build());
 
     @Test
-    @DisplayName("repository is called")
-    void test_repository_called() {
+    @DisplayName("digest of the recipient and the releases is recorded before sending")
+    void test_digest_recorded() {
+      // given
+      var notificationServiceMock = mockNotificationSender();
+      var todaysReleases = List.of(ReleaseDtoFactory.createDefault());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findReleaseDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
+      doReturn(notificationServiceMock).when(notificationSenderFunction).apply(any());
+      doReturn(todaysReleases).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), any(), anyBoolean());
+
       // when
-      underTest.notifyOnAnnouncementDate();
+      underTest.notifyOnReleaseDate();
 
       // then
-      verify(notificationConfigRepository).findAllActive();
+      InOrder order = Mockito.inOrder(notificationHistory, notificationServiceMock);
+      order.verify(notificationHistory).createDigest(recipient, todaysReleases);
+      order.verify(notificationHistory).record("digest", recipient);
+      order.verify(notificationServiceMock).sendReleaseDateMessage(recipient, todaysReleases);
     }
 
     @Test
-    @DisplayName("releaseCollector is called")
-    void test_release_collector_called() {
+    @DisplayName("digest of the frequency notification contains upcoming and recent releases")
+    void test_frequency_digest() {
       // given
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
-      doReturn(mock(NotificationSender.class)).when(notificationSenderFunction).apply(any());
-      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(any(), anyBoolean());
+      var upcomingRelease = ReleaseDtoFactory.withArtistName("A");
+      var recentRelease = ReleaseDtoFactory.withArtistName("B");
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findDueFrequencyRecipients(anyLong(), anyInt(), anyInt(), any(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createFrequencyReleaseIndex(any(), anyInt());
+      doReturn(mockNotificationSender()).when(notificationSenderFunction).apply(any());
+      doReturn(new NotificationReleaseCollector.ReleaseContainer(List.of(upcomingRelease), List.of(recentRelease)))
+          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), any(), anyInt(), anyBoolean());
 
       // when
-      underTest.notifyOnAnnouncementDate();
+      underTest.notifyOnFrequency();
 
       // then
-      verify(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(notificationConfig.getUser(), notificationConfig.getNotifyReissues());
+      verify(notificationHistory).createDigest(recipient, List.of(upcomingRelease, recentRelease));
     }
 
     @Test
-    @DisplayName("serviceSupplier is called")
-    void test_service_supplier_called() {
+    @DisplayName("notification is not sent if the digest was already sent")
+    void test_unchanged_digest_not_sent() {
       // given
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
-      doReturn(mock(NotificationSender.class)).when(notificationSenderFunction).apply(any());
-      doReturn(List.of(ReleaseDtoFactory.createDefault())).when(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(any(), anyBoolean());
+      doReturn(false).when(notificationHistory).record(any(), any());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findAnnouncementDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createAnnouncementDateReleaseIndex(any());
+      doReturn(List.of(ReleaseDtoFactory.createDefault())).when(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(any(), any(), anyBoolean());
 
       // when
       underTest.notifyOnAnnouncementDate();
 
       // then
-      verify(notificationSenderFunction).apply(notificationConfig.getChannel());
+      verifyNoInteractions(notificationSenderFunction);
     }
 
     @Test
-    @DisplayName("serviceSupplier is not called and message not sent if releases are empty")
-    void test_service_supplier_not_called() {
+    @DisplayName("releases that were already sent by another job are not sent again")
+    void test_digest_shared_across_jobs() {
       // given
-      var notificationServiceMock = mock(NotificationSender.class);
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
+      var history = new NotificationHistory(mock(NotificationHistoryRepository.class), new NotificationHistoryProperties(), mock(PlatformTransactionManager.class));
+      Set<String> recordedDigests = new HashSet<>();
+      doAnswer(invocation -> history.createDigest(invocation.getArgument(0), invocation.getArgument(1))).when(notificationHistory).createDigest(any(), any());
+      doAnswer(invocation -> recordedDigests.add(invocation.getArgument(0))).when(notificationHistory).record(any(), any());
+      var notificationServiceMock = mockNotificationSender();
+      var releases = List.of(ReleaseDtoFactory.createDefault());
       doReturn(notificationServiceMock).when(notificationSenderFunction).apply(any());
-      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(any(), anyBoolean());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findAnnouncementDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createAnnouncementDateReleaseIndex(any());
+      doReturn(releases).when(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(any(), any(), anyBoolean());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findReleaseDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
+      doReturn(releases).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), any(), anyBoolean());
 
       // when
       underTest.notifyOnAnnouncementDate();
+      underTest.notifyOnReleaseDate();
+
+      // then
+      verify(notificationServiceMock).sendAnnouncementDateMessage(recipient, releases);
+      verify(notificationServiceMock, never()).sendReleaseDateMessage(any(), any());
+      assertThat(recordedDigests).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("last notification date is updated if the digest was already sent")
+    void test_notification_date_updated_for_unchanged_digest() {
+      // given
+      doReturn(false).when(notificationHistory).record(any(), any());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findDueFrequencyRecipients(anyLong(), anyInt(), anyInt(), any(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createFrequencyReleaseIndex(any(), anyInt());
+      doReturn(new NotificationReleaseCollector.ReleaseContainer(List.of(ReleaseDtoFactory.createDefault()), Collections.emptyList()))
+          .when(notificationReleaseCollector).fetchReleasesForUserAndFrequency(any(), any(), anyInt(), anyBoolean());
+
+      // when
+      underTest.notifyOnFrequency();
 
       // then
       verifyNoInteractions(notificationSenderFunction);
-      verifyNoInteractions(notificationServiceMock);
+      verify(notificationConfigRepository).updateLastNotificationDate(eq(1L), any());
     }
 
     @Test
-    @DisplayName("message is sent with notificationService")
-    void test_message_sent() {
+    @DisplayName("digest is removed if the notification could not be sent")
+    void test_digest_removed_on_failure() {
       // given
-      var notificationServiceMock = mock(NotificationSender.class);
-      var todaysAnnouncements = List.of(ReleaseDtoFactory.createDefault());
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
+      var notificationServiceMock = mockNotificationSender();
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findReleaseDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
       doReturn(notificationServiceMock).when(notificationSenderFunction).apply(any());
-      doReturn(todaysAnnouncements).when(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(any(), anyBoolean());
+      doReturn(List.of(ReleaseDtoFactory.createDefault())).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), any(), anyBoolean());
+      doThrow(new RuntimeException("smtp down")).when(notificationServiceMock).sendReleaseDateMessage(any(), any());
 
       // when
-      underTest.notifyOnAnnouncementDate();
+      underTest.notifyOnReleaseDate();
 
       // then
-      verify(notificationServiceMock).sendAnnouncementDateMessage(notificationConfig.getUser(), todaysAnnouncements);
+      verify(notificationHistory).remove("digest");
     }
 
     @Test
-    @DisplayName("services are called for each active config")
-    void test_services_called_for_each_config() {
+    @DisplayName("digest is removed if the notification is dropped after sending")
+    void test_digest_removed_on_drop() {
       // given
-      var notificationConfig2 = NotificationConfigEntity.builder().user(USER).notificationAtAnnouncementDate(true).channel(TELEGRAM).build();
-      var notificationServiceMock = mock(NotificationSender.class);
-      doReturn(List.of(notificationConfig, notificationConfig2)).when(notificationConfigRepository).findAllActive();
+      var notificationServiceMock = mockNotificationSender();
+      var delivery = new CompletableFuture<Void>();
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findReleaseDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
       doReturn(notificationServiceMock).when(notificationSenderFunction).apply(any());
-      doReturn(List.of(ReleaseDtoFactory.createDefault())).when(notificationReleaseCollector).fetchTodaysAnnouncementsForUser(any(), anyBoolean());
+      doReturn(List.of(ReleaseDtoFactory.createDefault())).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), any(), anyBoolean());
+      doReturn(delivery).when(notificationServiceMock).sendReleaseDateMessage(any(), any());
+      underTest.notifyOnReleaseDate();
 
       // when
-      underTest.notifyOnAnnouncementDate();
+      delivery.completeExceptionally(new RuntimeException("queue is full"));
 
       // then
-      verify(notificationReleaseCollector, times(2)).fetchTodaysAnnouncementsForUser(any(), anyBoolean());
-      verify(notificationSenderFunction, times(2)).apply(any());
-      verify(notificationServiceMock, times(2)).sendAnnouncementDateMessage(any(), any());
+      verify(notificationHistory).remove("digest");
     }
 
     @Test
-    @DisplayName("nothing is called if notification on announcement date is not active")
-    void test_nothing_is_called() {
+    @DisplayName("digest is kept if the notification is delivered")
+    void test_digest_kept_on_delivery() {
+      // given
+      var notificationServiceMock = mockNotificationSender();
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findReleaseDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
+      doReturn(notificationServiceMock).when(notificationSenderFunction).apply(any());
+      doReturn(List.of(ReleaseDtoFactory.createDefault())).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), any(), anyBoolean());
+
+      // when
+      underTest.notifyOnReleaseDate();
+
+      // then
+      verify(notificationHistory, never()).remove(any());
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for job leases")
+  class JobLeaseTests {
+
+    @Test
+    @DisplayName("lease of each shard is acquired and completed")
+    void test_lease_acquired_and_completed() {
+      // given
+      var today = LocalDate.now();
+      jobLeaseProperties.setNotificationShards(2);
+
+      // when
+      underTest.notifyOnReleaseDate();
+
+      // then
+      verify(jobLeaseService).acquire(RELEASE_DATE_JOB + ":" + today + ":0");
+      verify(jobLeaseService).acquire(RELEASE_DATE_JOB + ":" + today + ":1");
+      verify(jobLeaseService).complete(RELEASE_DATE_JOB + ":" + today + ":0");
+      verify(jobLeaseService).complete(RELEASE_DATE_JOB + ":" + today + ":1");
+    }
+
+    @Test
+    @DisplayName("each shard queries its own recipients")
+    void test_shards_query_own_recipients() {
+      // given
+      jobLeaseProperties.setNotificationShards(2);
+
+      // when
+      underTest.notifyOnReleaseDate();
+
+      // then
+      verify(notificationConfigRepository).findReleaseDateRecipients(eq(0L), eq(0), eq(2), any());
+      verify(notificationConfigRepository).findReleaseDateRecipients(eq(0L), eq(1), eq(2), any());
+    }
+
+    @Test
+    @DisplayName("nothing is called if the lease is held by another node")
+    void test_nothing_called_without_lease() {
       // given
-      notificationConfig.setNotificationAtAnnouncementDate(false);
-      doReturn(List.of(notificationConfig)).when(notificationConfigRepository).findAllActive();
+      doReturn(false).when(jobLeaseService).acquire(any());
+
+      // when
+      underTest.notifyOnFrequency();
+
+      // then
+      verifyNoInteractions(notificationConfigRepository, notificationReleaseCollector);
+      verify(jobLeaseService, never()).complete(any());
+    }
+
+    @Test
+    @DisplayName("lease is not completed if the job fails")
+    void test_lease_not_completed_on_failure() {
+      // given
+      var recipient = createRecipient(1L, NotificationConfigEntity.builder().user(USER).channel(EMAIL).build());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findAnnouncementDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doThrow(new RuntimeException("butler down")).when(notificationReleaseCollector).createAnnouncementDateReleaseIndex(any());
 
       // when
       underTest.notifyOnAnnouncementDate();
 
       // then
-      verifyNoInteractions(notificationReleaseCollector);
+      verify(jobLeaseService, never()).complete(any());
     }
 
     @Test
-    @DisplayName("current authentication is set to anonymous and then to null again")
-    void test_current_authentication_set_to_anonymous() {
+    @DisplayName("next shard is processed if a shard fails")
+    void test_next_shard_processed_on_failure() {
       // given
-      var securityContextMock = mock(SecurityContext.class);
+      var today = LocalDate.now();
+      jobLeaseProperties.setNotificationShards(2);
+      doThrow(new RuntimeException("database down")).when(notificationConfigRepository).findReleaseDateRecipients(anyLong(), eq(0), anyInt(), any());
 
-      try (MockedStatic<SecurityContextHolder> mock = mockStatic(SecurityContextHolder.class)) {
-        //given
-        mock.when(SecurityContextHolder::getContext).thenReturn(securityContextMock);
+      // when
+      underTest.notifyOnReleaseDate();
 
-        //when
-        underTest.notifyOnAnnouncementDate();
+      // then
+      verify(notificationConfigRepository).findReleaseDateRecipients(eq(0L), eq(1), eq(2), any());
+      verify(jobLeaseService, never()).complete(RELEASE_DATE_JOB + ":" + today + ":0");
+      verify(jobLeaseService).complete(RELEASE_DATE_JOB + ":" + today + ":1");
+    }
 
-        //then
-        mock.verify(SecurityContextHolder::getContext, times(2));
-      }
+    @Test
+    @DisplayName("recovery only takes over expired leases of today's jobs")
+    void test_recovery_takes_over_expired_leases() {
+      // given
+      var today = LocalDate.now();
+
+      // when
+      underTest.recoverExpiredShards();
 
       // then
-      InOrder order = Mockito.inOrder(securityContextMock);
-      order.verify(securityContextMock).setAuthentication(PRINCIPAL);
-      order.verify(securityContextMock).setAuthentication(null);
+      verify(jobLeaseService).acquireExpired(FREQUENCY_JOB + ":" + today + ":0");
+      verify(jobLeaseService).acquireExpired(RELEASE_DATE_JOB + ":" + today + ":0");
+      verify(jobLeaseService).acquireExpired(ANNOUNCEMENT_DATE_JOB + ":" + today + ":0");
+      verify(jobLeaseService, never()).acquire(any());
+      verifyNoInteractions(notificationConfigRepository);
+    }
+
+    @Test
+    @DisplayName("recovered shard is processed and completed")
+    void test_recovered_shard_processed() {
+      // given
+      var leaseName = RELEASE_DATE_JOB + ":" + LocalDate.now() + ":0";
+      lenient().doReturn(false).when(jobLeaseService).acquireExpired(any());
+      doReturn(true).when(jobLeaseService).acquireExpired(leaseName);
+
+      // when
+      underTest.recoverExpiredShards();
+
+      // then
+      verify(notificationConfigRepository).findReleaseDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      verify(jobLeaseService).complete(leaseName);
     }
   }
+
+  @Nested
+  @DisplayName("Tests for run checkpoints")
+  class RunCheckpointTests {
+
+    private final String runName = RELEASE_DATE_JOB + ":" + LocalDate.now() + ":0";
+
+    @Test
+    @DisplayName("run is started with the number of recipients of the shard")
+    void test_run_started() {
+      // given
+      doReturn(5L).when(notificationConfigRepository).countReleaseDateRecipients(0L, 0, 1);
+      doAnswer(invocation -> {
+        LongSupplier totalRecipients = invocation.getArgument(1);
+        assertThat(totalRecipients.getAsLong()).isEqualTo(5L);
+        return 0L;
+      }).when(notificationRunService).startOrResume(any(), any());
+
+      // when
+      underTest.notifyOnReleaseDate();
+
+      // then
+      verify(notificationRunService).startOrResume(eq(runName), any());
+    }
+
+    @Test
+    @DisplayName("resumed run continues after the last checkpoint")
+    void test_run_resumed() {
+      // given
+      doReturn(17L).when(notificationRunService).startOrResume(any(), any());
+
+      // when
+      underTest.notifyOnReleaseDate();
+
+      // then
+      verify(notificationConfigRepository).findReleaseDateRecipients(17L, 0, 1, Pageable.ofSize(notificationDispatchProperties.getChunkSize()));
+    }
+
+    @Test
+    @DisplayName("checkpoint is stored after each chunk and the run is completed")
+    void test_checkpoint_after_each_chunk() {
+      // given
+      notificationDispatchProperties.setChunkSize(2);
+      var recipient1 = createRecipient(1L, NotificationConfigEntity.builder().user(USER).channel(EMAIL).build());
+      var recipient2 = createRecipient(2L, NotificationConfigEntity.builder().user(USER).channel(EMAIL).build());
+      var recipient3 = createRecipient(3L, NotificationConfigEntity.builder().user(USER).channel(EMAIL).build());
+      doReturn(List.of(recipient1, recipient2)).when(notificationConfigRepository).findReleaseDateRecipients(eq(0L), anyInt(), anyInt(), any());
+      doReturn(List.of(recipient3)).when(notificationConfigRepository).findReleaseDateRecipients(eq(2L), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
+      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), any(), anyBoolean());
+
+      // when
+      underTest.notifyOnReleaseDate();
+
+      // then
+      InOrder order = Mockito.inOrder(notificationRunService);
+      order.verify(notificationRunService).checkpoint(runName, 2L, 2);
+      order.verify(notificationRunService).checkpoint(runName, 3L, 1);
+      order.verify(notificationRunService).complete(runName);
+    }
+
+    @Test
+    @DisplayName("lease is renewed after each checkpoint")
+    void test_lease_renewed_after_each_checkpoint() {
+      // given
+      notificationDispatchProperties.setChunkSize(1);
+      var recipient1 = createRecipient(1L, NotificationConfigEntity.builder().user(USER).channel(EMAIL).build());
+      var recipient2 = createRecipient(2L, NotificationConfigEntity.builder().user(USER).channel(EMAIL).build());
+      doReturn(List.of(recipient1)).when(notificationConfigRepository).findReleaseDateRecipients(eq(0L), anyInt(), anyInt(), any());
+      doReturn(List.of(recipient2)).when(notificationConfigRepository).findReleaseDateRecipients(eq(1L), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
+      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), any(), anyBoolean());
+
+      // when
+      underTest.notifyOnReleaseDate();
+
+      // then
+      InOrder order = Mockito.inOrder(notificationRunService, jobLeaseService);
+      order.verify(notificationRunService).checkpoint(runName, 1L, 1);
+      order.verify(jobLeaseService).renew(runName);
+      order.verify(notificationRunService).checkpoint(runName, 2L, 1);
+      order.verify(jobLeaseService).renew(runName);
+    }
+
+    @Test
+    @DisplayName("run stops if the lease was taken over by another node")
+    void test_run_stops_without_lease() {
+      // given
+      notificationDispatchProperties.setChunkSize(1);
+      var recipient = createRecipient(1L, NotificationConfigEntity.builder().user(USER).channel(EMAIL).build());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findReleaseDateRecipients(eq(0L), anyInt(), anyInt(), any());
+      doReturn(releaseIndex).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
+      doReturn(Collections.emptyList()).when(notificationReleaseCollector).fetchTodaysReleaseForUser(any(), any(), anyBoolean());
+      doReturn(false).when(jobLeaseService).renew(runName);
+
+      // when
+      underTest.notifyOnReleaseDate();
+
+      // then
+      verify(notificationConfigRepository, never()).findReleaseDateRecipients(eq(1L), anyInt(), anyInt(), any());
+      verify(notificationRunService, never()).complete(any());
+    }
+
+    @Test
+    @DisplayName("run is not completed if a chunk fails")
+    void test_run_not_completed_on_failure() {
+      // given
+      var recipient = createRecipient(1L, NotificationConfigEntity.builder().user(USER).channel(EMAIL).build());
+      doReturn(List.of(recipient)).when(notificationConfigRepository).findReleaseDateRecipients(anyLong(), anyInt(), anyInt(), any());
+      doThrow(new RuntimeException("butler down")).when(notificationReleaseCollector).createReleaseDateReleaseIndex(any());
+
+      // when
+      underTest.notifyOnReleaseDate();
+
+      // then
+      verify(notificationRunService, never()).checkpoint(any(), anyLong(), anyInt());
+      verify(notificationRunService, never()).complete(any());
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for staggered scheduling")
+  class StaggeredSchedulingTests {
+
+    @BeforeEach
+    void setup() {
+      // first bucket starts today at midnight, second bucket tomorrow at midnight
+      notificationScheduleProperties.setStaggered(true);
+      notificationScheduleProperties.setWindowStart(Duration.ZERO);
+      notificationScheduleProperties.setWindow(Duration.ofDays(2));
+      notificationScheduleProperties.setBuckets(2);
+    }
+
+    @Test
+    @DisplayName("nothing is triggered periodically if staggered scheduling is disabled")
+    void test_disabled() {
+      // given
+      notificationScheduleProperties.setStaggered(false);
+
+      // when
+      underTest.notifyDueBuckets();
+
+      // then
+      verifyNoInteractions(jobLeaseService, notificationConfigRepository);
+    }
+
+    @Test
+    @DisplayName("only buckets whose start is reached are processed")
+    void test_only_due_buckets_processed() {
+      // given
+      var today = LocalDate.now();
+
+      // when
+      underTest.notifyDueBuckets();
+
+      // then
+      verify(jobLeaseService).acquire(RELEASE_DATE_JOB + ":" + today + ":0");
+      verify(jobLeaseService, never()).acquire(RELEASE_DATE_JOB + ":" + today + ":1");
+      verify(jobLeaseService).acquire(ANNOUNCEMENT_DATE_JOB + ":" + today + ":0");
+      verify(jobLeaseService, never()).acquire(ANNOUNCEMENT_DATE_JOB + ":" + today + ":1");
+    }
+
+    @Test
+    @DisplayName("users are split into the configured number of buckets")
+    void test_buckets_as_shards() {
+      // when
+      underTest.notifyOnReleaseDate();
+
+      // then
+      verify(notificationConfigRepository).findReleaseDateRecipients(eq(0L), eq(0), eq(2), any());
+    }
+
+    @Test
+    @DisplayName("every bucket is only tried once per node")
+    void test_bucket_tried_once() {
+      // given
+      var leaseName = RELEASE_DATE_JOB + ":" + LocalDate.now() + ":0";
+      doReturn(false).when(jobLeaseService).acquire(leaseName);
+
+      // when
+      underTest.notifyDueBuckets();
+      underTest.notifyDueBuckets();
+
+      // then
+      verify(jobLeaseService).acquire(leaseName);
+    }
+
+    @Test
+    @DisplayName("processing time and delay of each bucket are measured")
+    void test_bucket_metrics() {
+      // when
+      underTest.notifyOnReleaseDate();
+
+      // then
+      assertThat(meterRegistry.get(BUCKET_DURATION_METRIC).tag("job", RELEASE_DATE_JOB).timer().count()).isEqualTo(1);
+      assertThat(meterRegistry.get(BUCKET_LAG_METRIC).tag("job", RELEASE_DATE_JOB).timer().count()).isEqualTo(1);
+    }
+  }
+
+  private NotificationSender mockNotificationSender() {
+    var notificationSender = mock(NotificationSender.class);
+    lenient().doReturn(completedFuture(null)).when(notificationSender).sendFrequencyMessage(any(), any(), any());
+    lenient().doReturn(completedFuture(null)).when(notificationSender).sendReleaseDateMessage(any(), any());
+    lenient().doReturn(completedFuture(null)).when(notificationSender).sendAnnouncementDateMessage(any(), any());
+    return notificationSender;
+  }
+
+  private NotificationRecipient createRecipient(long id, NotificationConfigEntity notificationConfig) {
+    ReflectionTestUtils.setField(notificationConfig, "id", id);
+    return new NotificationRecipient(notificationConfig, notificationConfig.getUser(), notificationConfig.getChannel() == TELEGRAM ? 666 : null);
+  }
 }
@@ -2,7 +2,6 @@ package rocks.metaldetector.service.notification.messaging;
 
 import org.assertj.core.api.WithAssertions;
 import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -10,19 +9,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import rocks.metaldetector.persistence.domain.notification.TelegramConfigEntity;
-import rocks.metaldetector.persistence.domain.notification.TelegramConfigRepository;
+import rocks.metaldetector.persistence.domain.notification.NotificationRecipient;
 import rocks.metaldetector.persistence.domain.user.AbstractUserEntity;
 import rocks.metaldetector.service.user.UserEntityFactory;
-import rocks.metaldetector.support.exceptions.ResourceNotFoundException;
 import rocks.metaldetector.telegram.facade.TelegramMessagingService;
 import rocks.metaldetector.testutil.DtoFactory.ReleaseDtoFactory;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
@@ -36,59 +33,27 @@ import static rocks.metaldetector.service.notification.messaging.TelegramNotific
 class TelegramNotificationSenderTest implements WithAssertions {
 
   private static final AbstractUserEntity USER = UserEntityFactory.createUser("user", "user@user.user");
+  private static final NotificationRecipient RECIPIENT = new NotificationRecipient(null, USER, 666);
+  private static final NotificationRecipient RECIPIENT_WITHOUT_CHAT_ID = new NotificationRecipient(null, USER, null);
 
   @Mock
   private TelegramMessagingService telegramMessagingService;
 
-  @Mock
-  private TelegramConfigRepository telegramConfigRepository;
-
   @Mock
   private TelegramNotificationFormatter telegramNotificationFormatter;
 
   @InjectMocks
   private TelegramNotificationSender underTest;
 
-  private TelegramConfigEntity telegramConfig;
-
-  @BeforeEach
-  void setup() {
-    telegramConfig = TelegramConfigEntity.builder().chatId(666).build();
-    doReturn(Optional.of(telegramConfig)).when(telegramConfigRepository).findByUser(any());
-  }
-
   @AfterEach
   void tearDown() {
-    reset(telegramConfigRepository, telegramMessagingService, telegramNotificationFormatter);
+    reset(telegramMessagingService, telegramNotificationFormatter);
   }
 
   @Nested
   @DisplayName("Frequency message tests")
   class FrequencyTests {
 
-    @Test
-    @DisplayName("repository is called")
-    void test_repository_called() {
-      // when
-      underTest.sendFrequencyMessage(USER, Collections.emptyList(), Collections.emptyList());
-
-      // then
-      verify(telegramConfigRepository).findByUser(USER);
-    }
-
-    @Test
-    @DisplayName("exception is thrown if no config could not be found")
-    void test_exception_thrown() {
-      // given
-      doReturn(Optional.empty()).when(telegramConfigRepository).findByUser(any());
-
-      // when
-      var throwable = catchThrowable(() -> underTest.sendFrequencyMessage(USER, Collections.emptyList(), Collections.emptyList()));
-
-      // then
-      assertThat(throwable).isInstanceOf(ResourceNotFoundException.class);
-    }
-
     @Test
     @DisplayName("notificationFormatter is called if chat id is set")
     void test_notification_formatter_called() {
@@ -96,7 +61,7 @@ class TelegramNotificationSenderTest implements WithAssertions {
       var releases = List.of(ReleaseDtoFactory.createDefault());
 
       // when
-      underTest.sendFrequencyMessage(USER, releases, releases);
+      underTest.sendFrequencyMessage(RECIPIENT, releases, releases);
 
       // then
       verify(telegramNotificationFormatter).formatFrequencyNotificationMessage(releases, releases);
@@ -105,11 +70,8 @@ class TelegramNotificationSenderTest implements WithAssertions {
     @Test
     @DisplayName("notificationFormatter is not called if chat id is null")
     void test_notification_formatter_not_called() {
-      // given
-      telegramConfig.setChatId(null);
-
       // when
-      underTest.sendFrequencyMessage(USER, Collections.emptyList(), Collections.emptyList());
+      underTest.sendFrequencyMessage(RECIPIENT_WITHOUT_CHAT_ID, Collections.emptyList(), Collections.emptyList());
 
       // then
       verifyNoInteractions(telegramNotificationFormatter);
@@ -123,10 +85,10 @@ class TelegramNotificationSenderTest implements WithAssertions {
       doReturn(message).when(telegramNotificationFormatter).formatFrequencyNotificationMessage(anyList(), anyList());
 
       // when
-      underTest.sendFrequencyMessage(USER, Collections.emptyList(), Collections.emptyList());
+      underTest.sendFrequencyMessage(RECIPIENT, Collections.emptyList(), Collections.emptyList());
 
       // then
-      verify(telegramMessagingService).sendMessage(telegramConfig.getChatId(), message);
+      verify(telegramMessagingService).sendMessage(RECIPIENT.getTelegramChatId(), message);
     }
   }
 
@@ -135,26 +97,29 @@ class TelegramNotificationSenderTest implements WithAssertions {
   class ReleaseDateTests {
 
     @Test
-    @DisplayName("repository is called")
-    void test_repository_called() {
+    @DisplayName("delivery of the messaging service is returned")
+    void test_delivery_returned() {
+      // given
+      var delivery = new CompletableFuture<Void>();
+      doReturn("message").when(telegramNotificationFormatter).formatDateNotificationMessage(anyList(), anyString());
+      doReturn(delivery).when(telegramMessagingService).sendMessage(anyInt(), anyString());
+
       // when
-      underTest.sendReleaseDateMessage(USER, List.of(ReleaseDtoFactory.createDefault()));
+      var result = underTest.sendReleaseDateMessage(RECIPIENT, Collections.emptyList());
 
       // then
-      verify(telegramConfigRepository).findByUser(USER);
+      assertThat(result).isSameAs(delivery);
     }
 
     @Test
-    @DisplayName("exception is thrown if no config could not be found")
-    void test_exception_thrown() {
-      // given
-      doReturn(Optional.empty()).when(telegramConfigRepository).findByUser(any());
-
+    @DisplayName("completed delivery is returned if chat id is null")
+    void test_completed_delivery_without_chat_id() {
       // when
-      var throwable = catchThrowable(() -> underTest.sendReleaseDateMessage(USER, Collections.emptyList()));
+      var result = underTest.sendReleaseDateMessage(RECIPIENT_WITHOUT_CHAT_ID, Collections.emptyList());
 
       // then
-      assertThat(throwable).isInstanceOf(ResourceNotFoundException.class);
+      assertThat(result).isCompleted();
+      verifyNoInteractions(telegramMessagingService);
     }
 
     @Test
@@ -164,7 +129,7 @@ class TelegramNotificationSenderTest implements WithAssertions {
       var releases = List.of(ReleaseDtoFactory.createDefault());
 
       // when
-      underTest.sendReleaseDateMessage(USER, releases);
+      underTest.sendReleaseDateMessage(RECIPIENT, releases);
 
       // then
       verify(telegramNotificationFormatter).formatDateNotificationMessage(releases, TODAYS_RELEASES_TEXT);
@@ -173,11 +138,8 @@ class TelegramNotificationSenderTest implements WithAssertions {
     @Test
     @DisplayName("notificationFormatter is not called if chat id is null")
     void test_notification_formatter_not_called() {
-      // given
-      telegramConfig.setChatId(null);
-
       // when
-      underTest.sendReleaseDateMessage(USER, Collections.emptyList());
+      underTest.sendReleaseDateMessage(RECIPIENT_WITHOUT_CHAT_ID, Collections.emptyList());
 
       // then
       verifyNoInteractions(telegramNotificationFormatter);
@@ -191,10 +153,10 @@ class TelegramNotificationSenderTest implements WithAssertions {
       doReturn(message).when(telegramNotificationFormatter).formatDateNotificationMessage(anyList(), anyString());
 
       // when
-      underTest.sendReleaseDateMessage(USER, Collections.emptyList());
+      underTest.sendReleaseDateMessage(RECIPIENT, Collections.emptyList());
 
       // then
-      verify(telegramMessagingService).sendMessage(telegramConfig.getChatId(), message);
+      verify(telegramMessagingService).sendMessage(RECIPIENT.getTelegramChatId(), message);
     }
   }
 
@@ -202,29 +164,6 @@ class TelegramNotificationSenderTest implements WithAssertions {
   @DisplayName("Announcement date message tests")
   class AnnouncementDateTests {
 
-    @Test
-    @DisplayName("repository is called")
-    void test_repository_called() {
-      // when
-      underTest.sendAnnouncementDateMessage(USER, List.of(ReleaseDtoFactory.createDefault()));
-
-      // then
-      verify(telegramConfigRepository).findByUser(USER);
-    }
-
-    @Test
-    @DisplayName("exception is thrown if no config could not be found")
-    void test_exception_thrown() {
-      // given
-      doReturn(Optional.empty()).when(telegramConfigRepository).findByUser(any());
-
-      // when
-      var throwable = catchThrowable(() -> underTest.sendAnnouncementDateMessage(USER, Collections.emptyList()));
-
-      // then
-      assertThat(throwable).isInstanceOf(ResourceNotFoundException.class);
-    }
-
     @Test
     @DisplayName("notificationFormatter is called if chat id is set")
     void test_notification_formatter_called() {
@@ -232,7 +171,7 @@ class TelegramNotificationSenderTest implements WithAssertions {
       var releases = List.of(ReleaseDtoFactory.createDefault());
 
       // when
-      underTest.sendAnnouncementDateMessage(USER, releases);
+      underTest.sendAnnouncementDateMessage(RECIPIENT, releases);
 
       // then
       verify(telegramNotificationFormatter).formatDateNotificationMessage(releases, TODAYS_ANNOUNCEMENTS_TEXT);
@@ -241,11 +180,8 @@ class TelegramNotificationSenderTest implements WithAssertions {
     @Test
     @DisplayName("notificationFormatter is not called if chat id is null")
     void test_notification_formatter_not_called() {
-      // given
-      telegramConfig.setChatId(null);
-
       // when
-      underTest.sendAnnouncementDateMessage(USER, Collections.emptyList());
+      underTest.sendAnnouncementDateMessage(RECIPIENT_WITHOUT_CHAT_ID, Collections.emptyList());
 
       // then
       verifyNoInteractions(telegramNotificationFormatter);
@@ -259,10 +195,10 @@ class TelegramNotificationSenderTest implements WithAssertions {
       doReturn(message).when(telegramNotificationFormatter).formatDateNotificationMessage(anyList(), anyString());
 
       // when
-      underTest.sendAnnouncementDateMessage(USER, Collections.emptyList());
+      underTest.sendAnnouncementDateMessage(RECIPIENT, Collections.emptyList());
 
       // then
-      verify(telegramMessagingService).sendMessage(telegramConfig.getChatId(), message);
+      verify(telegramMessagingService).sendMessage(RECIPIENT.getTelegramChatId(), message);
     }
   }
 }
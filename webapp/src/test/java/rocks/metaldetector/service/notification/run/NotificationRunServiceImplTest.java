@@ -0,0 +1,199 @@
+package rocks.metaldetector.service.notification.run;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import rocks.metaldetector.persistence.domain.notification.NotificationRunEntity;
+import rocks.metaldetector.persistence.domain.notification.NotificationRunRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRunServiceImplTest implements WithAssertions {
+
+  private static final String RUN_NAME = "job:2026-10-17:0";
+
+  @Mock
+  private NotificationRunRepository notificationRunRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private NotificationRunServiceImpl underTest;
+
+  @BeforeEach
+  void setup() {
+    underTest = new NotificationRunServiceImpl(notificationRunRepository, transactionManager);
+  }
+
+  @AfterEach
+  void tearDown() {
+    reset(notificationRunRepository, transactionManager);
+  }
+
+  @Nested
+  @DisplayName("Tests for starting and resuming runs")
+  class StartOrResumeTests {
+
+    @Test
+    @DisplayName("new run is created with the total number of recipients")
+    void test_new_run_created() {
+      // given
+      ArgumentCaptor<NotificationRunEntity> argumentCaptor = ArgumentCaptor.forClass(NotificationRunEntity.class);
+      doReturn(Optional.empty()).when(notificationRunRepository).findByRunName(anyString());
+
+      // when
+      var result = underTest.startOrResume(RUN_NAME, () -> 42L);
+
+      // then
+      assertThat(result).isZero();
+      verify(notificationRunRepository).save(argumentCaptor.capture());
+      var run = argumentCaptor.getValue();
+      assertThat(run.getRunName()).isEqualTo(RUN_NAME);
+      assertThat(run.getTotalRecipients()).isEqualTo(42L);
+      assertThat(run.getStartedAt()).isCloseTo(LocalDateTime.now(), within(1, ChronoUnit.MINUTES));
+    }
+
+    @Test
+    @DisplayName("existing run is resumed after its last checkpoint")
+    void test_existing_run_resumed() {
+      // given
+      var totalRecipientsCounted = new AtomicBoolean();
+      var run = NotificationRunEntity.builder().runName(RUN_NAME).totalRecipients(10).lastConfigId(17).startedAt(LocalDateTime.now()).build();
+      doReturn(Optional.of(run)).when(notificationRunRepository).findByRunName(RUN_NAME);
+
+      // when
+      var result = underTest.startOrResume(RUN_NAME, () -> {
+        totalRecipientsCounted.set(true);
+        return 0L;
+      });
+
+      // then
+      assertThat(result).isEqualTo(17L);
+      assertThat(totalRecipientsCounted).isFalse();
+      verify(notificationRunRepository, never()).save(any());
+    }
+  }
+
+  @Test
+  @DisplayName("checkpoint stores the last config id and the processed recipients")
+  void test_checkpoint() {
+    // when
+    underTest.checkpoint(RUN_NAME, 17L, 5);
+
+    // then
+    verify(notificationRunRepository).checkpoint(eq(RUN_NAME), eq(17L), eq(5L), any());
+  }
+
+  @Test
+  @DisplayName("complete sets the run completed")
+  void test_complete() {
+    // when
+    underTest.complete(RUN_NAME);
+
+    // then
+    verify(notificationRunRepository).complete(eq(RUN_NAME), any());
+  }
+
+  @Nested
+  @DisplayName("Tests for querying runs")
+  class GetRunsTests {
+
+    @Test
+    @DisplayName("runs started on the given date are queried")
+    void test_runs_of_date_queried() {
+      // given
+      var date = LocalDate.of(2026, 10, 17);
+
+      // when
+      underTest.getRuns(date);
+
+      // then
+      verify(notificationRunRepository).findAllStartedBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    @DisplayName("throughput and estimated completion are calculated from the last checkpoint")
+    void test_running_run() {
+      // given
+      var startedAt = LocalDateTime.of(2026, 10, 17, 7, 0);
+      var run = NotificationRunEntity.builder()
+          .runName(RUN_NAME)
+          .totalRecipients(300)
+          .processedRecipients(100)
+          .startedAt(startedAt)
+          .lastCheckpointAt(startedAt.plusSeconds(50))
+          .build();
+      doReturn(List.of(run)).when(notificationRunRepository).findAllStartedBetween(any(), any());
+
+      // when
+      var result = underTest.getRuns(LocalDate.now());
+
+      // then
+      assertThat(result).hasSize(1);
+      assertThat(result.get(0).getRunName()).isEqualTo(RUN_NAME);
+      assertThat(result.get(0).getTotalRecipients()).isEqualTo(300);
+      assertThat(result.get(0).getProcessedRecipients()).isEqualTo(100);
+      assertThat(result.get(0).getRecipientsPerSecond()).isEqualTo(2.0);
+      assertThat(result.get(0).getEstimatedCompletionAt()).isEqualTo(startedAt.plusSeconds(150));
+    }
+
+    @Test
+    @DisplayName("completed run has no estimated completion")
+    void test_completed_run() {
+      // given
+      var startedAt = LocalDateTime.of(2026, 10, 17, 7, 0);
+      var run = NotificationRunEntity.builder()
+          .runName(RUN_NAME)
+          .totalRecipients(100)
+          .processedRecipients(100)
+          .startedAt(startedAt)
+          .completedAt(startedAt.plusSeconds(20))
+          .build();
+      doReturn(List.of(run)).when(notificationRunRepository).findAllStartedBetween(any(), any());
+
+      // when
+      var result = underTest.getRuns(LocalDate.now());
+
+      // then
+      assertThat(result.get(0).getRecipientsPerSecond()).isEqualTo(5.0);
+      assertThat(result.get(0).getEstimatedCompletionAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("run without progress has no estimated completion")
+    void test_run_without_progress() {
+      // given
+      var run = NotificationRunEntity.builder().runName(RUN_NAME).totalRecipients(100).startedAt(LocalDateTime.now()).build();
+      doReturn(List.of(run)).when(notificationRunRepository).findAllStartedBetween(any(), any());
+
+      // when
+      var result = underTest.getRuns(LocalDate.now());
+
+      // then
+      assertThat(result.get(0).getRecipientsPerSecond()).isZero();
+      assertThat(result.get(0).getEstimatedCompletionAt()).isNull();
+    }
+  }
+}
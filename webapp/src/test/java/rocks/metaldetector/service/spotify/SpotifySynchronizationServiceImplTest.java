@@ -6,6 +6,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -14,11 +16,14 @@ import rocks.metaldetector.spotify.facade.SpotifyService;
 import rocks.metaldetector.testutil.DtoFactory.SpotifyAlbumDtoFactory;
 import rocks.metaldetector.testutil.DtoFactory.SpotifyArtistDtoFactory;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
@@ -38,6 +43,9 @@ class SpotifySynchronizationServiceImplTest implements WithAssertions {
   @InjectMocks
   private SpotifySynchronizationServiceImpl underTest;
 
+  @Captor
+  private ArgumentCaptor<Collection<String>> argumentCaptor;
+
   @AfterEach
   void tearDown() {
     reset(spotifyService, followArtistService);
@@ -105,7 +113,6 @@ class SpotifySynchronizationServiceImplTest implements WithAssertions {
       // given
       var artistA = SpotifyArtistDtoFactory.withArtistName("a");
       var artistB = SpotifyArtistDtoFactory.withArtistName("b");
-      doReturn(false).when(followArtistService).isCurrentUserFollowing(any(), any());
       doReturn(List.of(artistA)).when(spotifyService).fetchFollowedArtists();
       doReturn(List.of(artistB)).when(spotifyService).searchArtistsByIds(any());
 
@@ -122,7 +129,6 @@ class SpotifySynchronizationServiceImplTest implements WithAssertions {
       // given
       var artistA = SpotifyArtistDtoFactory.withArtistName("a");
       var artistADuplicate = SpotifyArtistDtoFactory.withArtistName("a");
-      doReturn(false).when(followArtistService).isCurrentUserFollowing(any(), any());
       doReturn(List.of(artistADuplicate)).when(spotifyService).fetchFollowedArtists( );
       doReturn(List.of(artistA)).when(spotifyService).searchArtistsByIds(any());
 
@@ -134,7 +140,7 @@ class SpotifySynchronizationServiceImplTest implements WithAssertions {
     }
 
     @Test
-    @DisplayName("followArtistService is called for each artist")
+    @DisplayName("followArtistService is called once with all artists")
     void test_follow_artist_service_called_to_check_followed() {
       // given
       var spotifyArtist1 = SpotifyArtistDtoFactory.withArtistName("Slayer");
@@ -146,8 +152,24 @@ class SpotifySynchronizationServiceImplTest implements WithAssertions {
       underTest.fetchSavedArtists(List.of(ALBUMS));
 
       // then
-      verify(followArtistService).isCurrentUserFollowing(spotifyArtist1.getId(), SPOTIFY);
-      verify(followArtistService).isCurrentUserFollowing(spotifyArtist2.getId(), SPOTIFY);
+      verify(followArtistService).getFollowedExternalIdsOfCurrentUser(argumentCaptor.capture(), eq(SPOTIFY));
+      assertThat(argumentCaptor.getValue()).containsExactlyInAnyOrder(spotifyArtist1.getId(), spotifyArtist2.getId());
+    }
+
+    @Test
+    @DisplayName("already followed artists are not returned")
+    void test_followed_artists_not_returned() {
+      // given
+      var spotifyArtist1 = SpotifyArtistDtoFactory.withArtistName("Slayer");
+      var spotifyArtist2 = SpotifyArtistDtoFactory.withArtistName("Metallica");
+      doReturn(List.of(spotifyArtist1, spotifyArtist2)).when(spotifyService).fetchFollowedArtists();
+      doReturn(Set.of(spotifyArtist1.getId())).when(followArtistService).getFollowedExternalIdsOfCurrentUser(any(), any());
+
+      // when
+      var result = underTest.fetchSavedArtists(List.of(ARTISTS));
+
+      // then
+      assertThat(result).containsExactly(spotifyArtist2);
     }
 
     @Test
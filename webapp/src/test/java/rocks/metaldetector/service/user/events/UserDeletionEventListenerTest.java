@@ -7,6 +7,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -21,12 +22,14 @@ import rocks.metaldetector.persistence.domain.notification.NotificationConfigRep
 import rocks.metaldetector.persistence.domain.notification.TelegramConfigRepository;
 import rocks.metaldetector.persistence.domain.user.UserEntity;
 import rocks.metaldetector.persistence.domain.user.UserRepository;
+import rocks.metaldetector.service.artist.ArtistFollowerCountService;
 import rocks.metaldetector.service.email.AccountDeletedEmail;
 import rocks.metaldetector.service.email.EmailService;
 import rocks.metaldetector.service.user.UserEntityFactory;
 import rocks.metaldetector.service.user.UserService;
 
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static rocks.metaldetector.service.user.events.UserDeletionEventListener.DELETE_QUERY;
@@ -40,6 +43,9 @@ class UserDeletionEventListenerTest implements WithAssertions {
   @Mock
   private FollowActionRepository followActionRepository;
 
+  @Mock
+  private ArtistFollowerCountService artistFollowerCountService;
+
   @Mock
   private NotificationConfigRepository notificationConfigRepository;
 
@@ -72,7 +78,7 @@ class UserDeletionEventListenerTest implements WithAssertions {
 
   @AfterEach
   void tearDown() {
-    reset(followActionRepository, notificationConfigRepository, userRepository,
+    reset(followActionRepository, artistFollowerCountService, notificationConfigRepository, userRepository,
           jdbcTemplate, emailService, telegramConfigRepository, oAuth2AuthorizedClientService);
   }
 
@@ -106,6 +112,18 @@ class UserDeletionEventListenerTest implements WithAssertions {
     verify(followActionRepository).deleteAllByUser(userDeletionEvent.getUserEntity());
   }
 
+  @Test
+  @DisplayName("the user is removed from the follower counts before the FollowActions are deleted")
+  void test_follower_counts_updated() {
+    // when
+    underTest.onApplicationEvent(userDeletionEvent);
+
+    // then
+    InOrder inOrder = inOrder(artistFollowerCountService, followActionRepository);
+    inOrder.verify(artistFollowerCountService).removeFollowerOfUser(userDeletionEvent.getUserEntity());
+    inOrder.verify(followActionRepository).deleteAllByUser(userDeletionEvent.getUserEntity());
+  }
+
   @Test
   @DisplayName("spotify oAuth token is deleted")
   void test_spotify_oauth_token_deleted() {
@@ -54,6 +54,16 @@ public class RestAssuredMockMvcUtils {
           .then();
   }
 
+  public ValidatableMockMvcResponse doGetWithHeader(String name, String value) {
+    return given()
+            .config(NO_SECURITY_CONFIG)
+            .accept(ContentType.JSON)
+            .header(name, value)
+          .when()
+            .get(requestUri)
+          .then();
+  }
+
   public ValidatableMockMvcResponse doGetWithAttributes(Map<String, Object> attributes) {
     return given()
             .config(NO_SECURITY_CONFIG)
@@ -10,8 +10,15 @@ import rocks.metaldetector.security.SecurityConfig;
 import rocks.metaldetector.service.artist.ArtistSearchService;
 import rocks.metaldetector.service.artist.FollowArtistService;
 import rocks.metaldetector.service.dashboard.ArtistCollector;
+import rocks.metaldetector.service.dashboard.CommunitySnapshot;
+import rocks.metaldetector.service.dashboard.CommunitySnapshotService;
 import rocks.metaldetector.testutil.BaseWebMvcTestWithSecurity;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static java.util.Collections.emptyList;
+import static org.mockito.Mockito.doReturn;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static rocks.metaldetector.support.Endpoints.Rest.TOP_ARTISTS;
@@ -32,10 +39,16 @@ class ArtistsRestControllerIntegrationTest extends BaseWebMvcTestWithSecurity {
   @SuppressWarnings("unused")
   private ArtistCollector artistCollector;
 
+  @MockitoBean
+  private CommunitySnapshotService communitySnapshotService;
+
   @Test
   @DisplayName("Anonymous user is allowed to GET on endpoint " + TOP_ARTISTS + "'")
   @WithAnonymousUser
   void anonymous_user_is_allowed_to_get_top_artists() throws Exception {
+    doReturn(new CommunitySnapshot(emptyList(), emptyList(), LocalDateTime.now(), "version")).when(communitySnapshotService).getSnapshot();
+    doReturn(Duration.ofMinutes(10)).when(communitySnapshotService).getMaxAge();
+
     mockMvc.perform(get(TOP_ARTISTS))
         .andExpect(status().isOk());
   }
@@ -24,11 +24,16 @@ import rocks.metaldetector.service.artist.ArtistDto;
 import rocks.metaldetector.service.artist.ArtistSearchService;
 import rocks.metaldetector.service.artist.FollowArtistService;
 import rocks.metaldetector.service.dashboard.ArtistCollector;
+import rocks.metaldetector.service.dashboard.CommunitySnapshot;
+import rocks.metaldetector.service.dashboard.CommunitySnapshotService;
 import rocks.metaldetector.service.exceptions.RestExceptionsHandler;
 import rocks.metaldetector.testutil.DtoFactory.ArtistDtoFactory;
 import rocks.metaldetector.web.RestAssuredMockMvcUtils;
 import rocks.metaldetector.web.api.response.ArtistSearchResponse;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +46,8 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 import static rocks.metaldetector.persistence.domain.artist.ArtistSource.DISCOGS;
@@ -69,13 +76,16 @@ class ArtistsRestControllerTest implements WithAssertions {
   @Mock
   private ArtistCollector artistCollector;
 
+  @Mock
+  private CommunitySnapshotService communitySnapshotService;
+
   private ArtistsRestController underTest;
 
   private RestAssuredMockMvcUtils restAssuredUtils;
 
   @BeforeEach
   void setup() {
-    underTest = new ArtistsRestController(artistSearchService, followArtistService, artistCollector);
+    underTest = new ArtistsRestController(artistSearchService, followArtistService, artistCollector, communitySnapshotService);
   }
 
   @Nested
@@ -338,14 +348,14 @@ class ArtistsRestControllerTest implements WithAssertions {
 
     @AfterEach
     void tearDown() {
-      reset(artistCollector);
+      reset(artistCollector, communitySnapshotService);
     }
 
     @Test
-    @DisplayName("should call artist collector")
+    @DisplayName("should call artist collector for less than the minimum follower of the community snapshot")
     void should_call_artist_collector() {
       // given
-      var minFollower = 10;
+      var minFollower = 1;
       Map<String, Object> requestParams = new HashMap<>();
       requestParams.put("minFollower", minFollower);
 
@@ -363,6 +373,7 @@ class ArtistsRestControllerTest implements WithAssertions {
       var limit = 1;
       Map<String, Object> requestParams = new HashMap<>();
       requestParams.put("limit", limit);
+      requestParams.put("minFollower", 1);
       var artist1 = ArtistDtoFactory.withName("A");
       var artist2 = ArtistDtoFactory.withName("B");
       doReturn(List.of(artist1, artist2)).when(artistCollector).collectTopFollowedArtists(anyInt());
@@ -379,10 +390,63 @@ class ArtistsRestControllerTest implements WithAssertions {
     @DisplayName("should return status code 200")
     void should_return_200() {
       // when
-      var validatableResponse = restAssuredUtils.doGet();
+      var validatableResponse = restAssuredUtils.doGet(Map.of("minFollower", 1));
 
       // then
       validatableResponse.statusCode(OK.value());
     }
+
+    @Test
+    @DisplayName("should return the limited top artists of the community snapshot with the cache headers")
+    void should_return_community_snapshot() {
+      // given
+      var artist1 = ArtistDtoFactory.withName("A");
+      var artist2 = ArtistDtoFactory.withName("B");
+      doReturn(new CommunitySnapshot(List.of(artist1, artist2), Collections.emptyList(), LocalDateTime.now(), "version")).when(communitySnapshotService).getSnapshot();
+      doReturn(Duration.ofMinutes(10)).when(communitySnapshotService).getMaxAge();
+
+      // when
+      var validatableResponse = restAssuredUtils.doGet(Map.of("limit", 1));
+
+      // then
+      validatableResponse.statusCode(OK.value())
+          .header("Cache-Control", "max-age=600, public")
+          .header("ETag", "\"version-2-1\"");
+      var responseBody = validatableResponse.extract().as(ArtistDto[].class);
+      assertThat(responseBody).containsExactly(artist1);
+      verifyNoInteractions(artistCollector);
+    }
+
+    @Test
+    @DisplayName("should filter the community snapshot by the minimum follower")
+    void should_filter_community_snapshot() {
+      // given
+      var artist1 = ArtistDtoFactory.withName("A");
+      var artist2 = ArtistDtoFactory.withName("B");
+      artist2.setFollower(5);
+      doReturn(new CommunitySnapshot(List.of(artist1, artist2), Collections.emptyList(), LocalDateTime.now(), "version")).when(communitySnapshotService).getSnapshot();
+      doReturn(Duration.ofMinutes(10)).when(communitySnapshotService).getMaxAge();
+
+      // when
+      var validatableResponse = restAssuredUtils.doGet(Map.of("minFollower", 10));
+
+      // then
+      var responseBody = validatableResponse.extract().as(ArtistDto[].class);
+      assertThat(responseBody).containsExactly(artist1);
+    }
+
+    @Test
+    @DisplayName("should return status code 304 if the community snapshot did not change")
+    void should_return_not_modified() {
+      // given
+      doReturn(new CommunitySnapshot(Collections.emptyList(), Collections.emptyList(), LocalDateTime.now(), "version")).when(communitySnapshotService).getSnapshot();
+      doReturn(Duration.ofMinutes(10)).when(communitySnapshotService).getMaxAge();
+
+      // when
+      var validatableResponse = restAssuredUtils.doGetWithHeader("If-None-Match", "\"version-2-10\"");
+
+      // then
+      validatableResponse.statusCode(NOT_MODIFIED.value());
+    }
   }
 }
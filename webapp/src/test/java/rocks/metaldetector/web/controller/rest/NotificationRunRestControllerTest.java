@@ -0,0 +1,89 @@
+package rocks.metaldetector.web.controller.rest;
+
+import io.restassured.module.mockmvc.RestAssuredMockMvc;
+import io.restassured.module.mockmvc.response.ValidatableMockMvcResponse;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.web.servlet.setup.StandaloneMockMvcBuilder;
+import rocks.metaldetector.service.notification.run.NotificationRunDto;
+import rocks.metaldetector.service.notification.run.NotificationRunService;
+import rocks.metaldetector.web.RestAssuredMockMvcUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.springframework.http.HttpStatus.OK;
+import static rocks.metaldetector.support.Endpoints.Rest.NOTIFICATION_RUNS;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRunRestControllerTest implements WithAssertions {
+
+  @Mock
+  private NotificationRunService notificationRunService;
+
+  private RestAssuredMockMvcUtils restAssuredUtils;
+
+  @BeforeEach
+  void setUp() {
+    NotificationRunRestController underTest = new NotificationRunRestController(notificationRunService);
+    StandaloneMockMvcBuilder mockMvcBuilder = MockMvcBuilders.standaloneSetup(underTest);
+    RestAssuredMockMvc.standaloneSetup(mockMvcBuilder);
+    restAssuredUtils = new RestAssuredMockMvcUtils(NOTIFICATION_RUNS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    reset(notificationRunService);
+  }
+
+  @Test
+  @DisplayName("Should query the runs of today by default")
+  void should_query_runs_of_today() {
+    // when
+    restAssuredUtils.doGet();
+
+    // then
+    verify(notificationRunService).getRuns(LocalDate.now());
+  }
+
+  @Test
+  @DisplayName("Should query the runs of the given date")
+  void should_query_runs_of_given_date() {
+    // when
+    restAssuredUtils.doGet(Map.of("date", "2026-10-01"));
+
+    // then
+    verify(notificationRunService).getRuns(LocalDate.of(2026, 10, 1));
+  }
+
+  @Test
+  @DisplayName("Should return the runs with status OK")
+  void should_return_runs() {
+    // given
+    var runs = List.of(
+        NotificationRunDto.builder().runName("run-1").totalRecipients(10).processedRecipients(5).recipientsPerSecond(2.5).build(),
+        NotificationRunDto.builder().runName("run-2").totalRecipients(20).build()
+    );
+    doReturn(runs).when(notificationRunService).getRuns(any());
+
+    // when
+    ValidatableMockMvcResponse validatableResponse = restAssuredUtils.doGet();
+
+    // then
+    validatableResponse.statusCode(OK.value());
+    var result = validatableResponse.extract().body().jsonPath().getList(".", NotificationRunDto.class);
+    assertThat(result).isEqualTo(runs);
+  }
+}
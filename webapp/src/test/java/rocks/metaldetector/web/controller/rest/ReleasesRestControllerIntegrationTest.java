@@ -12,15 +12,24 @@ import rocks.metaldetector.butler.facade.ReleaseService;
 import rocks.metaldetector.security.SecurityConfig;
 import rocks.metaldetector.service.artist.FollowArtistService;
 import rocks.metaldetector.service.dashboard.ArtistCollector;
+import rocks.metaldetector.service.dashboard.CommunitySnapshot;
+import rocks.metaldetector.service.dashboard.CommunitySnapshotService;
 import rocks.metaldetector.service.dashboard.ReleaseCollector;
 import rocks.metaldetector.testutil.BaseWebMvcTestWithSecurity;
 import rocks.metaldetector.web.api.request.ReleaseUpdateRequest;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static java.util.Collections.emptyList;
+import static org.mockito.Mockito.doReturn;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static rocks.metaldetector.support.Endpoints.Rest.ALL_RELEASES;
+import static rocks.metaldetector.support.Endpoints.Rest.ALL_RELEASES_EXPORT;
 import static rocks.metaldetector.support.Endpoints.Rest.RELEASES;
 import static rocks.metaldetector.support.Endpoints.Rest.TOP_UPCOMING_RELEASES;
 
@@ -44,6 +53,9 @@ public class ReleasesRestControllerIntegrationTest extends BaseWebMvcTestWithSec
   @SuppressWarnings("unused")
   private ReleaseCollector releaseCollector;
 
+  @MockitoBean
+  private CommunitySnapshotService communitySnapshotService;
+
   @Nested
   @DisplayName("Tests for user with ADMINISTRATOR role")
   class AdministratorRoleTest {
@@ -57,6 +69,15 @@ public class ReleasesRestControllerIntegrationTest extends BaseWebMvcTestWithSec
               .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("Administrator is allowed to GET on endpoint " + ALL_RELEASES_EXPORT + "'")
+    @WithMockUser(roles = "ADMINISTRATOR")
+    void admin_is_allowed_to_export_all_releases() throws Exception {
+      mockMvc.perform(get(ALL_RELEASES_EXPORT)
+              .accept(APPLICATION_NDJSON))
+              .andExpect(status().isOk());
+    }
+
     @Test
     @DisplayName("Administrator is allowed to GET on endpoint " + RELEASES + "'")
     @WithMockUser(roles = "ADMINISTRATOR")
@@ -90,6 +111,15 @@ public class ReleasesRestControllerIntegrationTest extends BaseWebMvcTestWithSec
               .andExpect(status().isForbidden());
     }
 
+    @Test
+    @DisplayName("User is not allowed to GET on endpoint " + ALL_RELEASES_EXPORT + "'")
+    @WithMockUser(roles = "USER")
+    void user_is_not_allowed_to_export_all_releases() throws Exception {
+      mockMvc.perform(get(ALL_RELEASES_EXPORT)
+              .accept(APPLICATION_NDJSON))
+              .andExpect(status().isForbidden());
+    }
+
     @Test
     @DisplayName("User is allowed to GET on endpoint " + RELEASES + "'")
     @WithMockUser(roles = "USER")
@@ -118,6 +148,9 @@ public class ReleasesRestControllerIntegrationTest extends BaseWebMvcTestWithSec
     @DisplayName("Anonymous user is allowed to GET on endpoint " + TOP_UPCOMING_RELEASES + "'")
     @WithAnonymousUser
     void anonymous_user_is_allowed_to_get_top_upcoming_releases() throws Exception {
+      doReturn(new CommunitySnapshot(emptyList(), emptyList(), LocalDateTime.now(), "version")).when(communitySnapshotService).getSnapshot();
+      doReturn(Duration.ofMinutes(10)).when(communitySnapshotService).getMaxAge();
+
       mockMvc.perform(get(TOP_UPCOMING_RELEASES))
           .andExpect(status().isOk());
     }
@@ -140,6 +173,15 @@ public class ReleasesRestControllerIntegrationTest extends BaseWebMvcTestWithSec
           .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @DisplayName("Anonymous user is not allowed to GET on endpoint " + ALL_RELEASES_EXPORT + "'")
+    @WithAnonymousUser
+    void anonymous_user_is_not_allowed_to_export_all_releases() throws Exception {
+      mockMvc.perform(get(ALL_RELEASES_EXPORT)
+              .accept(APPLICATION_NDJSON))
+          .andExpect(status().isUnauthorized());
+    }
+
     @Test
     @DisplayName("Anonymous user is not allowed to PUT on endpoint " + RELEASES + "'")
     @WithAnonymousUser
@@ -1,5 +1,7 @@
 package rocks.metaldetector.web.controller.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.restassured.http.ContentType;
 import io.restassured.module.mockmvc.RestAssuredMockMvc;
 import io.restassured.module.mockmvc.response.ValidatableMockMvcResponse;
@@ -25,6 +27,8 @@ import rocks.metaldetector.butler.facade.ReleaseService;
 import rocks.metaldetector.butler.facade.dto.ReleaseDto;
 import rocks.metaldetector.service.artist.FollowArtistService;
 import rocks.metaldetector.service.dashboard.ArtistCollector;
+import rocks.metaldetector.service.dashboard.CommunitySnapshot;
+import rocks.metaldetector.service.dashboard.CommunitySnapshotService;
 import rocks.metaldetector.service.dashboard.ReleaseCollector;
 import rocks.metaldetector.service.exceptions.RestExceptionsHandler;
 import rocks.metaldetector.support.DetectorSort;
@@ -40,27 +44,38 @@ import rocks.metaldetector.web.api.request.PaginatedReleasesRequest;
 import rocks.metaldetector.web.api.request.ReleaseUpdateRequest;
 import rocks.metaldetector.web.api.request.ReleasesRequest;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static java.time.temporal.ChronoUnit.DAYS;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static rocks.metaldetector.support.Endpoints.Rest.ALL_RELEASES;
+import static rocks.metaldetector.support.Endpoints.Rest.ALL_RELEASES_EXPORT;
 import static rocks.metaldetector.support.Endpoints.Rest.RELEASES;
 import static rocks.metaldetector.support.Endpoints.Rest.TOP_UPCOMING_RELEASES;
 import static rocks.metaldetector.testutil.DtoFactory.PaginatedReleaseRequestFactory;
@@ -80,9 +95,16 @@ class ReleasesRestControllerTest implements WithAssertions {
   @Mock
   private ReleaseCollector releaseCollector;
 
+  @Mock
+  private CommunitySnapshotService communitySnapshotService;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  private ReleasesRestController underTest;
+
   @BeforeEach
   void setUp() {
-    ReleasesRestController underTest = new ReleasesRestController(releasesService, followArtistService, artistCollector, releaseCollector);
+    underTest = new ReleasesRestController(releasesService, followArtistService, artistCollector, releaseCollector, communitySnapshotService, objectMapper);
     StandaloneMockMvcBuilder mockMvcBuilder = MockMvcBuilders.standaloneSetup(underTest, RestExceptionsHandler.class)
         .setCustomArgumentResolvers(new SortHandlerMethodArgumentResolver());
     RestAssuredMockMvc.standaloneSetup(mockMvcBuilder);
@@ -90,7 +112,7 @@ class ReleasesRestControllerTest implements WithAssertions {
 
   @AfterEach
   void tearDown() {
-    reset(releasesService, followArtistService, artistCollector, releaseCollector);
+    reset(releasesService, followArtistService, artistCollector, releaseCollector, communitySnapshotService);
   }
 
   @Nested
@@ -169,6 +191,56 @@ class ReleasesRestControllerTest implements WithAssertions {
     }
   }
 
+  @Nested
+  @DisplayName("Tests for endpoint '" + ALL_RELEASES_EXPORT + "'")
+  class StreamAllReleasesTest {
+
+    @Test
+    @DisplayName("Should stream all releases of the requested time range")
+    void should_pass_time_range_to_release_service() throws IOException {
+      // given
+      ReleasesRequest request = ReleaseRequestFactory.createDefault();
+
+      // when
+      var response = underTest.streamAllReleases(request);
+      response.getBody().writeTo(new ByteArrayOutputStream());
+
+      // then
+      verify(releasesService).streamAllReleases(eq(emptyList()), eq(new TimeRange(request.getDateFrom(), request.getDateTo())), any());
+    }
+
+    @Test
+    @DisplayName("Should not query the releases before the response body is written")
+    void should_query_releases_lazily() {
+      // when
+      var response = underTest.streamAllReleases(ReleaseRequestFactory.createDefault());
+
+      // then
+      assertThat(response.getHeaders().getContentType()).isEqualTo(APPLICATION_NDJSON);
+      verifyNoInteractions(releasesService);
+    }
+
+    @Test
+    @DisplayName("Should write one release per line")
+    void should_write_ndjson() throws IOException {
+      // given
+      var releases = List.of(ReleaseDtoFactory.withArtistName("A"), ReleaseDtoFactory.withArtistName("B"));
+      doAnswer(invocation -> invocation.<Function<Stream<ReleaseDto>, ?>>getArgument(2).apply(releases.stream()))
+          .when(releasesService).streamAllReleases(any(), any(), any());
+      var outputStream = new ByteArrayOutputStream();
+
+      // when
+      underTest.streamAllReleases(ReleaseRequestFactory.createDefault()).getBody().writeTo(outputStream);
+
+      // then
+      var lines = outputStream.toString(UTF_8).split("\n");
+      assertThat(lines).hasSize(2);
+      assertThat(objectMapper.readValue(lines[0], ReleaseDto.class)).isEqualTo(releases.get(0));
+      assertThat(objectMapper.readValue(lines[1], ReleaseDto.class)).isEqualTo(releases.get(1));
+      assertThat(outputStream.toString(UTF_8)).endsWith("\n");
+    }
+  }
+
   @Nested
   @TestInstance(PER_CLASS)
   @DisplayName("Tests for endpoint '" + RELEASES + "'")
@@ -431,13 +503,14 @@ class ReleasesRestControllerTest implements WithAssertions {
     @DisplayName("should call release collector with fixed time range")
     void should_call_release_collector_with_fixed_time_range() {
       // given
+      Map<String, Object> requestParams = Map.of("limit", 5);
       var expectedFromDate = LocalDate.now();
       var expectedToDate = expectedFromDate.plusMonths(6);
       var offset = new TemporalUnitWithinOffset(1, DAYS);
       ArgumentCaptor<TimeRange> timeRangeCaptor = ArgumentCaptor.forClass(TimeRange.class);
 
       // when
-      restAssuredUtils.doGet();
+      restAssuredUtils.doGet(requestParams);
 
       // then
       verify(releaseCollector).collectTopReleases(timeRangeCaptor.capture(), any(), anyInt());
@@ -456,7 +529,7 @@ class ReleasesRestControllerTest implements WithAssertions {
       doReturn(artists).when(artistCollector).collectTopFollowedArtists(anyInt());
 
       // when
-      restAssuredUtils.doGet();
+      restAssuredUtils.doGet(Map.of("limit", 5));
 
       // then
       verify(releaseCollector).collectTopReleases(any(), eq(artists), anyInt());
@@ -487,7 +560,7 @@ class ReleasesRestControllerTest implements WithAssertions {
       doReturn(releases).when(releaseCollector).collectTopReleases(any(), any(), anyInt());
 
       // when
-      var validatableResponse = restAssuredUtils.doGet();
+      var validatableResponse = restAssuredUtils.doGet(Map.of("limit", 5));
 
       // then
       var responseBody = validatableResponse.extract().as(ReleaseDto[].class);
@@ -498,10 +571,55 @@ class ReleasesRestControllerTest implements WithAssertions {
     @DisplayName("should return status code 200")
     void should_return_status_code_200() {
       // when
-      var result = restAssuredUtils.doGet();
+      var result = restAssuredUtils.doGet(Map.of("limit", 5));
 
       // then
       result.assertThat(status().isOk());
     }
+
+    @Test
+    @DisplayName("should return the most expected releases of the community snapshot for the default parameters")
+    void should_return_community_snapshot() {
+      // given
+      var releases = List.of(ReleaseDtoFactory.withArtistName("A"), ReleaseDtoFactory.withArtistName("B"));
+      doReturn(new CommunitySnapshot(emptyList(), releases, LocalDateTime.now(), "version")).when(communitySnapshotService).getSnapshot();
+      doReturn(Duration.ofMinutes(10)).when(communitySnapshotService).getMaxAge();
+
+      // when
+      var validatableResponse = restAssuredUtils.doGet();
+
+      // then
+      validatableResponse.statusCode(OK.value())
+          .header("Cache-Control", "max-age=600, public")
+          .header("ETag", "\"version\"");
+      var responseBody = validatableResponse.extract().as(ReleaseDto[].class);
+      assertThat(responseBody).containsExactly(releases.toArray(new ReleaseDto[0]));
+      verifyNoInteractions(artistCollector, releaseCollector);
+    }
+
+    @Test
+    @DisplayName("should return status code 304 if the community snapshot did not change")
+    void should_return_not_modified() {
+      // given
+      doReturn(new CommunitySnapshot(emptyList(), emptyList(), LocalDateTime.now(), "version")).when(communitySnapshotService).getSnapshot();
+      doReturn(Duration.ofMinutes(10)).when(communitySnapshotService).getMaxAge();
+
+      // when
+      var validatableResponse = restAssuredUtils.doGetWithHeader("If-None-Match", "\"version\"");
+
+      // then
+      validatableResponse.statusCode(NOT_MODIFIED.value());
+    }
+
+    @Test
+    @DisplayName("should not use the community snapshot for other parameters")
+    void should_not_use_community_snapshot() {
+      // when
+      var validatableResponse = restAssuredUtils.doGet(Map.of("limit", 5));
+
+      // then
+      validatableResponse.assertThat(header().doesNotExist("ETag"));
+      verifyNoInteractions(communitySnapshotService);
+    }
   }
 }
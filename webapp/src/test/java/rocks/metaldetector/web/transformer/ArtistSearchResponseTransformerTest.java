@@ -9,18 +9,21 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import rocks.metaldetector.discogs.facade.dto.DiscogsArtistSearchResultDto;
+import rocks.metaldetector.persistence.domain.artist.ArtistFollower;
 import rocks.metaldetector.persistence.domain.artist.ArtistRepository;
 import rocks.metaldetector.spotify.facade.dto.SpotifyArtistSearchResultDto;
 import rocks.metaldetector.support.Pagination;
 import rocks.metaldetector.web.api.response.ArtistSearchResponse;
 import rocks.metaldetector.web.api.response.ArtistSearchResponseEntryDto;
 
+import java.util.Collections;
 import java.util.List;
 
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static rocks.metaldetector.testutil.DtoFactory.ArtistSearchResponseEntryDtoFactory;
 import static rocks.metaldetector.testutil.DtoFactory.DiscogsArtistSearchResultDtoFactory;
 import static rocks.metaldetector.testutil.DtoFactory.SpotifyArtistSearchResultDtoFactory;
@@ -99,18 +102,17 @@ class ArtistSearchResponseTransformerTest implements WithAssertions {
   }
 
   @Test
-  @DisplayName("artistRepository is called for every spotify search result")
+  @DisplayName("artistRepository is called once with all spotify search results")
   void test_artist_repository_is_called_for_spotify_results() {
     // given
     SpotifyArtistSearchResultDto searchResultDto = SpotifyArtistSearchResultDtoFactory.createDefault();
-    doReturn(1).when(artistRepository).countArtistFollower(anyString());
 
     // when
     underTest.transformSpotify("query", searchResultDto);
 
     // then
-    verify(artistRepository).countArtistFollower(searchResultDto.getSearchResults().get(0).getId());
-    verify(artistRepository).countArtistFollower(searchResultDto.getSearchResults().get(1).getId());
+    verify(artistRepository).countArtistFollowerIn(List.of(searchResultDto.getSearchResults().get(0).getId(),
+                                                            searchResultDto.getSearchResults().get(1).getId()));
   }
 
   @Test
@@ -118,29 +120,29 @@ class ArtistSearchResponseTransformerTest implements WithAssertions {
   void test_count_follower_spotify() {
     // given
     SpotifyArtistSearchResultDto searchResultDto = SpotifyArtistSearchResultDtoFactory.createDefault();
+    var externalId = searchResultDto.getSearchResults().get(0).getId();
     var expectedFollowers = 2;
-    doReturn(expectedFollowers).when(artistRepository).countArtistFollower(anyString());
+    doReturn(List.of(createArtistFollower(externalId, expectedFollowers))).when(artistRepository).countArtistFollowerIn(any());
 
     // when
     var result = underTest.transformSpotify("query", searchResultDto);
 
     // then
     assertThat(result.getSearchResults().get(0).getMetalDetectorFollower()).isEqualTo(expectedFollowers);
-    assertThat(result.getSearchResults().get(1).getMetalDetectorFollower()).isEqualTo(expectedFollowers);
+    assertThat(result.getSearchResults().get(1).getMetalDetectorFollower()).isZero();
   }
 
   @Test
-  @DisplayName("artistRepository is called for every discogs search result")
+  @DisplayName("artistRepository is called once with all discogs search results")
   void test_artist_repository_is_called_for_discogs_results() {
     // given
     DiscogsArtistSearchResultDto searchResultDto = DiscogsArtistSearchResultDtoFactory.createDefault();
-    doReturn(1).when(artistRepository).countArtistFollower(anyString());
 
     // when
     underTest.transformDiscogs("query", searchResultDto);
 
     // then
-    verify(artistRepository).countArtistFollower(searchResultDto.getSearchResults().get(0).getId());
+    verify(artistRepository).countArtistFollowerIn(List.of(searchResultDto.getSearchResults().get(0).getId()));
   }
 
   @Test
@@ -148,8 +150,9 @@ class ArtistSearchResponseTransformerTest implements WithAssertions {
   void test_count_follower_discogs() {
     // given
     DiscogsArtistSearchResultDto searchResultDto = DiscogsArtistSearchResultDtoFactory.createDefault();
+    var externalId = searchResultDto.getSearchResults().get(0).getId();
     var expectedFollowers = 666;
-    doReturn(expectedFollowers).when(artistRepository).countArtistFollower(anyString());
+    doReturn(List.of(createArtistFollower(externalId, expectedFollowers))).when(artistRepository).countArtistFollowerIn(any());
 
     // when
     var result = underTest.transformDiscogs("query", searchResultDto);
@@ -158,6 +161,20 @@ class ArtistSearchResponseTransformerTest implements WithAssertions {
     assertThat(result.getSearchResults().get(0).getMetalDetectorFollower()).isEqualTo(expectedFollowers);
   }
 
+  @Test
+  @DisplayName("artistRepository is not called without search results")
+  void test_artist_repository_not_called_without_results() {
+    // given
+    SpotifyArtistSearchResultDto searchResultDto = SpotifyArtistSearchResultDtoFactory.createDefault();
+    searchResultDto.setSearchResults(Collections.emptyList());
+
+    // when
+    underTest.transformSpotify("query", searchResultDto);
+
+    // then
+    verifyNoInteractions(artistRepository);
+  }
+
   @Test
   @DisplayName("Discogs pagination is transformed")
   void test_transform_discogs_pagination() {
@@ -215,4 +232,18 @@ class ArtistSearchResponseTransformerTest implements WithAssertions {
     // then
     assertThat(result.getQuery()).isEqualTo(query);
   }
-}
\ No newline at end of file
+
+  private ArtistFollower createArtistFollower(String externalId, int follower) {
+    return new ArtistFollower() {
+      @Override
+      public String getExternalId() {
+        return externalId;
+      }
+
+      @Override
+      public int getFollower() {
+        return follower;
+      }
+    };
+  }
+}